@@ -0,0 +1,93 @@
+package com.securacore.app.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient concurrency limit: compares short-term latency with a slowly moving baseline and
+ * shrinks the in-flight limit as soon as requests start queueing, growing it back by roughly
+ * sqrt(limit) per sample while latency holds.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_ALPHA = 0.1;
+    private static final double LONG_ALPHA = 0.01;
+    private static final double SMOOTHING = 0.2;
+    private static final double TOLERANCE = 1.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // guarded by this
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot if fewer than limit * scale requests are in flight.
+     * scale lets a higher-priority class squeeze this one without touching its own estimate.
+     */
+    public boolean tryAcquire(double scale) {
+        int allowed = Math.max(minLimit, (int) (limit * scale));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) return false;
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    /** Takes a slot regardless of the limit; used for classes that are measured but never shed. */
+    public void acquire() {
+        inFlight.incrementAndGet();
+    }
+
+    public void release(long rttNanos) {
+        int before = inFlight.getAndDecrement();
+        onSample(rttNanos, before);
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion) {
+        if (shortRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * SHORT_ALPHA;
+        longRtt += (rttNanos - longRtt) * LONG_ALPHA;
+
+        // Let the baseline recover quickly once a burst has drained
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+
+        // An app-limited class says nothing about how much more it could take
+        if (inFlightAtCompletion < limit / 2) return;
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        double next = limit * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    /**
+     * 1.0 while latency is within tolerance of its baseline, falling towards 0 as it degrades.
+     */
+    public synchronized double health() {
+        if (shortRtt == 0) return 1.0;
+        return Math.min(1.0, TOLERANCE * longRtt / shortRtt);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
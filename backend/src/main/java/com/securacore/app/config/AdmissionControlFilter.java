@@ -0,0 +1,183 @@
+package com.securacore.app.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Classifies each request and admits it against its class limit. Gate requests always run and
+ * only feed latency samples; standard and reporting requests are capped by their own adaptive
+ * limit, further scaled down while gate latency is degrading, and get 429 when over it. A
+ * streamed response keeps its slot, and is timed, until its body has been written. Event streams
+ * stay open for as long as the client is connected, so they give their slot back, timed to the
+ * handler's return, as soon as the stream is set up.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionProperties properties;
+    private final List<PathPattern> gatePatterns;
+    private final List<PathPattern> reportingPatterns;
+    private final List<PathPattern> streamPatterns;
+    private final AdaptiveConcurrencyLimiter gateLimiter = new AdaptiveConcurrencyLimiter(1, 1, Integer.MAX_VALUE);
+    private final AdaptiveConcurrencyLimiter standardLimiter;
+    private final AdaptiveConcurrencyLimiter reportingLimiter;
+
+    @Autowired
+    public AdmissionControlFilter(AdmissionProperties properties) {
+        this.properties = properties;
+        this.gatePatterns = parse(properties.getGatePaths());
+        this.reportingPatterns = parse(properties.getReportingPaths());
+        this.streamPatterns = parse(properties.getStreamPaths());
+        this.standardLimiter = limiterFor(properties.getStandard());
+        this.reportingLimiter = limiterFor(properties.getReporting());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        RequestClass requestClass = classify(request);
+        AdaptiveConcurrencyLimiter limiter = limiterFor(requestClass);
+
+        if (requestClass == RequestClass.GATE) {
+            limiter.acquire();
+        } else if (!limiter.tryAcquire(scaleFor(requestClass))) {
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        RequestClass.bind(requestClass);
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted() && !isEventStream(request, response)) {
+                // Streamed bodies are written after this returns; the slot is held until they finish
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(limiter, start));
+                async = true;
+            }
+        } finally {
+            RequestClass.clear();
+            if (!async) limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    RequestClass classify(HttpServletRequest request) {
+        PathContainer path = pathOf(request);
+        if (matches(gatePatterns, path)) return RequestClass.GATE;
+        if (matches(reportingPatterns, path)) return RequestClass.REPORTING;
+        return RequestClass.STANDARD;
+    }
+
+    private double scaleFor(RequestClass requestClass) {
+        double gateHealth = gateLimiter.health();
+        // Reporting yields harder than ordinary traffic when the gate slows down
+        return requestClass == RequestClass.REPORTING ? gateHealth * gateHealth : gateHealth;
+    }
+
+    AdaptiveConcurrencyLimiter limiterFor(RequestClass requestClass) {
+        return switch (requestClass) {
+            case GATE -> gateLimiter;
+            case STANDARD -> standardLimiter;
+            case REPORTING -> reportingLimiter;
+        };
+    }
+
+    // An emitter only sets its content type with the first event, so the known stream paths are matched too
+    private boolean isEventStream(HttpServletRequest request, HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)
+                || matches(streamPatterns, pathOf(request));
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        long retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        // Rejected before Spring MVC applies the CORS mapping from WebConfig
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        response.setHeader("Access-Control-Expose-Headers", "Retry-After");
+        response.setContentType("text/plain");
+        response.getWriter().write("Server busy, retry later");
+    }
+
+    // Timeouts and errors are followed by a completion; the slot is released on the first of them
+    private static class ReleaseOnCompletion implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(AdaptiveConcurrencyLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A restarted async cycle drops its listeners; stay registered until the real end
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private static PathContainer pathOf(HttpServletRequest request) {
+        return PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    private static boolean matches(List<PathPattern> patterns, PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) return true;
+        }
+        return false;
+    }
+
+    private static List<PathPattern> parse(List<String> paths) {
+        return paths.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    private static AdaptiveConcurrencyLimiter limiterFor(AdmissionProperties.Limits limits) {
+        return new AdaptiveConcurrencyLimiter(limits.getInitialLimit(), limits.getMinLimit(), limits.getMaxLimit());
+    }
+}
@@ -0,0 +1,175 @@
+package com.securacore.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties("securacore.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    private List<String> gatePaths = new ArrayList<>(List.of(
+            "/guard/validate-visit",
+            "/guard/request-visit",
+            "/guard/request-visit-status",
+            "/guard/visitor-suggestions",
+            "/guard/visitor/*/checkin",
+            "/guard/visitor/*/photo",
+            "/guard/validate-recurring-visit",
+            "/guard/recurring-visit/*/checkin",
+            "/guard/package-checkout",
+            "/guard/package-pickup",
+            "/guard/packages/pending-count",
+            "/vehicle/classify",
+            "/vehicle/anpr/reads",
+            "/qr-visitor/validate",
+            "/qr-visitor/checkin/*",
+            "/qr-visitor/photo/*",
+            "/qr-visitor/checkout/*"
+    ));
+
+    private List<String> reportingPaths = new ArrayList<>(List.of(
+            "/qr-visitor/history",
+            "/qr-visitor/history/**",
+            "/admin/flat-visitor/*",
+            "/admin/visitors/on",
+            "/admin/active-visitors",
+            "/admin/guard-attendance",
+            "/admin/reports/**",
+            "/admin/exports/**",
+            "/admin/jobs/*/result",
+            "/admin/analytics/**",
+            "/admin/dashboard",
+            "/admin/import/**",
+            "/admin/residents",
+            "/admin/get-residents",
+            "/admin/guards",
+            "/admin/get-guards",
+            "/admin/guards-by-date",
+            "/admin/guard/on",
+            "/vehicle/entries",
+            "/admin/photos/**"
+    ));
+
+    // Event streams stay open while the client is connected; they hold no slot once set up
+    private List<String> streamPaths = new ArrayList<>(List.of(
+            "/guard/decisions",
+            "/resident/notifications",
+            "/admin/jobs/*/events"
+    ));
+
+    private Limits standard = new Limits(20, 4, 100);
+
+    private Limits reporting = new Limits(4, 1, 16);
+
+    // Connections reserved for gate requests on the primary; 0 shares the main pool
+    private int gatePoolSize = 4;
+
+    private Duration retryAfter = Duration.ofSeconds(2);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getGatePaths() {
+        return gatePaths;
+    }
+
+    public void setGatePaths(List<String> gatePaths) {
+        this.gatePaths = gatePaths;
+    }
+
+    public List<String> getReportingPaths() {
+        return reportingPaths;
+    }
+
+    public void setReportingPaths(List<String> reportingPaths) {
+        this.reportingPaths = reportingPaths;
+    }
+
+    public List<String> getStreamPaths() {
+        return streamPaths;
+    }
+
+    public void setStreamPaths(List<String> streamPaths) {
+        this.streamPaths = streamPaths;
+    }
+
+    public Limits getStandard() {
+        return standard;
+    }
+
+    public void setStandard(Limits standard) {
+        this.standard = standard;
+    }
+
+    public Limits getReporting() {
+        return reporting;
+    }
+
+    public void setReporting(Limits reporting) {
+        this.reporting = reporting;
+    }
+
+    public int getGatePoolSize() {
+        return gatePoolSize;
+    }
+
+    public void setGatePoolSize(int gatePoolSize) {
+        this.gatePoolSize = gatePoolSize;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public static class Limits {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+
+        public Limits() {
+        }
+
+        public Limits(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+}
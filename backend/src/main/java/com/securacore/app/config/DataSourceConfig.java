@@ -0,0 +1,94 @@
+package com.securacore.app.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties({ReplicaProperties.class, AdmissionProperties.class, ShardingProperties.class,
+        IdempotencyProperties.class})
+public class DataSourceConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties,
+                                                         ReplicaProperties replicaProperties,
+                                                         AdmissionProperties admissionProperties,
+                                                         ShardingProperties shardingProperties,
+                                                         Environment environment) {
+        Binder binder = Binder.get(environment);
+        int gatePoolSize = admissionProperties.isEnabled() ? admissionProperties.getGatePoolSize() : 0;
+        String driver = properties.determineDriverClassName();
+
+        List<ReadWriteRoutingDataSource> shards = new ArrayList<>();
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        shards.add(shard(primary, driver, properties.determineUsername(), properties.determinePassword(),
+                replicaProperties.getReplicas(), replicaProperties, gatePoolSize));
+
+        for (ShardingProperties.Shard config : shardingProperties.getShards()) {
+            String name = "shard-" + shards.size();
+            String username = config.getUsername() != null ? config.getUsername() : properties.determineUsername();
+            String password = config.getPassword() != null ? config.getPassword() : properties.determinePassword();
+            HikariDataSource shardPrimary = pool(name, driver, config.getUrl(), username, password, config.getMaximumPoolSize());
+            shards.add(shard(shardPrimary, driver, username, password, config.getReplicas(), replicaProperties, gatePoolSize));
+        }
+
+        return new ShardRoutingDataSource(shards, shardingProperties.getSocietyShards());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    private ReadWriteRoutingDataSource shard(HikariDataSource primary, String driver, String username, String password,
+                                             List<ReplicaProperties.Replica> replicaConfigs,
+                                             ReplicaProperties replicaProperties, int gatePoolSize) {
+        String name = primary.getPoolName();
+        List<ReadWriteRoutingDataSource.ReplicaTarget> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaConfigs.size(); i++) {
+            ReplicaProperties.Replica replica = replicaConfigs.get(i);
+            HikariDataSource dataSource = pool(name + "-replica-" + i, driver, replica.getUrl(),
+                    replica.getUsername() != null ? replica.getUsername() : username,
+                    replica.getPassword() != null ? replica.getPassword() : password,
+                    replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.add(new ReadWriteRoutingDataSource.ReplicaTarget(dataSource.getPoolName(), dataSource));
+        }
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas,
+                replicaProperties.getMaxStaleness(), replicaProperties.getFailureCooldown());
+
+        if (gatePoolSize > 0) {
+            HikariDataSource gatePool = pool(name + "-gate", driver, primary.getJdbcUrl(), username, password, gatePoolSize);
+            gatePool.setMinimumIdle(gatePoolSize);
+            routing.setGatePrimary(gatePool);
+        }
+        return routing;
+    }
+
+    private HikariDataSource pool(String name, String driver, String url, String username, String password, int size) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setDriverClassName(driver);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(size);
+        return dataSource;
+    }
+}
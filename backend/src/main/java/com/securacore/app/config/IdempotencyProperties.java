@@ -0,0 +1,80 @@
+package com.securacore.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties("securacore.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    // POST endpoints that honour the Idempotency-Key header
+    private List<String> paths = new ArrayList<>(List.of(
+            "/guard/request-visit",
+            "/guard/checkin/*",
+            "/guard/checkout/*",
+            "/guard/package-checkout",
+            "/qr-visitor/create"
+    ));
+
+    private Duration ttl = Duration.ofHours(24);
+
+    private int maxEntries = 100_000;
+
+    private DataSize maxBodySize = DataSize.ofKilobytes(64);
+
+    // Also keep responses in the idempotency_record table so retries survive a restart
+    private boolean persistent = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public DataSize getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    public void setPersistent(boolean persistent) {
+        this.persistent = persistent;
+    }
+}
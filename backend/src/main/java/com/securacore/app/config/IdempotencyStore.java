@@ -0,0 +1,187 @@
+package com.securacore.app.config;
+
+import com.securacore.app.entity.IdempotencyRecord;
+import com.securacore.app.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Responses remembered per idempotency key. Entries are kept in insertion order, which with a
+ * single time-to-live is also expiry order, so both the size bound and expiry only ever drop
+ * from the head. A key is claimed before the request runs, so a retry that arrives while the
+ * original is still being served is told to wait instead of running twice.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public enum Outcome {
+        // First time this key is seen; run the request and complete or release the claim
+        CLAIMED,
+        REPLAY,
+        IN_PROGRESS,
+        // Same key sent with a different request
+        MISMATCH
+    }
+
+    public record Response(int status, String contentType, byte[] body) {
+    }
+
+    public record Claim(Outcome outcome, Response response) {
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final long createdAtMillis;
+        volatile Response response;
+
+        Entry(String fingerprint, long createdAtMillis, Response response) {
+            this.fingerprint = fingerprint;
+            this.createdAtMillis = createdAtMillis;
+            this.response = response;
+        }
+    }
+
+    private final IdempotencyProperties properties;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    @Autowired
+    IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyProperties properties) {
+        this.properties = properties;
+    }
+
+    public Claim claim(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            expire(now);
+            Entry entry = live(key, now);
+            if (entry != null) return claimOf(entry, fingerprint);
+            if (!properties.isPersistent()) {
+                put(key, new Entry(fingerprint, now, null));
+                return new Claim(Outcome.CLAIMED, null);
+            }
+        }
+
+        // Looked up outside the lock; a concurrent first attempt is settled by checking again under it
+        IdempotencyRecord record = idempotencyRecordRepository.findById(key).orElse(null);
+        Entry stored = null;
+        if (record != null) {
+            long createdAt = record.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            if (createdAt > now - properties.getTtl().toMillis()) {
+                stored = new Entry(record.getFingerprint(), createdAt,
+                        new Response(record.getStatus(), record.getContentType(), record.getBody()));
+            }
+        }
+        synchronized (entries) {
+            Entry entry = live(key, now);
+            if (entry != null) return claimOf(entry, fingerprint);
+            if (stored != null) {
+                put(key, stored);
+                return claimOf(stored, fingerprint);
+            }
+            put(key, new Entry(fingerprint, now, null));
+            return new Claim(Outcome.CLAIMED, null);
+        }
+    }
+
+    public void complete(String key, String fingerprint, Response response) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) return;
+        entry.response = response;
+        if (!properties.isPersistent()) return;
+
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setRequestKey(key);
+        record.setFingerprint(fingerprint);
+        record.setStatus(response.status());
+        record.setContentType(response.contentType());
+        record.setBody(response.body());
+        record.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.createdAtMillis), ZoneId.systemDefault()));
+        try {
+            idempotencyRecordRepository.save(record);
+        } catch (RuntimeException e) {
+            // The in-memory entry still covers retries to this instance
+            log.warn("Could not persist idempotency record {}", key, e);
+        }
+    }
+
+    /**
+     * Forgets a claim whose request failed, so a retry runs it again.
+     */
+    public void release(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.response == null) entries.remove(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${securacore.idempotency.purge-interval:10m}")
+    public void purge() {
+        synchronized (entries) {
+            expire(System.currentTimeMillis());
+        }
+        if (!properties.isPersistent()) return;
+        LocalDateTime before = LocalDateTime.now().minus(properties.getTtl());
+        for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            TenantContext.bind(TenantContext.ROOT);
+            TenantContext.bindShard(shard);
+            try {
+                idempotencyRecordRepository.deleteCreatedBefore(before);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private Claim claimOf(Entry entry, String fingerprint) {
+        if (!entry.fingerprint.equals(fingerprint)) return new Claim(Outcome.MISMATCH, null);
+        Response response = entry.response;
+        return response == null ? new Claim(Outcome.IN_PROGRESS, null) : new Claim(Outcome.REPLAY, response);
+    }
+
+    // Entries loaded back from the table can sit behind newer ones, so expiry is checked on read too
+    private Entry live(String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.createdAtMillis >= now - properties.getTtl().toMillis()) return entry;
+        entries.remove(key);
+        return null;
+    }
+
+    private void put(String key, Entry entry) {
+        entries.put(key, entry);
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > properties.getMaxEntries() && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private void expire(long now) {
+        long cutoff = now - properties.getTtl().toMillis();
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (eldest.hasNext()) {
+            if (eldest.next().createdAtMillis >= cutoff) break;
+            eldest.remove();
+        }
+    }
+}
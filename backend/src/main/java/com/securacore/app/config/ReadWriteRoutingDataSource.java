@@ -0,0 +1,205 @@
+package com.securacore.app.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only service transactions to a replica and everything else to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy so the read-only flag of the transaction
+ * is known by the time the physical connection is picked.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final int MAX_TRACKED_CLIENTS = 10_000;
+
+    // SimpleJpaRepository is annotated @Transactional(readOnly = true) at class level, so a bare
+    // repository call like findById() outside a service transaction would otherwise land on a
+    // replica and read its own writes stale.
+    private static final String REPOSITORY_TX_PREFIX = "org.springframework.data.";
+
+    private static final ThreadLocal<String> currentClient = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private DataSource gatePrimary;
+    private final List<ReplicaTarget> replicas;
+    private final long maxStalenessMillis;
+    private final long failureCooldownMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Long> lastWriteByClient = new ConcurrentHashMap<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<ReplicaTarget> replicas,
+                                      Duration maxStaleness, Duration failureCooldown) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.failureCooldownMillis = failureCooldown.toMillis();
+    }
+
+    public static void bindClient(String clientKey) {
+        currentClient.set(clientKey);
+    }
+
+    public static void clearClient() {
+        currentClient.remove();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ReplicaTarget replica = selectReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.unavailableUntil = System.currentTimeMillis() + failureCooldownMillis;
+            }
+        }
+        registerWriteIfNeeded();
+        if (gatePrimary != null && RequestClass.current() == RequestClass.GATE) {
+            return gatePrimary.getConnection();
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Primary pool reserved for gate requests so reporting load can never hold every connection.
+     */
+    public void setGatePrimary(DataSource gatePrimary) {
+        this.gatePrimary = gatePrimary;
+    }
+
+    public List<ReplicaTarget> getReplicas() {
+        return replicas;
+    }
+
+    public long getMaxStalenessMillis() {
+        return maxStalenessMillis;
+    }
+
+    ReplicaTarget selectReplica() {
+        if (replicas.isEmpty() || !isReplicaEligible() || isPinnedToPrimary()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaTarget candidate = replicas.get((start + i) % replicas.size());
+            if (candidate.isUsable(now, maxStalenessMillis)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean isReplicaEligible() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name == null || !name.startsWith(REPOSITORY_TX_PREFIX);
+    }
+
+    private boolean isPinnedToPrimary() {
+        String client = currentClient.get();
+        if (client == null) return false;
+        Long lastWrite = lastWriteByClient.get(client);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < maxStalenessMillis;
+    }
+
+    private void registerWriteIfNeeded() {
+        String client = currentClient.get();
+        if (client == null
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, client);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(client);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadWriteRoutingDataSource.this);
+            }
+        });
+    }
+
+    private void recordWrite(String client) {
+        long now = System.currentTimeMillis();
+        lastWriteByClient.put(client, now);
+        if (lastWriteByClient.size() > MAX_TRACKED_CLIENTS) {
+            lastWriteByClient.values().removeIf(written -> now - written >= maxStalenessMillis);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        close(primary);
+        close(gatePrimary);
+        for (ReplicaTarget replica : replicas) {
+            close(replica.dataSource);
+        }
+    }
+
+    private void close(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+    }
+
+    public static class ReplicaTarget {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long lagMillis;
+        private volatile long unavailableUntil;
+
+        public ReplicaTarget(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        public void setLagMillis(long lagMillis) {
+            this.lagMillis = lagMillis;
+        }
+
+        boolean isUsable(long now, long maxStalenessMillis) {
+            return now >= unavailableUntil && lagMillis <= maxStalenessMillis;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.securacore.app.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Probes each replica with securacore.datasource.lag-query and takes replicas that fall further
+ * behind than max-staleness out of rotation until they catch up.
+ */
+@Component
+public class ReplicaLagMonitor {
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    ReplicaProperties replicaProperties;
+
+    @Scheduled(fixedDelayString = "${securacore.datasource.lag-check-interval:5s}")
+    public void checkLag() {
+        String lagQuery = replicaProperties.getLagQuery();
+        if (lagQuery == null || lagQuery.isBlank()) return;
+
+        for (ReadWriteRoutingDataSource shard : shardRoutingDataSource.getShards()) {
+            for (ReadWriteRoutingDataSource.ReplicaTarget replica : shard.getReplicas()) {
+                replica.setLagMillis(measureLagMillis(replica, lagQuery));
+            }
+        }
+    }
+
+    private long measureLagMillis(ReadWriteRoutingDataSource.ReplicaTarget replica, String lagQuery) {
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) return Long.MAX_VALUE;
+            double seconds = rs.getDouble(1);
+            // A NULL lag means replication is stopped
+            return rs.wasNull() ? Long.MAX_VALUE : (long) (seconds * 1000);
+        } catch (SQLException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
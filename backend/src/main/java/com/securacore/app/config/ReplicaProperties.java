@@ -0,0 +1,105 @@
+package com.securacore.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties("securacore.datasource")
+public class ReplicaProperties {
+
+    // Read replicas used by @Transactional(readOnly = true) service methods; empty means primary only
+    private List<Replica> replicas = new ArrayList<>();
+
+    // How far behind the primary a replica may be before reads stop going to it. Also the window
+    // during which a client that just wrote keeps reading from the primary.
+    private Duration maxStaleness = Duration.ofSeconds(2);
+
+    // Optional query returning the replica lag in seconds, e.g. a Seconds_Behind_Source probe
+    private String lagQuery;
+
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    // How long a replica that refused a connection is skipped before being tried again
+    private Duration failureCooldown = Duration.ofSeconds(30);
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public Duration getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    public void setMaxStaleness(Duration maxStaleness) {
+        this.maxStaleness = maxStaleness;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public Duration getLagCheckInterval() {
+        return lagCheckInterval;
+    }
+
+    public void setLagCheckInterval(Duration lagCheckInterval) {
+        this.lagCheckInterval = lagCheckInterval;
+    }
+
+    public Duration getFailureCooldown() {
+        return failureCooldown;
+    }
+
+    public void setFailureCooldown(Duration failureCooldown) {
+        this.failureCooldown = failureCooldown;
+    }
+
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+}
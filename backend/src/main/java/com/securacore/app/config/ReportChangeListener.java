@@ -0,0 +1,81 @@
+package com.securacore.app.config;
+
+import com.securacore.app.entity.GuardAttendance;
+import com.securacore.app.entity.QRVisitor;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.service.ReportChangeTracker;
+import com.securacore.app.service.VisitVersions;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells {@link ReportChangeTracker} and {@link VisitVersions} about visitor and attendance rows
+ * saved through JPA, once the transaction has committed. Bulk and native updates bypass Hibernate
+ * events; their callers mark both themselves.
+ */
+@Component
+public class ReportChangeListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, InitializingBean {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    ReportChangeTracker reportChangeTracker;
+
+    @Autowired
+    VisitVersions visitVersions;
+
+    @Override
+    public void afterPropertiesSet() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Visitor.class || type == QRVisitor.class || type == GuardAttendance.class;
+    }
+
+    private void changed(Object entity) {
+        if (entity instanceof Visitor visitor) {
+            reportChangeTracker.changed(ReportChangeTracker.Dataset.VISITORS, visitor.getSocietyId(), visitor.getVisitDate());
+            visitVersions.changed(visitor.getSocietyId(), visitor.getFlatId(), visitor.getVisitDate());
+        } else if (entity instanceof QRVisitor visitor) {
+            reportChangeTracker.changed(ReportChangeTracker.Dataset.VISITORS, visitor.getSocietyId(), visitor.getVisitDate());
+            visitVersions.changed(visitor.getSocietyId(), visitor.getFlatId(), visitor.getVisitDate());
+        } else if (entity instanceof GuardAttendance attendance) {
+            reportChangeTracker.changed(ReportChangeTracker.Dataset.ATTENDANCE, attendance.getSocietyId(), attendance.getAttendanceDate());
+        }
+    }
+}
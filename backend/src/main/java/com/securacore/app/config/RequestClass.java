@@ -0,0 +1,25 @@
+package com.securacore.app.config;
+
+/**
+ * Priority class of the request being served on the current thread. Gate operations are never
+ * shed; reporting is the first to go when the gate slows down.
+ */
+public enum RequestClass {
+    GATE,
+    STANDARD,
+    REPORTING;
+
+    private static final ThreadLocal<RequestClass> current = new ThreadLocal<>();
+
+    public static RequestClass current() {
+        return current.get();
+    }
+
+    static void bind(RequestClass requestClass) {
+        current.set(requestClass);
+    }
+
+    static void clear() {
+        current.remove();
+    }
+}
@@ -0,0 +1,126 @@
+package com.securacore.app.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the shard owning the current society, then lets that shard's read/write router pick
+ * the primary, gate partition or replica.
+ * <p>
+ * Societies without an explicit placement are hashed across the shards once, on first use, and
+ * that placement is recorded in society_shard on shard 0. Later lookups go by the recorded row,
+ * so adding a shard only changes where new societies land.
+ */
+public class ShardRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private final List<ReadWriteRoutingDataSource> shards;
+    private final Map<String, Integer> societyShards;
+    private final Map<String, Integer> recordedShards = new ConcurrentHashMap<>();
+
+    public ShardRoutingDataSource(List<ReadWriteRoutingDataSource> shards, Map<String, Integer> societyShards) {
+        this.shards = shards;
+        this.societyShards = societyShards;
+        for (Map.Entry<String, Integer> placement : societyShards.entrySet()) {
+            if (placement.getValue() < 0 || placement.getValue() >= shards.size()) {
+                throw new IllegalStateException("Society " + placement.getKey() + " is placed on unknown shard " + placement.getValue());
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return currentShard().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return currentShard().getConnection(username, password);
+    }
+
+    public int shardFor(String society) {
+        try {
+            return placementOf(society);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not look up the shard of society " + society, e);
+        }
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public List<ReadWriteRoutingDataSource> getShards() {
+        return shards;
+    }
+
+    private ReadWriteRoutingDataSource currentShard() throws SQLException {
+        Integer explicit = TenantContext.getShard();
+        if (explicit != null) return shards.get(explicit);
+        // The root society only reaches here outside a fan-out, e.g. for schema work at startup
+        if (TenantContext.isRoot()) return shards.get(0);
+        return shards.get(placementOf(TenantContext.getSociety()));
+    }
+
+    private int placementOf(String society) throws SQLException {
+        Integer placed = societyShards.get(society);
+        if (placed != null) return placed;
+        // Pre-tenancy data lives on shard 0
+        if (TenantContext.DEFAULT_SOCIETY.equals(society)) return 0;
+        placed = recordedShards.get(society);
+        if (placed != null) return placed;
+        placed = record(society);
+        recordedShards.put(society, placed);
+        return placed;
+    }
+
+    // The first instance to insert wins; everyone else reads its row back
+    private int record(String society) throws SQLException {
+        try (Connection connection = shards.get(0).getPrimary().getConnection()) {
+            Integer recorded = recorded(connection, society);
+            if (recorded != null) return recorded;
+            int placed = Math.floorMod(society.hashCode(), shards.size());
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO society_shard (society_id, shard_index) VALUES (?, ?)")) {
+                insert.setString(1, society);
+                insert.setInt(2, placed);
+                insert.executeUpdate();
+                return placed;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                recorded = recorded(connection, society);
+                if (recorded == null) throw e;
+                return recorded;
+            }
+        }
+    }
+
+    private Integer recorded(Connection connection, String society) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT shard_index FROM society_shard WHERE society_id = ?")) {
+            select.setString(1, society);
+            try (ResultSet rows = select.executeQuery()) {
+                if (!rows.next()) return null;
+                int shard = rows.getInt(1);
+                if (shard >= shards.size()) {
+                    throw new IllegalStateException("Society " + society + " is recorded on unknown shard " + shard);
+                }
+                return shard;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (ReadWriteRoutingDataSource shard : shards) {
+            shard.destroy();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.securacore.app.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Runs a listing query for the current society, or on every shard in parallel when the caller
+ * asked for all societies, concatenating the per-shard results.
+ */
+@Component
+public class ShardScatterGather {
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    public <T> List<T> collect(Supplier<List<T>> query) {
+        if (!TenantContext.isRoot()) {
+            return query.get();
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<T>>> perShard = new ArrayList<>();
+            for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+                int target = shard;
+                perShard.add(executor.submit(() -> {
+                    TenantContext.bind(TenantContext.ROOT);
+                    TenantContext.bindShard(target);
+                    try {
+                        return query.get();
+                    } finally {
+                        TenantContext.clear();
+                    }
+                }));
+            }
+
+            List<T> merged = new ArrayList<>();
+            for (Future<List<T>> result : perShard) {
+                merged.addAll(result.get());
+            }
+            return merged;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+    }
+}
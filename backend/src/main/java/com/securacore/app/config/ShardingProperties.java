@@ -0,0 +1,83 @@
+package com.securacore.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties("securacore.sharding")
+public class ShardingProperties {
+
+    // Shards beyond shard 0, which is always spring.datasource. Each must carry the same schema.
+    private List<Shard> shards = new ArrayList<>();
+
+    // Explicit society -> shard index placement; unlisted societies are hashed across shards on first
+    // use and keep that shard, recorded in society_shard, when shards are added later
+    private Map<String, Integer> societyShards = new HashMap<>();
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    public Map<String, Integer> getSocietyShards() {
+        return societyShards;
+    }
+
+    public void setSocietyShards(Map<String, Integer> societyShards) {
+        this.societyShards = societyShards;
+    }
+
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private List<ReplicaProperties.Replica> replicas = new ArrayList<>();
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public List<ReplicaProperties.Replica> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<ReplicaProperties.Replica> replicas) {
+            this.replicas = replicas;
+        }
+    }
+}
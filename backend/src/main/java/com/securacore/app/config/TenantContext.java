@@ -0,0 +1,45 @@
+package com.securacore.app.config;
+
+/**
+ * Society (tenant) served on the current thread, plus an optional explicit shard used when a
+ * platform-wide query fans out across shards.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT_SOCIETY = "default";
+
+    // Sees every society; only accepted on reads, which are then scatter-gathered across shards
+    public static final String ROOT = "*";
+
+    private static final ThreadLocal<String> currentSociety = new ThreadLocal<>();
+    private static final ThreadLocal<Integer> currentShard = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getSociety() {
+        String society = currentSociety.get();
+        return society != null ? society : DEFAULT_SOCIETY;
+    }
+
+    public static boolean isRoot() {
+        return ROOT.equals(currentSociety.get());
+    }
+
+    public static Integer getShard() {
+        return currentShard.get();
+    }
+
+    public static void bind(String society) {
+        currentSociety.set(society);
+    }
+
+    public static void bindShard(int shard) {
+        currentShard.set(shard);
+    }
+
+    public static void clear() {
+        currentSociety.remove();
+        currentShard.remove();
+    }
+}
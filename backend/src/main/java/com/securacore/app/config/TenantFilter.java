@@ -0,0 +1,51 @@
+package com.securacore.app.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the society from the X-Society-Id header. Requests without it are served as the
+ * default society so single-society deployments keep working unchanged.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String SOCIETY_HEADER = "X-Society-Id";
+
+    private static final Pattern SOCIETY_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String society = request.getHeader(SOCIETY_HEADER);
+        if (society == null || society.isBlank()) {
+            society = TenantContext.DEFAULT_SOCIETY;
+        } else if (TenantContext.ROOT.equals(society)) {
+            if (!"GET".equals(request.getMethod())) {
+                response.sendError(HttpStatus.BAD_REQUEST.value(), "All-societies access is read-only");
+                return;
+            }
+        } else if (!SOCIETY_ID.matcher(society).matches()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + SOCIETY_HEADER);
+            return;
+        }
+
+        TenantContext.bind(society);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
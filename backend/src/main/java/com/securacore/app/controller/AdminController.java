@@ -1,19 +1,62 @@
 package com.securacore.app.controller;
 
+import com.securacore.app.config.ShardScatterGather;
+import com.securacore.app.dto.Analytics.DwellTimeDTO;
+import com.securacore.app.dto.Analytics.RepeatVisitorDTO;
+import com.securacore.app.dto.Analytics.UniqueVisitorsDTO;
+import com.securacore.app.dto.Dashboard.DashboardDTO;
+import com.securacore.app.dto.Directory.DirectoryPageDTO;
+import com.securacore.app.dto.Occupancy.OccupancySnapshotDTO;
+import com.securacore.app.dto.Occupancy.PresentVisitorDTO;
+import com.securacore.app.dto.Import.ImportReportDTO;
+import com.securacore.app.dto.Report.ReportJobDTO;
+import com.securacore.app.dto.Report.ReportJobRequestDTO;
 import com.securacore.app.dto.Resident.CreateResidentDTO;
 import com.securacore.app.dto.Resident.ResidentResponseDTO;
+import com.securacore.app.dto.Roster.DutyGuardDTO;
+import com.securacore.app.dto.Roster.DutyPostDTO;
+import com.securacore.app.dto.Roster.GuardPostDTO;
+import com.securacore.app.dto.Roster.RosterAssignmentDTO;
+import com.securacore.app.dto.Visitor.EscalationStatsDTO;
+import com.securacore.app.dto.Watchlist.WatchlistEntryDTO;
 import com.securacore.app.dto.Visitor.VisitorResponseDTO;
 import com.securacore.app.dto.guard.CreateGuardDTO;
 import com.securacore.app.dto.guard.GuardResponseDTO;
 import com.securacore.app.entity.Visitor;
 import com.securacore.app.entity.GuardAttendance;
+import com.securacore.app.enums.Shift;
+import com.securacore.app.service.ApprovalEscalationService;
+import com.securacore.app.service.AttendanceReportService;
+import com.securacore.app.service.DashboardService;
+import com.securacore.app.service.DirectoryService;
 import com.securacore.app.service.GuardService;
+import com.securacore.app.service.ImportService;
+import com.securacore.app.service.OccupancyService;
+import com.securacore.app.service.PhotoService;
+import com.securacore.app.service.ReportJobService;
+import com.securacore.app.service.RosterService;
+import com.securacore.app.service.VisitAnalyticsService;
+import com.securacore.app.service.VisitorExportService;
 import com.securacore.app.service.ResidentService;
 import com.securacore.app.service.VisitorService;
+import com.securacore.app.service.WatchlistService;
 import com.securacore.app.repository.GuardAttendanceRepository;
+import com.securacore.app.storage.FileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
@@ -34,15 +77,73 @@ public class AdminController {
     @Autowired
     GuardAttendanceRepository guardAttendanceRepository;
 
+    @Autowired
+    ShardScatterGather shardScatterGather;
+
+    @Autowired
+    OccupancyService occupancyService;
+
+    @Autowired
+    ApprovalEscalationService approvalEscalationService;
+
+    @Autowired
+    WatchlistService watchlistService;
+
+    @Autowired
+    PhotoService photoService;
+
+    @Autowired
+    AttendanceReportService attendanceReportService;
+
+    @Autowired
+    RosterService rosterService;
+
+    @Autowired
+    ImportService importService;
+
+    @Autowired
+    VisitorExportService visitorExportService;
+
+    @Autowired
+    ReportJobService reportJobService;
+
+    @Autowired
+    VisitAnalyticsService visitAnalyticsService;
+
+    @Autowired
+    DashboardService dashboardService;
+
+    @Autowired
+    DirectoryService directoryService;
+
     @PostMapping("/add-resident")
     public String addResident(@RequestBody CreateResidentDTO resident){
-        System.out.println(resident);
         return residentService.addResident(resident);
     }
 
+    // The body is the upload itself, CSV or JSON lines by Content-Type, read as it arrives
+    @PostMapping("/import/residents")
+    public ImportReportDTO importResidents(HttpServletRequest request) throws IOException {
+        return importService.importResidents(request.getInputStream(), request.getContentType());
+    }
+
+    @PostMapping("/import/guards")
+    public ImportReportDTO importGuards(HttpServletRequest request) throws IOException {
+        return importService.importGuards(request.getInputStream(), request.getContentType());
+    }
+
     @GetMapping("/get-residents")
     public List<ResidentResponseDTO> getResidents(){
-        return residentService.getResidents();
+        return shardScatterGather.collect(() -> residentService.getResidents());
+    }
+
+    @GetMapping("/residents")
+    public ResponseEntity<DirectoryPageDTO> residents(@RequestParam(value = "status", required = false) Boolean status,
+                                                      @RequestParam(value = "fields", required = false) String fields,
+                                                      @RequestParam(value = "after", required = false) String after,
+                                                      @PageableDefault(size = 50, sort = "name") Pageable pageable){
+        DirectoryPageDTO page = directoryService.residents(status, fields, pageable, after);
+        return page == null ? ResponseEntity.badRequest().build() : ResponseEntity.ok(page);
     }
 
     @PostMapping("/add-guard")
@@ -52,32 +153,117 @@ public class AdminController {
 
     @GetMapping("/get-guards")
     public List<GuardResponseDTO> getGuards(){
-        return guardService.getGuards();
+        return shardScatterGather.collect(() -> guardService.getGuards());
+    }
+
+    @GetMapping("/guards")
+    public ResponseEntity<DirectoryPageDTO> guards(@RequestParam(value = "shift", required = false) Shift shift,
+                                                   @RequestParam(value = "fields", required = false) String fields,
+                                                   @RequestParam(value = "after", required = false) String after,
+                                                   @PageableDefault(size = 50, sort = "name") Pageable pageable){
+        DirectoryPageDTO page = directoryService.guards(shift, fields, pageable, after);
+        return page == null ? ResponseEntity.badRequest().build() : ResponseEntity.ok(page);
     }
 
     @GetMapping("/guard/on")
     public List<GuardResponseDTO> guardFrom(@RequestParam("start") Date startDate){
-        return guardService.guardsOn(startDate);
+        return shardScatterGather.collect(() -> guardService.guardsOn(startDate));
     }
 
     @GetMapping("/visitors/on")
     public List<VisitorResponseDTO> visitorsFrom(@RequestParam("start") LocalDate startDate){
-        return visitorService.visitorsOn(startDate) ;
+        return shardScatterGather.collect(() -> visitorService.visitorsOn(startDate));
     }
 
     @GetMapping("/active-visitors")
     public List<VisitorResponseDTO> visitors(){
-        return visitorService.visitorsOn(LocalDate.now());
+        return shardScatterGather.collect(() -> visitorService.visitorsOn(LocalDate.now()));
+    }
+
+    @GetMapping("/dashboard")
+    public DashboardDTO dashboard(){
+        return dashboardService.dashboard();
+    }
+
+    @GetMapping("/occupancy")
+    public OccupancySnapshotDTO occupancy(){
+        return occupancyService.snapshot();
+    }
+
+    @GetMapping("/occupancy/flat/{flat}")
+    public long flatOccupancy(@PathVariable String flat){
+        return occupancyService.flatCount(flat);
+    }
+
+    @GetMapping("/occupancy/roster")
+    public List<PresentVisitorDTO> evacuationRoster(){
+        return occupancyService.roster();
+    }
+
+    @GetMapping(value = "/occupancy/roster.csv", produces = "text/csv")
+    public String evacuationRosterCsv(){
+        return occupancyService.rosterCsv();
+    }
+
+    @GetMapping("/occupancy/overstays")
+    public List<PresentVisitorDTO> overstays(){
+        return occupancyService.overstays();
+    }
+
+    @GetMapping("/escalation/stats")
+    public EscalationStatsDTO escalationStats(){
+        return approvalEscalationService.stats();
+    }
+
+    @GetMapping("/watchlist")
+    public List<WatchlistEntryDTO> watchlist(){
+        return watchlistService.getEntries();
+    }
+
+    @PostMapping("/watchlist")
+    public String addWatchlistEntry(@RequestBody WatchlistEntryDTO entry){
+        return watchlistService.addEntry(entry);
+    }
+
+    @PostMapping("/watchlist/import")
+    public String importWatchlist(@RequestBody List<WatchlistEntryDTO> entries){
+        return watchlistService.importEntries(entries);
+    }
+
+    @DeleteMapping("/watchlist/{id}")
+    public String removeWatchlistEntry(@PathVariable int id){
+        return watchlistService.removeEntry(id);
+    }
+
+    @PostMapping("/watchlist/reload")
+    public String reloadWatchlist(){
+        watchlistService.reload();
+        return "Watchlist Reloaded";
+    }
+
+    // Photos are addressed by content hash, so a URL never changes meaning and can be cached forever
+    @GetMapping({"/photos/{hash}", "/photos/{hash}/thumbnail"})
+    public void photo(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean thumbnail = request.getRequestURI().endsWith("/thumbnail");
+        Path file = photoService.open(hash, thumbnail);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String etag = file.getFileName().toString();
+        // A thumbnail still being made is answered with the original, which must not stick in caches
+        String cacheControl = thumbnail && etag.equals(hash) ? "private, no-cache" : "private, max-age=31536000, immutable";
+        FileSender.send(file, PhotoService.contentType(file), etag, cacheControl, request, response);
     }
 
     @GetMapping("/flat-visitor/{flat}")
     public List<Visitor> flatVisitor(@PathVariable String flat){
-        return visitorService.flatVisitors(flat);
+        return shardScatterGather.collect(() -> visitorService.flatVisitors(flat));
     }
 
     @GetMapping("/search-residents")
     public List<ResidentResponseDTO> searchResidents(@RequestParam(value = "search", required = false) String searchTerm){
-        return residentService.searchResidents(searchTerm);
+        return shardScatterGather.collect(() -> residentService.searchResidents(searchTerm));
     }
 
     @GetMapping("/resident/{id}")
@@ -92,7 +278,7 @@ public class AdminController {
 
     @GetMapping("/search-guards")
     public List<GuardResponseDTO> searchGuards(@RequestParam(value = "search", required = false) String searchTerm){
-        return guardService.searchGuards(searchTerm);
+        return shardScatterGather.collect(() -> guardService.searchGuards(searchTerm));
     }
 
     @GetMapping("/guard/{id}")
@@ -107,12 +293,151 @@ public class AdminController {
 
     @GetMapping("/guards-by-date")
     public List<GuardResponseDTO> getGuardsByDate(@RequestParam("date") String date){
-        return guardService.getGuardsByDate(date);
+        return shardScatterGather.collect(() -> guardService.getGuardsByDate(date));
+    }
+
+    // Per guard and month; streamed, so a year for every guard costs no more heap than a day
+    @GetMapping(value = "/reports/attendance.csv", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> attendanceReport(@RequestParam("from") LocalDate from,
+                                                                  @RequestParam("to") LocalDate to) {
+        if (to.isBefore(from)) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"attendance-" + from + "-to-" + to + ".csv\"")
+                .body(attendanceReportService.attendanceCsv(from, to));
+    }
+
+    @GetMapping("/posts")
+    public List<GuardPostDTO> posts(){
+        return shardScatterGather.collect(() -> rosterService.getPosts());
+    }
+
+    @PostMapping("/posts")
+    public String addPost(@RequestBody GuardPostDTO post){
+        return rosterService.addPost(post);
+    }
+
+    @DeleteMapping("/posts/{id}")
+    public String removePost(@PathVariable int id){
+        return rosterService.removePost(id);
+    }
+
+    @GetMapping("/roster")
+    public List<RosterAssignmentDTO> roster(){
+        return shardScatterGather.collect(() -> rosterService.getRoster());
+    }
+
+    @PostMapping("/roster")
+    public String addRosterAssignment(@RequestBody RosterAssignmentDTO assignment){
+        return rosterService.addAssignment(assignment);
+    }
+
+    @DeleteMapping("/roster/{id}")
+    public String removeRosterAssignment(@PathVariable int id){
+        return rosterService.removeAssignment(id);
+    }
+
+    @GetMapping("/duty-board")
+    public List<DutyPostDTO> dutyBoard(){
+        return rosterService.dutyBoard();
+    }
+
+    @GetMapping("/duty-board/missing")
+    public List<DutyGuardDTO> missingGuards(){
+        return rosterService.missingGuards();
+    }
+
+    // Gate visits and QR passes for a date range, optionally one flat or one source; format csv or csv.gz
+    @GetMapping("/exports/visitors")
+    public ResponseEntity<StreamingResponseBody> exportVisitors(@RequestParam("from") LocalDate from,
+                                                                @RequestParam("to") LocalDate to,
+                                                                @RequestParam(value = "flat", required = false) String flat,
+                                                                @RequestParam(value = "source", required = false) String source,
+                                                                @RequestParam(value = "format", defaultValue = "csv") String format) {
+        boolean gzip = "csv.gz".equals(format);
+        if (to.isBefore(from) || (!gzip && !"csv".equals(format))) return ResponseEntity.badRequest().build();
+        if (source != null && !VisitorExportService.SOURCE_VISITOR.equalsIgnoreCase(source)
+                && !VisitorExportService.SOURCE_QR.equalsIgnoreCase(source)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : "text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"visitors-" + from + "-to-" + to + "." + format + "\"")
+                .body(visitorExportService.export(from, to, flat, source, gzip));
+    }
+
+    // Attendance or visitor reports run in the background; poll or subscribe, then fetch the result
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitReportJob(@RequestBody ReportJobRequestDTO request){
+        String error = reportJobService.validate(request);
+        if (error != null) return ResponseEntity.badRequest().body(error);
+        return ResponseEntity.accepted().body(reportJobService.submit(request));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ReportJobDTO> reportJob(@PathVariable String id){
+        ReportJobDTO job = reportJobService.status(id);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job);
+    }
+
+    @GetMapping("/jobs/{id}/events")
+    public ResponseEntity<SseEmitter> reportJobEvents(@PathVariable String id){
+        SseEmitter emitter = reportJobService.subscribe(id);
+        return emitter == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(emitter);
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    public String cancelReportJob(@PathVariable String id){
+        return reportJobService.cancel(id);
+    }
+
+    @GetMapping("/jobs/{id}/result")
+    public void reportJobResult(@PathVariable String id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = reportJobService.result(id);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String name = file.getFileName().toString();
+        String etag = name + "-" + Files.getLastModifiedTime(file).toMillis();
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"report-" + id + name.substring(name.indexOf('.')) + "\"");
+        FileSender.send(file, name.endsWith(".gz") ? "application/gzip" : "text/csv", etag, "private, no-cache", request, response);
+    }
+
+    // Approximate analytics from daily sketches; a society has to be chosen
+    @GetMapping("/analytics/unique-visitors")
+    public ResponseEntity<UniqueVisitorsDTO> uniqueVisitors(@RequestParam("from") LocalDate from,
+                                                            @RequestParam("to") LocalDate to,
+                                                            @RequestParam(value = "flat", required = false) String flat){
+        if (to.isBefore(from)) return ResponseEntity.badRequest().build();
+        UniqueVisitorsDTO result = visitAnalyticsService.uniqueVisitors(from, to, flat);
+        return result == null ? ResponseEntity.badRequest().build() : ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/analytics/repeat-visitors")
+    public ResponseEntity<List<RepeatVisitorDTO>> repeatVisitors(@RequestParam("from") LocalDate from,
+                                                                 @RequestParam("to") LocalDate to,
+                                                                 @RequestParam(value = "limit", defaultValue = "10") int limit){
+        if (to.isBefore(from) || limit < 1) return ResponseEntity.badRequest().build();
+        List<RepeatVisitorDTO> result = visitAnalyticsService.repeatVisitors(from, to, limit);
+        return result == null ? ResponseEntity.badRequest().build() : ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/analytics/dwell-times")
+    public ResponseEntity<DwellTimeDTO> dwellTimes(@RequestParam("from") LocalDate from, @RequestParam("to") LocalDate to){
+        if (to.isBefore(from)) return ResponseEntity.badRequest().build();
+        DwellTimeDTO result = visitAnalyticsService.dwellTimes(from, to);
+        return result == null ? ResponseEntity.badRequest().build() : ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/analytics/rebuild")
+    public String rebuildAnalytics(@RequestParam("from") LocalDate from, @RequestParam("to") LocalDate to){
+        return visitAnalyticsService.rebuild(from, to);
     }
 
     @GetMapping("/guard-attendance")
     public List<GuardAttendance> getGuardAttendance(@RequestParam("date") LocalDate date) {
-        return guardAttendanceRepository.findAllByAttendanceDate(date);
+        return shardScatterGather.collect(() -> guardAttendanceRepository.findAllByAttendanceDate(date));
     }
 
 }
@@ -1,13 +1,30 @@
 package com.securacore.app.controller;
 
+import com.securacore.app.dto.Parcel.ParcelDTO;
+import com.securacore.app.dto.Parcel.ParcelDropDTO;
+import com.securacore.app.dto.Parcel.ParcelPickupDTO;
+import com.securacore.app.dto.Visitor.RecurringVisitDTO;
 import com.securacore.app.dto.Visitor.RequestVisitDTO;
 import com.securacore.app.dto.Visitor.RequestVisitStatusDTO;
+import com.securacore.app.dto.Visitor.VisitorSuggestionDTO;
+import com.securacore.app.service.GateNotificationService;
 import com.securacore.app.service.GuardService;
+import com.securacore.app.service.ParcelService;
+import com.securacore.app.service.PhotoService;
+import com.securacore.app.service.RecurringVisitService;
+import com.securacore.app.service.VisitVersions;
+import com.securacore.app.service.VisitorSuggestionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("guard")
@@ -16,23 +33,94 @@ public class GuardController {
     @Autowired
     GuardService guardService;
 
+    @Autowired
+    GateNotificationService gateNotificationService;
+
+    @Autowired
+    VisitVersions visitVersions;
+
+    @Autowired
+    RecurringVisitService recurringVisitService;
+
+    @Autowired
+    VisitorSuggestionService visitorSuggestionService;
+
+    @Autowired
+    PhotoService photoService;
+
+    @Autowired
+    ParcelService parcelService;
+
     @PostMapping("/request-visit")
     public String visitorRequest(@RequestBody RequestVisitDTO visitor){
         return guardService.visitorRequest(visitor);
     }
+    @GetMapping("/visitor-suggestions")
+    public List<VisitorSuggestionDTO> visitorSuggestions(@RequestParam("flatNo") String flatNo,
+                                                         @RequestParam(value = "prefix", required = false) String prefix,
+                                                         @RequestParam(value = "limit", defaultValue = "5") int limit){
+        return visitorSuggestionService.suggest(flatNo, prefix, limit);
+    }
+
     @GetMapping("/request-visit-status")
-    public List<RequestVisitStatusDTO> visitorRequestStatus(){
+    public List<RequestVisitStatusDTO> visitorRequestStatus(WebRequest request){
+        String etag = visitVersions.societyDay(LocalDate.now());
+        if (etag != null && request.checkNotModified(etag)) return null;
         return guardService.visitorRequestStatus();
     }
 
+    // Pushes approvals, declines and auto-declines instead of polling request-visit-status
+    @GetMapping(value = "/decisions", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter decisions(){
+        return gateNotificationService.subscribeGuard();
+    }
+
     @GetMapping("/validate-visit")
     public boolean validateVisit(@RequestParam("visitorId") int visitorId){
         return guardService.validateVisit(visitorId);
     }
 
+    @PostMapping(value = "/visitor/{id}/photo", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public String visitorPhoto(@PathVariable("id") int visitorId, @RequestParam("photo") MultipartFile photo) throws IOException {
+        try (InputStream in = photo.getInputStream()) {
+            return photoService.visitorPhoto(visitorId, in);
+        }
+    }
+
+    @GetMapping("/expected-today")
+    public List<RecurringVisitDTO> expectedToday(@RequestParam(value = "flatNo", required = false) String flatNo){
+        return recurringVisitService.expectedOn(LocalDate.now(), flatNo);
+    }
+
+    @GetMapping("/validate-recurring-visit")
+    public boolean validateRecurringVisit(@RequestParam("recurringVisitId") int recurringVisitId){
+        return recurringVisitService.validateRecurringVisit(recurringVisitId);
+    }
+
+    @PostMapping("/recurring-visit/{id}/checkin")
+    public String checkinRecurringVisit(@PathVariable("id") int recurringVisitId){
+        return recurringVisitService.checkinRecurringVisit(recurringVisitId);
+    }
+
+    // Logs a courier's whole drop at once
     @PostMapping("/package-checkout")
-    public String packageCheckout(@RequestBody Map<String, String> body){
-        return "Package details added successfully!";
+    public String packageCheckout(@RequestBody ParcelDropDTO drop){
+        return parcelService.logDrop(drop);
+    }
+
+    @PostMapping("/package-pickup")
+    public String packagePickup(@RequestBody ParcelPickupDTO pickup){
+        return parcelService.pickup(pickup);
+    }
+
+    @GetMapping("/packages/pending-count")
+    public int pendingPackageCount(@RequestParam("flatNo") String flatNo){
+        return parcelService.pendingCount(flatNo);
+    }
+
+    @GetMapping("/packages")
+    public List<ParcelDTO> pendingPackages(@RequestParam("flatNo") String flatNo){
+        return parcelService.pendingParcels(flatNo, false);
     }
 
     // Guards can only check in visitors, not check them out or update their status
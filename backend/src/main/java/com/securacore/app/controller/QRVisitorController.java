@@ -1,12 +1,20 @@
 package com.securacore.app.controller;
 
+import com.securacore.app.config.ShardScatterGather;
 import com.securacore.app.dto.QRVisitor.QRVisitorRequestDTO;
 import com.securacore.app.dto.QRVisitor.QRVisitorResponseDTO;
 import com.securacore.app.dto.QRVisitor.QRVisitorValidationDTO;
+import com.securacore.app.service.PhotoService;
 import com.securacore.app.service.QRVisitorService;
+import com.securacore.app.service.VisitVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +27,15 @@ public class QRVisitorController {
     @Autowired
     private QRVisitorService qrVisitorService;
 
+    @Autowired
+    private ShardScatterGather shardScatterGather;
+
+    @Autowired
+    private PhotoService photoService;
+
+    @Autowired
+    private VisitVersions visitVersions;
+
     @PostMapping("/create")
     public QRVisitorResponseDTO createQRVisitor(@RequestBody QRVisitorRequestDTO request) {
         return qrVisitorService.createQRVisitor(request);
@@ -29,6 +46,13 @@ public class QRVisitorController {
         return qrVisitorService.validateQRVisitor(qrData);
     }
 
+    @PostMapping(value = "/photo/{visitorId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public String qrVisitorPhoto(@PathVariable int visitorId, @RequestParam("photo") MultipartFile photo) throws IOException {
+        try (InputStream in = photo.getInputStream()) {
+            return photoService.qrVisitorPhoto(visitorId, in);
+        }
+    }
+
     @PostMapping("/checkin/{visitorId}")
     public String checkinQRVisitor(@PathVariable int visitorId) {
         return qrVisitorService.checkinQRVisitor(visitorId);
@@ -41,18 +65,20 @@ public class QRVisitorController {
 
     @GetMapping("/history")
     public List<Map<String, Object>> getAllQRVisitors() {
-        return qrVisitorService.getAllQRVisitors();
+        return shardScatterGather.collect(() -> qrVisitorService.getAllQRVisitors());
     }
 
     @GetMapping("/history/{flatNo}")
-    public List<Map<String, Object>> getQRVisitorsByFlat(@PathVariable String flatNo) {
+    public List<Map<String, Object>> getQRVisitorsByFlat(@PathVariable String flatNo, WebRequest request) {
+        String etag = visitVersions.flat(flatNo);
+        if (etag != null && request.checkNotModified(etag)) return null;
         return qrVisitorService.getQRVisitorsByFlat(flatNo);
     }
 
     @GetMapping("/history/date/{date}")
     public List<Map<String, Object>> getQRVisitorsByDate(@PathVariable String date) {
         LocalDate visitDate = LocalDate.parse(date);
-        return qrVisitorService.getQRVisitorsByDate(visitDate);
+        return shardScatterGather.collect(() -> qrVisitorService.getQRVisitorsByDate(visitDate));
     }
 
     @GetMapping("/history/flat/{flatNo}/date/{date}")
@@ -1,11 +1,23 @@
 package com.securacore.app.controller;
 
+import com.securacore.app.dto.Parcel.ParcelDTO;
+import com.securacore.app.dto.Resident.ApprovalRuleDTO;
+import com.securacore.app.dto.Visitor.RecurringVisitDTO;
 import com.securacore.app.dto.Visitor.RequestVisitDTO;
 import com.securacore.app.dto.Visitor.RequestVisitStatusDTO;
+import com.securacore.app.service.AutoApprovalService;
+import com.securacore.app.service.GateNotificationService;
+import com.securacore.app.service.ParcelService;
+import com.securacore.app.service.RecurringVisitService;
 import com.securacore.app.service.ResidentService;
+import com.securacore.app.service.VisitVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,13 +27,42 @@ public class ResidentController {
     @Autowired
     ResidentService residentService;
 
+    @Autowired
+    GateNotificationService gateNotificationService;
+
+    @Autowired
+    AutoApprovalService autoApprovalService;
+
+    @Autowired
+    RecurringVisitService recurringVisitService;
+
+    @Autowired
+    ParcelService parcelService;
+
+    @Autowired
+    VisitVersions visitVersions;
+
+    // Includes the pickup codes, so only the flat's own residents should see this
+    @GetMapping("/packages")
+    public List<ParcelDTO> packages(@RequestParam("flatNo") String flatNo){
+        return parcelService.pendingParcels(flatNo, true);
+    }
+
     @GetMapping("/visitor-requests")
     public List<RequestVisitStatusDTO> getVisitorRequests(@RequestParam("flatNo") String flatNo){
         return residentService.getPendingVisitorRequests(flatNo);
     }
 
+    @GetMapping(value = "/notifications", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter notifications(@RequestParam("flatNo") String flatNo){
+        return gateNotificationService.subscribeFlat(flatNo);
+    }
+
+    // Polled constantly; an unchanged list is answered with 304 from the in-memory version
     @GetMapping("/today-visits")
-    public List<RequestVisitStatusDTO> getTodayVisits(@RequestParam("flatNo") String flatNo){
+    public List<RequestVisitStatusDTO> getTodayVisits(@RequestParam("flatNo") String flatNo, WebRequest request){
+        String etag = visitVersions.flatDay(flatNo, LocalDate.now());
+        if (etag != null && request.checkNotModified(etag)) return null;
         return residentService.getTodayVisits(flatNo);
     }
 
@@ -35,13 +76,35 @@ public class ResidentController {
         return residentService.declineVisit(id);
     }
 
+    @PostMapping("/checkout-visit/{id}")
+    public String checkoutVisit(@PathVariable int id){
+        return residentService.checkoutVisit(id);
+    }
+
     @PostMapping("/schedule-visit")
     public String scheduleVisit(@RequestBody RequestVisitDTO request){
         return residentService.scheduleVisit(request);
     }
 
+    @PostMapping("/recurring-visits")
+    public String scheduleRecurringVisit(@RequestBody RecurringVisitDTO request){
+        return recurringVisitService.addSchedule(request);
+    }
+
+    @GetMapping("/recurring-visits")
+    public List<RecurringVisitDTO> recurringVisits(@RequestParam("flatNo") String flatNo){
+        return recurringVisitService.getSchedules(flatNo);
+    }
+
+    @DeleteMapping("/recurring-visits/{id}")
+    public String cancelRecurringVisit(@PathVariable int id){
+        return recurringVisitService.cancelSchedule(id);
+    }
+
     @GetMapping("/pending-approvals")
-    public List<RequestVisitStatusDTO> pendingApprovals(@RequestParam("flatNo") String flatNo) {
+    public List<RequestVisitStatusDTO> pendingApprovals(@RequestParam("flatNo") String flatNo, WebRequest request) {
+        String etag = visitVersions.flat(flatNo);
+        if (etag != null && request.checkNotModified(etag)) return null;
         return residentService.getPendingApprovalsForFlat(flatNo);
     }
 
@@ -52,4 +115,24 @@ public class ResidentController {
     ) {
         return residentService.getResidentScheduledVisits(flatNo, date != null ? java.time.LocalDate.parse(date) : null);
     }
+
+    @GetMapping("/approval-rules")
+    public List<ApprovalRuleDTO> approvalRules(@RequestParam("flatNo") String flatNo) {
+        return autoApprovalService.getRules(flatNo);
+    }
+
+    @PostMapping("/approval-rules")
+    public String addApprovalRule(@RequestBody ApprovalRuleDTO rule) {
+        return autoApprovalService.addRule(rule);
+    }
+
+    @PutMapping("/approval-rules/{id}")
+    public String updateApprovalRule(@PathVariable int id, @RequestBody ApprovalRuleDTO rule) {
+        return autoApprovalService.updateRule(id, rule);
+    }
+
+    @DeleteMapping("/approval-rules/{id}")
+    public String deleteApprovalRule(@PathVariable int id) {
+        return autoApprovalService.deleteRule(id);
+    }
 }
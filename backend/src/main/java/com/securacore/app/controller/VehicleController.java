@@ -0,0 +1,56 @@
+package com.securacore.app.controller;
+
+import com.securacore.app.dto.Vehicle.PlateClassificationDTO;
+import com.securacore.app.dto.Vehicle.PlateReadDTO;
+import com.securacore.app.dto.Vehicle.VehicleDTO;
+import com.securacore.app.dto.Vehicle.VehicleEntryDTO;
+import com.securacore.app.service.FlatRegistry;
+import com.securacore.app.service.VehicleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("vehicle")
+public class VehicleController {
+
+    @Autowired
+    VehicleService vehicleService;
+
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    @PostMapping("/register")
+    public String registerVehicle(@RequestBody VehicleDTO vehicle){
+        return vehicleService.registerVehicle(vehicle);
+    }
+
+    @GetMapping("/flat")
+    public List<VehicleDTO> flatVehicles(@RequestParam("flatNo") String flatNo){
+        return vehicleService.getVehicles(flatRegistry.find(flatNo));
+    }
+
+    @DeleteMapping("/{id}")
+    public String removeVehicle(@PathVariable int id){
+        return vehicleService.removeVehicle(id);
+    }
+
+    // Boom barrier lookup for a single plate
+    @GetMapping("/classify")
+    public PlateClassificationDTO classify(@RequestParam("plate") String plate){
+        return vehicleService.classify(plate);
+    }
+
+    // Batched plate reads from the gate cameras
+    @PostMapping("/anpr/reads")
+    public List<PlateClassificationDTO> ingestReads(@RequestBody List<PlateReadDTO> reads){
+        return vehicleService.ingest(reads);
+    }
+
+    @GetMapping("/entries")
+    public List<VehicleEntryDTO> entries(@RequestParam(value = "date", required = false) String date){
+        return vehicleService.entriesOn(date != null ? LocalDate.parse(date) : LocalDate.now());
+    }
+}
@@ -0,0 +1,44 @@
+package com.securacore.app.dto.Analytics;
+
+// Time between check-in and check-out over completed visits, within 1%; null when there were none
+public class DwellTimeDTO {
+    private long visits;
+    private Long p50Seconds;
+    private Long p90Seconds;
+    private Long p95Seconds;
+    private Long p99Seconds;
+    private Long maxSeconds;
+
+    public DwellTimeDTO(long visits, Long p50Seconds, Long p90Seconds, Long p95Seconds, Long p99Seconds, Long maxSeconds) {
+        this.visits = visits;
+        this.p50Seconds = p50Seconds;
+        this.p90Seconds = p90Seconds;
+        this.p95Seconds = p95Seconds;
+        this.p99Seconds = p99Seconds;
+        this.maxSeconds = maxSeconds;
+    }
+
+    public long getVisits() {
+        return visits;
+    }
+
+    public Long getP50Seconds() {
+        return p50Seconds;
+    }
+
+    public Long getP90Seconds() {
+        return p90Seconds;
+    }
+
+    public Long getP95Seconds() {
+        return p95Seconds;
+    }
+
+    public Long getP99Seconds() {
+        return p99Seconds;
+    }
+
+    public Long getMaxSeconds() {
+        return maxSeconds;
+    }
+}
@@ -0,0 +1,25 @@
+package com.securacore.app.dto.Analytics;
+
+public class PeriodCountDTO {
+    private String period;
+    private long visits;
+    private long uniqueVisitors;
+
+    public PeriodCountDTO(String period, long visits, long uniqueVisitors) {
+        this.period = period;
+        this.visits = visits;
+        this.uniqueVisitors = uniqueVisitors;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public long getVisits() {
+        return visits;
+    }
+
+    public long getUniqueVisitors() {
+        return uniqueVisitors;
+    }
+}
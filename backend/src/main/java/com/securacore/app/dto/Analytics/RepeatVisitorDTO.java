@@ -0,0 +1,20 @@
+package com.securacore.app.dto.Analytics;
+
+// A frequent visitor, by contact number (or name when none was given), with estimated visits
+public class RepeatVisitorDTO {
+    private String visitor;
+    private long visits;
+
+    public RepeatVisitorDTO(String visitor, long visits) {
+        this.visitor = visitor;
+        this.visits = visits;
+    }
+
+    public String getVisitor() {
+        return visitor;
+    }
+
+    public long getVisits() {
+        return visits;
+    }
+}
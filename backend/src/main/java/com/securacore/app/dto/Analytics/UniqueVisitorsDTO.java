@@ -0,0 +1,47 @@
+package com.securacore.app.dto.Analytics;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Visits and estimated distinct visitors over a range and per calendar month in it
+public class UniqueVisitorsDTO {
+    private String flatNo;
+    private LocalDate from;
+    private LocalDate to;
+    private long visits;
+    private long uniqueVisitors;
+    private List<PeriodCountDTO> months;
+
+    public UniqueVisitorsDTO(String flatNo, LocalDate from, LocalDate to, long visits, long uniqueVisitors, List<PeriodCountDTO> months) {
+        this.flatNo = flatNo;
+        this.from = from;
+        this.to = to;
+        this.visits = visits;
+        this.uniqueVisitors = uniqueVisitors;
+        this.months = months;
+    }
+
+    public String getFlatNo() {
+        return flatNo;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public long getVisits() {
+        return visits;
+    }
+
+    public long getUniqueVisitors() {
+        return uniqueVisitors;
+    }
+
+    public List<PeriodCountDTO> getMonths() {
+        return months;
+    }
+}
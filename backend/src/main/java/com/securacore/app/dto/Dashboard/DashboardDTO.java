@@ -0,0 +1,99 @@
+package com.securacore.app.dto.Dashboard;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Counts for the admin landing page; a section that failed or timed out is null and listed in unavailable
+public class DashboardDTO {
+    private Long residents;
+    private Long guards;
+    private Long guardsOnDuty;
+    private Map<String, Long> visitorsToday;
+    private Map<String, Long> qrPassesToday;
+    private long insideNow;
+    private long overstaying;
+    private long uncoveredPosts;
+    private List<String> unavailable;
+    private LocalDateTime generatedAt;
+
+    public Long getResidents() {
+        return residents;
+    }
+
+    public void setResidents(Long residents) {
+        this.residents = residents;
+    }
+
+    public Long getGuards() {
+        return guards;
+    }
+
+    public void setGuards(Long guards) {
+        this.guards = guards;
+    }
+
+    public Long getGuardsOnDuty() {
+        return guardsOnDuty;
+    }
+
+    public void setGuardsOnDuty(Long guardsOnDuty) {
+        this.guardsOnDuty = guardsOnDuty;
+    }
+
+    public Map<String, Long> getVisitorsToday() {
+        return visitorsToday;
+    }
+
+    public void setVisitorsToday(Map<String, Long> visitorsToday) {
+        this.visitorsToday = visitorsToday;
+    }
+
+    public Map<String, Long> getQrPassesToday() {
+        return qrPassesToday;
+    }
+
+    public void setQrPassesToday(Map<String, Long> qrPassesToday) {
+        this.qrPassesToday = qrPassesToday;
+    }
+
+    public long getInsideNow() {
+        return insideNow;
+    }
+
+    public void setInsideNow(long insideNow) {
+        this.insideNow = insideNow;
+    }
+
+    public long getOverstaying() {
+        return overstaying;
+    }
+
+    public void setOverstaying(long overstaying) {
+        this.overstaying = overstaying;
+    }
+
+    public long getUncoveredPosts() {
+        return uncoveredPosts;
+    }
+
+    public void setUncoveredPosts(long uncoveredPosts) {
+        this.uncoveredPosts = uncoveredPosts;
+    }
+
+    public List<String> getUnavailable() {
+        return unavailable;
+    }
+
+    public void setUnavailable(List<String> unavailable) {
+        this.unavailable = unavailable;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
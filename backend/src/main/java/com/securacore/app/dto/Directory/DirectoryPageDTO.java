@@ -0,0 +1,29 @@
+package com.securacore.app.dto.Directory;
+
+import java.util.List;
+import java.util.Map;
+
+// One page of a directory listing; next is the cursor for the following page, null on the last
+public class DirectoryPageDTO {
+    private List<Map<String, Object>> items;
+    private String next;
+    private long approximateTotal;
+
+    public DirectoryPageDTO(List<Map<String, Object>> items, String next, long approximateTotal) {
+        this.items = items;
+        this.next = next;
+        this.approximateTotal = approximateTotal;
+    }
+
+    public List<Map<String, Object>> getItems() {
+        return items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public long getApproximateTotal() {
+        return approximateTotal;
+    }
+}
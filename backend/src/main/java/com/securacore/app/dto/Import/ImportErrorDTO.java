@@ -0,0 +1,25 @@
+package com.securacore.app.dto.Import;
+
+public class ImportErrorDTO {
+    private int line;
+    private String key;
+    private String message;
+
+    public ImportErrorDTO(int line, String key, String message) {
+        this.line = line;
+        this.key = key;
+        this.message = message;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,40 @@
+package com.securacore.app.dto.Import;
+
+import java.util.List;
+
+public class ImportReportDTO {
+    private int imported;
+    private int duplicates;
+    private int failed;
+    private List<ImportErrorDTO> errors;
+    // More rows failed or were duplicates than are listed in errors
+    private boolean errorsTruncated;
+
+    public ImportReportDTO(int imported, int duplicates, int failed, List<ImportErrorDTO> errors, boolean errorsTruncated) {
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.failed = failed;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+}
@@ -0,0 +1,28 @@
+package com.securacore.app.dto.Occupancy;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class OccupancySnapshotDTO {
+    private long total;
+    private Map<String, Long> byTower;
+    private LocalDateTime generatedAt;
+
+    public OccupancySnapshotDTO(long total, Map<String, Long> byTower, LocalDateTime generatedAt) {
+        this.total = total;
+        this.byTower = byTower;
+        this.generatedAt = generatedAt;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<String, Long> getByTower() {
+        return byTower;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+}
@@ -0,0 +1,65 @@
+package com.securacore.app.dto.Occupancy;
+
+import java.time.LocalDateTime;
+
+public class PresentVisitorDTO {
+    // "VISITOR" for walk-ins and resident-scheduled visits, "QR" for QR passes
+    private String source;
+    private int id;
+    private String societyId;
+    private String name;
+    private String flatNo;
+    private String tower;
+    private String relation;
+    private String purpose;
+    private LocalDateTime checkInTime;
+
+    public PresentVisitorDTO(String source, int id, String societyId, String name, String flatNo, String tower,
+                             String relation, String purpose, LocalDateTime checkInTime) {
+        this.source = source;
+        this.id = id;
+        this.societyId = societyId;
+        this.name = name;
+        this.flatNo = flatNo;
+        this.tower = tower;
+        this.relation = relation;
+        this.purpose = purpose;
+        this.checkInTime = checkInTime;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFlatNo() {
+        return flatNo;
+    }
+
+    public String getTower() {
+        return tower;
+    }
+
+    public String getRelation() {
+        return relation;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public LocalDateTime getCheckInTime() {
+        return checkInTime;
+    }
+}
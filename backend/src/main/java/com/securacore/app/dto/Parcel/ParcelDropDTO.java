@@ -0,0 +1,36 @@
+package com.securacore.app.dto.Parcel;
+
+import java.util.List;
+
+/**
+ * Everything one courier hands over at the gate, logged in one request.
+ */
+public class ParcelDropDTO {
+    private String courier;
+    private Integer guardId;
+    private List<ParcelDTO> parcels;
+
+    public String getCourier() {
+        return courier;
+    }
+
+    public void setCourier(String courier) {
+        this.courier = courier;
+    }
+
+    public Integer getGuardId() {
+        return guardId;
+    }
+
+    public void setGuardId(Integer guardId) {
+        this.guardId = guardId;
+    }
+
+    public List<ParcelDTO> getParcels() {
+        return parcels;
+    }
+
+    public void setParcels(List<ParcelDTO> parcels) {
+        this.parcels = parcels;
+    }
+}
@@ -8,6 +8,7 @@ public class QRVisitorRequestDTO {
     private LocalDate visitDate;
     private String relation;
     private String flatNo;
+    private String contact;
 
     public String getName() {
         return name;
@@ -48,4 +49,12 @@ public class QRVisitorRequestDTO {
     public void setFlatNo(String flatNo) {
         this.flatNo = flatNo;
     }
+
+    public String getContact() {
+        return contact;
+    }
+
+    public void setContact(String contact) {
+        this.contact = contact;
+    }
 }
@@ -0,0 +1,62 @@
+package com.securacore.app.dto.Report;
+
+import com.securacore.app.enums.ReportJobStatus;
+import com.securacore.app.enums.ReportType;
+
+import java.time.LocalDateTime;
+
+public class ReportJobDTO {
+    private String id;
+    private ReportType type;
+    private ReportJobStatus status;
+    // Rows written so far; null when the result came from the cache
+    private Long rows;
+    private boolean cached;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    public ReportJobDTO(String id, ReportType type, ReportJobStatus status, Long rows, boolean cached,
+                        LocalDateTime submittedAt, LocalDateTime finishedAt, String error) {
+        this.id = id;
+        this.type = type;
+        this.status = status;
+        this.rows = rows;
+        this.cached = cached;
+        this.submittedAt = submittedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ReportType getType() {
+        return type;
+    }
+
+    public ReportJobStatus getStatus() {
+        return status;
+    }
+
+    public Long getRows() {
+        return rows;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,63 @@
+package com.securacore.app.dto.Report;
+
+import com.securacore.app.enums.ReportType;
+
+import java.time.LocalDate;
+
+public class ReportJobRequestDTO {
+    private ReportType type;
+    private LocalDate from;
+    private LocalDate to;
+    // Visitor reports only
+    private String flat;
+    private String source;
+    private String format = "csv";
+
+    public ReportType getType() {
+        return type;
+    }
+
+    public void setType(ReportType type) {
+        this.type = type;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public String getFlat() {
+        return flat;
+    }
+
+    public void setFlat(String flat) {
+        this.flat = flat;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+}
@@ -0,0 +1,77 @@
+package com.securacore.app.dto.Roster;
+
+import java.time.LocalDateTime;
+
+public class DutyGuardDTO {
+    private String societyId;
+    private int assignmentId;
+    private int postId;
+    private String postName;
+    private String gate;
+    private int guardId;
+    private String guardName;
+    private LocalDateTime shiftStart;
+    private LocalDateTime shiftEnd;
+    private boolean present;
+    private LocalDateTime missingSince;
+
+    public DutyGuardDTO(String societyId, int assignmentId, int postId, String postName, String gate, int guardId,
+                        String guardName, LocalDateTime shiftStart, LocalDateTime shiftEnd, boolean present,
+                        LocalDateTime missingSince) {
+        this.societyId = societyId;
+        this.assignmentId = assignmentId;
+        this.postId = postId;
+        this.postName = postName;
+        this.gate = gate;
+        this.guardId = guardId;
+        this.guardName = guardName;
+        this.shiftStart = shiftStart;
+        this.shiftEnd = shiftEnd;
+        this.present = present;
+        this.missingSince = missingSince;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public int getAssignmentId() {
+        return assignmentId;
+    }
+
+    public int getPostId() {
+        return postId;
+    }
+
+    public String getPostName() {
+        return postName;
+    }
+
+    public String getGate() {
+        return gate;
+    }
+
+    public int getGuardId() {
+        return guardId;
+    }
+
+    public String getGuardName() {
+        return guardName;
+    }
+
+    public LocalDateTime getShiftStart() {
+        return shiftStart;
+    }
+
+    public LocalDateTime getShiftEnd() {
+        return shiftEnd;
+    }
+
+    public boolean isPresent() {
+        return present;
+    }
+
+    public LocalDateTime getMissingSince() {
+        return missingSince;
+    }
+}
@@ -0,0 +1,45 @@
+package com.securacore.app.dto.Roster;
+
+import java.util.List;
+
+public class DutyPostDTO {
+    private String societyId;
+    private int postId;
+    private String name;
+    private String gate;
+    private boolean uncovered;
+    private List<DutyGuardDTO> guards;
+
+    public DutyPostDTO(String societyId, int postId, String name, String gate, boolean uncovered, List<DutyGuardDTO> guards) {
+        this.societyId = societyId;
+        this.postId = postId;
+        this.name = name;
+        this.gate = gate;
+        this.uncovered = uncovered;
+        this.guards = guards;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public int getPostId() {
+        return postId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getGate() {
+        return gate;
+    }
+
+    public boolean isUncovered() {
+        return uncovered;
+    }
+
+    public List<DutyGuardDTO> getGuards() {
+        return guards;
+    }
+}
@@ -0,0 +1,31 @@
+package com.securacore.app.dto.Roster;
+
+public class GuardPostDTO {
+    private int id;
+    private String name;
+    private String gate;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getGate() {
+        return gate;
+    }
+
+    public void setGate(String gate) {
+        this.gate = gate;
+    }
+}
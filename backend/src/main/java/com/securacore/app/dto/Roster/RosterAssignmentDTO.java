@@ -0,0 +1,88 @@
+package com.securacore.app.dto.Roster;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public class RosterAssignmentDTO {
+    private int id;
+    private int postId;
+    private int guardId;
+    private String guardName;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private LocalDate rotationStart;
+    private int daysOn = 1;
+    private int daysOff;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getPostId() {
+        return postId;
+    }
+
+    public void setPostId(int postId) {
+        this.postId = postId;
+    }
+
+    public int getGuardId() {
+        return guardId;
+    }
+
+    public void setGuardId(int guardId) {
+        this.guardId = guardId;
+    }
+
+    public String getGuardName() {
+        return guardName;
+    }
+
+    public void setGuardName(String guardName) {
+        this.guardName = guardName;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public LocalDate getRotationStart() {
+        return rotationStart;
+    }
+
+    public void setRotationStart(LocalDate rotationStart) {
+        this.rotationStart = rotationStart;
+    }
+
+    public int getDaysOn() {
+        return daysOn;
+    }
+
+    public void setDaysOn(int daysOn) {
+        this.daysOn = daysOn;
+    }
+
+    public int getDaysOff() {
+        return daysOff;
+    }
+
+    public void setDaysOff(int daysOff) {
+        this.daysOff = daysOff;
+    }
+}
@@ -0,0 +1,39 @@
+package com.securacore.app.dto.Vehicle;
+
+import com.securacore.app.enums.VehicleClass;
+
+public class PlateClassificationDTO {
+    private String plate;
+    private VehicleClass classification;
+    private String flatNo;
+    private Integer vehicleId;
+    private Integer visitorId;
+
+    public PlateClassificationDTO(String plate, VehicleClass classification, String flatNo, Integer vehicleId, Integer visitorId) {
+        this.plate = plate;
+        this.classification = classification;
+        this.flatNo = flatNo;
+        this.vehicleId = vehicleId;
+        this.visitorId = visitorId;
+    }
+
+    public String getPlate() {
+        return plate;
+    }
+
+    public VehicleClass getClassification() {
+        return classification;
+    }
+
+    public String getFlatNo() {
+        return flatNo;
+    }
+
+    public Integer getVehicleId() {
+        return vehicleId;
+    }
+
+    public Integer getVisitorId() {
+        return visitorId;
+    }
+}
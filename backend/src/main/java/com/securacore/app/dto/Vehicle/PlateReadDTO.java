@@ -0,0 +1,53 @@
+package com.securacore.app.dto.Vehicle;
+
+import com.securacore.app.enums.VehicleDirection;
+
+import java.time.LocalDateTime;
+
+public class PlateReadDTO {
+    private String plate;
+    private VehicleDirection direction;
+    private String cameraId;
+    private LocalDateTime readAt;
+    private Double confidence;
+
+    public String getPlate() {
+        return plate;
+    }
+
+    public void setPlate(String plate) {
+        this.plate = plate;
+    }
+
+    public VehicleDirection getDirection() {
+        return direction;
+    }
+
+    public void setDirection(VehicleDirection direction) {
+        this.direction = direction;
+    }
+
+    public String getCameraId() {
+        return cameraId;
+    }
+
+    public void setCameraId(String cameraId) {
+        this.cameraId = cameraId;
+    }
+
+    public LocalDateTime getReadAt() {
+        return readAt;
+    }
+
+    public void setReadAt(LocalDateTime readAt) {
+        this.readAt = readAt;
+    }
+
+    public Double getConfidence() {
+        return confidence;
+    }
+
+    public void setConfidence(Double confidence) {
+        this.confidence = confidence;
+    }
+}
@@ -0,0 +1,55 @@
+package com.securacore.app.dto.Vehicle;
+
+import com.securacore.app.enums.VehicleClass;
+import com.securacore.app.enums.VehicleDirection;
+
+import java.time.LocalDateTime;
+
+public class VehicleEntryDTO {
+    private String plate;
+    private VehicleDirection direction;
+    private VehicleClass classification;
+    private Integer vehicleId;
+    private Integer visitorId;
+    private String cameraId;
+    private LocalDateTime readAt;
+
+    public VehicleEntryDTO(String plate, VehicleDirection direction, VehicleClass classification, Integer vehicleId,
+                           Integer visitorId, String cameraId, LocalDateTime readAt) {
+        this.plate = plate;
+        this.direction = direction;
+        this.classification = classification;
+        this.vehicleId = vehicleId;
+        this.visitorId = visitorId;
+        this.cameraId = cameraId;
+        this.readAt = readAt;
+    }
+
+    public String getPlate() {
+        return plate;
+    }
+
+    public VehicleDirection getDirection() {
+        return direction;
+    }
+
+    public VehicleClass getClassification() {
+        return classification;
+    }
+
+    public Integer getVehicleId() {
+        return vehicleId;
+    }
+
+    public Integer getVisitorId() {
+        return visitorId;
+    }
+
+    public String getCameraId() {
+        return cameraId;
+    }
+
+    public LocalDateTime getReadAt() {
+        return readAt;
+    }
+}
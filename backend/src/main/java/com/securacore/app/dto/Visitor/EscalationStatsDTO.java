@@ -0,0 +1,52 @@
+package com.securacore.app.dto.Visitor;
+
+import java.util.Map;
+
+public class EscalationStatsDTO {
+    private int inFlight;
+    private long decided;
+    private long autoDeclined;
+    private Map<String, Long> escalations;
+    private double p50WaitSeconds;
+    private double p90WaitSeconds;
+    private double p99WaitSeconds;
+
+    public EscalationStatsDTO(int inFlight, long decided, long autoDeclined, Map<String, Long> escalations,
+                              double p50WaitSeconds, double p90WaitSeconds, double p99WaitSeconds) {
+        this.inFlight = inFlight;
+        this.decided = decided;
+        this.autoDeclined = autoDeclined;
+        this.escalations = escalations;
+        this.p50WaitSeconds = p50WaitSeconds;
+        this.p90WaitSeconds = p90WaitSeconds;
+        this.p99WaitSeconds = p99WaitSeconds;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public long getDecided() {
+        return decided;
+    }
+
+    public long getAutoDeclined() {
+        return autoDeclined;
+    }
+
+    public Map<String, Long> getEscalations() {
+        return escalations;
+    }
+
+    public double getP50WaitSeconds() {
+        return p50WaitSeconds;
+    }
+
+    public double getP90WaitSeconds() {
+        return p90WaitSeconds;
+    }
+
+    public double getP99WaitSeconds() {
+        return p99WaitSeconds;
+    }
+}
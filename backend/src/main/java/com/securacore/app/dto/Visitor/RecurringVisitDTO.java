@@ -0,0 +1,118 @@
+package com.securacore.app.dto.Visitor;
+
+import com.securacore.app.enums.Recurrence;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+public class RecurringVisitDTO {
+    private int id;
+    private String name;
+    private String contact;
+    private String flatNo;
+    private String relation;
+    private String purpose;
+    private Recurrence frequency;
+    private int interval = 1;
+    private List<DayOfWeek> weekdays;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private boolean active = true;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getContact() {
+        return contact;
+    }
+
+    public void setContact(String contact) {
+        this.contact = contact;
+    }
+
+    public String getFlatNo() {
+        return flatNo;
+    }
+
+    public void setFlatNo(String flatNo) {
+        this.flatNo = flatNo;
+    }
+
+    public String getRelation() {
+        return relation;
+    }
+
+    public void setRelation(String relation) {
+        this.relation = relation;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public void setPurpose(String purpose) {
+        this.purpose = purpose;
+    }
+
+    public Recurrence getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(Recurrence frequency) {
+        this.frequency = frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public void setInterval(int interval) {
+        this.interval = interval;
+    }
+
+    public List<DayOfWeek> getWeekdays() {
+        return weekdays;
+    }
+
+    public void setWeekdays(List<DayOfWeek> weekdays) {
+        this.weekdays = weekdays;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
@@ -5,9 +5,11 @@ import com.securacore.app.enums.VisitStatus;
 
 public class RequestVisitDTO {
     private String name;
+    private String contact;
     private String flatNo;
     private String relation;
     private String purpose;
+    private String vehiclePlate;
 
     public String getName() {
         return name;
@@ -17,6 +19,14 @@ public class RequestVisitDTO {
         this.name = name;
     }
 
+    public String getContact() {
+        return contact;
+    }
+
+    public void setContact(String contact) {
+        this.contact = contact;
+    }
+
     public String getFlatNo() {
         return flatNo;
     }
@@ -41,4 +51,12 @@ public class RequestVisitDTO {
         this.purpose = purpose;
     }
 
+
+    public String getVehiclePlate() {
+        return vehiclePlate;
+    }
+
+    public void setVehiclePlate(String vehiclePlate) {
+        this.vehiclePlate = vehiclePlate;
+    }
 }
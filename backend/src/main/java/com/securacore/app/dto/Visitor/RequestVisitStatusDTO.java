@@ -13,6 +13,7 @@ public class RequestVisitStatusDTO {
     private String purpose;
     private LocalDateTime checkInTime;
     private VisitStatus status;
+    private String watchlistMatch;
     
     public int getId() {
         return id;
@@ -69,4 +70,12 @@ public class RequestVisitStatusDTO {
     public void setCheckInTime(LocalDateTime checkInTime) {
         this.checkInTime = checkInTime;
     }
+
+    public String getWatchlistMatch() {
+        return watchlistMatch;
+    }
+
+    public void setWatchlistMatch(String watchlistMatch) {
+        this.watchlistMatch = watchlistMatch;
+    }
 }
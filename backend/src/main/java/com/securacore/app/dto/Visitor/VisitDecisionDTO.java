@@ -0,0 +1,54 @@
+package com.securacore.app.dto.Visitor;
+
+import com.securacore.app.enums.VisitStatus;
+
+import java.time.LocalDateTime;
+
+public class VisitDecisionDTO {
+    private int visitorId;
+    private String name;
+    private String flatNo;
+    private VisitStatus status;
+    private boolean automatic;
+    private long waitSeconds;
+    private LocalDateTime decidedAt;
+
+    public VisitDecisionDTO(int visitorId, String name, String flatNo, VisitStatus status, boolean automatic,
+                            long waitSeconds, LocalDateTime decidedAt) {
+        this.visitorId = visitorId;
+        this.name = name;
+        this.flatNo = flatNo;
+        this.status = status;
+        this.automatic = automatic;
+        this.waitSeconds = waitSeconds;
+        this.decidedAt = decidedAt;
+    }
+
+    public int getVisitorId() {
+        return visitorId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFlatNo() {
+        return flatNo;
+    }
+
+    public VisitStatus getStatus() {
+        return status;
+    }
+
+    public boolean isAutomatic() {
+        return automatic;
+    }
+
+    public long getWaitSeconds() {
+        return waitSeconds;
+    }
+
+    public LocalDateTime getDecidedAt() {
+        return decidedAt;
+    }
+}
@@ -0,0 +1,50 @@
+package com.securacore.app.dto.Visitor;
+
+public class VisitEscalationDTO {
+    private int visitorId;
+    private String name;
+    private String flatNo;
+    private String relation;
+    private String purpose;
+    private String stage;
+    private long waitSeconds;
+
+    public VisitEscalationDTO(int visitorId, String name, String flatNo, String relation, String purpose,
+                              String stage, long waitSeconds) {
+        this.visitorId = visitorId;
+        this.name = name;
+        this.flatNo = flatNo;
+        this.relation = relation;
+        this.purpose = purpose;
+        this.stage = stage;
+        this.waitSeconds = waitSeconds;
+    }
+
+    public int getVisitorId() {
+        return visitorId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFlatNo() {
+        return flatNo;
+    }
+
+    public String getRelation() {
+        return relation;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public long getWaitSeconds() {
+        return waitSeconds;
+    }
+}
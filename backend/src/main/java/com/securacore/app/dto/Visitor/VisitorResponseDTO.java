@@ -13,6 +13,7 @@ public class VisitorResponseDTO {
     private LocalDateTime checkInTime;
     private LocalDateTime checkOutTime;
     private VisitStatus status;
+    private String photoHash;
 
     public int getId() {
         return id;
@@ -77,4 +78,12 @@ public class VisitorResponseDTO {
     public void setStatus(VisitStatus status) {
         this.status = status;
     }
+
+    public String getPhotoHash() {
+        return photoHash;
+    }
+
+    public void setPhotoHash(String photoHash) {
+        this.photoHash = photoHash;
+    }
 }
@@ -0,0 +1,39 @@
+package com.securacore.app.dto.Visitor;
+
+import java.time.LocalDateTime;
+
+public class VisitorSuggestionDTO {
+    private String name;
+    private String relation;
+    private String purpose;
+    private int visits;
+    private LocalDateTime lastVisit;
+
+    public VisitorSuggestionDTO(String name, String relation, String purpose, int visits, LocalDateTime lastVisit) {
+        this.name = name;
+        this.relation = relation;
+        this.purpose = purpose;
+        this.visits = visits;
+        this.lastVisit = lastVisit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getRelation() {
+        return relation;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public int getVisits() {
+        return visits;
+    }
+
+    public LocalDateTime getLastVisit() {
+        return lastVisit;
+    }
+}
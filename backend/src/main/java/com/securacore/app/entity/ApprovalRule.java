@@ -0,0 +1,135 @@
+package com.securacore.app.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Entity
+@Table(indexes = @Index(name = "idx_approval_rule_flat", columnList = "flat_id"))
+public class ApprovalRule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
+    @Column(name = "flat_id", nullable = false)
+    private Integer flatId;
+    // Read-only side of flat_id, mapped so the schema gets the foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "flat_id", insertable = false, updatable = false)
+    private Flat flat;
+    @Column(nullable = false)
+    private String flatNo;
+    // Criteria left null match any visitor
+    private String visitorName;
+    private String contact;
+    private String relation;
+    private String purpose;
+    private LocalTime windowStart;
+    private LocalTime windowEnd;
+    // Bit 0 is Monday; 0 means every day
+    @Column(nullable = false)
+    private int weekdays;
+    @Column(nullable = false)
+    private boolean active = true;
+    private LocalDateTime createdAt;
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public Integer getFlatId() {
+        return flatId;
+    }
+
+    public void setFlatId(Integer flatId) {
+        this.flatId = flatId;
+    }
+
+    public String getFlatNo() {
+        return flatNo;
+    }
+
+    public void setFlatNo(String flatNo) {
+        this.flatNo = flatNo;
+    }
+
+    public String getVisitorName() {
+        return visitorName;
+    }
+
+    public void setVisitorName(String visitorName) {
+        this.visitorName = visitorName;
+    }
+
+    public String getContact() {
+        return contact;
+    }
+
+    public void setContact(String contact) {
+        this.contact = contact;
+    }
+
+    public String getRelation() {
+        return relation;
+    }
+
+    public void setRelation(String relation) {
+        this.relation = relation;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public void setPurpose(String purpose) {
+        this.purpose = purpose;
+    }
+
+    public LocalTime getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(LocalTime windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public LocalTime getWindowEnd() {
+        return windowEnd;
+    }
+
+    public void setWindowEnd(LocalTime windowEnd) {
+        this.windowEnd = windowEnd;
+    }
+
+    public int getWeekdays() {
+        return weekdays;
+    }
+
+    public void setWeekdays(int weekdays) {
+        this.weekdays = weekdays;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
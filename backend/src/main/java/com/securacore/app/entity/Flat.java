@@ -0,0 +1,63 @@
+package com.securacore.app.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_flat_society_code", columnNames = {"society_id", "code"}))
+public class Flat {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
+    // Canonical form, e.g. "A-101"
+    @Column(nullable = false, length = 32)
+    private String code;
+    @Column(length = 16)
+    private String tower;
+    private Integer floor;
+    @Column(length = 16)
+    private String unit;
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getTower() {
+        return tower;
+    }
+
+    public void setTower(String tower) {
+        this.tower = tower;
+    }
+
+    public Integer getFloor() {
+        return floor;
+    }
+
+    public void setFloor(Integer floor) {
+        this.floor = floor;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+}
@@ -2,6 +2,7 @@ package com.securacore.app.entity;
 
 import com.securacore.app.enums.Shift;
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 
 import java.util.Date;
 
@@ -10,6 +11,9 @@ public class Guard {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
     @Column(nullable = false)
     public String name;
     @Column(nullable = false)
@@ -27,6 +31,10 @@ public class Guard {
         return id;
     }
 
+    public String getSocietyId() {
+        return societyId;
+    }
+
     public String getName() {
         return name;
     }
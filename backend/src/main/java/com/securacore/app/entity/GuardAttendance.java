@@ -1,15 +1,24 @@
 package com.securacore.app.entity;
 
+import com.securacore.app.enums.Shift;
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+// One row per shift session, written by the upserts in GuardAttendanceRepository. A night shift
+// is dated by the evening it starts, so it stays one session across midnight.
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_guard_attendance_session",
+        columnNames = {"society_id", "guard_id", "attendance_date", "shift"}))
 public class GuardAttendance {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
 
     @ManyToOne(optional = false)
     @JoinColumn(name = "guard_id")
@@ -17,14 +26,24 @@ public class GuardAttendance {
 
     private LocalDate attendanceDate;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private Shift shift;
+
     private LocalDateTime checkInTime;
 
     private LocalDateTime checkOutTime;
 
+    private LocalDateTime lastTapAt;
+
     public int getId() {
         return id;
     }
 
+    public String getSocietyId() {
+        return societyId;
+    }
+
     public Guard getGuard() {
         return guard;
     }
@@ -41,6 +60,14 @@ public class GuardAttendance {
         this.attendanceDate = attendanceDate;
     }
 
+    public Shift getShift() {
+        return shift;
+    }
+
+    public void setShift(Shift shift) {
+        this.shift = shift;
+    }
+
     public LocalDateTime getCheckInTime() {
         return checkInTime;
     }
@@ -56,6 +83,8 @@ public class GuardAttendance {
     public void setCheckOutTime(LocalDateTime checkOutTime) {
         this.checkOutTime = checkOutTime;
     }
-}
-
 
+    public LocalDateTime getLastTapAt() {
+        return lastTapAt;
+    }
+}
@@ -0,0 +1,54 @@
+package com.securacore.app.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+// A place that has to be manned, such as a gate booth or a patrol beat
+@Entity
+@Table(name = "guard_posts")
+public class GuardPost {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
+    @Column(nullable = false)
+    private String name;
+    @Column(length = 64)
+    private String gate;
+    @Column(nullable = false)
+    private boolean active = true;
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getGate() {
+        return gate;
+    }
+
+    public void setGate(String gate) {
+        this.gate = gate;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
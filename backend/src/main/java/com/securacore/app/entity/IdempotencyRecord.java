@@ -0,0 +1,81 @@
+package com.securacore.app.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+// Only written when securacore.idempotency.persistent is on
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_created_at", columnList = "createdAt"))
+public class IdempotencyRecord {
+    // Endpoint path plus the client's Idempotency-Key
+    @Id
+    @Column(length = 255)
+    private String requestKey;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
+    @Column(length = 64, nullable = false)
+    private String fingerprint;
+    private int status;
+    @Column(length = 128)
+    private String contentType;
+    @Lob
+    @Column(length = 1 << 20)
+    private byte[] body;
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public String getRequestKey() {
+        return requestKey;
+    }
+
+    public void setRequestKey(String requestKey) {
+        this.requestKey = requestKey;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,105 @@
+package com.securacore.app.entity;
+
+import com.securacore.app.enums.ParcelStatus;
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+// Intake is written in batches by ParcelService over JDBC; keep its insert in step with these columns
+@Entity
+@Table(name = "parcels", indexes = {
+        @Index(name = "idx_parcel_flat_status", columnList = "flat_id, status"),
+        @Index(name = "idx_parcel_drop", columnList = "dropId")
+})
+public class Parcel {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
+    @Column(name = "flat_id")
+    private Integer flatId;
+    // Read-only side of flat_id, mapped so the schema gets the foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "flat_id", insertable = false, updatable = false)
+    private Flat flat;
+    @Column(length = 32)
+    private String flatNo;
+    // Parcels handed over by one courier in one go
+    @Column(length = 36, nullable = false)
+    private String dropId;
+    @Column(length = 64)
+    private String courier;
+    @Column(length = 64)
+    private String trackingNo;
+    private String description;
+    private Integer receivedByGuardId;
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+    // Shared by the flat's parcels from the same drop; the resident shows it at pickup
+    @Column(length = 8, nullable = false)
+    private String otp;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private ParcelStatus status;
+    private LocalDateTime collectedAt;
+    private String collectedBy;
+
+    public long getId() {
+        return id;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public Integer getFlatId() {
+        return flatId;
+    }
+
+    public String getFlatNo() {
+        return flatNo;
+    }
+
+    public String getDropId() {
+        return dropId;
+    }
+
+    public String getCourier() {
+        return courier;
+    }
+
+    public String getTrackingNo() {
+        return trackingNo;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Integer getReceivedByGuardId() {
+        return receivedByGuardId;
+    }
+
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+
+    public String getOtp() {
+        return otp;
+    }
+
+    public ParcelStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCollectedAt() {
+        return collectedAt;
+    }
+
+    public String getCollectedBy() {
+        return collectedBy;
+    }
+}
@@ -1,27 +1,47 @@
 package com.securacore.app.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "qr_visitors")
+@Table(name = "qr_visitors", indexes = {
+        @Index(name = "idx_qr_visitor_flat_date", columnList = "flatId, visitDate"),
+        @Index(name = "idx_qr_visitor_date", columnList = "visitDate")
+})
 public class QRVisitor {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
     
     private String name;
     private String purpose;
     private LocalDate visitDate;
     private String relation;
     private String flatNo;
+    @Column(name = "flat_id")
+    private Integer flatId;
+    // Read-only side of flat_id, mapped so the schema gets the foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "flat_id", insertable = false, updatable = false)
+    private Flat flat;
     private String qrCode;
     private String status;
     private LocalDateTime checkInTime;
     private LocalDateTime checkOutTime;
     private LocalDateTime createdAt;
     private boolean createdByResident;
+    private Boolean overstayed;
+    private String contact;
+    // Watchlist entry the visitor's name resembles; set for a person to double-check
+    private String watchlistMatch;
+    // SHA-256 of the gate photo in the society's photo store
+    @Column(length = 64)
+    private String photoHash;
 
     public QRVisitor() {
         this.createdAt = LocalDateTime.now();
@@ -33,6 +53,10 @@ public class QRVisitor {
         return id;
     }
 
+    public String getSocietyId() {
+        return societyId;
+    }
+
     public void setId(int id) {
         this.id = id;
     }
@@ -77,6 +101,14 @@ public class QRVisitor {
         this.flatNo = flatNo;
     }
 
+    public Integer getFlatId() {
+        return flatId;
+    }
+
+    public void setFlatId(Integer flatId) {
+        this.flatId = flatId;
+    }
+
     public String getQrCode() {
         return qrCode;
     }
@@ -124,4 +156,36 @@ public class QRVisitor {
     public void setCreatedByResident(boolean createdByResident) {
         this.createdByResident = createdByResident;
     }
+
+    public Boolean getOverstayed() {
+        return overstayed;
+    }
+
+    public void setOverstayed(Boolean overstayed) {
+        this.overstayed = overstayed;
+    }
+
+    public String getContact() {
+        return contact;
+    }
+
+    public void setContact(String contact) {
+        this.contact = contact;
+    }
+
+    public String getWatchlistMatch() {
+        return watchlistMatch;
+    }
+
+    public void setWatchlistMatch(String watchlistMatch) {
+        this.watchlistMatch = watchlistMatch;
+    }
+
+    public String getPhotoHash() {
+        return photoHash;
+    }
+
+    public void setPhotoHash(String photoHash) {
+        this.photoHash = photoHash;
+    }
 }
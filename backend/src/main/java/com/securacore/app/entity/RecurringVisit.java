@@ -0,0 +1,159 @@
+package com.securacore.app.entity;
+
+import com.securacore.app.enums.Recurrence;
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = @Index(name = "idx_recurring_visit_flat", columnList = "flat_id"))
+public class RecurringVisit {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
+    @Column(name = "flat_id", nullable = false)
+    private Integer flatId;
+    // Read-only side of flat_id, mapped so the schema gets the foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "flat_id", insertable = false, updatable = false)
+    private Flat flat;
+    @Column(nullable = false)
+    private String flatNo;
+    @Column(nullable = false)
+    private String name;
+    private String contact;
+    private String relation;
+    private String purpose;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Recurrence frequency;
+    // Every n days or weeks, counted from startDate
+    @Column(name = "repeat_interval", nullable = false)
+    private int interval = 1;
+    // Weekly only; bit 0 is Monday, 0 means the weekday of startDate
+    @Column(nullable = false)
+    private int weekdays;
+    @Column(nullable = false)
+    private LocalDate startDate;
+    private LocalDate endDate;
+    @Column(nullable = false)
+    private boolean active = true;
+    private LocalDateTime createdAt;
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public Integer getFlatId() {
+        return flatId;
+    }
+
+    public void setFlatId(Integer flatId) {
+        this.flatId = flatId;
+    }
+
+    public String getFlatNo() {
+        return flatNo;
+    }
+
+    public void setFlatNo(String flatNo) {
+        this.flatNo = flatNo;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getContact() {
+        return contact;
+    }
+
+    public void setContact(String contact) {
+        this.contact = contact;
+    }
+
+    public String getRelation() {
+        return relation;
+    }
+
+    public void setRelation(String relation) {
+        this.relation = relation;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+
+    public void setPurpose(String purpose) {
+        this.purpose = purpose;
+    }
+
+    public Recurrence getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(Recurrence frequency) {
+        this.frequency = frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public void setInterval(int interval) {
+        this.interval = interval;
+    }
+
+    public int getWeekdays() {
+        return weekdays;
+    }
+
+    public void setWeekdays(int weekdays) {
+        this.weekdays = weekdays;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,12 +1,16 @@
 package com.securacore.app.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 
 @Entity
 public class Resident {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
     @Column(nullable = false)
     private String name;
     @Column(nullable = false)
@@ -15,6 +19,12 @@ public class Resident {
     private String password;
     @Column(nullable = false)
     private String flatNo;
+    @Column(name = "flat_id")
+    private Integer flatId;
+    // Read-only side of flat_id, mapped so the schema gets the foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "flat_id", insertable = false, updatable = false)
+    private Flat flat;
     @Column(nullable = false)
     private String contact;
     private String emergencyContact;
@@ -25,6 +35,10 @@ public class Resident {
         return id;
     }
 
+    public String getSocietyId() {
+        return societyId;
+    }
+
     public boolean getStatus() {
         return status;
     }
@@ -61,6 +75,14 @@ public class Resident {
         this.flatNo = flatNo;
     }
 
+    public Integer getFlatId() {
+        return flatId;
+    }
+
+    public void setFlatId(Integer flatId) {
+        this.flatId = flatId;
+    }
+
     public String getEmergencyContact() {
         return emergencyContact;
     }
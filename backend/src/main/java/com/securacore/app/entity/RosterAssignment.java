@@ -0,0 +1,111 @@
+package com.securacore.app.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// A guard rostered on a post for a daily shift window. The window ends the next day when it ends
+// at or before its start. With days off set, the guard works daysOn days then has daysOff days off,
+// counting from rotationStart.
+@Entity
+@Table(name = "roster_assignments")
+public class RosterAssignment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "post_id")
+    private GuardPost post;
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "guard_id")
+    private Guard guard;
+    @Column(nullable = false)
+    private LocalTime startTime;
+    @Column(nullable = false)
+    private LocalTime endTime;
+    @Column(nullable = false)
+    private LocalDate rotationStart;
+    @Column(nullable = false)
+    private int daysOn = 1;
+    @Column(nullable = false)
+    private int daysOff;
+    @Column(nullable = false)
+    private boolean active = true;
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public GuardPost getPost() {
+        return post;
+    }
+
+    public void setPost(GuardPost post) {
+        this.post = post;
+    }
+
+    public Guard getGuard() {
+        return guard;
+    }
+
+    public void setGuard(Guard guard) {
+        this.guard = guard;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public LocalDate getRotationStart() {
+        return rotationStart;
+    }
+
+    public void setRotationStart(LocalDate rotationStart) {
+        this.rotationStart = rotationStart;
+    }
+
+    public int getDaysOn() {
+        return daysOn;
+    }
+
+    public void setDaysOn(int daysOn) {
+        this.daysOn = daysOn;
+    }
+
+    public int getDaysOff() {
+        return daysOff;
+    }
+
+    public void setDaysOff(int daysOff) {
+        this.daysOff = daysOff;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
@@ -0,0 +1,23 @@
+package com.securacore.app.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Heartbeats of running instances, written by VisitVersions on the first shard
+@Entity
+public class ServiceInstance {
+    @Id
+    @Column(length = 64)
+    private String instanceId;
+    @Column(nullable = false)
+    private LocalDateTime lastSeen;
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public LocalDateTime getLastSeen() {
+        return lastSeen;
+    }
+}
@@ -0,0 +1,21 @@
+package com.securacore.app.entity;
+
+import jakarta.persistence.*;
+
+// Where each hashed society was first placed, kept on the first shard by ShardRoutingDataSource
+@Entity
+public class SocietyShard {
+    @Id
+    @Column(length = 64)
+    private String societyId;
+    @Column(nullable = false)
+    private int shardIndex;
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+}
@@ -0,0 +1,97 @@
+package com.securacore.app.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_vehicle_society_plate", columnNames = {"society_id", "plate"}))
+public class Vehicle {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
+    // Normalised: upper case letters and digits only, e.g. "MH12AB1234"
+    @Column(nullable = false, length = 16)
+    private String plate;
+    @Column(name = "resident_id", nullable = false)
+    private Integer residentId;
+    // Read-only side of resident_id, mapped so the schema gets the foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "resident_id", insertable = false, updatable = false)
+    private Resident resident;
+    @Column(name = "flat_id")
+    private Integer flatId;
+    private String flatNo;
+    private String type;
+    @Column(nullable = false)
+    private boolean active = true;
+    private LocalDateTime createdAt;
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public String getPlate() {
+        return plate;
+    }
+
+    public void setPlate(String plate) {
+        this.plate = plate;
+    }
+
+    public Integer getResidentId() {
+        return residentId;
+    }
+
+    public void setResidentId(Integer residentId) {
+        this.residentId = residentId;
+    }
+
+    public Integer getFlatId() {
+        return flatId;
+    }
+
+    public void setFlatId(Integer flatId) {
+        this.flatId = flatId;
+    }
+
+    public String getFlatNo() {
+        return flatNo;
+    }
+
+    public void setFlatNo(String flatNo) {
+        this.flatNo = flatNo;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,83 @@
+package com.securacore.app.entity;
+
+import com.securacore.app.enums.VehicleClass;
+import com.securacore.app.enums.VehicleDirection;
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+// Written in batches by VehicleService over JDBC; keep its insert in step with these columns
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_vehicle_entry_read_at", columnList = "readAt"),
+        @Index(name = "idx_vehicle_entry_plate", columnList = "plate, readAt")
+})
+public class VehicleEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
+    @Column(nullable = false, length = 16)
+    private String plate;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private VehicleDirection direction;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private VehicleClass classification;
+    private Integer vehicleId;
+    private Integer visitorId;
+    private Integer flatId;
+    @Column(length = 64)
+    private String cameraId;
+    private Double confidence;
+    @Column(nullable = false)
+    private LocalDateTime readAt;
+
+    public long getId() {
+        return id;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public String getPlate() {
+        return plate;
+    }
+
+    public VehicleDirection getDirection() {
+        return direction;
+    }
+
+    public VehicleClass getClassification() {
+        return classification;
+    }
+
+    public Integer getVehicleId() {
+        return vehicleId;
+    }
+
+    public Integer getVisitorId() {
+        return visitorId;
+    }
+
+    public Integer getFlatId() {
+        return flatId;
+    }
+
+    public String getCameraId() {
+        return cameraId;
+    }
+
+    public Double getConfidence() {
+        return confidence;
+    }
+
+    public LocalDateTime getReadAt() {
+        return readAt;
+    }
+}
@@ -0,0 +1,102 @@
+package com.securacore.app.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One day's visit sketches, for the whole society (flatId 0) or one flat; see VisitAnalyticsService
+@Entity
+@Table(name = "visit_sketches", uniqueConstraints = @UniqueConstraint(name = "uk_visit_sketch_day_flat",
+        columnNames = {"society_id", "sketch_date", "flat_id"}))
+public class VisitSketch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
+    @Column(nullable = false)
+    private LocalDate sketchDate;
+    @Column(nullable = false)
+    private int flatId;
+    private int visits;
+    // HyperLogLog of distinct visitors
+    @Lob
+    @Column(length = 1 << 20, nullable = false)
+    private byte[] visitors;
+    // Dwell-time quantiles and repeat visitors are only kept for the whole society
+    @Lob
+    @Column(length = 1 << 20)
+    private byte[] dwellTimes;
+    @Lob
+    @Column(length = 1 << 20)
+    private byte[] repeatVisitors;
+    @Column(nullable = false)
+    private LocalDateTime builtAt;
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSocietyId() {
+        return societyId;
+    }
+
+    public LocalDate getSketchDate() {
+        return sketchDate;
+    }
+
+    public void setSketchDate(LocalDate sketchDate) {
+        this.sketchDate = sketchDate;
+    }
+
+    public int getFlatId() {
+        return flatId;
+    }
+
+    public void setFlatId(int flatId) {
+        this.flatId = flatId;
+    }
+
+    public int getVisits() {
+        return visits;
+    }
+
+    public void setVisits(int visits) {
+        this.visits = visits;
+    }
+
+    public byte[] getVisitors() {
+        return visitors;
+    }
+
+    public void setVisitors(byte[] visitors) {
+        this.visitors = visitors;
+    }
+
+    public byte[] getDwellTimes() {
+        return dwellTimes;
+    }
+
+    public void setDwellTimes(byte[] dwellTimes) {
+        this.dwellTimes = dwellTimes;
+    }
+
+    public byte[] getRepeatVisitors() {
+        return repeatVisitors;
+    }
+
+    public void setRepeatVisitors(byte[] repeatVisitors) {
+        this.repeatVisitors = repeatVisitors;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public void setBuiltAt(LocalDateTime builtAt) {
+        this.builtAt = builtAt;
+    }
+}
@@ -2,17 +2,34 @@ package com.securacore.app.entity;
 
 import com.securacore.app.enums.VisitStatus;
 import jakarta.persistence.*;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_visitor_flat_date", columnList = "flatId, visitDate"),
+        @Index(name = "idx_visitor_date", columnList = "visitDate")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_visitor_recurring_entry", columnNames = {"recurringVisitId", "visitDate", "recurringEntry"})
+})
 public class Visitor {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
+    @TenantId
+    @Column(length = 64)
+    private String societyId;
     private String name;
+    private String contact;
     private String flatNo;
+    @Column(name = "flat_id")
+    private Integer flatId;
+    // Read-only side of flat_id, mapped so the schema gets the foreign key
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "flat_id", insertable = false, updatable = false)
+    private Flat flat;
     private String relation;
     private String purpose;
     public LocalDate visitDate;
@@ -21,6 +38,21 @@ public class Visitor {
     @Enumerated(EnumType.STRING)
     private VisitStatus status;
     private Boolean createdByResident;
+    // Set by VisitExpiryService when a visitor is still inside past the allowed visit duration
+    private Boolean overstayed;
+    // Rule that auto-approved the request at the gate, null when a resident decided
+    private Integer approvalRuleId;
+    // Schedule this visit is an occurrence of; the row is only created at check-in
+    private Integer recurringVisitId;
+    // Numbers the occurrence's entries on its date, so two check-ins cannot both take the same one
+    private Integer recurringEntry;
+    // Watchlist entry the visitor's name resembles; set for a person to double-check
+    private String watchlistMatch;
+    @Column(length = 16)
+    private String vehiclePlate;
+    // SHA-256 of the gate photo in the society's photo store
+    @Column(length = 64)
+    private String photoHash;
 
     public String getRelation() {
         return relation;
@@ -34,6 +66,10 @@ public class Visitor {
         return id;
     }
 
+    public String getSocietyId() {
+        return societyId;
+    }
+
     public String getName() {
         return name;
     }
@@ -42,6 +78,14 @@ public class Visitor {
         this.name = name;
     }
 
+    public String getContact() {
+        return contact;
+    }
+
+    public void setContact(String contact) {
+        this.contact = contact;
+    }
+
     public String getPurpose() {
         return purpose;
     }
@@ -86,6 +130,14 @@ public class Visitor {
         this.flatNo = flatNo;
     }
 
+    public Integer getFlatId() {
+        return flatId;
+    }
+
+    public void setFlatId(Integer flatId) {
+        this.flatId = flatId;
+    }
+
     public VisitStatus getStatus() {
         return status;
     }
@@ -101,4 +153,60 @@ public class Visitor {
     public void setCreatedByResident(Boolean createdByResident) {
         this.createdByResident = createdByResident;
     }
+
+    public Boolean getOverstayed() {
+        return overstayed;
+    }
+
+    public void setOverstayed(Boolean overstayed) {
+        this.overstayed = overstayed;
+    }
+
+    public Integer getApprovalRuleId() {
+        return approvalRuleId;
+    }
+
+    public void setApprovalRuleId(Integer approvalRuleId) {
+        this.approvalRuleId = approvalRuleId;
+    }
+
+    public Integer getRecurringVisitId() {
+        return recurringVisitId;
+    }
+
+    public void setRecurringVisitId(Integer recurringVisitId) {
+        this.recurringVisitId = recurringVisitId;
+    }
+
+    public Integer getRecurringEntry() {
+        return recurringEntry;
+    }
+
+    public void setRecurringEntry(Integer recurringEntry) {
+        this.recurringEntry = recurringEntry;
+    }
+
+    public String getWatchlistMatch() {
+        return watchlistMatch;
+    }
+
+    public void setWatchlistMatch(String watchlistMatch) {
+        this.watchlistMatch = watchlistMatch;
+    }
+
+    public String getVehiclePlate() {
+        return vehiclePlate;
+    }
+
+    public void setVehiclePlate(String vehiclePlate) {
+        this.vehiclePlate = vehiclePlate;
+    }
+
+    public String getPhotoHash() {
+        return photoHash;
+    }
+
+    public void setPhotoHash(String photoHash) {
+        this.photoHash = photoHash;
+    }
 }
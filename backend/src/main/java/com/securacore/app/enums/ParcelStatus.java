@@ -0,0 +1,7 @@
+package com.securacore.app.enums;
+
+public enum ParcelStatus {
+    PENDING,
+    COLLECTED,
+    RETURNED
+}
@@ -0,0 +1,6 @@
+package com.securacore.app.enums;
+
+public enum ReportType {
+    ATTENDANCE,
+    VISITORS
+}
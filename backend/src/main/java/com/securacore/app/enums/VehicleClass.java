@@ -0,0 +1,7 @@
+package com.securacore.app.enums;
+
+public enum VehicleClass {
+    RESIDENT,
+    VISITOR,
+    UNKNOWN
+}
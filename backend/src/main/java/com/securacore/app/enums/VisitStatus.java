@@ -3,5 +3,6 @@ package com.securacore.app.enums;
 public enum VisitStatus {
     PENDING,
     APPROVED,
-    DECLINED
+    DECLINED,
+    EXPIRED
 }
@@ -0,0 +1,92 @@
+package com.securacore.app.migration;
+
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Attendance rows written before shift sessions have no shift. Gives each the guard's shift, and
+ * where concurrent taps left several rows for the same guard and day folds them into one session
+ * (earliest check-in, latest check-out) so the session unique key holds. Row by row in short
+ * transactions; legacy attendance is small.
+ */
+@Component
+@Order(3)
+public class AttendanceBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private record LegacyRow(int id, String societyId, int guardId, Date attendanceDate, String shift,
+                             Timestamp checkInTime, Timestamp checkOutTime) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            TenantContext.bind(TenantContext.ROOT);
+            TenantContext.bindShard(shard);
+            try {
+                backfill();
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private void backfill() {
+        TransactionTemplate rowTransaction = new TransactionTemplate(transactionManager);
+        int lastId = 0;
+        while (true) {
+            List<LegacyRow> rows = jdbcTemplate.query(
+                    "SELECT a.id, a.society_id, a.guard_id, a.attendance_date, COALESCE(g.shift, 'DAY') AS shift, "
+                            + "a.check_in_time, a.check_out_time FROM guard_attendance a JOIN guard g ON g.id = a.guard_id "
+                            + "WHERE a.shift IS NULL AND a.id > ? ORDER BY a.id LIMIT " + BATCH_SIZE,
+                    (rs, rowNum) -> new LegacyRow(rs.getInt("id"), rs.getString("society_id"), rs.getInt("guard_id"),
+                            rs.getDate("attendance_date"), rs.getString("shift"),
+                            rs.getTimestamp("check_in_time"), rs.getTimestamp("check_out_time")),
+                    lastId);
+            if (rows.isEmpty()) return;
+
+            for (LegacyRow row : rows) {
+                rowTransaction.executeWithoutResult(status -> migrate(row));
+            }
+            lastId = rows.get(rows.size() - 1).id();
+        }
+    }
+
+    private void migrate(LegacyRow row) {
+        List<Integer> session = jdbcTemplate.queryForList(
+                "SELECT id FROM guard_attendance WHERE society_id = ? AND guard_id = ? AND attendance_date = ? AND shift = ?",
+                Integer.class, row.societyId(), row.guardId(), row.attendanceDate(), row.shift());
+        if (session.isEmpty()) {
+            jdbcTemplate.update("UPDATE guard_attendance SET shift = ? WHERE id = ?", row.shift(), row.id());
+            return;
+        }
+        jdbcTemplate.update("UPDATE guard_attendance SET "
+                        + "check_in_time = CASE WHEN check_in_time IS NULL OR check_in_time > ? THEN COALESCE(?, check_in_time) ELSE check_in_time END, "
+                        + "check_out_time = CASE WHEN check_out_time IS NULL OR check_out_time < ? THEN COALESCE(?, check_out_time) ELSE check_out_time END "
+                        + "WHERE id = ?",
+                row.checkInTime(), row.checkInTime(), row.checkOutTime(), row.checkOutTime(), session.get(0));
+        jdbcTemplate.update("DELETE FROM guard_attendance WHERE id = ?", row.id());
+    }
+}
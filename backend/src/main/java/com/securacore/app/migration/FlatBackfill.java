@@ -0,0 +1,87 @@
+package com.securacore.app.migration;
+
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.service.FlatRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Links existing visit and resident rows to the Flat registry. Walks each table by id in
+ * bounded batches, one short transaction per batch, so it can run against a live database and
+ * resume where it left off after a restart.
+ */
+@Component
+@Order(2)
+public class FlatBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final List<String> TABLES = List.of("visitor", "qr_visitors", "resident");
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private record PendingRow(int id, String societyId, String flatNo) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            try {
+                for (String table : TABLES) {
+                    TenantContext.bind(TenantContext.ROOT);
+                    TenantContext.bindShard(shard);
+                    backfill(table);
+                }
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private void backfill(String table) {
+        TransactionTemplate batchTransaction = new TransactionTemplate(transactionManager);
+        int lastId = 0;
+        while (true) {
+            List<PendingRow> rows = jdbcTemplate.query(
+                    "SELECT id, society_id, flat_no FROM " + table
+                            + " WHERE flat_id IS NULL AND flat_no IS NOT NULL AND id > ? ORDER BY id LIMIT " + BATCH_SIZE,
+                    (rs, rowNum) -> new PendingRow(rs.getInt("id"), rs.getString("society_id"), rs.getString("flat_no")),
+                    lastId);
+            if (rows.isEmpty()) return;
+
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (PendingRow row : rows) {
+                TenantContext.bind(row.societyId() != null ? row.societyId() : TenantContext.DEFAULT_SOCIETY);
+                Integer flatId = flatRegistry.resolve(row.flatNo());
+                if (flatId != null) {
+                    updates.add(new Object[]{flatId, FlatRegistry.canonicalCode(row.flatNo()), row.id()});
+                }
+            }
+            TenantContext.bind(TenantContext.ROOT);
+
+            batchTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate("UPDATE " + table + " SET flat_id = ?, flat_no = ? WHERE id = ?", updates));
+            lastId = rows.get(rows.size() - 1).id();
+        }
+    }
+}
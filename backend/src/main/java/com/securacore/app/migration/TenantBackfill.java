@@ -0,0 +1,40 @@
+package com.securacore.app.migration;
+
+import com.securacore.app.config.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rows written before tenancy have no society_id and would be invisible to every society.
+ * Assigns them to the default society on shard 0, a bounded batch per statement.
+ */
+@Component
+@Order(1)
+public class TenantBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final List<String> TABLES = List.of(
+            "visitor", "qr_visitors", "resident", "guard", "guard_attendance");
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String table : TABLES) {
+            int updated;
+            do {
+                updated = jdbcTemplate.update(
+                        "UPDATE " + table + " SET society_id = ? WHERE society_id IS NULL LIMIT " + BATCH_SIZE,
+                        TenantContext.DEFAULT_SOCIETY);
+            } while (updated == BATCH_SIZE);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.securacore.app.repository;
+
+import com.securacore.app.entity.ApprovalRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ApprovalRuleRepository extends JpaRepository<ApprovalRule, Integer> {
+    List<ApprovalRule> findAllByFlatId(Integer flatId);
+    List<ApprovalRule> findAllByFlatIdAndActiveTrue(Integer flatId);
+}
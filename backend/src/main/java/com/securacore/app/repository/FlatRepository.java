@@ -0,0 +1,10 @@
+package com.securacore.app.repository;
+
+import com.securacore.app.entity.Flat;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface FlatRepository extends JpaRepository<Flat, Integer> {
+    Optional<Flat> findByCode(String code);
+}
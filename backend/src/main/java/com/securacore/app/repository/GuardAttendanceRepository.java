@@ -3,13 +3,41 @@ package com.securacore.app.repository;
 import com.securacore.app.entity.Guard;
 import com.securacore.app.entity.GuardAttendance;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface GuardAttendanceRepository extends JpaRepository<GuardAttendance, Integer> {
     List<GuardAttendance> findAllByGuardAndAttendanceDate(Guard guard, LocalDate date);
     List<GuardAttendance> findAllByAttendanceDate(LocalDate date);
-}
+    List<GuardAttendance> findAllByCheckInTimeIsNotNullAndCheckOutTimeIsNullAndAttendanceDateGreaterThanEqual(LocalDate date);
+    long countByCheckInTimeIsNotNullAndCheckOutTimeIsNullAndAttendanceDateGreaterThanEqual(LocalDate date);
 
+    // Native, so the society is matched explicitly. The guard's own shift picks the session date;
+    // a repeated tap keeps the first check-in. Every tap moves last_tap_at, so the row always
+    // counts as changed and 0 means the guard does not exist. The update binds the tap time again
+    // rather than reading VALUES(), which MySQL deprecates and has no row alias for INSERT ... SELECT.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO guard_attendance (society_id, guard_id, shift, attendance_date, check_in_time, last_tap_at) "
+            + "SELECT g.society_id, g.id, COALESCE(g.shift, 'DAY'), CASE WHEN g.shift = 'NIGHT' THEN :nightDate ELSE :dayDate END, :at, :at "
+            + "FROM guard g WHERE g.id = :guardId AND g.society_id = :societyId "
+            + "ON DUPLICATE KEY UPDATE check_in_time = COALESCE(check_in_time, :at), last_tap_at = :at", nativeQuery = true)
+    int checkIn(@Param("societyId") String societyId, @Param("guardId") int guardId, @Param("dayDate") LocalDate dayDate,
+                @Param("nightDate") LocalDate nightDate, @Param("at") LocalDateTime at);
 
+    // The latest check-out wins
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO guard_attendance (society_id, guard_id, shift, attendance_date, check_out_time, last_tap_at) "
+            + "SELECT g.society_id, g.id, COALESCE(g.shift, 'DAY'), CASE WHEN g.shift = 'NIGHT' THEN :nightDate ELSE :dayDate END, :at, :at "
+            + "FROM guard g WHERE g.id = :guardId AND g.society_id = :societyId "
+            + "ON DUPLICATE KEY UPDATE check_out_time = :at, last_tap_at = :at", nativeQuery = true)
+    int checkOut(@Param("societyId") String societyId, @Param("guardId") int guardId, @Param("dayDate") LocalDate dayDate,
+                 @Param("nightDate") LocalDate nightDate, @Param("at") LocalDateTime at);
+}
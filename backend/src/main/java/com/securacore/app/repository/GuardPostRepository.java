@@ -0,0 +1,10 @@
+package com.securacore.app.repository;
+
+import com.securacore.app.entity.GuardPost;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface GuardPostRepository extends JpaRepository<GuardPost, Integer> {
+    List<GuardPost> findAllByActiveTrue();
+}
@@ -2,6 +2,7 @@ package com.securacore.app.repository;
 
 import com.securacore.app.entity.Guard;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 
 import java.util.Date;
@@ -11,4 +12,6 @@ public interface GuardRepository extends JpaRepository<Guard,Integer> {
     public List<Guard> findAllByCheckInTime(Date checkInTime);
     List<Guard> findByNameContainingIgnoreCaseOrEmailContainingIgnoreCaseOrContactContaining(
             String name, String email, String contact);
+    @Query("select lower(g.email) from Guard g")
+    List<String> findAllEmails();
 }
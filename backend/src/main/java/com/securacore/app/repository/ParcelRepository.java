@@ -0,0 +1,27 @@
+package com.securacore.app.repository;
+
+import com.securacore.app.entity.Parcel;
+import com.securacore.app.enums.ParcelStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ParcelRepository extends JpaRepository<Parcel, Long> {
+    List<Parcel> findAllByFlatIdAndStatusOrderByReceivedAt(Integer flatId, ParcelStatus status);
+    List<Parcel> findAllByDropIdOrderById(String dropId);
+
+    // Conditional on the status so a parcel is only ever handed over once
+    @Modifying
+    @Transactional
+    @Query("update Parcel p set p.status = com.securacore.app.enums.ParcelStatus.COLLECTED, p.collectedAt = :at, p.collectedBy = :by "
+            + "where p.flatId = :flatId and p.otp = :otp and p.status = com.securacore.app.enums.ParcelStatus.PENDING")
+    int collect(@Param("flatId") Integer flatId, @Param("otp") String otp, @Param("at") LocalDateTime at, @Param("by") String by);
+
+    @Query("select p.societyId, p.flatId, count(p) from Parcel p where p.status = com.securacore.app.enums.ParcelStatus.PENDING group by p.societyId, p.flatId")
+    List<Object[]> countPendingByFlat();
+}
@@ -2,9 +2,15 @@ package com.securacore.app.repository;
 
 import com.securacore.app.entity.QRVisitor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,10 +22,41 @@ public interface QRVisitorRepository extends JpaRepository<QRVisitor, Integer> {
     List<QRVisitor> findByVisitDate(LocalDate visitDate);
     
     List<QRVisitor> findByFlatNoAndVisitDate(String flatNo, LocalDate visitDate);
+
+    List<QRVisitor> findByFlatId(Integer flatId);
+
+    List<QRVisitor> findByFlatIdAndVisitDate(Integer flatId, LocalDate visitDate);
+
+    List<QRVisitor> findByFlatIdAndVisitDateGreaterThanEqual(Integer flatId, LocalDate since);
     
     List<QRVisitor> findByStatus(String status);
     
     Optional<QRVisitor> findByQrCode(String qrCode);
+
+    List<QRVisitor> findByStatusAndCheckOutTimeIsNullAndCheckInTimeAfter(String status, LocalDateTime since);
+
+    List<QRVisitor> findByStatusAndCheckInTimeIsNull(String status);
+
+    @Modifying
+    @Transactional
+    @Query("update QRVisitor q set q.status = 'EXPIRED' where q.id in :ids and q.status = 'APPROVED' and q.checkInTime is null")
+    int expireUnused(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Transactional
+    @Query("update QRVisitor q set q.overstayed = true where q.id in :ids and q.checkInTime is not null and q.checkOutTime is null")
+    int flagOverstay(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Transactional
+    @Query("update QRVisitor q set q.photoHash = null where q.visitDate < :before and q.photoHash is not null")
+    int releasePhotosBefore(@Param("before") LocalDate before);
+
+    @Query("select distinct q.societyId, q.photoHash from QRVisitor q where q.photoHash is not null")
+    List<Object[]> findPhotoReferences();
+
+    @Query("select q.status, count(q) from QRVisitor q where q.visitDate = :date group by q.status")
+    List<Object[]> countByStatusOn(@Param("date") LocalDate date);
     
     List<QRVisitor> findByCreatedByResidentTrue();
 }
@@ -0,0 +1,20 @@
+package com.securacore.app.repository;
+
+import com.securacore.app.entity.RecurringVisit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RecurringVisitRepository extends JpaRepository<RecurringVisit, Integer> {
+    List<RecurringVisit> findAllByFlatId(Integer flatId);
+
+    // Schedules in force on a day; whether the day is an occurrence is evaluated in memory
+    @Query("select r from RecurringVisit r where r.active = true and r.startDate <= :day and (r.endDate is null or r.endDate >= :day)")
+    List<RecurringVisit> findInForceOn(@Param("day") LocalDate day);
+
+    @Query("select r from RecurringVisit r where r.flatId = :flatId and r.active = true and r.startDate <= :day and (r.endDate is null or r.endDate >= :day)")
+    List<RecurringVisit> findInForceOnForFlat(@Param("flatId") Integer flatId, @Param("day") LocalDate day);
+}
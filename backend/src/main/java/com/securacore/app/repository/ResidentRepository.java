@@ -2,10 +2,14 @@ package com.securacore.app.repository;
 
 import com.securacore.app.entity.Resident;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface ResidentRepository extends JpaRepository<Resident,Integer> {
     List<Resident> findByNameContainingIgnoreCaseOrFlatNoContainingIgnoreCaseOrEmailContainingIgnoreCaseOrContactContaining(
             String name, String flatNo, String email, String contact);
+    List<Resident> findAllByFlatId(Integer flatId);
+    @Query("select lower(r.email) from Resident r")
+    List<String> findAllEmails();
 }
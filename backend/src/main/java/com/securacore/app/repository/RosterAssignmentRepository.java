@@ -0,0 +1,14 @@
+package com.securacore.app.repository;
+
+import com.securacore.app.entity.RosterAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface RosterAssignmentRepository extends JpaRepository<RosterAssignment, Integer> {
+    @Query("select a from RosterAssignment a join fetch a.post join fetch a.guard where a.active = true and a.post.active = true")
+    List<RosterAssignment> findAllActive();
+
+    List<RosterAssignment> findAllByPostIdAndActiveTrue(int postId);
+}
@@ -0,0 +1,12 @@
+package com.securacore.app.repository;
+
+import com.securacore.app.entity.VehicleEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface VehicleEntryRepository extends JpaRepository<VehicleEntry, Long> {
+    List<VehicleEntry> findAllByReadAtBetweenOrderByReadAt(LocalDateTime from, LocalDateTime to);
+    List<VehicleEntry> findAllByPlateOrderByReadAtDesc(String plate);
+}
@@ -0,0 +1,13 @@
+package com.securacore.app.repository;
+
+import com.securacore.app.entity.Vehicle;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface VehicleRepository extends JpaRepository<Vehicle, Integer> {
+    List<Vehicle> findAllByActiveTrue();
+    List<Vehicle> findAllByFlatIdAndActiveTrue(Integer flatId);
+    Optional<Vehicle> findByPlate(String plate);
+}
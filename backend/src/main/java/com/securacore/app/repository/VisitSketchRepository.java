@@ -0,0 +1,20 @@
+package com.securacore.app.repository;
+
+import com.securacore.app.entity.VisitSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface VisitSketchRepository extends JpaRepository<VisitSketch, Integer> {
+    List<VisitSketch> findAllByFlatIdAndSketchDateBetween(int flatId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Transactional
+    @Query("delete from VisitSketch s where s.societyId = :societyId and s.sketchDate = :date")
+    int deleteDay(@Param("societyId") String societyId, @Param("date") LocalDate date);
+}
@@ -1,9 +1,16 @@
 package com.securacore.app.repository;
 
 import com.securacore.app.entity.Visitor;
+import com.securacore.app.enums.VisitStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -12,4 +19,40 @@ public interface VisitorRepository extends JpaRepository<Visitor, Integer> {
     public List<Visitor> findAllByVisitDate(LocalDate visitDate);
     public List<Visitor> findAllByFlatNoAndStatus(String flatNo, com.securacore.app.enums.VisitStatus status);
     public List<Visitor> findAllByFlatNoAndVisitDate(String flatNo, LocalDate visitDate);
+    public List<Visitor> findAllByFlatId(Integer flatId);
+    public List<Visitor> findAllByStatusAndCheckOutTimeIsNullAndCheckInTimeAfter(com.securacore.app.enums.VisitStatus status, LocalDateTime since);
+    public List<Visitor> findAllByStatus(VisitStatus status);
+    public List<Visitor> findAllByStatusAndCheckInTimeIsNull(VisitStatus status);
+
+    // Conditional on the current status so a timer racing a resident's decision never overrides it
+    @Modifying
+    @Transactional
+    @Query("update Visitor v set v.status = :to where v.id in :ids and v.status = :from")
+    int transitionStatus(@Param("ids") Collection<Integer> ids, @Param("from") VisitStatus from, @Param("to") VisitStatus to);
+
+    @Modifying
+    @Transactional
+    @Query("update Visitor v set v.status = com.securacore.app.enums.VisitStatus.EXPIRED where v.id in :ids and v.status = com.securacore.app.enums.VisitStatus.APPROVED and v.checkInTime is null")
+    int expireUnused(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Transactional
+    @Query("update Visitor v set v.overstayed = true where v.id in :ids and v.checkInTime is not null and v.checkOutTime is null")
+    int flagOverstay(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Transactional
+    @Query("update Visitor v set v.photoHash = null where v.visitDate < :before and v.photoHash is not null")
+    int releasePhotosBefore(@Param("before") LocalDate before);
+
+    @Query("select distinct v.societyId, v.photoHash from Visitor v where v.photoHash is not null")
+    List<Object[]> findPhotoReferences();
+
+    @Query("select v.status, count(v) from Visitor v where v.visitDate = :date group by v.status")
+    List<Object[]> countByStatusOn(@Param("date") LocalDate date);
+    public List<Visitor> findAllByFlatIdAndStatus(Integer flatId, com.securacore.app.enums.VisitStatus status);
+    public List<Visitor> findAllByFlatIdAndVisitDate(Integer flatId, LocalDate visitDate);
+    public List<Visitor> findAllByFlatIdAndVisitDateGreaterThanEqual(Integer flatId, LocalDate since);
+    public List<Visitor> findAllByVisitDateAndVehiclePlateIsNotNull(LocalDate visitDate);
+    public List<Visitor> findAllByRecurringVisitIdAndVisitDate(Integer recurringVisitId, LocalDate visitDate);
 }
@@ -0,0 +1,10 @@
+package com.securacore.app.repository;
+
+import com.securacore.app.entity.WatchlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface WatchlistRepository extends JpaRepository<WatchlistEntry, Integer> {
+    List<WatchlistEntry> findAllByActiveTrue();
+}
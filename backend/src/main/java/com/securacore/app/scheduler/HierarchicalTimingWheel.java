@@ -0,0 +1,142 @@
+package com.securacore.app.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Scheduling and cancelling are O(1); advancing the clock touches
+ * only the bucket of the current tick plus, at slot boundaries, one bucket per higher level
+ * whose entries are cascaded down. Levels are added on demand, so deadlines can be arbitrarily
+ * far out while the wheel stays a few hundred buckets.
+ * <p>
+ * Not tied to any thread: the owner calls {@link #advanceTo(long)} from its ticker and gets the
+ * payloads that fell due.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>();
+    private final List<Timeout<T>> overdue = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private boolean cancelled;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+
+    private static final class Level<T> {
+        final long ticksPerSlot;
+        final ArrayDeque<Timeout<T>>[] buckets;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Level(long ticksPerSlot, int wheelSize) {
+            this.ticksPerSlot = ticksPerSlot;
+            this.buckets = new ArrayDeque[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTick = startMillis / tickMillis;
+        levels.add(new Level<>(1, wheelSize));
+    }
+
+    public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        // Round up so nothing fires before its deadline
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        Timeout<T> timeout = new Timeout<>(payload, deadlineTick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancelled entries are dropped lazily when their bucket is next visited.
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.cancelled) return false;
+        timeout.cancelled = true;
+        size--;
+        return true;
+    }
+
+    public synchronized List<T> advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        drain(overdue, expired);
+
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels.size() - 1; level > 0; level--) {
+                Level<T> higher = levels.get(level);
+                if (currentTick % higher.ticksPerSlot == 0) {
+                    ArrayDeque<Timeout<T>> bucket = higher.buckets[slot(higher, currentTick)];
+                    List<Timeout<T>> cascading = new ArrayList<>(bucket);
+                    bucket.clear();
+                    for (Timeout<T> timeout : cascading) {
+                        if (!timeout.cancelled) place(timeout);
+                    }
+                }
+            }
+            drain(overdue, expired);
+            drain(levels.get(0).buckets[slot(levels.get(0), currentTick)], expired);
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        if (delta <= 0) {
+            overdue.add(timeout);
+            return;
+        }
+        int level = 0;
+        long span = wheelSize;
+        while (delta >= span) {
+            level++;
+            span *= wheelSize;
+        }
+        while (levels.size() <= level) {
+            levels.add(new Level<>(levels.get(levels.size() - 1).ticksPerSlot * wheelSize, wheelSize));
+        }
+        Level<T> target = levels.get(level);
+        target.buckets[slot(target, timeout.deadlineTick)].add(timeout);
+    }
+
+    private int slot(Level<T> level, long tick) {
+        return (int) ((tick / level.ticksPerSlot) % wheelSize);
+    }
+
+    private void drain(Collection<Timeout<T>> bucket, List<T> expired) {
+        for (Timeout<T> timeout : bucket) {
+            if (!timeout.cancelled) {
+                timeout.cancelled = true;
+                size--;
+                expired.add(timeout.payload);
+            }
+        }
+        bucket.clear();
+    }
+}
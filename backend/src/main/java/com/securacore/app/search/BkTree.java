@@ -0,0 +1,104 @@
+package com.securacore.app.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Burkhard-Keller tree over Levenshtein distance. A query for everything within distance d of a
+ * term only descends into children whose edge distance lies within d of the distance to the
+ * current node, so most of the tree is never visited for small d.
+ */
+public class BkTree<T> {
+
+    private Node<T> root;
+    private int size;
+
+    public record Match<T>(String term, T value, int distance) {
+    }
+
+    private static final class Node<T> {
+        final String term;
+        final T value;
+        // Indexed by edge distance; names are short, so this stays small
+        Node<T>[] children;
+
+        Node(String term, T value) {
+            this.term = term;
+            this.value = value;
+        }
+    }
+
+    public void add(String term, T value) {
+        size++;
+        if (root == null) {
+            root = new Node<>(term, value);
+            return;
+        }
+        Node<T> node = root;
+        while (true) {
+            int distance = distance(term, node.term);
+            Node<T> child = child(node, distance);
+            if (child == null) {
+                setChild(node, distance, new Node<>(term, value));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    public List<Match<T>> search(String term, int maxDistance) {
+        List<Match<T>> matches = new ArrayList<>();
+        if (root == null) return matches;
+        List<Node<T>> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Node<T> node = pending.remove(pending.size() - 1);
+            int distance = distance(term, node.term);
+            if (distance <= maxDistance) matches.add(new Match<>(node.term, node.value, distance));
+            if (node.children == null) continue;
+            int from = Math.max(0, distance - maxDistance);
+            int to = Math.min(node.children.length - 1, distance + maxDistance);
+            for (int d = from; d <= to; d++) {
+                if (node.children[d] != null) pending.add(node.children[d]);
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private Node<T> child(Node<T> node, int distance) {
+        return node.children != null && distance < node.children.length ? node.children[distance] : null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void setChild(Node<T> node, int distance, Node<T> child) {
+        if (node.children == null || distance >= node.children.length) {
+            Node<T>[] grown = new Node[Math.max(distance + 1, 8)];
+            if (node.children != null) System.arraycopy(node.children, 0, grown, 0, node.children.length);
+            node.children = grown;
+        }
+        node.children[distance] = child;
+    }
+
+    static int distance(String a, String b) {
+        if (a.equals(b)) return 0;
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j] + 1, current[j - 1] + 1));
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,160 @@
+package com.securacore.app.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prefix index over names, ranked by an exponentially decayed visit count so that frequent and
+ * recent names come first. Every word of a name is indexed, so "devi" finds "Sunita Devi". Holds
+ * at most {@code maxEntries} names; the lowest ranked one is dropped when a new name would exceed
+ * that.
+ * <p>
+ * Not thread-safe; callers guard each instance.
+ */
+public class FrequencyTrie {
+
+    private final int maxEntries;
+    private final double halfLifeMillis;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private Node root = new Node();
+
+    public record Suggestion(String name, String relation, String purpose, int visits, long lastSeenMillis) {
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>(4);
+        final List<Entry> entries = new ArrayList<>(1);
+    }
+
+    private static final class Entry {
+        final String key;
+        String name;
+        int visits;
+        double score;
+        long lastSeenMillis;
+        final Map<String, Integer> relations = new HashMap<>(2);
+        final Map<String, Integer> purposes = new HashMap<>(2);
+
+        Entry(String key) {
+            this.key = key;
+        }
+    }
+
+    public FrequencyTrie(int maxEntries, long halfLifeMillis) {
+        this.maxEntries = maxEntries;
+        this.halfLifeMillis = halfLifeMillis;
+    }
+
+    public void record(String name, String relation, String purpose, long atMillis) {
+        String key = normalise(name);
+        if (key == null) return;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() >= maxEntries) evictLowest(atMillis);
+            entry = new Entry(key);
+            entry.lastSeenMillis = atMillis;
+            entries.put(key, entry);
+            index(entry);
+        }
+
+        // History may arrive out of order; older visits count for less rather than resetting recency
+        if (atMillis >= entry.lastSeenMillis) {
+            entry.score = entry.score * decay(atMillis - entry.lastSeenMillis) + 1;
+            entry.lastSeenMillis = atMillis;
+            entry.name = name.trim();
+        } else {
+            entry.score += decay(entry.lastSeenMillis - atMillis);
+        }
+        entry.visits++;
+        if (relation != null && !relation.isBlank()) entry.relations.merge(relation.trim(), 1, Integer::sum);
+        if (purpose != null && !purpose.isBlank()) entry.purposes.merge(purpose.trim(), 1, Integer::sum);
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit, long nowMillis) {
+        String key = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null) return List.of();
+
+        Set<Entry> found = new HashSet<>();
+        collect(node, found);
+        List<Entry> ranked = new ArrayList<>(found);
+        ranked.sort((a, b) -> Double.compare(rank(b, nowMillis), rank(a, nowMillis)));
+
+        List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Entry entry : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            suggestions.add(new Suggestion(entry.name, mostFrequent(entry.relations), mostFrequent(entry.purposes),
+                    entry.visits, entry.lastSeenMillis));
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void index(Entry entry) {
+        String[] words = entry.key.split(" ");
+        int offset = 0;
+        for (String word : words) {
+            insert(entry.key.substring(offset), entry);
+            offset += word.length() + 1;
+        }
+    }
+
+    private void insert(String word, Entry entry) {
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.children.computeIfAbsent(word.charAt(i), c -> new Node());
+        }
+        node.entries.add(entry);
+    }
+
+    private void evictLowest(long nowMillis) {
+        Entry lowest = Collections.min(entries.values(), (a, b) -> Double.compare(rank(a, nowMillis), rank(b, nowMillis)));
+        entries.remove(lowest.key);
+        // Rebuilding is cheaper to get right than pruning paths, and the trie is capped small
+        root = new Node();
+        entries.values().forEach(this::index);
+    }
+
+    private void collect(Node node, Set<Entry> found) {
+        found.addAll(node.entries);
+        for (Node child : node.children.values()) {
+            collect(child, found);
+        }
+    }
+
+    private double rank(Entry entry, long nowMillis) {
+        return entry.score * decay(Math.max(0, nowMillis - entry.lastSeenMillis));
+    }
+
+    private double decay(long elapsedMillis) {
+        return Math.pow(0.5, elapsedMillis / halfLifeMillis);
+    }
+
+    private static String mostFrequent(Map<String, Integer> counts) {
+        String best = null;
+        int bestCount = 0;
+        for (Map.Entry<String, Integer> count : counts.entrySet()) {
+            if (count.getValue() > bestCount) {
+                best = count.getKey();
+                bestCount = count.getValue();
+            }
+        }
+        return best;
+    }
+
+    private static String normalise(String name) {
+        if (name == null || name.isBlank()) return null;
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
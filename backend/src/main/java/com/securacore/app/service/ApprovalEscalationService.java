@@ -0,0 +1,267 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Visitor.EscalationStatsDTO;
+import com.securacore.app.dto.Visitor.VisitDecisionDTO;
+import com.securacore.app.dto.Visitor.VisitEscalationDTO;
+import com.securacore.app.entity.Resident;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.enums.VisitStatus;
+import com.securacore.app.repository.ResidentRepository;
+import com.securacore.app.repository.VisitorRepository;
+import com.securacore.app.scheduler.HierarchicalTimingWheel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escalates gate requests nobody answers. Measured from the moment the guard raises the request:
+ * after notify-flat-after every resident of the flat is pushed the request, after
+ * emergency-contact-after their emergency contacts are alerted, and after decline-after the visit
+ * is declined. Every request in flight sits in one timing wheel driven by a single ticker, and the
+ * outcome is pushed to the guards as soon as it is known.
+ */
+@Service
+public class ApprovalEscalationService {
+
+    private static final int LATENCY_SAMPLES = 4096;
+
+    @Autowired
+    VisitorRepository visitorRepository;
+
+    @Autowired
+    ResidentRepository residentRepository;
+
+    @Autowired
+    GateNotificationService gateNotificationService;
+
+    @Autowired
+    VehicleService vehicleService;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    ReportChangeTracker reportChangeTracker;
+
+    @Autowired
+    VisitVersions visitVersions;
+
+    @Value("${securacore.escalation.notify-flat-after:60s}")
+    Duration notifyFlatAfter;
+
+    @Value("${securacore.escalation.emergency-contact-after:120s}")
+    Duration emergencyContactAfter;
+
+    @Value("${securacore.escalation.decline-after:180s}")
+    Duration declineAfter;
+
+    public enum Stage {
+        NOTIFY_FLAT,
+        EMERGENCY_CONTACT,
+        DECLINE
+    }
+
+    private record Escalation(String societyId, int visitorId, Stage stage) {
+    }
+
+    private static final class InFlight {
+        final LocalDateTime requestedAt;
+        volatile HierarchicalTimingWheel.Timeout<Escalation> timeout;
+
+        InFlight(LocalDateTime requestedAt) {
+            this.requestedAt = requestedAt;
+        }
+    }
+
+    private final HierarchicalTimingWheel<Escalation> wheel =
+            new HierarchicalTimingWheel<>(1000, 64, System.currentTimeMillis());
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<Stage, AtomicLong> escalations = new EnumMap<>(Stage.class);
+    private final AtomicLong decided = new AtomicLong();
+    private final AtomicLong autoDeclined = new AtomicLong();
+    private final long[] waitMillis = new long[LATENCY_SAMPLES];
+    private long waitSamples;
+
+    public ApprovalEscalationService() {
+        for (Stage stage : Stage.values()) {
+            escalations.put(stage, new AtomicLong());
+        }
+    }
+
+    public void requestCreated(Visitor visitor) {
+        String societyId = societyOf(visitor.getSocietyId());
+        LocalDateTime requestedAt = visitor.getCheckInTime() != null ? visitor.getCheckInTime() : LocalDateTime.now();
+        InFlight request = new InFlight(requestedAt);
+        inFlight.put(key(societyId, visitor.getId()), request);
+        scheduleFrom(request, societyId, visitor.getId(), Stage.NOTIFY_FLAT);
+    }
+
+    /**
+     * Called when a resident approves or declines. Stops the escalation and tells the guards.
+     */
+    public void decided(Visitor visitor) {
+        String societyId = societyOf(visitor.getSocietyId());
+        InFlight request = inFlight.remove(key(societyId, visitor.getId()));
+        if (request == null) return;
+        HierarchicalTimingWheel.Timeout<Escalation> timeout = request.timeout;
+        if (timeout != null) wheel.cancel(timeout);
+        publish(societyId, visitor, visitor.getStatus(), false, request);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(3)
+    public void rebuild() {
+        for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            TenantContext.bind(TenantContext.ROOT);
+            TenantContext.bindShard(shard);
+            try {
+                visitorRepository.findAllByStatus(VisitStatus.PENDING).forEach(this::requestCreated);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${securacore.escalation.tick:1s}")
+    public void tick() {
+        List<Escalation> due = wheel.advanceTo(System.currentTimeMillis());
+        if (due.isEmpty()) return;
+
+        Map<String, List<Escalation>> bySociety = new HashMap<>();
+        for (Escalation escalation : due) {
+            bySociety.computeIfAbsent(escalation.societyId(), s -> new ArrayList<>()).add(escalation);
+        }
+        bySociety.forEach((societyId, escalationsDue) -> {
+            TenantContext.bind(societyId);
+            try {
+                escalate(societyId, escalationsDue);
+            } finally {
+                TenantContext.clear();
+            }
+        });
+    }
+
+    public EscalationStatsDTO stats() {
+        long[] samples;
+        synchronized (waitMillis) {
+            samples = Arrays.copyOf(waitMillis, (int) Math.min(waitSamples, LATENCY_SAMPLES));
+        }
+        Arrays.sort(samples);
+        Map<String, Long> byStage = new LinkedHashMap<>();
+        escalations.forEach((stage, count) -> byStage.put(stage.name(), count.get()));
+        return new EscalationStatsDTO(inFlight.size(), decided.get(), autoDeclined.get(), byStage,
+                percentile(samples, 0.50), percentile(samples, 0.90), percentile(samples, 0.99));
+    }
+
+    private void escalate(String societyId, List<Escalation> due) {
+        Map<Integer, Stage> stages = new HashMap<>();
+        due.forEach(escalation -> stages.put(escalation.visitorId(), escalation.stage()));
+
+        List<Visitor> pending = new ArrayList<>();
+        for (Visitor visitor : visitorRepository.findAllById(stages.keySet())) {
+            if (visitor.getStatus() == VisitStatus.PENDING) {
+                pending.add(visitor);
+            } else {
+                inFlight.remove(key(societyId, visitor.getId()));
+            }
+        }
+
+        List<Integer> declining = new ArrayList<>();
+        Map<Integer, List<Resident>> flatResidents = new HashMap<>();
+        for (Visitor visitor : pending) {
+            InFlight request = inFlight.get(key(societyId, visitor.getId()));
+            if (request == null) continue;
+            Stage stage = stages.get(visitor.getId());
+            escalations.get(stage).incrementAndGet();
+            if (stage == Stage.DECLINE) {
+                declining.add(visitor.getId());
+                continue;
+            }
+
+            VisitEscalationDTO notice = new VisitEscalationDTO(visitor.getId(), visitor.getName(), visitor.getFlatNo(),
+                    visitor.getRelation(), visitor.getPurpose(), stage.name(), waitedSeconds(request));
+            if (stage == Stage.NOTIFY_FLAT) {
+                gateNotificationService.notifyFlat(societyId, notice);
+            } else {
+                List<Resident> residents = visitor.getFlatId() == null ? List.of()
+                        : flatResidents.computeIfAbsent(visitor.getFlatId(), residentRepository::findAllByFlatId);
+                gateNotificationService.notifyEmergencyContacts(residents.stream()
+                        .filter(resident -> resident.getEmergencyContact() != null && !resident.getEmergencyContact().isBlank())
+                        .toList(), notice);
+            }
+            scheduleFrom(request, societyId, visitor.getId(), Stage.values()[stage.ordinal() + 1]);
+        }
+
+        if (declining.isEmpty()) return;
+        visitorRepository.transitionStatus(declining, VisitStatus.PENDING, VisitStatus.DECLINED);
+        for (Visitor visitor : pending) {
+            if (!declining.contains(visitor.getId())) continue;
+            // A resident who answered while the update ran has already removed the request
+            InFlight request = inFlight.remove(key(societyId, visitor.getId()));
+            if (request == null) continue;
+            autoDeclined.incrementAndGet();
+            reportChangeTracker.changed(ReportChangeTracker.Dataset.VISITORS, societyId, visitor.getVisitDate());
+            visitVersions.changed(societyId, visitor.getFlatId(), visitor.getVisitDate());
+            vehicleService.visitorVehicleCleared(visitor);
+            publish(societyId, visitor, VisitStatus.DECLINED, true, request);
+        }
+    }
+
+    private void scheduleFrom(InFlight request, String societyId, int visitorId, Stage stage) {
+        Duration after = switch (stage) {
+            case NOTIFY_FLAT -> notifyFlatAfter;
+            case EMERGENCY_CONTACT -> emergencyContactAfter;
+            case DECLINE -> declineAfter;
+        };
+        long deadline = request.requestedAt.plus(after).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        request.timeout = wheel.schedule(new Escalation(societyId, visitorId, stage), deadline);
+    }
+
+    private void publish(String societyId, Visitor visitor, VisitStatus status, boolean automatic, InFlight request) {
+        long waited = Duration.between(request.requestedAt, LocalDateTime.now()).toMillis();
+        decided.incrementAndGet();
+        synchronized (waitMillis) {
+            waitMillis[(int) (waitSamples++ % LATENCY_SAMPLES)] = Math.max(0, waited);
+        }
+        gateNotificationService.publishDecision(societyId, new VisitDecisionDTO(visitor.getId(), visitor.getName(),
+                visitor.getFlatNo(), status, automatic, Math.max(0, waited / 1000), LocalDateTime.now()));
+    }
+
+    private static long waitedSeconds(InFlight request) {
+        return Math.max(0, Duration.between(request.requestedAt, LocalDateTime.now()).getSeconds());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+
+    private static String societyOf(String societyId) {
+        return societyId != null ? societyId : TenantContext.getSociety();
+    }
+
+    private static String key(String societyId, int visitorId) {
+        return societyId + ":" + visitorId;
+    }
+}
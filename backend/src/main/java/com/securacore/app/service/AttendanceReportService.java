@@ -0,0 +1,125 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Locale;
+
+/**
+ * Monthly attendance and payroll figures per guard over any date range, worked out by the
+ * database in one query per shard and streamed straight to the response as CSV through
+ * {@link ReportQueries}. Sessions are the shift sessions of {@link GuardService#guardCheckIn}: a
+ * check-in later than the shift start plus the grace is late, a session with no check-out after
+ * its shift has ended is a missing check-out, and time beyond the shift length is overtime.
+ */
+@Service
+public class AttendanceReportService {
+
+    private static final String HEADER = "society,guard_id,guard_name,shift,month,sessions,hours_worked,"
+            + "late_arrivals,missing_checkouts,overtime_hours,cumulative_hours\n";
+
+    // Aggregates per guard and month, then a window over the months gives each guard's running total
+    private static final String REPORT = "WITH sessions AS ("
+            + " SELECT a.society_id, a.guard_id, a.attendance_date, a.check_in_time, a.check_out_time,"
+            + " TIMESTAMPADD(SECOND, CASE WHEN a.shift = 'NIGHT' THEN :nightStart ELSE :dayStart END,"
+            + " CAST(a.attendance_date AS DATETIME)) AS shift_start"
+            + " FROM guard_attendance a"
+            + " WHERE a.attendance_date BETWEEN :from AND :to AND (:allSocieties = 1 OR a.society_id = :societyId)"
+            + "), worked AS ("
+            + " SELECT society_id, guard_id, YEAR(attendance_date) AS yr, MONTH(attendance_date) AS mon,"
+            + " CASE WHEN check_in_time IS NOT NULL AND check_out_time > check_in_time"
+            + " THEN TIMESTAMPDIFF(SECOND, check_in_time, check_out_time) ELSE 0 END AS seconds,"
+            + " CASE WHEN check_in_time > TIMESTAMPADD(SECOND, :lateGrace, shift_start) THEN 1 ELSE 0 END AS late,"
+            + " CASE WHEN check_in_time IS NOT NULL AND check_out_time IS NULL"
+            + " AND TIMESTAMPADD(SECOND, :shiftLength, shift_start) < :now THEN 1 ELSE 0 END AS missing_checkout"
+            + " FROM sessions"
+            + ")"
+            + " SELECT w.society_id, w.guard_id, g.name, g.shift, w.yr, w.mon, COUNT(*) AS session_count,"
+            + " SUM(w.seconds) AS seconds, SUM(w.late) AS late, SUM(w.missing_checkout) AS missing_checkouts,"
+            + " SUM(CASE WHEN w.seconds > :shiftLength THEN w.seconds - :shiftLength ELSE 0 END) AS overtime,"
+            + " SUM(SUM(w.seconds)) OVER (PARTITION BY w.society_id, w.guard_id ORDER BY w.yr, w.mon) AS cumulative"
+            + " FROM worked w JOIN guard g ON g.id = w.guard_id"
+            + " GROUP BY w.society_id, w.guard_id, g.name, g.shift, w.yr, w.mon"
+            + " ORDER BY w.society_id, g.name, w.guard_id, w.yr, w.mon";
+
+    @Autowired
+    ReportQueries reportQueries;
+
+    @Value("${securacore.attendance.day-shift-start:08:00}")
+    LocalTime dayShiftStart;
+
+    @Value("${securacore.attendance.night-shift-start:20:00}")
+    LocalTime nightShiftStart;
+
+    @Value("${securacore.attendance.shift-length:12h}")
+    Duration shiftLength;
+
+    @Value("${securacore.attendance.late-grace:10m}")
+    Duration lateGrace;
+
+    /**
+     * The report as a response body. The society is captured here because the body is written
+     * on another thread after the controller returns.
+     */
+    public StreamingResponseBody attendanceCsv(LocalDate from, LocalDate to) {
+        String society = TenantContext.isRoot() ? TenantContext.ROOT : TenantContext.getSociety();
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            TenantContext.bind(society);
+            try {
+                writeAttendanceCsv(from, to, writer);
+            } finally {
+                TenantContext.clear();
+            }
+            writer.flush();
+        };
+    }
+
+    public void writeAttendanceCsv(LocalDate from, LocalDate to, Writer writer) throws IOException {
+        writer.write(HEADER);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("dayStart", dayShiftStart.toSecondOfDay())
+                .addValue("nightStart", nightShiftStart.toSecondOfDay())
+                .addValue("lateGrace", lateGrace.toSeconds())
+                .addValue("shiftLength", shiftLength.toSeconds())
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        reportQueries.stream(REPORT, params, rs -> {
+            try {
+                writer.append(OccupancyService.csvField(rs.getString("society_id"))).append(',')
+                        .append(String.valueOf(rs.getInt("guard_id"))).append(',')
+                        .append(OccupancyService.csvField(rs.getString("name"))).append(',')
+                        .append(rs.getString("shift") != null ? rs.getString("shift") : "").append(',')
+                        .append(String.format(Locale.ROOT, "%04d-%02d", rs.getInt("yr"), rs.getInt("mon"))).append(',')
+                        .append(String.valueOf(rs.getLong("session_count"))).append(',')
+                        .append(hours(rs.getLong("seconds"))).append(',')
+                        .append(String.valueOf(rs.getLong("late"))).append(',')
+                        .append(String.valueOf(rs.getLong("missing_checkouts"))).append(',')
+                        .append(hours(rs.getLong("overtime"))).append(',')
+                        .append(hours(rs.getLong("cumulative"))).append('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static String hours(long seconds) {
+        return String.format(Locale.ROOT, "%.2f", seconds / 3600.0);
+    }
+}
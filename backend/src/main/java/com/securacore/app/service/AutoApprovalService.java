@@ -0,0 +1,207 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Resident.ApprovalRuleDTO;
+import com.securacore.app.entity.ApprovalRule;
+import com.securacore.app.repository.ApprovalRuleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Residents' standing approvals for regular visitors. Rules are compiled per flat on first use
+ * into normalised values, minute-of-day windows and weekday bitmasks, so matching a gate request
+ * is a handful of comparisons. Any edit to a flat's rules drops that flat's compiled entry.
+ */
+@Service
+public class AutoApprovalService {
+
+    private static final CompiledRule[] NO_RULES = new CompiledRule[0];
+
+    @Autowired
+    ApprovalRuleRepository approvalRuleRepository;
+
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    private final Map<String, CompiledRule[]> index = new ConcurrentHashMap<>();
+
+    /**
+     * Criteria left null on the rule match anything; all the others must match. A rule names the
+     * visitor by name or contact, and one that names neither matches nobody. Arguments are
+     * expected already normalised.
+     */
+    record CompiledRule(int id, String name, String contact, String relation, String purpose,
+                        int fromMinute, int toMinute, int weekdays) {
+
+        boolean matches(String name, String contact, String relation, String purpose, LocalDateTime at) {
+            if (this.name == null && this.contact == null) return false;
+            if (this.name != null && !this.name.equals(name)) return false;
+            if (this.contact != null && !this.contact.equals(contact)) return false;
+            if (this.relation != null && !this.relation.equals(relation)) return false;
+            if (this.purpose != null && !this.purpose.equals(purpose)) return false;
+            if (weekdays != 0 && (weekdays & bit(at.getDayOfWeek())) == 0) return false;
+            if (fromMinute < 0) return true;
+            int minute = at.getHour() * 60 + at.getMinute();
+            // A window such as 22:00-06:00 wraps past midnight
+            return fromMinute <= toMinute
+                    ? minute >= fromMinute && minute < toMinute
+                    : minute >= fromMinute || minute < toMinute;
+        }
+    }
+
+    /**
+     * Returns the id of the first rule of the flat that matches, or null.
+     */
+    public Integer match(Integer flatId, String name, String contact, String relation, String purpose, LocalDateTime at) {
+        if (flatId == null) return null;
+        CompiledRule[] rules = index.computeIfAbsent(key(TenantContext.getSociety(), flatId), k -> load(flatId));
+        if (rules.length == 0) return null;
+        String visitorName = normaliseText(name);
+        String visitorContact = normaliseContact(contact);
+        String visitorRelation = normaliseText(relation);
+        String visitorPurpose = normaliseText(purpose);
+        for (CompiledRule rule : rules) {
+            if (rule.matches(visitorName, visitorContact, visitorRelation, visitorPurpose, at)) return rule.id();
+        }
+        return null;
+    }
+
+    public String addRule(ApprovalRuleDTO request) {
+        Integer flatId = flatRegistry.resolve(request.getFlatNo());
+        if (flatId == null) return "Flat Not Found";
+        if (!namesVisitor(request)) return "Visitor Name Or Contact Required";
+        ApprovalRule rule = new ApprovalRule();
+        rule.setFlatId(flatId);
+        rule.setFlatNo(FlatRegistry.canonicalCode(request.getFlatNo()));
+        rule.setCreatedAt(LocalDateTime.now());
+        copy(request, rule);
+        approvalRuleRepository.save(rule);
+        invalidate(flatId);
+        return "Approval Rule Added";
+    }
+
+    public String updateRule(int id, ApprovalRuleDTO request) {
+        ApprovalRule rule = approvalRuleRepository.findById(id).orElse(null);
+        if (rule == null) return "Approval Rule Not Found";
+        if (!namesVisitor(request)) return "Visitor Name Or Contact Required";
+        copy(request, rule);
+        approvalRuleRepository.save(rule);
+        invalidate(rule.getFlatId());
+        return "Approval Rule Updated";
+    }
+
+    public String deleteRule(int id) {
+        ApprovalRule rule = approvalRuleRepository.findById(id).orElse(null);
+        if (rule == null) return "Approval Rule Not Found";
+        approvalRuleRepository.delete(rule);
+        invalidate(rule.getFlatId());
+        return "Approval Rule Deleted";
+    }
+
+    @Transactional(readOnly = true)
+    public List<ApprovalRuleDTO> getRules(String flatNo) {
+        List<ApprovalRuleDTO> result = new ArrayList<>();
+        Integer flatId = flatRegistry.find(flatNo);
+        if (flatId == null) return result;
+        for (ApprovalRule rule : approvalRuleRepository.findAllByFlatId(flatId)) {
+            ApprovalRuleDTO dto = new ApprovalRuleDTO();
+            dto.setId(rule.getId());
+            dto.setFlatNo(rule.getFlatNo());
+            dto.setVisitorName(rule.getVisitorName());
+            dto.setContact(rule.getContact());
+            dto.setRelation(rule.getRelation());
+            dto.setPurpose(rule.getPurpose());
+            dto.setWindowStart(rule.getWindowStart());
+            dto.setWindowEnd(rule.getWindowEnd());
+            dto.setWeekdays(weekdaysOf(rule.getWeekdays()));
+            dto.setActive(rule.isActive());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    static CompiledRule compile(ApprovalRule rule) {
+        boolean windowed = rule.getWindowStart() != null && rule.getWindowEnd() != null;
+        return new CompiledRule(rule.getId(), normaliseText(rule.getVisitorName()), normaliseContact(rule.getContact()),
+                normaliseText(rule.getRelation()), normaliseText(rule.getPurpose()),
+                windowed ? minuteOf(rule.getWindowStart()) : -1, windowed ? minuteOf(rule.getWindowEnd()) : -1,
+                rule.getWeekdays());
+    }
+
+    private CompiledRule[] load(Integer flatId) {
+        List<ApprovalRule> rules = approvalRuleRepository.findAllByFlatIdAndActiveTrue(flatId);
+        if (rules.isEmpty()) return NO_RULES;
+        return rules.stream().map(AutoApprovalService::compile).toArray(CompiledRule[]::new);
+    }
+
+    private void invalidate(Integer flatId) {
+        index.remove(key(TenantContext.getSociety(), flatId));
+    }
+
+    // Relation, purpose and times alone would approve every visitor who claims them
+    private static boolean namesVisitor(ApprovalRuleDTO request) {
+        return normaliseText(request.getVisitorName()) != null || normaliseContact(request.getContact()) != null;
+    }
+
+    private static void copy(ApprovalRuleDTO request, ApprovalRule rule) {
+        rule.setVisitorName(blankToNull(request.getVisitorName()));
+        rule.setContact(blankToNull(request.getContact()));
+        rule.setRelation(blankToNull(request.getRelation()));
+        rule.setPurpose(blankToNull(request.getPurpose()));
+        rule.setWindowStart(request.getWindowStart());
+        rule.setWindowEnd(request.getWindowEnd());
+        int weekdays = 0;
+        if (request.getWeekdays() != null) {
+            for (DayOfWeek day : request.getWeekdays()) weekdays |= bit(day);
+        }
+        rule.setWeekdays(weekdays);
+        rule.setActive(request.isActive());
+    }
+
+    private static List<DayOfWeek> weekdaysOf(int mask) {
+        List<DayOfWeek> days = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & bit(day)) != 0) days.add(day);
+        }
+        return days;
+    }
+
+    private static int bit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    static String normaliseText(String value) {
+        if (value == null || value.isBlank()) return null;
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // Compares the last ten digits so "+91 98765-43210" and "9876543210" are the same number
+    static String normaliseContact(String value) {
+        if (value == null) return null;
+        String digits = value.replaceAll("\\D", "");
+        if (digits.isEmpty()) return null;
+        return digits.length() > 10 ? digits.substring(digits.length() - 10) : digits;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String key(String societyId, Integer flatId) {
+        return societyId + ":" + flatId;
+    }
+}
@@ -0,0 +1,182 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Dashboard.DashboardDTO;
+import com.securacore.app.dto.Roster.DutyPostDTO;
+import com.securacore.app.repository.GuardAttendanceRepository;
+import com.securacore.app.repository.GuardRepository;
+import com.securacore.app.repository.QRVisitorRepository;
+import com.securacore.app.repository.ResidentRepository;
+import com.securacore.app.repository.VisitorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Everything the admin landing page shows, in one call. Each database count runs on its own
+ * virtual thread (one per shard across societies) as a read-only transaction, so it can go to a
+ * replica, and all of them share one deadline. A count that fails or misses the deadline is left
+ * out and named in the result; the statement timeout stops it on the database as well. Occupancy
+ * and the duty board are already in memory and are read directly.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    @Autowired
+    ResidentRepository residentRepository;
+
+    @Autowired
+    GuardRepository guardRepository;
+
+    @Autowired
+    GuardAttendanceRepository guardAttendanceRepository;
+
+    @Autowired
+    VisitorRepository visitorRepository;
+
+    @Autowired
+    QRVisitorRepository qrVisitorRepository;
+
+    @Autowired
+    OccupancyService occupancyService;
+
+    @Autowired
+    RosterService rosterService;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Value("${securacore.dashboard.timeout:2s}")
+    Duration timeout;
+
+    // One count, split into a part per shard when it covers every society
+    private record Section<T>(String name, List<Future<T>> parts) {
+    }
+
+    public DashboardDTO dashboard() {
+        LocalDate today = LocalDate.now();
+        DashboardDTO dashboard = new DashboardDTO();
+        List<String> unavailable = new ArrayList<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Section<Long> residents = submit(executor, "residents", residentRepository::count);
+            Section<Long> guards = submit(executor, "guards", guardRepository::count);
+            // Night shifts that began yesterday are still on duty
+            Section<Long> guardsOnDuty = submit(executor, "guardsOnDuty", () -> guardAttendanceRepository
+                    .countByCheckInTimeIsNotNullAndCheckOutTimeIsNullAndAttendanceDateGreaterThanEqual(today.minusDays(1)));
+            Section<Map<String, Long>> visitorsToday = submit(executor, "visitorsToday",
+                    () -> byStatus(visitorRepository.countByStatusOn(today)));
+            Section<Map<String, Long>> qrPassesToday = submit(executor, "qrPassesToday",
+                    () -> byStatus(qrVisitorRepository.countByStatusOn(today)));
+
+            dashboard.setInsideNow(occupancyService.snapshot().getTotal());
+            dashboard.setOverstaying(occupancyService.overstays().size());
+            dashboard.setUncoveredPosts(rosterService.dutyBoard().stream().filter(DutyPostDTO::isUncovered).count());
+
+            dashboard.setResidents(await(residents, deadline, Long::sum, unavailable));
+            dashboard.setGuards(await(guards, deadline, Long::sum, unavailable));
+            dashboard.setGuardsOnDuty(await(guardsOnDuty, deadline, Long::sum, unavailable));
+            dashboard.setVisitorsToday(await(visitorsToday, deadline, DashboardService::add, unavailable));
+            dashboard.setQrPassesToday(await(qrPassesToday, deadline, DashboardService::add, unavailable));
+        } finally {
+            // Stragglers were cancelled; the request does not wait for them
+            executor.shutdownNow();
+        }
+        dashboard.setUnavailable(unavailable);
+        dashboard.setGeneratedAt(LocalDateTime.now());
+        return dashboard;
+    }
+
+    private <T> Section<T> submit(ExecutorService executor, String name, Supplier<T> query) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+
+        String society = TenantContext.getSociety();
+        List<Integer> shards = new ArrayList<>();
+        if (TenantContext.isRoot()) {
+            for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) shards.add(shard);
+        } else {
+            shards.add(null);
+        }
+
+        List<Future<T>> parts = new ArrayList<>();
+        for (Integer shard : shards) {
+            parts.add(executor.submit(() -> {
+                TenantContext.bind(society);
+                if (shard != null) TenantContext.bindShard(shard);
+                try {
+                    return readOnly.execute(status -> query.get());
+                } finally {
+                    TenantContext.clear();
+                }
+            }));
+        }
+        return new Section<>(name, parts);
+    }
+
+    private static <T> T await(Section<T> section, long deadline, BinaryOperator<T> combine, List<String> unavailable) {
+        T result = null;
+        for (Future<T> part : section.parts()) {
+            try {
+                T value = part.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                result = result == null ? value : combine.apply(result, value);
+            } catch (TimeoutException e) {
+                section.parts().forEach(pending -> pending.cancel(true));
+                unavailable.add(section.name());
+                return null;
+            } catch (ExecutionException e) {
+                log.warn("Dashboard section {} failed", section.name(), e.getCause());
+                section.parts().forEach(pending -> pending.cancel(true));
+                unavailable.add(section.name());
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unavailable.add(section.name());
+                return null;
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, Long> byStatus(List<Object[]> rows) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Object[] row : rows) {
+            counts.merge(row[0] != null ? row[0].toString() : "NONE", (Long) row[1], Long::sum);
+        }
+        return counts;
+    }
+
+    private static Map<String, Long> add(Map<String, Long> a, Map<String, Long> b) {
+        Map<String, Long> sum = new TreeMap<>(a);
+        b.forEach((status, count) -> sum.merge(status, count, Long::sum));
+        return sum;
+    }
+}
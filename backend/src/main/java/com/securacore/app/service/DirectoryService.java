@@ -0,0 +1,258 @@
+package com.securacore.app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Directory.DirectoryPageDTO;
+import com.securacore.app.enums.Shift;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Resident and guard listings for the admin pages, a page at a time. A page continues from a
+ * cursor holding the previous page's last sort values rather than skipping an offset, so a deep
+ * page costs the same as the first, and only the columns named in fields are selected. Across all
+ * societies the shards are listed one after another, each in sort order. The total is a count
+ * cached for count-ttl, so it can be slightly behind but paging does not count the table again.
+ */
+@Service
+public class DirectoryService {
+
+    private record Listing(String table, Map<String, String> columns, Set<String> sortable, String filterColumn) {
+    }
+
+    private record Cursor(int shard, List<Object> keys) {
+    }
+
+    private record CachedCount(long count, long countedAt) {
+    }
+
+    private static final Listing RESIDENTS = new Listing("resident",
+            columns("id", "id", "name", "name", "flatNo", "flat_no", "email", "email", "contact", "contact",
+                    "emergencyContact", "emergency_contact", "status", "status"),
+            Set.of("id", "name", "flatNo", "email"), "status");
+
+    private static final Listing GUARDS = new Listing("guard",
+            columns("id", "id", "name", "name", "email", "email", "contact", "contact", "shift", "shift",
+                    "checkInTime", "check_in_time", "checkOutTime", "check_out_time"),
+            Set.of("id", "name", "email"), "shift");
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${securacore.directory.count-ttl:5m}")
+    Duration countTtl;
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Residents, optionally only active (status true) or inactive ones. Returns null when fields,
+     * sort or the cursor are not valid for this listing.
+     */
+    public DirectoryPageDTO residents(Boolean status, String fields, Pageable pageable, String after) {
+        return page(RESIDENTS, status, fields, pageable, after);
+    }
+
+    public DirectoryPageDTO guards(Shift shift, String fields, Pageable pageable, String after) {
+        return page(GUARDS, shift != null ? shift.name() : null, fields, pageable, after);
+    }
+
+    private DirectoryPageDTO page(Listing listing, Object filter, String fields, Pageable pageable, String after) {
+        Set<String> selected = selectFields(listing, fields);
+        List<Sort.Order> orders = orders(listing, pageable.getSort());
+        if (selected == null || orders == null) return null;
+
+        boolean allSocieties = TenantContext.isRoot();
+        int shardCount = allSocieties ? shardRoutingDataSource.getShardCount() : 1;
+        Cursor cursor = after != null ? decode(after, orders, shardCount) : new Cursor(0, null);
+        if (cursor == null) return null;
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("allSocieties", allSocieties ? 1 : 0)
+                .addValue("societyId", TenantContext.getSociety());
+        String from = " FROM " + listing.table() + " WHERE (:allSocieties = 1 OR society_id = :societyId)";
+        if (filter != null) {
+            from += " AND " + listing.filterColumn() + " = :filter";
+            params.addValue("filter", filter);
+        }
+
+        Set<String> read = new LinkedHashSet<>(selected);
+        orders.forEach(order -> read.add(order.getProperty()));
+        String select = read.stream().map(field -> listing.columns().get(field)).collect(Collectors.joining(", ", "SELECT ", ""));
+        String orderBy = orders.stream()
+                .map(order -> listing.columns().get(order.getProperty()) + (order.isAscending() ? "" : " DESC"))
+                .collect(Collectors.joining(", ", " ORDER BY ", ""));
+
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        long total = approximateTotal(listing, filter, from, params, named, readOnly, shardCount);
+
+        int size = pageable.getPageSize();
+        List<Map<String, Object>> items = new ArrayList<>();
+        String next = null;
+        int shard = cursor.shard();
+        List<Object> keys = cursor.keys();
+        Integer bound = TenantContext.getShard();
+        while (shard < shardCount) {
+            if (allSocieties) TenantContext.bindShard(shard);
+            int wanted = size - items.size();
+            String keyset = keys != null ? keyset(listing, orders, keys, params) : "";
+            params.addValue("limit", wanted + 1);
+            String sql = select + from + keyset + orderBy + " LIMIT :limit";
+            List<Map<String, Object>> rows = readOnly.execute(status -> named.query(sql, params, (rs, rowNum) -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (String field : read) row.put(field, rs.getObject(listing.columns().get(field)));
+                return row;
+            }));
+
+            boolean more = rows.size() > wanted;
+            List<Map<String, Object>> taken = more ? rows.subList(0, wanted) : rows;
+            for (Map<String, Object> row : taken) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                for (String field : selected) item.put(field, row.get(field));
+                items.add(item);
+            }
+            if (items.size() == size) {
+                if (more) {
+                    Map<String, Object> last = taken.get(taken.size() - 1);
+                    next = encode(new Cursor(shard, orders.stream().map(order -> last.get(order.getProperty())).toList()), orders);
+                } else if (shard + 1 < shardCount) {
+                    next = encode(new Cursor(shard + 1, null), orders);
+                }
+                break;
+            }
+            shard++;
+            keys = null;
+        }
+        if (allSocieties && bound != null) TenantContext.bindShard(bound);
+        return new DirectoryPageDTO(items, next, total);
+    }
+
+    private long approximateTotal(Listing listing, Object filter, String from, MapSqlParameterSource params,
+                                  NamedParameterJdbcTemplate named, TransactionTemplate readOnly, int shardCount) {
+        String key = TenantContext.getSociety() + "|" + listing.table() + "|" + filter;
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(key);
+        if (cached != null && now - cached.countedAt() < countTtl.toMillis()) return cached.count();
+
+        Integer bound = TenantContext.getShard();
+        long count = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (TenantContext.isRoot()) TenantContext.bindShard(shard);
+            Long rows = readOnly.execute(status -> named.queryForObject("SELECT COUNT(*)" + from, params, Long.class));
+            count += rows != null ? rows : 0;
+        }
+        if (TenantContext.isRoot() && bound != null) TenantContext.bindShard(bound);
+        counts.put(key, new CachedCount(count, now));
+        return count;
+    }
+
+    // Rows after the cursor in sort order: (a > :k0) OR (a = :k0 AND b > :k1) OR ...
+    private static String keyset(Listing listing, List<Sort.Order> orders, List<Object> keys, MapSqlParameterSource params) {
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            StringBuilder term = new StringBuilder("(");
+            for (int j = 0; j < i; j++) {
+                term.append(listing.columns().get(orders.get(j).getProperty())).append(" = :k").append(j).append(" AND ");
+            }
+            term.append(listing.columns().get(orders.get(i).getProperty()))
+                    .append(orders.get(i).isAscending() ? " > :k" : " < :k").append(i).append(')');
+            terms.add(term.toString());
+            params.addValue("k" + i, keys.get(i));
+        }
+        return " AND (" + String.join(" OR ", terms) + ")";
+    }
+
+    // The id is always returned; an unknown field makes the request invalid
+    private static Set<String> selectFields(Listing listing, String fields) {
+        if (fields == null || fields.isBlank()) return listing.columns().keySet();
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            if (!listing.columns().containsKey(field.trim())) return null;
+            selected.add(field.trim());
+        }
+        return selected;
+    }
+
+    // Only non-null columns can be sorted on; the id breaks ties so the order is total
+    private static List<Sort.Order> orders(Listing listing, Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (!listing.sortable().contains(order.getProperty())) return null;
+            orders.add(order);
+            if (order.getProperty().equals("id")) return orders;
+        }
+        orders.add(Sort.Order.asc("id"));
+        return orders;
+    }
+
+    private String encode(Cursor cursor, List<Sort.Order> orders) {
+        Map<String, Object> token = new LinkedHashMap<>();
+        token.put("s", cursor.shard());
+        token.put("k", cursor.keys());
+        token.put("o", signature(orders));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(token));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // A cursor is only valid for the sort it was issued under
+    private Cursor decode(String after, List<Sort.Order> orders, int shardCount) {
+        try {
+            Map<?, ?> token = objectMapper.readValue(Base64.getUrlDecoder().decode(after), Map.class);
+            if (!signature(orders).equals(token.get("o")) || !(token.get("s") instanceof Integer shard)) return null;
+            if (shard < 0 || shard >= shardCount) return null;
+            Object keys = token.get("k");
+            if (keys == null) return new Cursor(shard, null);
+            if (!(keys instanceof List<?> list) || list.size() != orders.size()) return null;
+            return new Cursor(shard, new ArrayList<>(list));
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    private static String signature(List<Sort.Order> orders) {
+        return orders.stream().map(order -> order.getProperty() + ":" + order.getDirection()).collect(Collectors.joining(","));
+    }
+
+    private static Map<String, String> columns(String... fieldsAndColumns) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (int i = 0; i < fieldsAndColumns.length; i += 2) columns.put(fieldsAndColumns[i], fieldsAndColumns[i + 1]);
+        return columns;
+    }
+}
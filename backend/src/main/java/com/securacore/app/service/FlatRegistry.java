@@ -0,0 +1,118 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.entity.Flat;
+import com.securacore.app.repository.FlatRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maps free-text flat numbers ("a 101", "Tower A/101", "A-101") to one canonical code and a
+ * compact integer id per society. Ids are cached, so after warm-up resolving a flat costs a map
+ * lookup rather than a query.
+ */
+@Service
+public class FlatRegistry {
+
+    private static final Pattern NOISE_WORDS = Pattern.compile("\\b(TOWER|BLOCK|WING|FLAT|UNIT|NO)\\b\\.?");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s._/\\\\-]+");
+    private static final Pattern LETTER_TOWER = Pattern.compile("^([A-Z]{1,3})-?(\\d{1,5})$");
+    private static final Pattern NUMBER_TOWER = Pattern.compile("^(\\d{1,2})-(\\d{1,5})$");
+    private static final Pattern NO_TOWER = Pattern.compile("^(\\d{1,5})$");
+    private static final int MAX_CODE_LENGTH = 32;
+
+    @Autowired
+    FlatRepository flatRepository;
+
+    private final Map<String, Integer> idsByCode = new ConcurrentHashMap<>();
+
+    public record FlatCode(String code, String tower, Integer floor, String unit) {
+    }
+
+    public static FlatCode parse(String raw) {
+        String cleaned = raw.toUpperCase(Locale.ROOT).trim();
+        cleaned = NOISE_WORDS.matcher(cleaned).replaceAll(" ");
+        cleaned = SEPARATORS.matcher(cleaned).replaceAll("-");
+        cleaned = cleaned.replaceAll("^-+|-+$", "");
+
+        Matcher matcher = LETTER_TOWER.matcher(cleaned);
+        if (!matcher.matches()) matcher = NUMBER_TOWER.matcher(cleaned);
+        if (matcher.matches()) {
+            return fromParts(matcher.group(1), matcher.group(2));
+        }
+        matcher = NO_TOWER.matcher(cleaned);
+        if (matcher.matches()) {
+            return fromParts(null, matcher.group(1));
+        }
+
+        // Not a tower/number shape; keep the cleaned text so equal inputs still collapse together
+        String code = cleaned.length() > MAX_CODE_LENGTH ? cleaned.substring(0, MAX_CODE_LENGTH) : cleaned;
+        return new FlatCode(code, null, null, null);
+    }
+
+    public static String canonicalCode(String raw) {
+        return raw == null || raw.isBlank() ? raw : parse(raw).code();
+    }
+
+    /**
+     * Id of the flat, registering it on first sight. Used on write paths.
+     */
+    public Integer resolve(String rawFlatNo) {
+        if (rawFlatNo == null || rawFlatNo.isBlank()) return null;
+        FlatCode flatCode = parse(rawFlatNo);
+        String key = cacheKey(flatCode.code());
+        Integer cached = idsByCode.get(key);
+        if (cached != null) return cached;
+
+        Flat flat = flatRepository.findByCode(flatCode.code()).orElseGet(() -> register(flatCode));
+        idsByCode.put(key, flat.getId());
+        return flat.getId();
+    }
+
+    /**
+     * Id of an already registered flat, or null. Used on read paths so lookups for unknown
+     * flats do not create rows.
+     */
+    public Integer find(String rawFlatNo) {
+        if (rawFlatNo == null || rawFlatNo.isBlank() || TenantContext.isRoot()) return null;
+        String code = parse(rawFlatNo).code();
+        String key = cacheKey(code);
+        Integer cached = idsByCode.get(key);
+        if (cached != null) return cached;
+
+        Integer id = flatRepository.findByCode(code).map(Flat::getId).orElse(null);
+        if (id != null) idsByCode.put(key, id);
+        return id;
+    }
+
+    private Flat register(FlatCode flatCode) {
+        Flat flat = new Flat();
+        flat.setCode(flatCode.code());
+        flat.setTower(flatCode.tower());
+        flat.setFloor(flatCode.floor());
+        flat.setUnit(flatCode.unit());
+        try {
+            return flatRepository.save(flat);
+        } catch (DataIntegrityViolationException e) {
+            // Registered concurrently by another request
+            return flatRepository.findByCode(flatCode.code()).orElseThrow(() -> e);
+        }
+    }
+
+    private static FlatCode fromParts(String tower, String number) {
+        Integer floor = number.length() >= 3 ? Integer.parseInt(number) / 100 : null;
+        String code = tower != null ? tower + "-" + number : number;
+        return new FlatCode(code, tower, floor, number);
+    }
+
+    private static String cacheKey(String code) {
+        return TenantContext.getSociety() + "|" + code;
+    }
+}
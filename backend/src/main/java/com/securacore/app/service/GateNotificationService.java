@@ -0,0 +1,86 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Roster.DutyGuardDTO;
+import com.securacore.app.dto.Visitor.VisitDecisionDTO;
+import com.securacore.app.dto.Visitor.VisitEscalationDTO;
+import com.securacore.app.entity.Resident;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes gate events over server-sent events: visit decisions and uncovered posts to the guards
+ * of a society and escalated requests to the residents of a flat. Emergency contacts are phone
+ * numbers with no delivery channel configured, so they are only logged.
+ */
+@Service
+public class GateNotificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(GateNotificationService.class);
+
+    private final Map<String, Set<SseEmitter>> guards = new ConcurrentHashMap<>();
+    private final Map<String, Set<SseEmitter>> flats = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribeGuard() {
+        return register(guards, TenantContext.getSociety());
+    }
+
+    public SseEmitter subscribeFlat(String flatNo) {
+        return register(flats, flatKey(TenantContext.getSociety(), FlatRegistry.canonicalCode(flatNo)));
+    }
+
+    public void publishDecision(String societyId, VisitDecisionDTO decision) {
+        send(guards.get(societyId), "decision", decision);
+    }
+
+    public void publishUncoveredPost(String societyId, DutyGuardDTO duty) {
+        log.warn("Post {} uncovered: guard {} not on duty since {}", duty.getPostName(), duty.getGuardName(), duty.getMissingSince());
+        send(guards.get(societyId), "uncovered-post", duty);
+    }
+
+    public void notifyFlat(String societyId, VisitEscalationDTO escalation) {
+        send(flats.get(flatKey(societyId, escalation.getFlatNo())), "escalation", escalation);
+    }
+
+    public void notifyEmergencyContacts(List<Resident> residents, VisitEscalationDTO escalation) {
+        for (Resident resident : residents) {
+            log.info("Visitor {} waiting {}s at the gate for flat {}; emergency contact {} of resident {}",
+                    escalation.getName(), escalation.getWaitSeconds(), escalation.getFlatNo(),
+                    resident.getEmergencyContact(), resident.getId());
+        }
+    }
+
+    private SseEmitter register(Map<String, Set<SseEmitter>> registry, String key) {
+        // No timeout; clients reconnect when the connection drops
+        SseEmitter emitter = new SseEmitter(0L);
+        Set<SseEmitter> emitters = registry.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        return emitter;
+    }
+
+    private void send(Set<SseEmitter> emitters, String name, Object payload) {
+        if (emitters == null) return;
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(payload));
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+            }
+        }
+    }
+
+    private static String flatKey(String societyId, String flatNo) {
+        return societyId + ":" + flatNo;
+    }
+}
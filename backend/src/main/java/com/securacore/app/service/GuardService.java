@@ -1,5 +1,6 @@
 package com.securacore.app.service;
 
+import com.securacore.app.config.TenantContext;
 import com.securacore.app.dto.Visitor.RequestVisitDTO;
 import com.securacore.app.dto.Visitor.RequestVisitStatusDTO;
 import com.securacore.app.dto.guard.CreateGuardDTO;
@@ -10,13 +11,15 @@ import com.securacore.app.enums.Shift;
 import com.securacore.app.enums.VisitStatus;
 import com.securacore.app.repository.GuardRepository;
 import com.securacore.app.repository.VisitorRepository;
-import com.securacore.app.entity.GuardAttendance;
 import com.securacore.app.repository.GuardAttendanceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -34,6 +37,39 @@ public class GuardService {
     @Autowired
     GuardAttendanceRepository guardAttendanceRepository;
 
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    @Autowired
+    OccupancyService occupancyService;
+
+    @Autowired
+    VisitExpiryService visitExpiryService;
+
+    @Autowired
+    ApprovalEscalationService approvalEscalationService;
+
+    @Autowired
+    AutoApprovalService autoApprovalService;
+
+    @Autowired
+    VisitorSuggestionService visitorSuggestionService;
+
+    @Autowired
+    WatchlistService watchlistService;
+
+    @Autowired
+    VehicleService vehicleService;
+
+    @Autowired
+    RosterService rosterService;
+
+    @Autowired
+    ReportChangeTracker reportChangeTracker;
+
+    @Value("${securacore.attendance.night-shift-rollover:12:00}")
+    LocalTime nightShiftRollover;
+
     public String addGuard(CreateGuardDTO guardDto){
         Guard guard = new Guard();
 
@@ -47,6 +83,7 @@ public class GuardService {
         return "Guard Added Successfully";
     }
 
+    @Transactional(readOnly = true)
     public List<GuardResponseDTO> getGuards(){
         List<Guard> guards =  guardRepository.findAll();
 
@@ -68,6 +105,7 @@ public class GuardService {
 
     }
 
+    @Transactional(readOnly = true)
     public List<GuardResponseDTO> guardsOn(Date startDate){
         List<Guard> guards =  guardRepository.findAllByCheckInTime(startDate);
 
@@ -88,6 +126,7 @@ public class GuardService {
         return allGuards;
     }
 
+    @Transactional(readOnly = true)
     public List<GuardResponseDTO> searchGuards(String searchTerm) {
         List<Guard> guards;
         
@@ -144,6 +183,7 @@ public class GuardService {
         return "Guard Not Found";
     }
 
+    @Transactional(readOnly = true)
     public List<GuardResponseDTO> getGuardsByDate(String dateStr) {
         try {
             // Parse the date string to LocalDate and then convert to Date for database query
@@ -174,16 +214,40 @@ public class GuardService {
     }
 
     public String visitorRequest(RequestVisitDTO visitor){
+        WatchlistService.Screening screening = watchlistService.screen(visitor.getName(), visitor.getContact());
+        if (screening != null && screening.blocks()) return screening.describe();
+
         Visitor visitor1 = new Visitor();
         visitor1.setName(visitor.getName());
-        visitor1.setFlatNo(visitor.getFlatNo());
+        visitor1.setContact(visitor.getContact());
+        visitor1.setVehiclePlate(VehicleService.normalisePlate(visitor.getVehiclePlate()));
+        visitor1.setFlatNo(FlatRegistry.canonicalCode(visitor.getFlatNo()));
+        visitor1.setFlatId(flatRegistry.resolve(visitor.getFlatNo()));
         visitor1.setRelation(visitor.getRelation());
         visitor1.setPurpose(visitor.getPurpose());
         visitor1.setVisitDate(LocalDate.now());
         visitor1.setCheckInTime(LocalDateTime.now());
+        visitorSuggestionService.visitorRecorded(visitor1);
+
+        // A possible watchlist match always goes to the resident
+        Integer ruleId = screening != null ? null : autoApprovalService.match(visitor1.getFlatId(), visitor.getName(),
+                visitor.getContact(), visitor.getRelation(), visitor.getPurpose(), visitor1.getCheckInTime());
+        if (ruleId != null) {
+            visitor1.setStatus(VisitStatus.APPROVED);
+            visitor1.setApprovalRuleId(ruleId);
+            visitorRepository.save(visitor1);
+            vehicleService.visitorVehicleExpected(visitor1);
+            occupancyService.visitorEntered(visitor1);
+            visitExpiryService.visitorCheckedIn(visitor1);
+            return "Visit Auto Approved";
+        }
+
         visitor1.setStatus(VisitStatus.PENDING);
+        if (screening != null) visitor1.setWatchlistMatch(screening.name());
         visitorRepository.save(visitor1);
-        return "Schedule Visit Success";
+        vehicleService.visitorVehicleExpected(visitor1);
+        approvalEscalationService.requestCreated(visitor1);
+        return screening != null ? "Schedule Visit Success. " + screening.describe() : "Schedule Visit Success";
     }
 
     private int id;
@@ -220,10 +284,14 @@ public class GuardService {
         if (visitor == null) return false;
         if (visitor.getStatus() != VisitStatus.APPROVED) return false;
         if (visitor.getVisitDate() != null && !visitor.getVisitDate().equals(LocalDate.now())) return false;
+        // A checked-out visit is closed; scanning its pass again must not put the visitor back inside
+        if (visitor.getCheckOutTime() != null) return false;
         if (visitor.getCheckInTime() == null) {
             visitor.setCheckInTime(LocalDateTime.now());
             visitorRepository.save(visitor);
+            visitExpiryService.visitorCheckedIn(visitor);
         }
+        occupancyService.visitorEntered(visitor);
         return true;
     }
 
@@ -238,38 +306,45 @@ public class GuardService {
         
         visitor.setCheckInTime(LocalDateTime.now());
         visitorRepository.save(visitor);
+        occupancyService.visitorEntered(visitor);
+        visitExpiryService.visitorCheckedIn(visitor);
         return "Visitor checked in successfully";
     }
 
     public String guardCheckIn(int guardId) {
-        Guard guard = guardRepository.findById(guardId).orElse(null);
-        if (guard == null) return "Guard Not Found";
-        LocalDate today = LocalDate.now();
-        List<GuardAttendance> todays = guardAttendanceRepository.findAllByGuardAndAttendanceDate(guard, today);
-        GuardAttendance attendance = todays.stream().findFirst().orElseGet(() -> {
-            GuardAttendance ga = new GuardAttendance();
-            ga.setGuard(guard);
-            ga.setAttendanceDate(today);
-            return ga;
-        });
-        attendance.setCheckInTime(LocalDateTime.now());
-        guardAttendanceRepository.save(attendance);
+        return guardCheckIn(guardId, LocalDateTime.now());
+    }
+
+    String guardCheckIn(int guardId, LocalDateTime at) {
+        int updated = guardAttendanceRepository.checkIn(TenantContext.getSociety(), guardId,
+                at.toLocalDate(), nightShiftDate(at), at);
+        if (updated == 0) return "Guard Not Found";
+        attendanceChanged(at);
+        rosterService.guardCheckedIn(guardId);
         return "Guard Checked In";
     }
 
     public String guardCheckOut(int guardId) {
-        Guard guard = guardRepository.findById(guardId).orElse(null);
-        if (guard == null) return "Guard Not Found";
-        LocalDate today = LocalDate.now();
-        List<GuardAttendance> todays = guardAttendanceRepository.findAllByGuardAndAttendanceDate(guard, today);
-        GuardAttendance attendance = todays.stream().findFirst().orElseGet(() -> {
-            GuardAttendance ga = new GuardAttendance();
-            ga.setGuard(guard);
-            ga.setAttendanceDate(today);
-            return ga;
-        });
-        attendance.setCheckOutTime(LocalDateTime.now());
-        guardAttendanceRepository.save(attendance);
+        return guardCheckOut(guardId, LocalDateTime.now());
+    }
+
+    String guardCheckOut(int guardId, LocalDateTime at) {
+        int updated = guardAttendanceRepository.checkOut(TenantContext.getSociety(), guardId,
+                at.toLocalDate(), nightShiftDate(at), at);
+        if (updated == 0) return "Guard Not Found";
+        attendanceChanged(at);
+        rosterService.guardCheckedOut(guardId);
         return "Guard Checked Out";
     }
+
+    // The upserts are native, so the report cache is not told by Hibernate; either session date may have moved
+    private void attendanceChanged(LocalDateTime at) {
+        reportChangeTracker.changed(ReportChangeTracker.Dataset.ATTENDANCE, TenantContext.getSociety(), at.toLocalDate());
+        reportChangeTracker.changed(ReportChangeTracker.Dataset.ATTENDANCE, TenantContext.getSociety(), nightShiftDate(at));
+    }
+
+    // Night shifts are dated by the evening they start; taps before the rollover belong to the night before
+    private LocalDate nightShiftDate(LocalDateTime at) {
+        return at.toLocalTime().isBefore(nightShiftRollover) ? at.toLocalDate().minusDays(1) : at.toLocalDate();
+    }
 }
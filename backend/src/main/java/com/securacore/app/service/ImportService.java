@@ -0,0 +1,356 @@
+package com.securacore.app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Import.ImportErrorDTO;
+import com.securacore.app.dto.Import.ImportReportDTO;
+import com.securacore.app.enums.Shift;
+import com.securacore.app.importer.CsvReader;
+import com.securacore.app.repository.GuardRepository;
+import com.securacore.app.repository.ResidentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk onboarding of residents and guards from a CSV upload with a header row, or from JSON
+ * lines. The upload is read one record at a time: each is validated, checked against emails
+ * already in the society or earlier in the file, and queued; full batches are inserted with one
+ * JDBC batch statement in their own transaction. If a batch is rejected its rows are retried one
+ * by one so only the bad rows fail. Every rejected row is reported with its line number.
+ * <p>
+ * Column names are matched ignoring case, spaces and underscores. Residents need name, email,
+ * password, flat_no and contact, with emergency_contact optional. Guards need name, email,
+ * password and contact, with shift optional.
+ */
+@Service
+public class ImportService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int MAX_FIELD_LENGTH = 255;
+
+    private static final String INSERT_RESIDENT = "INSERT INTO resident (society_id, name, email, password, flat_no, "
+            + "flat_id, contact, emergency_contact, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, TRUE)";
+    private static final String INSERT_GUARD = "INSERT INTO guard (society_id, name, email, password, contact, shift) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ResidentRepository residentRepository;
+
+    @Autowired
+    GuardRepository guardRepository;
+
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${securacore.import.batch-size:1000}")
+    int batchSize;
+
+    @Value("${securacore.import.max-errors:1000}")
+    int maxErrors;
+
+    private record Record(int line, Map<String, String> fields, String error) {
+    }
+
+    private record Row(int line, String key, Object[] values) {
+    }
+
+    // Turns one record into insert values, or throws IllegalArgumentException saying why it cannot
+    private interface RowMapper {
+        Row map(int line, Map<String, String> fields);
+    }
+
+    private final class Progress {
+        int imported;
+        int duplicates;
+        int failed;
+        final List<ImportErrorDTO> errors = new ArrayList<>();
+        boolean truncated;
+
+        void reject(int line, String key, String message) {
+            failed++;
+            note(line, key, message);
+        }
+
+        void duplicate(int line, String key) {
+            duplicates++;
+            note(line, key, "Duplicate email");
+        }
+
+        private void note(int line, String key, String message) {
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportErrorDTO(line, key, message));
+            } else {
+                truncated = true;
+            }
+        }
+
+        ImportReportDTO report() {
+            return new ImportReportDTO(imported, duplicates, failed, errors, truncated);
+        }
+    }
+
+    public ImportReportDTO importResidents(InputStream body, String contentType) {
+        String societyId = TenantContext.getSociety();
+        return run(body, contentType, INSERT_RESIDENT, residentRepository::findAllEmails, (line, fields) -> {
+            String name = required(fields, "name");
+            String email = email(fields);
+            String password = required(fields, "password");
+            String flatNo = required(fields, "flatno");
+            String contact = required(fields, "contact");
+            String emergencyContact = optional(fields, "emergencycontact");
+            return new Row(line, email.toLowerCase(Locale.ROOT), new Object[]{societyId, name, email, password,
+                    FlatRegistry.canonicalCode(flatNo), flatRegistry.resolve(flatNo), contact, emergencyContact});
+        });
+    }
+
+    public ImportReportDTO importGuards(InputStream body, String contentType) {
+        String societyId = TenantContext.getSociety();
+        return run(body, contentType, INSERT_GUARD, guardRepository::findAllEmails, (line, fields) -> {
+            String name = required(fields, "name");
+            String email = email(fields);
+            String password = required(fields, "password");
+            String contact = required(fields, "contact");
+            String shift = optional(fields, "shift");
+            if (shift != null) {
+                try {
+                    shift = Shift.valueOf(shift.toUpperCase(Locale.ROOT)).name();
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown shift " + shift);
+                }
+            }
+            return new Row(line, email.toLowerCase(Locale.ROOT), new Object[]{societyId, name, email, password, contact, shift});
+        });
+    }
+
+    private ImportReportDTO run(InputStream body, String contentType, String insert,
+                                Supplier<List<String>> existingEmails, RowMapper mapper) {
+        Progress progress = new Progress();
+        if (TenantContext.isRoot()) {
+            progress.reject(0, null, "Choose a society to import into");
+            return progress.report();
+        }
+
+        Set<String> seen = new HashSet<>(existingEmails.get());
+        List<Row> batch = new ArrayList<>(batchSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Iterator<Record> records = isJson(contentType) ? jsonLines(reader) : csv(reader);
+        try {
+            while (records.hasNext()) {
+                Record record = records.next();
+                if (record.error() != null) {
+                    progress.reject(record.line(), null, record.error());
+                    continue;
+                }
+                Row row;
+                try {
+                    row = mapper.map(record.line(), record.fields());
+                } catch (IllegalArgumentException e) {
+                    progress.reject(record.line(), record.fields().get("email"), e.getMessage());
+                    continue;
+                }
+                if (!seen.add(row.key())) {
+                    progress.duplicate(row.line(), row.key());
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    flush(insert, batch, progress);
+                    batch.clear();
+                }
+            }
+        } catch (ImportAbortedException e) {
+            // The upload cannot be read past this point; keep what was read before it
+            progress.reject(e.line, null, e.getMessage());
+        }
+        flush(insert, batch, progress);
+        return progress.report();
+    }
+
+    private void flush(String insert, List<Row> batch, Progress progress) {
+        if (batch.isEmpty()) return;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Object[]> values = batch.stream().map(Row::values).toList();
+        try {
+            transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(insert, values));
+            progress.imported += batch.size();
+        } catch (DataAccessException batchError) {
+            for (Row row : batch) {
+                try {
+                    transaction.executeWithoutResult(status -> jdbcTemplate.update(insert, row.values()));
+                    progress.imported++;
+                } catch (DataAccessException rowError) {
+                    progress.reject(row.line(), row.key(), NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+    }
+
+    private static boolean isJson(String contentType) {
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json");
+    }
+
+    private static Iterator<Record> csv(BufferedReader reader) {
+        CsvReader csv = new CsvReader(reader);
+        return new RecordIterator() {
+            List<String> header;
+
+            @Override
+            Record read() throws IOException {
+                if (header == null) {
+                    List<String> names = csv.next();
+                    if (names == null) return null;
+                    header = names.stream().map(ImportService::columnName).toList();
+                }
+                List<String> values = csv.next();
+                if (values == null) return null;
+                if (values.size() != header.size()) {
+                    return new Record(csv.getLine(), null, "Expected " + header.size() + " columns, found " + values.size());
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    fields.put(header.get(i), values.get(i));
+                }
+                return new Record(csv.getLine(), fields, null);
+            }
+
+            @Override
+            int line() {
+                return csv.getLine();
+            }
+        };
+    }
+
+    private Iterator<Record> jsonLines(BufferedReader reader) {
+        return new RecordIterator() {
+            int line;
+
+            @Override
+            Record read() throws IOException {
+                String text;
+                do {
+                    text = reader.readLine();
+                    if (text == null) return null;
+                    line++;
+                } while (text.isBlank());
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(text);
+                } catch (JsonProcessingException e) {
+                    return new Record(line, null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+                if (!node.isObject()) return new Record(line, null, "Expected a JSON object");
+                Map<String, String> fields = new HashMap<>();
+                for (Map.Entry<String, JsonNode> field : node.properties()) {
+                    fields.put(columnName(field.getKey()), field.getValue().isNull() ? null : field.getValue().asText());
+                }
+                return new Record(line, fields, null);
+            }
+
+            @Override
+            int line() {
+                return line;
+            }
+        };
+    }
+
+    private static String required(Map<String, String> fields, String column) {
+        String value = optional(fields, column);
+        if (value == null) throw new IllegalArgumentException(column + " is required");
+        return value;
+    }
+
+    private static String optional(Map<String, String> fields, String column) {
+        String value = fields.get(column);
+        if (value == null || value.isBlank()) return null;
+        value = value.trim();
+        if (value.length() > MAX_FIELD_LENGTH) throw new IllegalArgumentException(column + " is too long");
+        return value;
+    }
+
+    private static String email(Map<String, String> fields) {
+        String email = required(fields, "email");
+        if (!EMAIL.matcher(email).matches()) throw new IllegalArgumentException("Invalid email " + email);
+        return email;
+    }
+
+    private static String columnName(String header) {
+        return header.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class ImportAbortedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int line;
+
+        ImportAbortedException(int line, String message) {
+            super(message);
+            this.line = line;
+        }
+    }
+
+    // Reads one record ahead so hasNext can answer; a broken upload surfaces as ImportAbortedException
+    private abstract static class RecordIterator implements Iterator<Record> {
+        private Record next;
+        private boolean done;
+
+        abstract Record read() throws IOException;
+
+        abstract int line();
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) return true;
+            if (done) return false;
+            try {
+                next = read();
+            } catch (IOException e) {
+                done = true;
+                throw new ImportAbortedException(line(), e.getMessage());
+            }
+            if (next == null) done = true;
+            return next != null;
+        }
+
+        @Override
+        public Record next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Record record = next;
+            next = null;
+            return record;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Occupancy.OccupancySnapshotDTO;
+import com.securacore.app.dto.Occupancy.PresentVisitorDTO;
+import com.securacore.app.entity.QRVisitor;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.enums.VisitStatus;
+import com.securacore.app.repository.QRVisitorRepository;
+import com.securacore.app.repository.VisitorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Who is inside right now, per society, kept in memory and updated on every check-in and
+ * checkout. A visitor is inside once approved and checked in, until checked out.
+ */
+@Service
+public class OccupancyService {
+
+    public static final String SOURCE_VISITOR = "VISITOR";
+    public static final String SOURCE_QR = "QR";
+
+    private static final String NO_TOWER = "UNASSIGNED";
+
+    @Autowired
+    VisitorRepository visitorRepository;
+
+    @Autowired
+    QRVisitorRepository qrVisitorRepository;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    // Visits checked in longer ago than this are not counted as inside when rebuilding; walk-in
+    // visits recorded before checkout existed never got a checkout time.
+    @Value("${securacore.occupancy.max-stay:24h}")
+    Duration maxStay;
+
+    private final Map<String, SocietyOccupancy> societies = new ConcurrentHashMap<>();
+
+    private static class SocietyOccupancy {
+        final LongAdder total = new LongAdder();
+        final Map<String, LongAdder> byTower = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> byFlat = new ConcurrentHashMap<>();
+        final Map<String, PresentVisitorDTO> present = new ConcurrentHashMap<>();
+        final Set<String> overstays = ConcurrentHashMap.newKeySet();
+
+        void enter(PresentVisitorDTO visitor) {
+            // putIfAbsent makes repeated check-ins of the same visit count once
+            if (present.putIfAbsent(key(visitor.getSource(), visitor.getId()), visitor) != null) return;
+            total.increment();
+            byTower.computeIfAbsent(visitor.getTower(), t -> new LongAdder()).increment();
+            if (visitor.getFlatNo() != null) {
+                byFlat.computeIfAbsent(visitor.getFlatNo(), f -> new LongAdder()).increment();
+            }
+        }
+
+        void leave(String source, int id) {
+            PresentVisitorDTO visitor = present.remove(key(source, id));
+            if (visitor == null) return;
+            overstays.remove(key(source, id));
+            total.decrement();
+            byTower.get(visitor.getTower()).decrement();
+            if (visitor.getFlatNo() != null) {
+                byFlat.get(visitor.getFlatNo()).decrement();
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void rebuild() {
+        LocalDateTime since = LocalDateTime.now().minus(maxStay);
+        for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            TenantContext.bind(TenantContext.ROOT);
+            TenantContext.bindShard(shard);
+            try {
+                for (Visitor visitor : visitorRepository.findAllByStatusAndCheckOutTimeIsNullAndCheckInTimeAfter(VisitStatus.APPROVED, since)) {
+                    visitorEntered(visitor);
+                }
+                for (QRVisitor visitor : qrVisitorRepository.findByStatusAndCheckOutTimeIsNullAndCheckInTimeAfter("APPROVED", since)) {
+                    qrVisitorEntered(visitor);
+                }
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    public void visitorEntered(Visitor visitor) {
+        enter(new PresentVisitorDTO(SOURCE_VISITOR, visitor.getId(), visitor.getSocietyId(), visitor.getName(),
+                visitor.getFlatNo(), towerOf(visitor.getFlatNo()), visitor.getRelation(), visitor.getPurpose(),
+                visitor.getCheckInTime()));
+    }
+
+    public void qrVisitorEntered(QRVisitor visitor) {
+        enter(new PresentVisitorDTO(SOURCE_QR, visitor.getId(), visitor.getSocietyId(), visitor.getName(),
+                visitor.getFlatNo(), towerOf(visitor.getFlatNo()), visitor.getRelation(), visitor.getPurpose(),
+                visitor.getCheckInTime()));
+    }
+
+    public void visitorLeft(Visitor visitor) {
+        leave(visitor.getSocietyId(), SOURCE_VISITOR, visitor.getId());
+    }
+
+    public void qrVisitorLeft(QRVisitor visitor) {
+        leave(visitor.getSocietyId(), SOURCE_QR, visitor.getId());
+    }
+
+    public void markOverstay(String societyId, String source, int id) {
+        SocietyOccupancy occupancy = societies.get(societyOf(societyId));
+        if (occupancy != null && occupancy.present.containsKey(key(source, id))) {
+            occupancy.overstays.add(key(source, id));
+        }
+    }
+
+    public List<PresentVisitorDTO> overstays() {
+        List<PresentVisitorDTO> overstaying = new ArrayList<>();
+        for (SocietyOccupancy occupancy : visibleSocieties()) {
+            for (String key : occupancy.overstays) {
+                PresentVisitorDTO visitor = occupancy.present.get(key);
+                if (visitor != null) overstaying.add(visitor);
+            }
+        }
+        overstaying.sort(Comparator.comparing(PresentVisitorDTO::getCheckInTime, Comparator.nullsLast(Comparator.naturalOrder())));
+        return overstaying;
+    }
+
+    public OccupancySnapshotDTO snapshot() {
+        long total = 0;
+        Map<String, Long> byTower = new TreeMap<>();
+        for (SocietyOccupancy occupancy : visibleSocieties()) {
+            total += occupancy.total.sum();
+            occupancy.byTower.forEach((tower, count) -> byTower.merge(tower, count.sum(), Long::sum));
+        }
+        byTower.values().removeIf(count -> count == 0);
+        return new OccupancySnapshotDTO(total, byTower, LocalDateTime.now());
+    }
+
+    public long flatCount(String flatNo) {
+        SocietyOccupancy occupancy = societies.get(TenantContext.getSociety());
+        if (occupancy == null) return 0;
+        LongAdder count = occupancy.byFlat.get(FlatRegistry.canonicalCode(flatNo));
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Everyone inside, grouped by tower and flat, for evacuation headcounts.
+     */
+    public List<PresentVisitorDTO> roster() {
+        List<PresentVisitorDTO> roster = new ArrayList<>();
+        for (SocietyOccupancy occupancy : visibleSocieties()) {
+            roster.addAll(occupancy.present.values());
+        }
+        roster.sort(Comparator.comparing(PresentVisitorDTO::getTower)
+                .thenComparing(PresentVisitorDTO::getFlatNo, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(PresentVisitorDTO::getName, Comparator.nullsLast(Comparator.naturalOrder())));
+        return roster;
+    }
+
+    public String rosterCsv() {
+        StringBuilder csv = new StringBuilder("society,tower,flat,name,relation,purpose,source,id,check_in_time\n");
+        for (PresentVisitorDTO visitor : roster()) {
+            csv.append(csvField(visitor.getSocietyId())).append(',')
+                    .append(csvField(visitor.getTower())).append(',')
+                    .append(csvField(visitor.getFlatNo())).append(',')
+                    .append(csvField(visitor.getName())).append(',')
+                    .append(csvField(visitor.getRelation())).append(',')
+                    .append(csvField(visitor.getPurpose())).append(',')
+                    .append(visitor.getSource()).append(',')
+                    .append(visitor.getId()).append(',')
+                    .append(visitor.getCheckInTime() != null ? visitor.getCheckInTime() : "").append('\n');
+        }
+        return csv.toString();
+    }
+
+    private void enter(PresentVisitorDTO visitor) {
+        societies.computeIfAbsent(societyOf(visitor.getSocietyId()), s -> new SocietyOccupancy()).enter(visitor);
+    }
+
+    private void leave(String societyId, String source, int id) {
+        SocietyOccupancy occupancy = societies.get(societyOf(societyId));
+        if (occupancy != null) occupancy.leave(source, id);
+    }
+
+    private List<SocietyOccupancy> visibleSocieties() {
+        if (TenantContext.isRoot()) return new ArrayList<>(societies.values());
+        SocietyOccupancy occupancy = societies.get(TenantContext.getSociety());
+        return occupancy == null ? List.of() : List.of(occupancy);
+    }
+
+    private static String societyOf(String societyId) {
+        return societyId != null ? societyId : TenantContext.getSociety();
+    }
+
+    private static String towerOf(String flatNo) {
+        if (flatNo == null || flatNo.isBlank()) return NO_TOWER;
+        String tower = FlatRegistry.parse(flatNo).tower();
+        return tower != null ? tower : NO_TOWER;
+    }
+
+    private static String key(String source, int id) {
+        return source + ":" + id;
+    }
+
+    static String csvField(String value) {
+        if (value == null) return "";
+        // Names typed at the gate such as "=HYPERLINK(...)" would run as formulas in a spreadsheet
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) value = "'" + value;
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
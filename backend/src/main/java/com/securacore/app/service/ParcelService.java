@@ -0,0 +1,184 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Parcel.ParcelDTO;
+import com.securacore.app.dto.Parcel.ParcelDropDTO;
+import com.securacore.app.dto.Parcel.ParcelPickupDTO;
+import com.securacore.app.entity.Parcel;
+import com.securacore.app.enums.ParcelStatus;
+import com.securacore.app.repository.ParcelRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parcels left at the gate. A courier's whole drop is logged with one batched insert, each flat's
+ * parcels from the drop share a one-time code that the resident shows at pickup, and the number of
+ * parcels waiting per flat is kept in memory so the gate can answer "anything for A-101?" without
+ * a query.
+ */
+@Service
+public class ParcelService {
+
+    private static final String INSERT_PARCEL = "INSERT INTO parcels (society_id, flat_id, flat_no, drop_id, courier, "
+            + "tracking_no, description, received_by_guard_id, received_at, otp, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    ParcelRepository parcelRepository;
+
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Value("${securacore.parcels.max-drop-size:200}")
+    int maxDropSize;
+
+    @Value("${securacore.parcels.max-otp-attempts:5}")
+    int maxOtpAttempts;
+
+    @Value("${securacore.parcels.otp-lockout:15m}")
+    Duration otpLockout;
+
+    private record Attempts(int failures, LocalDateTime since) {
+    }
+
+    private final Map<String, AtomicInteger> pendingByFlat = new ConcurrentHashMap<>();
+    private final Map<String, Attempts> failedPickups = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(5)
+    public void rebuild() {
+        for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            TenantContext.bind(TenantContext.ROOT);
+            TenantContext.bindShard(shard);
+            try {
+                for (Object[] row : parcelRepository.countPendingByFlat()) {
+                    if (row[1] == null) continue;
+                    pendingByFlat.computeIfAbsent(key((String) row[0], (Integer) row[1]), k -> new AtomicInteger())
+                            .set(((Long) row[2]).intValue());
+                }
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    public String logDrop(ParcelDropDTO drop) {
+        List<ParcelDTO> parcels = drop.getParcels();
+        if (parcels == null || parcels.isEmpty()) return "No Parcels In Drop";
+        if (parcels.size() > maxDropSize) return "A drop can hold at most " + maxDropSize + " parcels";
+
+        String societyId = TenantContext.getSociety();
+        String dropId = UUID.randomUUID().toString();
+        LocalDateTime receivedAt = LocalDateTime.now();
+        Map<Integer, String> otps = new HashMap<>();
+        Map<Integer, String> flatNos = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>(parcels.size());
+        for (ParcelDTO parcel : parcels) {
+            Integer flatId = flatRegistry.resolve(parcel.getFlatNo());
+            if (flatId == null) return "Flat is required for every parcel";
+            flatNos.putIfAbsent(flatId, FlatRegistry.canonicalCode(parcel.getFlatNo()));
+            String otp = otps.computeIfAbsent(flatId, f -> newOtp());
+            rows.add(new Object[]{societyId, flatId, flatNos.get(flatId), dropId, drop.getCourier(),
+                    parcel.getTrackingNo(), parcel.getDescription(), drop.getGuardId(), Timestamp.valueOf(receivedAt),
+                    otp, ParcelStatus.PENDING.name()});
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_PARCEL, rows);
+
+        Map<Integer, Integer> perFlat = new HashMap<>();
+        for (Object[] row : rows) {
+            perFlat.merge((Integer) row[1], 1, Integer::sum);
+        }
+        perFlat.forEach((flatId, count) ->
+                pendingByFlat.computeIfAbsent(key(societyId, flatId), k -> new AtomicInteger()).addAndGet(count));
+        return rows.size() + " Parcels Logged for " + perFlat.size() + " Flats";
+    }
+
+    public String pickup(ParcelPickupDTO request) {
+        Integer flatId = flatRegistry.find(request.getFlatNo());
+        if (flatId == null) return "Flat Not Found";
+        String societyId = TenantContext.getSociety();
+        String flatKey = key(societyId, flatId);
+
+        Attempts attempts = failedPickups.get(flatKey);
+        if (attempts != null && attempts.failures() >= maxOtpAttempts) {
+            if (attempts.since().plus(otpLockout).isAfter(LocalDateTime.now())) return "Too many wrong codes, try again later";
+            failedPickups.remove(flatKey, attempts);
+        }
+
+        String otp = request.getOtp() == null ? "" : request.getOtp().trim();
+        int collected = otp.isEmpty() ? 0 : parcelRepository.collect(flatId, otp, LocalDateTime.now(), request.getCollectedBy());
+        if (collected == 0) {
+            failedPickups.merge(flatKey, new Attempts(1, LocalDateTime.now()),
+                    (previous, first) -> new Attempts(previous.failures() + 1, previous.since()));
+            return "Invalid Code";
+        }
+
+        failedPickups.remove(flatKey);
+        AtomicInteger pending = pendingByFlat.get(flatKey);
+        if (pending != null) pending.updateAndGet(count -> Math.max(0, count - collected));
+        return collected + " Parcels Collected";
+    }
+
+    public int pendingCount(String flatNo) {
+        Integer flatId = flatRegistry.find(flatNo);
+        if (flatId == null) return 0;
+        AtomicInteger pending = pendingByFlat.get(key(TenantContext.getSociety(), flatId));
+        return pending != null ? pending.get() : 0;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ParcelDTO> pendingParcels(String flatNo, boolean withOtp) {
+        Integer flatId = flatRegistry.find(flatNo);
+        if (flatId == null) return new ArrayList<>();
+        List<ParcelDTO> result = new ArrayList<>();
+        for (Parcel parcel : parcelRepository.findAllByFlatIdAndStatusOrderByReceivedAt(flatId, ParcelStatus.PENDING)) {
+            ParcelDTO dto = new ParcelDTO();
+            dto.setId(parcel.getId());
+            dto.setFlatNo(parcel.getFlatNo());
+            dto.setCourier(parcel.getCourier());
+            dto.setTrackingNo(parcel.getTrackingNo());
+            dto.setDescription(parcel.getDescription());
+            dto.setStatus(parcel.getStatus());
+            dto.setReceivedAt(parcel.getReceivedAt());
+            dto.setCollectedAt(parcel.getCollectedAt());
+            if (withOtp) dto.setOtp(parcel.getOtp());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private static String newOtp() {
+        return String.format("%06d", random.nextInt(1_000_000));
+    }
+
+    private static String key(String societyId, Integer flatId) {
+        return societyId + ":" + flatId;
+    }
+}
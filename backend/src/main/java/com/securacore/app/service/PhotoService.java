@@ -0,0 +1,297 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.entity.QRVisitor;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.repository.QRVisitorRepository;
+import com.securacore.app.repository.VisitorRepository;
+import com.securacore.app.storage.ContentStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gate photos of visitors and their ID cards. Images live on disk in a {@link ContentStore} per
+ * society and the visit row only keeps the content hash, so a regular visitor photographed every
+ * day from the same saved picture is stored once. Thumbnails for the admin listings are made on a
+ * small bounded pool; when it is saturated the thumbnail is made the first time it is asked for.
+ * Photos are released when their visit is older than the retention period and the files are
+ * removed once no visit refers to them.
+ */
+@Service
+public class PhotoService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoService.class);
+
+    public static final String THUMBNAIL = "thumb.jpg";
+
+    @Autowired
+    VisitorRepository visitorRepository;
+
+    @Autowired
+    QRVisitorRepository qrVisitorRepository;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Value("${securacore.photos.dir:data/photos}")
+    Path dir;
+
+    @Value("${securacore.photos.max-size:8MB}")
+    DataSize maxSize;
+
+    @Value("${securacore.photos.thumbnail-size:240}")
+    int thumbnailSize;
+
+    @Value("${securacore.photos.max-pixels:25000000}")
+    long maxPixels;
+
+    @Value("${securacore.photos.retention:90d}")
+    Duration retention;
+
+    // Files younger than this are never collected, so an upload can land before its row is saved
+    @Value("${securacore.photos.orphan-grace:1h}")
+    Duration orphanGrace;
+
+    private final ThreadPoolExecutor thumbnails;
+    private final Set<String> thumbnailsQueued = ConcurrentHashMap.newKeySet();
+    private final Map<String, ContentStore> stores = new ConcurrentHashMap<>();
+
+    public PhotoService(@Value("${securacore.photos.thumbnail-threads:2}") int threads,
+                        @Value("${securacore.photos.thumbnail-queue:256}") int queueCapacity) {
+        this.thumbnails = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+        this.thumbnails.allowCoreThreadTimeOut(true);
+    }
+
+    public String visitorPhoto(int visitorId, InputStream in) {
+        Visitor visitor = visitorRepository.findById(visitorId).orElse(null);
+        if (visitor == null) return "Visitor Not Found";
+        String hash;
+        try {
+            hash = store(in);
+        } catch (ContentStore.TooLargeException e) {
+            return "Photo is larger than " + maxSize.toMegabytes() + "MB";
+        } catch (IOException e) {
+            log.warn("Photo upload for visitor {} failed", visitorId, e);
+            return "Error storing photo: " + e.getMessage();
+        }
+        if (hash == null) return "Photo must be a JPEG or PNG image";
+        visitor.setPhotoHash(hash);
+        visitorRepository.save(visitor);
+        return "Photo Saved";
+    }
+
+    public String qrVisitorPhoto(int visitorId, InputStream in) {
+        QRVisitor visitor = qrVisitorRepository.findById(visitorId).orElse(null);
+        if (visitor == null) return "QR Visitor not found";
+        String hash;
+        try {
+            hash = store(in);
+        } catch (ContentStore.TooLargeException e) {
+            return "Photo is larger than " + maxSize.toMegabytes() + "MB";
+        } catch (IOException e) {
+            log.warn("Photo upload for QR visitor {} failed", visitorId, e);
+            return "Error storing photo: " + e.getMessage();
+        }
+        if (hash == null) return "Photo must be a JPEG or PNG image";
+        visitor.setPhotoHash(hash);
+        qrVisitorRepository.save(visitor);
+        return "Photo Saved";
+    }
+
+    /**
+     * Path of the photo or its thumbnail, or null when the hash is not stored for this society.
+     * A missing thumbnail falls back to the original.
+     */
+    public Path open(String hash, boolean thumbnail) {
+        if (TenantContext.isRoot()) return null;
+        ContentStore store = storeFor(TenantContext.getSociety());
+        if (!store.contains(hash)) return null;
+        if (!thumbnail) return store.pathOf(hash);
+        Path variant = store.variantOf(hash, THUMBNAIL);
+        if (Files.isRegularFile(variant)) return variant;
+        queueThumbnail(store, hash);
+        return store.pathOf(hash);
+    }
+
+    public static String contentType(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            String type = sniff(in.readNBytes(4));
+            return type != null ? type : "application/octet-stream";
+        }
+    }
+
+    /**
+     * Releases photos of visits past retention, then deletes files no visit refers to any more.
+     */
+    @Scheduled(cron = "${securacore.photos.sweep-cron:0 30 3 * * *}")
+    public void sweep() {
+        LocalDate before = LocalDate.now().minusDays(retention.toDays());
+        Map<String, Set<String>> referenced = new HashMap<>();
+        for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            TenantContext.bind(TenantContext.ROOT);
+            TenantContext.bindShard(shard);
+            try {
+                int released = visitorRepository.releasePhotosBefore(before) + qrVisitorRepository.releasePhotosBefore(before);
+                if (released > 0) log.info("Released {} visit photos older than {} on shard {}", released, before, shard);
+                for (Object[] row : visitorRepository.findPhotoReferences()) {
+                    referenced.computeIfAbsent((String) row[0], s -> new HashSet<>()).add((String) row[1]);
+                }
+                for (Object[] row : qrVisitorRepository.findPhotoReferences()) {
+                    referenced.computeIfAbsent((String) row[0], s -> new HashSet<>()).add((String) row[1]);
+                }
+            } finally {
+                TenantContext.clear();
+            }
+        }
+
+        if (!Files.isDirectory(dir)) return;
+        Instant graceStart = Instant.now().minus(orphanGrace);
+        try (var societies = Files.list(dir)) {
+            for (Path societyDir : (Iterable<Path>) societies::iterator) {
+                if (!Files.isDirectory(societyDir)) continue;
+                String societyId = societyDir.getFileName().toString();
+                ContentStore store = storeFor(societyId);
+                Set<String> keep = referenced.getOrDefault(societyId, Set.of());
+                int deleted = 0;
+                for (String hash : store.hashesOlderThan(graceStart)) {
+                    if (keep.contains(hash)) continue;
+                    store.delete(hash);
+                    deleted++;
+                }
+                if (deleted > 0) log.info("Deleted {} unreferenced photos of society {}", deleted, societyId);
+            }
+        } catch (IOException e) {
+            log.warn("Photo sweep failed", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        thumbnails.shutdownNow();
+    }
+
+    private String store(InputStream in) throws IOException {
+        InputStream buffered = new BufferedInputStream(in);
+        buffered.mark(4);
+        String type = sniff(buffered.readNBytes(4));
+        buffered.reset();
+        if (type == null) return null;
+
+        ContentStore store = storeFor(TenantContext.getSociety());
+        ContentStore.Stored stored = store.put(buffered, maxSize.toBytes());
+        if (!Files.isRegularFile(store.variantOf(stored.hash(), THUMBNAIL))) {
+            queueThumbnail(store, stored.hash());
+        }
+        return stored.hash();
+    }
+
+    private void queueThumbnail(ContentStore store, String hash) {
+        if (!thumbnailsQueued.add(hash)) return;
+        try {
+            thumbnails.execute(() -> {
+                try {
+                    writeThumbnail(store, hash);
+                } catch (IOException e) {
+                    log.warn("Thumbnail for {} failed", hash, e);
+                } finally {
+                    thumbnailsQueued.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Saturated; the next request for this thumbnail queues it again
+            thumbnailsQueued.remove(hash);
+        }
+    }
+
+    private void writeThumbnail(ContentStore store, String hash) throws IOException {
+        BufferedImage image = decode(store.pathOf(hash));
+        if (image == null) return;
+        double scale = Math.min(1.0, (double) thumbnailSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        store.putVariant(hash, THUMBNAIL, out -> ImageIO.write(thumbnail, "jpg", out));
+    }
+
+    // A small file can declare a huge image, so the size in the header is checked before decoding
+    private BufferedImage decode(Path path) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image of " + width + "x" + height + " exceeds " + maxPixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private ContentStore storeFor(String societyId) {
+        return stores.computeIfAbsent(societyId, s -> {
+            try {
+                return new ContentStore(dir.resolve(s));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static String sniff(byte[] head) {
+        if (head.length >= 3 && (head[0] & 0xff) == 0xff && (head[1] & 0xff) == 0xd8 && (head[2] & 0xff) == 0xff) {
+            return "image/jpeg";
+        }
+        if (head.length >= 4 && (head[0] & 0xff) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return "image/png";
+        }
+        return null;
+    }
+}
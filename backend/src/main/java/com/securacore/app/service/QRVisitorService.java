@@ -1,5 +1,6 @@
 package com.securacore.app.service;
 
+import com.securacore.app.config.TenantContext;
 import com.securacore.app.dto.QRVisitor.QRVisitorRequestDTO;
 import com.securacore.app.dto.QRVisitor.QRVisitorResponseDTO;
 import com.securacore.app.dto.QRVisitor.QRVisitorValidationDTO;
@@ -7,6 +8,7 @@ import com.securacore.app.entity.QRVisitor;
 import com.securacore.app.repository.QRVisitorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -21,26 +23,51 @@ public class QRVisitorService {
     
     @Autowired
     private QRVisitorRepository qrVisitorRepository;
+
+    @Autowired
+    private FlatRegistry flatRegistry;
+
+    @Autowired
+    private OccupancyService occupancyService;
+
+    @Autowired
+    private VisitExpiryService visitExpiryService;
+
+    @Autowired
+    private VisitorSuggestionService visitorSuggestionService;
+
+    @Autowired
+    private WatchlistService watchlistService;
     
     public QRVisitorResponseDTO createQRVisitor(QRVisitorRequestDTO request) {
         try {
+            WatchlistService.Screening screening = watchlistService.screen(request.getName(), request.getContact());
+            if (screening != null && screening.blocks()) {
+                return new QRVisitorResponseDTO(0, "", screening.describe(), false);
+            }
+
             QRVisitor qrVisitor = new QRVisitor();
             qrVisitor.setName(request.getName());
+            qrVisitor.setContact(request.getContact());
+            if (screening != null) qrVisitor.setWatchlistMatch(screening.name());
             qrVisitor.setPurpose(request.getPurpose());
             qrVisitor.setVisitDate(request.getVisitDate() != null ? request.getVisitDate() : LocalDate.now());
             qrVisitor.setRelation(request.getRelation());
-            qrVisitor.setFlatNo(request.getFlatNo());
+            qrVisitor.setFlatNo(FlatRegistry.canonicalCode(request.getFlatNo()));
+            qrVisitor.setFlatId(flatRegistry.resolve(request.getFlatNo()));
             
             // Generate unique QR code
             String qrCode = "QR" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
             qrVisitor.setQrCode(qrCode);
             
             QRVisitor savedVisitor = qrVisitorRepository.save(qrVisitor);
+            visitExpiryService.qrPassIssued(savedVisitor);
+            visitorSuggestionService.qrVisitorRecorded(savedVisitor);
             
             return new QRVisitorResponseDTO(
                 savedVisitor.getId(),
                 savedVisitor.getQrCode(),
-                "QR Visitor created successfully",
+                screening != null ? "QR Visitor created successfully. " + screening.describe() : "QR Visitor created successfully",
                 true
             );
         } catch (Exception e) {
@@ -115,6 +142,10 @@ public class QRVisitorService {
             
             qrVisitor.setCheckInTime(LocalDateTime.now());
             qrVisitorRepository.save(qrVisitor);
+            if ("APPROVED".equals(qrVisitor.getStatus())) {
+                occupancyService.qrVisitorEntered(qrVisitor);
+                visitExpiryService.qrVisitorCheckedIn(qrVisitor);
+            }
             
             return "QR Visitor checked in successfully";
         } catch (Exception e) {
@@ -135,6 +166,7 @@ public class QRVisitorService {
             
             qrVisitor.setCheckOutTime(LocalDateTime.now());
             qrVisitorRepository.save(qrVisitor);
+            occupancyService.qrVisitorLeft(qrVisitor);
             
             return "QR Visitor checked out successfully";
         } catch (Exception e) {
@@ -142,6 +174,7 @@ public class QRVisitorService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getAllQRVisitors() {
         try {
             List<QRVisitor> visitors = qrVisitorRepository.findAll();
@@ -151,15 +184,24 @@ public class QRVisitorService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getQRVisitorsByFlat(String flatNo) {
         try {
-            List<QRVisitor> visitors = qrVisitorRepository.findByFlatNo(flatNo);
+            List<QRVisitor> visitors;
+            if (TenantContext.isRoot()) {
+                visitors = qrVisitorRepository.findByFlatNo(FlatRegistry.canonicalCode(flatNo));
+            } else {
+                Integer flatId = flatRegistry.find(flatNo);
+                if (flatId == null) return List.of();
+                visitors = qrVisitorRepository.findByFlatId(flatId);
+            }
             return visitors.stream().map(this::convertToMap).collect(Collectors.toList());
         } catch (Exception e) {
             return List.of();
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getQRVisitorsByDate(LocalDate date) {
         try {
             List<QRVisitor> visitors = qrVisitorRepository.findByVisitDate(date);
@@ -169,9 +211,12 @@ public class QRVisitorService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getQRVisitorsByFlatAndDate(String flatNo, LocalDate date) {
         try {
-            List<QRVisitor> visitors = qrVisitorRepository.findByFlatNoAndVisitDate(flatNo, date);
+            Integer flatId = flatRegistry.find(flatNo);
+            if (flatId == null) return List.of();
+            List<QRVisitor> visitors = qrVisitorRepository.findByFlatIdAndVisitDate(flatId, date);
             return visitors.stream().map(this::convertToMap).collect(Collectors.toList());
         } catch (Exception e) {
             return List.of();
@@ -0,0 +1,196 @@
+package com.securacore.app.service;
+
+import com.securacore.app.dto.Visitor.RecurringVisitDTO;
+import com.securacore.app.entity.RecurringVisit;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.enums.Recurrence;
+import com.securacore.app.enums.VisitStatus;
+import com.securacore.app.repository.RecurringVisitRepository;
+import com.securacore.app.repository.VisitorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Standing visits such as domestic help, stored once as a schedule. Whether a schedule occurs on
+ * a given day is worked out when the guard looks at it, and a {@link Visitor} row is written only
+ * when the visitor actually checks in.
+ */
+@Service
+public class RecurringVisitService {
+
+    @Autowired
+    RecurringVisitRepository recurringVisitRepository;
+
+    @Autowired
+    VisitorRepository visitorRepository;
+
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    @Autowired
+    OccupancyService occupancyService;
+
+    @Autowired
+    VisitExpiryService visitExpiryService;
+
+    public String addSchedule(RecurringVisitDTO request) {
+        if (request.getName() == null || request.getName().isBlank()) return "Visitor name is required";
+        if (request.getInterval() < 1) return "Interval must be at least 1";
+        Integer flatId = flatRegistry.resolve(request.getFlatNo());
+        if (flatId == null) return "Flat Not Found";
+
+        RecurringVisit schedule = new RecurringVisit();
+        schedule.setFlatId(flatId);
+        schedule.setFlatNo(FlatRegistry.canonicalCode(request.getFlatNo()));
+        schedule.setName(request.getName());
+        schedule.setContact(request.getContact());
+        schedule.setRelation(request.getRelation());
+        schedule.setPurpose(request.getPurpose());
+        schedule.setFrequency(request.getFrequency() != null ? request.getFrequency() : Recurrence.DAILY);
+        schedule.setInterval(request.getInterval());
+        schedule.setWeekdays(maskOf(request.getWeekdays()));
+        schedule.setStartDate(request.getStartDate() != null ? request.getStartDate() : LocalDate.now());
+        schedule.setEndDate(request.getEndDate());
+        schedule.setActive(true);
+        schedule.setCreatedAt(LocalDateTime.now());
+        recurringVisitRepository.save(schedule);
+        return "Recurring Visit Scheduled";
+    }
+
+    public String cancelSchedule(int id) {
+        RecurringVisit schedule = recurringVisitRepository.findById(id).orElse(null);
+        if (schedule == null) return "Recurring Visit Not Found";
+        // Kept rather than deleted so past visits still point at the schedule they came from
+        schedule.setActive(false);
+        recurringVisitRepository.save(schedule);
+        return "Recurring Visit Cancelled";
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringVisitDTO> getSchedules(String flatNo) {
+        List<RecurringVisitDTO> result = new ArrayList<>();
+        Integer flatId = flatRegistry.find(flatNo);
+        if (flatId == null) return result;
+        for (RecurringVisit schedule : recurringVisitRepository.findAllByFlatId(flatId)) {
+            result.add(toDto(schedule));
+        }
+        return result;
+    }
+
+    /**
+     * Occurrences on a day, optionally for one flat.
+     */
+    @Transactional(readOnly = true)
+    public List<RecurringVisitDTO> expectedOn(LocalDate day, String flatNo) {
+        List<RecurringVisitDTO> result = new ArrayList<>();
+        List<RecurringVisit> inForce;
+        if (flatNo != null) {
+            Integer flatId = flatRegistry.find(flatNo);
+            if (flatId == null) return result;
+            inForce = recurringVisitRepository.findInForceOnForFlat(flatId, day);
+        } else {
+            inForce = recurringVisitRepository.findInForceOn(day);
+        }
+        for (RecurringVisit schedule : inForce) {
+            if (occursOn(schedule, day)) result.add(toDto(schedule));
+        }
+        return result;
+    }
+
+    public boolean validateRecurringVisit(int id) {
+        RecurringVisit schedule = recurringVisitRepository.findById(id).orElse(null);
+        return schedule != null && schedule.isActive() && occursOn(schedule, LocalDate.now());
+    }
+
+    public String checkinRecurringVisit(int id) {
+        RecurringVisit schedule = recurringVisitRepository.findById(id).orElse(null);
+        if (schedule == null || !schedule.isActive()) return "Recurring Visit Not Found";
+        LocalDate today = LocalDate.now();
+        if (!occursOn(schedule, today)) return "Recurring Visit not scheduled today";
+        int lastEntry = 0;
+        for (Visitor visit : visitorRepository.findAllByRecurringVisitIdAndVisitDate(id, today)) {
+            if (visit.getCheckOutTime() == null) return "Visitor already checked in";
+            if (visit.getRecurringEntry() != null) lastEntry = Math.max(lastEntry, visit.getRecurringEntry());
+        }
+
+        Visitor visitor = new Visitor();
+        visitor.setName(schedule.getName());
+        visitor.setContact(schedule.getContact());
+        visitor.setFlatNo(schedule.getFlatNo());
+        visitor.setFlatId(schedule.getFlatId());
+        visitor.setRelation(schedule.getRelation());
+        visitor.setPurpose(schedule.getPurpose());
+        visitor.setVisitDate(today);
+        visitor.setCheckInTime(LocalDateTime.now());
+        visitor.setStatus(VisitStatus.APPROVED);
+        visitor.setCreatedByResident(true);
+        visitor.setRecurringVisitId(schedule.getId());
+        visitor.setRecurringEntry(lastEntry + 1);
+        try {
+            visitorRepository.save(visitor);
+        } catch (DataIntegrityViolationException e) {
+            // Another check-in took this entry between the lookup and the insert
+            return "Visitor already checked in";
+        }
+        occupancyService.visitorEntered(visitor);
+        visitExpiryService.visitorCheckedIn(visitor);
+        return "Visitor checked in successfully";
+    }
+
+    static boolean occursOn(RecurringVisit schedule, LocalDate day) {
+        if (day.isBefore(schedule.getStartDate())) return false;
+        if (schedule.getEndDate() != null && day.isAfter(schedule.getEndDate())) return false;
+        int interval = Math.max(1, schedule.getInterval());
+        if (schedule.getFrequency() == Recurrence.DAILY) {
+            return ChronoUnit.DAYS.between(schedule.getStartDate(), day) % interval == 0;
+        }
+        int weekdays = schedule.getWeekdays() != 0 ? schedule.getWeekdays() : bit(schedule.getStartDate().getDayOfWeek());
+        if ((weekdays & bit(day.getDayOfWeek())) == 0) return false;
+        LocalDate firstWeek = schedule.getStartDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate week = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return ChronoUnit.WEEKS.between(firstWeek, week) % interval == 0;
+    }
+
+    private static RecurringVisitDTO toDto(RecurringVisit schedule) {
+        RecurringVisitDTO dto = new RecurringVisitDTO();
+        dto.setId(schedule.getId());
+        dto.setName(schedule.getName());
+        dto.setContact(schedule.getContact());
+        dto.setFlatNo(schedule.getFlatNo());
+        dto.setRelation(schedule.getRelation());
+        dto.setPurpose(schedule.getPurpose());
+        dto.setFrequency(schedule.getFrequency());
+        dto.setInterval(schedule.getInterval());
+        List<DayOfWeek> days = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((schedule.getWeekdays() & bit(day)) != 0) days.add(day);
+        }
+        dto.setWeekdays(days);
+        dto.setStartDate(schedule.getStartDate());
+        dto.setEndDate(schedule.getEndDate());
+        dto.setActive(schedule.isActive());
+        return dto;
+    }
+
+    private static int maskOf(List<DayOfWeek> days) {
+        int mask = 0;
+        if (days != null) {
+            for (DayOfWeek day : days) mask |= bit(day);
+        }
+        return mask;
+    }
+
+    private static int bit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * When the data behind each report date last changed, per society and, under the root society,
+ * for all societies together. Writers mark a date after their change has committed; a cached
+ * report is current only if it was started after the last change to any date in its range.
+ * Nothing is known from before this process started, so results cached by an earlier run are
+ * treated as stale.
+ */
+@Component
+public class ReportChangeTracker {
+
+    public enum Dataset {
+        VISITORS,
+        ATTENDANCE
+    }
+
+    private final long startedAt = System.currentTimeMillis();
+    private final Map<String, NavigableMap<LocalDate, Long>> changes = new ConcurrentHashMap<>();
+
+    public void changed(Dataset dataset, String societyId, LocalDate date) {
+        if (societyId == null || date == null) return;
+        long now = System.currentTimeMillis();
+        changes.computeIfAbsent(key(dataset, societyId), k -> new ConcurrentSkipListMap<>())
+                .merge(date, now, Math::max);
+        // Reports across all societies are checked against the root society's marks
+        changes.computeIfAbsent(key(dataset, TenantContext.ROOT), k -> new ConcurrentSkipListMap<>())
+                .merge(date, now, Math::max);
+    }
+
+    /**
+     * Latest change to any date in the range, never earlier than process start.
+     */
+    public long lastChange(Dataset dataset, String societyId, LocalDate from, LocalDate to) {
+        return Math.max(startedAt, lastMarked(dataset, societyId, from, to));
+    }
+
+    /**
+     * Latest change marked by this process to any date in the range, or 0 if there was none.
+     */
+    public long lastMarked(Dataset dataset, String societyId, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, Long> dates = changes.get(key(dataset, societyId));
+        long last = 0;
+        if (dates == null) return last;
+        for (long changedAt : dates.subMap(from, true, to, true).values()) {
+            last = Math.max(last, changedAt);
+        }
+        return last;
+    }
+
+    private static String key(Dataset dataset, String societyId) {
+        return dataset + ":" + societyId;
+    }
+}
@@ -0,0 +1,402 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Report.ReportJobDTO;
+import com.securacore.app.dto.Report.ReportJobRequestDTO;
+import com.securacore.app.enums.ReportJobStatus;
+import com.securacore.app.enums.ReportType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.BufferedWriter;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Runs heavy reports off the request thread. A submitted report gets a job id; the job runs on a
+ * small bounded pool, reports rows written as it goes, can be cancelled, and leaves its result in
+ * a file that is downloaded separately. Results are cached on disk under a key of the society and
+ * parameters and reused until {@link ReportChangeTracker} sees a change to a date in their range,
+ * so a dashboard reloading the same report costs a file read. The same report submitted while one
+ * is already queued or running joins that job.
+ */
+@Service
+public class ReportJobService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final long PROGRESS_INTERVAL_MILLIS = 1000;
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    @Autowired
+    AttendanceReportService attendanceReportService;
+
+    @Autowired
+    VisitorExportService visitorExportService;
+
+    @Autowired
+    ReportChangeTracker reportChangeTracker;
+
+    @Value("${securacore.jobs.dir:data/reports}")
+    Path dir;
+
+    // Finished jobs are forgotten after this; their cached result files stay until cache-ttl
+    @Value("${securacore.jobs.retention:1h}")
+    Duration retention;
+
+    @Value("${securacore.jobs.cache-ttl:7d}")
+    Duration cacheTtl;
+
+    private static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final String societyId;
+        final ReportJobRequestDTO request;
+        final String cacheKey;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        final AtomicLong rows = new AtomicLong();
+        final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+        volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        volatile boolean cached;
+        volatile boolean cancelRequested;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+        volatile Path result;
+        volatile long lastProgressMillis;
+        volatile Future<?> future;
+
+        Job(String societyId, ReportJobRequestDTO request, String cacheKey) {
+            this.societyId = societyId;
+            this.request = request;
+            this.cacheKey = cacheKey;
+        }
+
+        boolean finished() {
+            return status != ReportJobStatus.QUEUED && status != ReportJobStatus.RUNNING;
+        }
+    }
+
+    private final ThreadPoolExecutor workers;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Queued and running jobs by cache key, so the same report is only ever computed once at a time
+    private final Map<String, Job> active = new ConcurrentHashMap<>();
+
+    public ReportJobService(@Value("${securacore.jobs.workers:2}") int threads,
+                            @Value("${securacore.jobs.queue:32}") int queueCapacity) {
+        this.workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Why the request cannot run, or null if it can.
+     */
+    public String validate(ReportJobRequestDTO request) {
+        if (request.getType() == null) return "Report type is required";
+        if (request.getFrom() == null || request.getTo() == null) return "From and to dates are required";
+        if (request.getTo().isBefore(request.getFrom())) return "To date is before from date";
+        if (!"csv".equals(request.getFormat()) && !"csv.gz".equals(request.getFormat())) return "Format must be csv or csv.gz";
+        String source = request.getSource();
+        if (source != null && !VisitorExportService.SOURCE_VISITOR.equalsIgnoreCase(source)
+                && !VisitorExportService.SOURCE_QR.equalsIgnoreCase(source)) {
+            return "Source must be visitor or qr";
+        }
+        return null;
+    }
+
+    public ReportJobDTO submit(ReportJobRequestDTO request) {
+        String societyId = TenantContext.getSociety();
+        Job job = new Job(societyId, request, cacheKey(societyId, request));
+
+        Path cached = cachedResult(job);
+        if (cached != null) {
+            job.cached = true;
+            job.result = cached;
+            job.status = ReportJobStatus.DONE;
+            job.finishedAt = job.submittedAt;
+            jobs.put(job.id, job);
+            return toDto(job);
+        }
+
+        synchronized (active) {
+            Job running = active.get(job.cacheKey);
+            if (running != null) return toDto(running);
+            jobs.put(job.id, job);
+            active.put(job.cacheKey, job);
+        }
+        try {
+            job.future = workers.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            finish(job, ReportJobStatus.FAILED, "Too many report jobs queued, try again later");
+        }
+        return toDto(job);
+    }
+
+    public ReportJobDTO status(String id) {
+        Job job = visible(id);
+        return job == null ? null : toDto(job);
+    }
+
+    public String cancel(String id) {
+        Job job = visible(id);
+        if (job == null) return "Job Not Found";
+        if (job.finished()) return "Job Already Finished";
+        job.cancelRequested = true;
+        // A queued job never starts; a running one stops at its next row
+        Future<?> future = job.future;
+        if (future != null && future.cancel(false)) finish(job, ReportJobStatus.CANCELLED, null);
+        return "Job Cancelled";
+    }
+
+    /**
+     * The result file of a finished job, or null if there is none (yet).
+     */
+    public Path result(String id) {
+        Job job = visible(id);
+        if (job == null || job.status != ReportJobStatus.DONE) return null;
+        return Files.exists(job.result) ? job.result : null;
+    }
+
+    /**
+     * Server-sent "job" events with the job's state: now, about once a second while it runs, and
+     * when it finishes, after which the stream completes.
+     */
+    public SseEmitter subscribe(String id) {
+        Job job = visible(id);
+        if (job == null) return null;
+        SseEmitter emitter = new SseEmitter(0L);
+        job.subscribers.add(emitter);
+        emitter.onCompletion(() -> job.subscribers.remove(emitter));
+        emitter.onTimeout(() -> job.subscribers.remove(emitter));
+        notifySubscribers(job);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${securacore.jobs.purge-interval:10m}")
+    public void purge() {
+        LocalDateTime forgetBefore = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finished() && job.finishedAt.isBefore(forgetBefore));
+
+        if (!Files.isDirectory(dir)) return;
+        long expireBefore = System.currentTimeMillis() - cacheTtl.toMillis();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                if (Files.getLastModifiedTime(file).toMillis() < expireBefore) Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not sweep cached reports in {}", dir, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+
+    private void run(Job job) {
+        synchronized (job) {
+            if (job.finished()) return;
+            if (job.cancelRequested) {
+                finish(job, ReportJobStatus.CANCELLED, null);
+                return;
+            }
+            job.status = ReportJobStatus.RUNNING;
+        }
+        notifySubscribers(job);
+
+        // Stamped with the start, so a change committed while the report ran makes the result stale
+        long startedAt = System.currentTimeMillis();
+        boolean gzip = "csv.gz".equals(job.request.getFormat());
+        Path temp = null;
+        TenantContext.bind(job.societyId);
+        try {
+            Files.createDirectories(dir);
+            temp = Files.createTempFile(dir, job.cacheKey, ".tmp");
+            try (OutputStream file = Files.newOutputStream(temp)) {
+                OutputStream target = gzip ? new GZIPOutputStream(file, GZIP_BUFFER) : file;
+                Writer writer = new ProgressWriter(new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8)), job);
+                write(job.request, writer);
+                writer.flush();
+                if (target instanceof GZIPOutputStream compressed) compressed.finish();
+            }
+            Path result = dir.resolve(fileName(job));
+            Files.move(temp, result, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.setLastModifiedTime(result, FileTime.fromMillis(startedAt));
+            temp = null;
+            job.result = result;
+            finish(job, ReportJobStatus.DONE, null);
+        } catch (CancellationException e) {
+            finish(job, ReportJobStatus.CANCELLED, null);
+        } catch (Exception e) {
+            log.warn("Report job {} failed", job.id, e);
+            finish(job, ReportJobStatus.FAILED, e.getMessage());
+        } finally {
+            TenantContext.clear();
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Could not delete {}", temp, e);
+                }
+            }
+        }
+    }
+
+    private void write(ReportJobRequestDTO request, Writer writer) throws IOException {
+        switch (request.getType()) {
+            case ATTENDANCE -> attendanceReportService.writeAttendanceCsv(request.getFrom(), request.getTo(), writer);
+            case VISITORS -> visitorExportService.writeCsv(request.getFrom(), request.getTo(), request.getFlat(),
+                    request.getSource(), writer);
+        }
+    }
+
+    // The first outcome wins: a job cancelled while running stays cancelled when its worker returns
+    private void finish(Job job, ReportJobStatus status, String error) {
+        synchronized (job) {
+            if (job.finished()) return;
+            active.remove(job.cacheKey, job);
+            job.error = error;
+            job.finishedAt = LocalDateTime.now();
+            job.status = status;
+        }
+        notifySubscribers(job);
+    }
+
+    private void notifySubscribers(Job job) {
+        ReportJobDTO state = toDto(job);
+        for (SseEmitter emitter : job.subscribers) {
+            try {
+                emitter.send(SseEmitter.event().name("job").data(state));
+                if (job.finished()) emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                job.subscribers.remove(emitter);
+            }
+        }
+    }
+
+    private Path cachedResult(Job job) {
+        Path file = dir.resolve(fileName(job));
+        try {
+            if (!Files.exists(file)) return null;
+            long stamp = Files.getLastModifiedTime(file).toMillis();
+            if (stamp < System.currentTimeMillis() - cacheTtl.toMillis()) return null;
+            long changed = reportChangeTracker.lastChange(datasetOf(job.request.getType()), job.societyId,
+                    job.request.getFrom(), job.request.getTo());
+            return stamp > changed ? file : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Job visible(String id) {
+        Job job = jobs.get(id);
+        if (job == null) return null;
+        return TenantContext.isRoot() || job.societyId.equals(TenantContext.getSociety()) ? job : null;
+    }
+
+    private static ReportJobDTO toDto(Job job) {
+        return new ReportJobDTO(job.id, job.request.getType(), job.status, job.cached ? null : job.rows.get(),
+                job.cached, job.submittedAt, job.finishedAt, job.error);
+    }
+
+    private static ReportChangeTracker.Dataset datasetOf(ReportType type) {
+        return type == ReportType.ATTENDANCE ? ReportChangeTracker.Dataset.ATTENDANCE : ReportChangeTracker.Dataset.VISITORS;
+    }
+
+    private static String fileName(Job job) {
+        return job.cacheKey + "." + job.request.getFormat();
+    }
+
+    private static String cacheKey(String societyId, ReportJobRequestDTO request) {
+        String flat = request.getType() == ReportType.VISITORS && request.getFlat() != null && !request.getFlat().isBlank()
+                ? FlatRegistry.canonicalCode(request.getFlat()) : "";
+        String source = request.getType() == ReportType.VISITORS && request.getSource() != null
+                ? request.getSource().toLowerCase(Locale.ROOT) : "";
+        String key = String.join("|", societyId, request.getType().name(), request.getFrom().toString(),
+                request.getTo().toString(), flat, source, request.getFormat());
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Counts rows as they are written, reports progress and stops the job when it is cancelled
+    private final class ProgressWriter extends FilterWriter {
+        private final Job job;
+
+        ProgressWriter(Writer out, Job job) {
+            super(out);
+            this.job = job;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            super.write(c);
+            if (c == '\n') rows(1);
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            super.write(buffer, offset, length);
+            int newlines = 0;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') newlines++;
+            }
+            rows(newlines);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            super.write(text, offset, length);
+            int newlines = 0;
+            for (int i = offset; i < offset + length; i++) {
+                if (text.charAt(i) == '\n') newlines++;
+            }
+            rows(newlines);
+        }
+
+        private void rows(int count) {
+            if (job.cancelRequested || Thread.currentThread().isInterrupted()) throw new CancellationException();
+            if (count == 0) return;
+            job.rows.addAndGet(count);
+            long now = System.currentTimeMillis();
+            if (now - job.lastProgressMillis >= PROGRESS_INTERVAL_MILLIS) {
+                job.lastProgressMillis = now;
+                notifySubscribers(job);
+            }
+        }
+    }
+}
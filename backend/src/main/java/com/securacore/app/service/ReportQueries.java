@@ -0,0 +1,59 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs report and export queries as forward-only cursors, handing each row to the caller as it
+ * arrives so no result set is held in memory. Queries run read-only, so they go to a replica
+ * when one is configured; for the root society they run once per shard. Queries filter on the
+ * society themselves with {@code (:allSocieties = 1 OR society_id = :societyId)}.
+ */
+@Service
+public class ReportQueries {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    // MySQL only streams a result set row by row with Integer.MIN_VALUE
+    @Value("${securacore.reports.fetch-size:1000}")
+    int fetchSize;
+
+    public void stream(String sql, MapSqlParameterSource params, RowCallbackHandler handler) {
+        boolean allSocieties = TenantContext.isRoot();
+        params.addValue("allSocieties", allSocieties ? 1 : 0)
+                .addValue("societyId", TenantContext.getSociety());
+
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(streaming);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        if (!allSocieties) {
+            readOnly.executeWithoutResult(status -> named.query(sql, params, handler));
+            return;
+        }
+        Integer bound = TenantContext.getShard();
+        for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            TenantContext.bindShard(shard);
+            readOnly.executeWithoutResult(status -> named.query(sql, params, handler));
+        }
+        if (bound != null) TenantContext.bindShard(bound);
+    }
+}
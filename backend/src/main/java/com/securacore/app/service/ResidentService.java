@@ -13,6 +13,7 @@ import com.securacore.app.repository.ResidentRepository;
 import com.securacore.app.repository.VisitorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -27,19 +28,39 @@ public class ResidentService {
     @Autowired
     VisitorRepository visitorRepository;
 
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    @Autowired
+    OccupancyService occupancyService;
+
+    @Autowired
+    VisitExpiryService visitExpiryService;
+
+    @Autowired
+    ApprovalEscalationService approvalEscalationService;
+
+    @Autowired
+    WatchlistService watchlistService;
+
+    @Autowired
+    VehicleService vehicleService;
+
     public String addResident(CreateResidentDTO resident){
         Resident resident1 = new Resident();
         resident1.setName(resident.getName());
         resident1.setEmail(resident.getEmail());
         resident1.setContact(resident.getContact());
         resident1.setPassword(resident.getPassword());
-        resident1.setFlatNo(resident.getFlatNo());
+        resident1.setFlatNo(FlatRegistry.canonicalCode(resident.getFlatNo()));
+        resident1.setFlatId(flatRegistry.resolve(resident.getFlatNo()));
         resident1.setEmergencyContact(resident.getEmergencyContact());
 
        Resident result = residentRepository.save(resident1);
        return "Resident Added Successfully";
     }
 
+    @Transactional(readOnly = true)
     public List<ResidentResponseDTO> getResidents(){
         List<Resident> residents =  residentRepository.findAll();
 
@@ -60,6 +81,7 @@ public class ResidentService {
         return allResidents;
     }
 
+    @Transactional(readOnly = true)
     public List<ResidentResponseDTO> searchResidents(String searchTerm) {
         List<Resident> residents;
         
@@ -109,7 +131,8 @@ public class ResidentService {
             resident.setName(residentDTO.getName());
             resident.setEmail(residentDTO.getEmail());
             resident.setContact(residentDTO.getContact());
-            resident.setFlatNo(residentDTO.getFlatNo());
+            resident.setFlatNo(FlatRegistry.canonicalCode(residentDTO.getFlatNo()));
+            resident.setFlatId(flatRegistry.resolve(residentDTO.getFlatNo()));
             resident.setEmergencyContact(residentDTO.getEmergencyContact());
             residentRepository.save(resident);
             return "Resident Updated Successfully";
@@ -118,11 +141,12 @@ public class ResidentService {
     }
 
     public List<RequestVisitStatusDTO> getPendingVisitorRequests(String flatNo) {
-        List<Visitor> visitors = visitorRepository.findAllByFlatNo(flatNo);
         List<RequestVisitStatusDTO> pending = new ArrayList<>();
+        Integer flatId = flatRegistry.find(flatNo);
+        if (flatId == null) return pending;
+        List<Visitor> visitors = visitorRepository.findAllByFlatIdAndStatus(flatId, VisitStatus.PENDING);
         for (Visitor visitor : visitors) {
-            if (visitor.getStatus() == VisitStatus.PENDING &&
-                (visitor.getVisitDate() == null || visitor.getVisitDate().equals(LocalDate.now()))) {
+            if ((visitor.getVisitDate() == null || visitor.getVisitDate().equals(LocalDate.now()))) {
                 RequestVisitStatusDTO dto = new RequestVisitStatusDTO();
                 dto.setId(visitor.getId());
                 dto.setName(visitor.getName());
@@ -131,6 +155,7 @@ public class ResidentService {
                 dto.setPurpose(visitor.getPurpose());
                 dto.setCheckInTime(visitor.getCheckInTime());
                 dto.setStatus(visitor.getStatus());
+                dto.setWatchlistMatch(visitor.getWatchlistMatch());
                 pending.add(dto);
             }
         }
@@ -138,20 +163,20 @@ public class ResidentService {
     }
 
     public List<RequestVisitStatusDTO> getTodayVisits(String flatNo) {
-        List<Visitor> visitors = visitorRepository.findAllByFlatNo(flatNo);
         List<RequestVisitStatusDTO> result = new ArrayList<>();
+        Integer flatId = flatRegistry.find(flatNo);
+        if (flatId == null) return result;
+        List<Visitor> visitors = visitorRepository.findAllByFlatIdAndVisitDate(flatId, LocalDate.now());
         for (Visitor visitor : visitors) {
-            if (visitor.getVisitDate() != null && visitor.getVisitDate().equals(LocalDate.now())) {
-                RequestVisitStatusDTO dto = new RequestVisitStatusDTO();
-                dto.setId(visitor.getId());
-                dto.setName(visitor.getName());
-                dto.setFlatNo(visitor.getFlatNo());
-                dto.setRelation(visitor.getRelation());
-                dto.setPurpose(visitor.getPurpose());
-                dto.setCheckInTime(visitor.getCheckInTime());
-                dto.setStatus(visitor.getStatus());
-                result.add(dto);
-            }
+            RequestVisitStatusDTO dto = new RequestVisitStatusDTO();
+            dto.setId(visitor.getId());
+            dto.setName(visitor.getName());
+            dto.setFlatNo(visitor.getFlatNo());
+            dto.setRelation(visitor.getRelation());
+            dto.setPurpose(visitor.getPurpose());
+            dto.setCheckInTime(visitor.getCheckInTime());
+            dto.setStatus(visitor.getStatus());
+            result.add(dto);
         }
         return result;
     }
@@ -164,6 +189,14 @@ public class ResidentService {
             visitor.setVisitDate(LocalDate.now());
         }
         visitorRepository.save(visitor);
+        approvalEscalationService.decided(visitor);
+        // Walk-in requests are raised with the visitor already at the gate
+        if (visitor.getCheckInTime() != null && visitor.getCheckOutTime() == null) {
+            occupancyService.visitorEntered(visitor);
+            visitExpiryService.visitorCheckedIn(visitor);
+        } else if (visitor.getCheckInTime() == null) {
+            visitExpiryService.passIssued(visitor);
+        }
         return "Visit Approved";
     }
 
@@ -172,13 +205,34 @@ public class ResidentService {
         if (visitor == null) return "Visitor Not Found";
         visitor.setStatus(VisitStatus.DECLINED);
         visitorRepository.save(visitor);
+        approvalEscalationService.decided(visitor);
+        vehicleService.visitorVehicleCleared(visitor);
+        occupancyService.visitorLeft(visitor);
         return "Visit Declined";
     }
 
+    public String checkoutVisit(int visitorId) {
+        Visitor visitor = visitorRepository.findById(visitorId).orElse(null);
+        if (visitor == null) return "Visitor Not Found";
+        if (visitor.getCheckInTime() == null) return "Visitor not checked in";
+        if (visitor.getCheckOutTime() != null) return "Visitor already checked out";
+
+        visitor.setCheckOutTime(LocalDateTime.now());
+        visitorRepository.save(visitor);
+        occupancyService.visitorLeft(visitor);
+        return "Visitor checked out successfully";
+    }
+
     public String scheduleVisit(RequestVisitDTO request) {
+        WatchlistService.Screening screening = watchlistService.screen(request.getName(), request.getContact());
+        if (screening != null && screening.blocks()) return screening.describe();
+
         Visitor visitor = new Visitor();
         visitor.setName(request.getName());
-        visitor.setFlatNo(request.getFlatNo());
+        visitor.setContact(request.getContact());
+        visitor.setVehiclePlate(VehicleService.normalisePlate(request.getVehiclePlate()));
+        visitor.setFlatNo(FlatRegistry.canonicalCode(request.getFlatNo()));
+        visitor.setFlatId(flatRegistry.resolve(request.getFlatNo()));
         visitor.setRelation(request.getRelation());
         visitor.setPurpose(request.getPurpose());
         visitor.setVisitDate(LocalDate.now());
@@ -186,16 +240,22 @@ public class ResidentService {
         visitor.setCheckInTime(null);
         visitor.setCheckOutTime(null);
         visitor.setCreatedByResident(true);
+        if (screening != null) visitor.setWatchlistMatch(screening.name());
         visitorRepository.save(visitor);
-        return "Visit Scheduled";
+        visitExpiryService.passIssued(visitor);
+        vehicleService.visitorVehicleExpected(visitor);
+        return screening != null ? "Visit Scheduled. " + screening.describe() : "Visit Scheduled";
     }
 
     public List<RequestVisitStatusDTO> getResidentScheduledVisits(String flatNo, LocalDate date) {
+        List<RequestVisitStatusDTO> result = new ArrayList<>();
+        Integer flatId = flatRegistry.find(flatNo);
+        if (flatId == null) return result;
+
         List<Visitor> visitors;
-        if (date != null) visitors = visitorRepository.findAllByFlatNoAndVisitDate(flatNo, date);
-        else visitors = visitorRepository.findAllByFlatNo(flatNo);
+        if (date != null) visitors = visitorRepository.findAllByFlatIdAndVisitDate(flatId, date);
+        else visitors = visitorRepository.findAllByFlatId(flatId);
 
-        List<RequestVisitStatusDTO> result = new ArrayList<>();
         for (Visitor visitor : visitors) {
             if (Boolean.TRUE.equals(visitor.getCreatedByResident())) {
                 RequestVisitStatusDTO dto = new RequestVisitStatusDTO();
@@ -213,8 +273,10 @@ public class ResidentService {
     }
 
     public List<RequestVisitStatusDTO> getPendingApprovalsForFlat(String flatNo) {
-        List<Visitor> pending = visitorRepository.findAllByFlatNoAndStatus(flatNo, VisitStatus.PENDING);
         List<RequestVisitStatusDTO> result = new ArrayList<>();
+        Integer flatId = flatRegistry.find(flatNo);
+        if (flatId == null) return result;
+        List<Visitor> pending = visitorRepository.findAllByFlatIdAndStatus(flatId, VisitStatus.PENDING);
         for (Visitor visitor : pending) {
             RequestVisitStatusDTO dto = new RequestVisitStatusDTO();
             dto.setId(visitor.getId());
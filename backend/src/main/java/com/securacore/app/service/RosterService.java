@@ -0,0 +1,450 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Roster.DutyGuardDTO;
+import com.securacore.app.dto.Roster.DutyPostDTO;
+import com.securacore.app.dto.Roster.GuardPostDTO;
+import com.securacore.app.dto.Roster.RosterAssignmentDTO;
+import com.securacore.app.entity.Guard;
+import com.securacore.app.entity.GuardAttendance;
+import com.securacore.app.entity.GuardPost;
+import com.securacore.app.entity.RosterAssignment;
+import com.securacore.app.repository.GuardAttendanceRepository;
+import com.securacore.app.repository.GuardPostRepository;
+import com.securacore.app.repository.GuardRepository;
+import com.securacore.app.repository.RosterAssignmentRepository;
+import com.securacore.app.scheduler.HierarchicalTimingWheel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guard posts, who is rostered on them and when, and an in-memory duty board of expected against
+ * present guards. The board moves on events only: shift starts, grace expiries and shift ends
+ * come off a timing wheel, and presence comes from guard check-ins and checkouts. A rostered
+ * guard not checked in once the grace after shift start has passed, or who checks out during
+ * the shift, leaves the post uncovered and is pushed to the society's guards straight away.
+ */
+@Service
+public class RosterService {
+
+    @Autowired
+    GuardPostRepository guardPostRepository;
+
+    @Autowired
+    RosterAssignmentRepository rosterAssignmentRepository;
+
+    @Autowired
+    GuardRepository guardRepository;
+
+    @Autowired
+    GuardAttendanceRepository guardAttendanceRepository;
+
+    @Autowired
+    GateNotificationService gateNotificationService;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Value("${securacore.roster.check-in-grace:2m}")
+    Duration checkInGrace;
+
+    public enum Kind {
+        SHIFT_START,
+        CHECK_IN_DUE,
+        SHIFT_END
+    }
+
+    public record Deadline(Kind kind, String societyId, int assignmentId, LocalDateTime shiftStart) {
+    }
+
+    private record Post(int id, String name, String gate) {
+    }
+
+    record Assignment(int id, int postId, int guardId, String guardName, LocalTime startTime,
+                      LocalTime endTime, LocalDate rotationStart, int daysOn, int daysOff) {
+    }
+
+    private static final class Duty {
+        final Assignment assignment;
+        final LocalDateTime start;
+        final LocalDateTime end;
+        boolean due;
+        LocalDateTime missingSince;
+
+        Duty(Assignment assignment, LocalDateTime start, LocalDateTime end) {
+            this.assignment = assignment;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    // One per society; every access holds its monitor
+    private static final class Board {
+        final Map<Integer, Post> posts = new HashMap<>();
+        final Map<Integer, Assignment> assignments = new HashMap<>();
+        final Map<Integer, Duty> onDuty = new HashMap<>();
+        final Set<Integer> present = new HashSet<>();
+    }
+
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+
+    private final HierarchicalTimingWheel<Deadline> wheel =
+            new HierarchicalTimingWheel<>(1000, 64, System.currentTimeMillis());
+
+    public String addPost(GuardPostDTO request) {
+        if (request.getName() == null || request.getName().isBlank()) return "Post name is required";
+        GuardPost post = new GuardPost();
+        post.setName(request.getName().trim());
+        post.setGate(request.getGate());
+        guardPostRepository.save(post);
+        Board board = board(TenantContext.getSociety());
+        synchronized (board) {
+            board.posts.put(post.getId(), new Post(post.getId(), post.getName(), post.getGate()));
+        }
+        return "Post Added";
+    }
+
+    @Transactional(readOnly = true)
+    public List<GuardPostDTO> getPosts() {
+        List<GuardPostDTO> result = new ArrayList<>();
+        for (GuardPost post : guardPostRepository.findAllByActiveTrue()) {
+            GuardPostDTO dto = new GuardPostDTO();
+            dto.setId(post.getId());
+            dto.setName(post.getName());
+            dto.setGate(post.getGate());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    @Transactional
+    public String removePost(int id) {
+        GuardPost post = guardPostRepository.findById(id).orElse(null);
+        if (post == null || !post.isActive()) return "Post Not Found";
+        post.setActive(false);
+        guardPostRepository.save(post);
+        List<RosterAssignment> assignments = rosterAssignmentRepository.findAllByPostIdAndActiveTrue(id);
+        assignments.forEach(assignment -> assignment.setActive(false));
+        rosterAssignmentRepository.saveAll(assignments);
+
+        Board board = board(TenantContext.getSociety());
+        synchronized (board) {
+            board.posts.remove(id);
+            board.assignments.values().removeIf(assignment -> assignment.postId() == id);
+            board.onDuty.values().removeIf(duty -> duty.assignment.postId() == id);
+        }
+        return "Post Removed";
+    }
+
+    public String addAssignment(RosterAssignmentDTO request) {
+        if (request.getStartTime() == null || request.getEndTime() == null) return "Shift start and end are required";
+        if (request.getDaysOn() < 1 || request.getDaysOff() < 0) return "Days on must be at least 1 and days off not negative";
+        GuardPost post = guardPostRepository.findById(request.getPostId()).orElse(null);
+        if (post == null || !post.isActive()) return "Post Not Found";
+        Guard guard = guardRepository.findById(request.getGuardId()).orElse(null);
+        if (guard == null) return "Guard Not Found";
+
+        RosterAssignment assignment = new RosterAssignment();
+        assignment.setPost(post);
+        assignment.setGuard(guard);
+        assignment.setStartTime(request.getStartTime());
+        assignment.setEndTime(request.getEndTime());
+        assignment.setRotationStart(request.getRotationStart() != null ? request.getRotationStart() : LocalDate.now());
+        assignment.setDaysOn(request.getDaysOn());
+        assignment.setDaysOff(request.getDaysOff());
+        rosterAssignmentRepository.save(assignment);
+        register(TenantContext.getSociety(), toAssignment(assignment), LocalDateTime.now());
+        return "Roster Assignment Added";
+    }
+
+    @Transactional(readOnly = true)
+    public List<RosterAssignmentDTO> getRoster() {
+        List<RosterAssignmentDTO> result = new ArrayList<>();
+        for (RosterAssignment assignment : rosterAssignmentRepository.findAllActive()) {
+            RosterAssignmentDTO dto = new RosterAssignmentDTO();
+            dto.setId(assignment.getId());
+            dto.setPostId(assignment.getPost().getId());
+            dto.setGuardId(assignment.getGuard().getId());
+            dto.setGuardName(assignment.getGuard().getName());
+            dto.setStartTime(assignment.getStartTime());
+            dto.setEndTime(assignment.getEndTime());
+            dto.setRotationStart(assignment.getRotationStart());
+            dto.setDaysOn(assignment.getDaysOn());
+            dto.setDaysOff(assignment.getDaysOff());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    public String removeAssignment(int id) {
+        RosterAssignment assignment = rosterAssignmentRepository.findById(id).orElse(null);
+        if (assignment == null || !assignment.isActive()) return "Roster Assignment Not Found";
+        assignment.setActive(false);
+        rosterAssignmentRepository.save(assignment);
+        Board board = board(TenantContext.getSociety());
+        synchronized (board) {
+            board.assignments.remove(id);
+            board.onDuty.remove(id);
+        }
+        return "Roster Assignment Removed";
+    }
+
+    public void guardCheckedIn(int guardId) {
+        Board board = board(TenantContext.getSociety());
+        synchronized (board) {
+            board.present.add(guardId);
+            for (Duty duty : board.onDuty.values()) {
+                if (duty.assignment.guardId() == guardId) duty.missingSince = null;
+            }
+        }
+    }
+
+    public void guardCheckedOut(int guardId) {
+        String society = TenantContext.getSociety();
+        Board board = board(society);
+        LocalDateTime now = LocalDateTime.now();
+        List<DutyGuardDTO> uncovered = new ArrayList<>();
+        synchronized (board) {
+            board.present.remove(guardId);
+            for (Duty duty : board.onDuty.values()) {
+                if (duty.assignment.guardId() == guardId && duty.due && duty.missingSince == null) {
+                    duty.missingSince = now;
+                    uncovered.add(toDto(society, board, duty));
+                }
+            }
+        }
+        publish(uncovered);
+    }
+
+    public List<DutyPostDTO> dutyBoard() {
+        List<DutyPostDTO> result = new ArrayList<>();
+        visibleBoards().forEach((society, board) -> {
+            synchronized (board) {
+                for (Post post : board.posts.values()) {
+                    List<DutyGuardDTO> guards = new ArrayList<>();
+                    boolean uncovered = false;
+                    for (Duty duty : board.onDuty.values()) {
+                        if (duty.assignment.postId() != post.id()) continue;
+                        guards.add(toDto(society, board, duty));
+                        uncovered |= duty.missingSince != null;
+                    }
+                    guards.sort(Comparator.comparing(DutyGuardDTO::getShiftStart));
+                    result.add(new DutyPostDTO(society, post.id(), post.name(), post.gate(), uncovered, guards));
+                }
+            }
+        });
+        result.sort(Comparator.comparing(DutyPostDTO::getSocietyId).thenComparing(DutyPostDTO::getName));
+        return result;
+    }
+
+    public List<DutyGuardDTO> missingGuards() {
+        List<DutyGuardDTO> result = new ArrayList<>();
+        visibleBoards().forEach((society, board) -> {
+            synchronized (board) {
+                for (Duty duty : board.onDuty.values()) {
+                    if (duty.missingSince != null) result.add(toDto(society, board, duty));
+                }
+            }
+        });
+        result.sort(Comparator.comparing(DutyGuardDTO::getMissingSince));
+        return result;
+    }
+
+    /**
+     * Loads posts, guards still checked in and the roster after a restart. Presence goes first so
+     * shifts already under way are judged against it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(6)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            TenantContext.bind(TenantContext.ROOT);
+            TenantContext.bindShard(shard);
+            try {
+                for (GuardPost post : guardPostRepository.findAllByActiveTrue()) {
+                    Board board = board(post.getSocietyId());
+                    synchronized (board) {
+                        board.posts.put(post.getId(), new Post(post.getId(), post.getName(), post.getGate()));
+                    }
+                }
+                for (GuardAttendance session : guardAttendanceRepository
+                        .findAllByCheckInTimeIsNotNullAndCheckOutTimeIsNullAndAttendanceDateGreaterThanEqual(now.toLocalDate().minusDays(1))) {
+                    Board board = board(session.getSocietyId());
+                    synchronized (board) {
+                        board.present.add(session.getGuard().getId());
+                    }
+                }
+                for (RosterAssignment assignment : rosterAssignmentRepository.findAllActive()) {
+                    register(assignment.getSocietyId(), toAssignment(assignment), now);
+                }
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${securacore.roster.tick:1s}")
+    public void tick() {
+        List<Deadline> due = wheel.advanceTo(System.currentTimeMillis());
+        if (due.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        List<DutyGuardDTO> uncovered = new ArrayList<>();
+        for (Deadline deadline : due) {
+            Board board = boards.get(deadline.societyId());
+            if (board == null) continue;
+            synchronized (board) {
+                apply(deadline, board, now, uncovered);
+            }
+        }
+        publish(uncovered);
+    }
+
+    // Deadlines are never cancelled; one left behind by a removed assignment or an earlier shift finds nothing to act on
+    private void apply(Deadline deadline, Board board, LocalDateTime now, List<DutyGuardDTO> uncovered) {
+        String society = deadline.societyId();
+        Assignment assignment = board.assignments.get(deadline.assignmentId());
+        if (assignment == null) return;
+        Duty duty = board.onDuty.get(assignment.id());
+        switch (deadline.kind()) {
+            case SHIFT_START -> {
+                if (duty != null && duty.start.equals(deadline.shiftStart())) return;
+                startDuty(society, board, assignment, deadline.shiftStart(), endOf(assignment, deadline.shiftStart()), now, uncovered);
+            }
+            case CHECK_IN_DUE -> {
+                if (duty != null && duty.start.equals(deadline.shiftStart())) checkInDue(society, board, duty, now, uncovered);
+            }
+            case SHIFT_END -> {
+                if (duty == null || !duty.start.equals(deadline.shiftStart())) return;
+                board.onDuty.remove(assignment.id());
+                scheduleNext(society, board, assignment, now.isAfter(duty.end) ? now : duty.end, uncovered);
+            }
+        }
+    }
+
+    private void register(String society, Assignment assignment, LocalDateTime now) {
+        Board board = board(society);
+        List<DutyGuardDTO> uncovered = new ArrayList<>();
+        synchronized (board) {
+            board.assignments.put(assignment.id(), assignment);
+            scheduleNext(society, board, assignment, now, uncovered);
+        }
+        publish(uncovered);
+    }
+
+    // Puts the assignment on duty if its shift is under way at the given time, otherwise waits for the next one
+    private void scheduleNext(String society, Board board, Assignment assignment, LocalDateTime now,
+                              List<DutyGuardDTO> uncovered) {
+        LocalDateTime start = nextShiftStart(assignment, now);
+        if (start == null) return;
+        if (start.isAfter(now)) {
+            schedule(Kind.SHIFT_START, society, assignment, start, start);
+        } else {
+            startDuty(society, board, assignment, start, endOf(assignment, start), now, uncovered);
+        }
+    }
+
+    private void startDuty(String society, Board board, Assignment assignment, LocalDateTime start, LocalDateTime end,
+                           LocalDateTime now, List<DutyGuardDTO> uncovered) {
+        Duty duty = new Duty(assignment, start, end);
+        board.onDuty.put(assignment.id(), duty);
+        schedule(Kind.SHIFT_END, society, assignment, start, end);
+        LocalDateTime due = start.plus(checkInGrace);
+        if (due.isAfter(now)) {
+            schedule(Kind.CHECK_IN_DUE, society, assignment, start, due);
+        } else {
+            checkInDue(society, board, duty, now, uncovered);
+        }
+    }
+
+    private void checkInDue(String society, Board board, Duty duty, LocalDateTime now, List<DutyGuardDTO> uncovered) {
+        duty.due = true;
+        if (board.present.contains(duty.assignment.guardId())) return;
+        duty.missingSince = now;
+        uncovered.add(toDto(society, board, duty));
+    }
+
+    private void schedule(Kind kind, String society, Assignment assignment, LocalDateTime shiftStart, LocalDateTime at) {
+        wheel.schedule(new Deadline(kind, society, assignment.id(), shiftStart),
+                at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private void publish(List<DutyGuardDTO> uncovered) {
+        for (DutyGuardDTO duty : uncovered) {
+            gateNotificationService.publishUncoveredPost(duty.getSocietyId(), duty);
+        }
+    }
+
+    /**
+     * Start of the shift under way at the given time, or else of the next one. Starts from the day
+     * before so a shift running past midnight is still found, or from the rotation start if later.
+     */
+    static LocalDateTime nextShiftStart(Assignment assignment, LocalDateTime now) {
+        int cycle = assignment.daysOn() + assignment.daysOff();
+        LocalDate first = now.toLocalDate().minusDays(1);
+        if (assignment.rotationStart().minusDays(1).isAfter(first)) first = assignment.rotationStart().minusDays(1);
+        for (LocalDate day = first; !day.isAfter(first.plusDays(cycle + 1)); day = day.plusDays(1)) {
+            if (!worksOn(assignment, day)) continue;
+            LocalDateTime start = day.atTime(assignment.startTime());
+            if (endOf(assignment, start).isAfter(now)) return start;
+        }
+        return null;
+    }
+
+    private static boolean worksOn(Assignment assignment, LocalDate day) {
+        if (assignment.daysOff() == 0) return !day.isBefore(assignment.rotationStart());
+        long daysIn = ChronoUnit.DAYS.between(assignment.rotationStart(), day);
+        return daysIn >= 0 && daysIn % (assignment.daysOn() + assignment.daysOff()) < assignment.daysOn();
+    }
+
+    private static LocalDateTime endOf(Assignment assignment, LocalDateTime start) {
+        LocalDateTime end = start.toLocalDate().atTime(assignment.endTime());
+        return end.isAfter(start) ? end : end.plusDays(1);
+    }
+
+    private static DutyGuardDTO toDto(String society, Board board, Duty duty) {
+        Post post = board.posts.get(duty.assignment.postId());
+        return new DutyGuardDTO(society, duty.assignment.id(), duty.assignment.postId(),
+                post != null ? post.name() : null, post != null ? post.gate() : null,
+                duty.assignment.guardId(), duty.assignment.guardName(), duty.start, duty.end,
+                board.present.contains(duty.assignment.guardId()), duty.missingSince);
+    }
+
+    private static Assignment toAssignment(RosterAssignment assignment) {
+        return new Assignment(assignment.getId(), assignment.getPost().getId(), assignment.getGuard().getId(),
+                assignment.getGuard().getName(), assignment.getStartTime(), assignment.getEndTime(),
+                assignment.getRotationStart(), assignment.getDaysOn(), assignment.getDaysOff());
+    }
+
+    private Board board(String society) {
+        return boards.computeIfAbsent(society, s -> new Board());
+    }
+
+    private Map<String, Board> visibleBoards() {
+        if (TenantContext.isRoot()) return boards;
+        Board board = boards.get(TenantContext.getSociety());
+        return board == null ? Map.of() : Map.of(TenantContext.getSociety(), board);
+    }
+}
@@ -0,0 +1,352 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Vehicle.PlateClassificationDTO;
+import com.securacore.app.dto.Vehicle.PlateReadDTO;
+import com.securacore.app.dto.Vehicle.VehicleDTO;
+import com.securacore.app.dto.Vehicle.VehicleEntryDTO;
+import com.securacore.app.entity.Resident;
+import com.securacore.app.entity.Vehicle;
+import com.securacore.app.entity.VehicleEntry;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.enums.VehicleClass;
+import com.securacore.app.enums.VehicleDirection;
+import com.securacore.app.enums.VisitStatus;
+import com.securacore.app.repository.ResidentRepository;
+import com.securacore.app.repository.VehicleEntryRepository;
+import com.securacore.app.repository.VehicleRepository;
+import com.securacore.app.repository.VisitorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vehicle registry and boom-barrier log. Registered resident plates and the plates of today's
+ * visits sit in an in-memory hash index keyed by normalised plate, so classifying a camera read
+ * is one map lookup. Reads are classified as they arrive and queued; a writer drains the queue
+ * into vehicle_entry in JDBC batches, keeping database round trips off the camera's path.
+ */
+@Service
+public class VehicleService {
+
+    private static final Logger log = LoggerFactory.getLogger(VehicleService.class);
+
+    // vehicle_entry.plate and vehicle.plate
+    static final int MAX_PLATE_LENGTH = 16;
+
+    private static final String INSERT_ENTRY = "INSERT INTO vehicle_entry (society_id, plate, direction, classification, "
+            + "vehicle_id, visitor_id, flat_id, camera_id, confidence, read_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    VehicleRepository vehicleRepository;
+
+    @Autowired
+    VehicleEntryRepository vehicleEntryRepository;
+
+    @Autowired
+    ResidentRepository residentRepository;
+
+    @Autowired
+    VisitorRepository visitorRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    // The same plate read again by the same lane within this window is one passage
+    @Value("${securacore.vehicles.dedupe-window:10s}")
+    Duration dedupeWindow;
+
+    @Value("${securacore.vehicles.write-batch-size:500}")
+    int writeBatchSize;
+
+    private record Owner(VehicleClass classification, Integer vehicleId, Integer visitorId, Integer flatId,
+                         String flatNo, LocalDate validOn) {
+    }
+
+    private record PendingEntry(String societyId, String plate, VehicleDirection direction, Owner owner,
+                                String cameraId, Double confidence, LocalDateTime readAt) {
+    }
+
+    private final Map<String, Map<String, Owner>> residentPlates = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Owner>> visitorPlates = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastReads = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingEntry> pending;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile LocalDate purgedOn = LocalDate.now();
+
+    public VehicleService(@Value("${securacore.vehicles.queue-capacity:100000}") int queueCapacity) {
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(4)
+    public void rebuild() {
+        LocalDate today = LocalDate.now();
+        for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            TenantContext.bind(TenantContext.ROOT);
+            TenantContext.bindShard(shard);
+            try {
+                vehicleRepository.findAllByActiveTrue().forEach(this::indexVehicle);
+                for (Visitor visitor : visitorRepository.findAllByVisitDateAndVehiclePlateIsNotNull(today)) {
+                    if (visitor.getStatus() == VisitStatus.PENDING || visitor.getStatus() == VisitStatus.APPROVED) {
+                        visitorVehicleExpected(visitor);
+                    }
+                }
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    public String registerVehicle(VehicleDTO request) {
+        if (request.getPlate() == null || request.getPlate().isBlank()) return "Plate is required";
+        String plate = normalisePlate(request.getPlate());
+        if (plate == null) return "Invalid Plate";
+        Resident resident = residentRepository.findById(request.getResidentId()).orElse(null);
+        if (resident == null) return "Resident Not Found";
+        Vehicle vehicle = vehicleRepository.findByPlate(plate).orElse(null);
+        if (vehicle != null && vehicle.isActive()) return "Vehicle already registered";
+        if (vehicle == null) {
+            vehicle = new Vehicle();
+            vehicle.setPlate(plate);
+            vehicle.setCreatedAt(LocalDateTime.now());
+        }
+        vehicle.setResidentId(resident.getId());
+        vehicle.setFlatId(resident.getFlatId());
+        vehicle.setFlatNo(resident.getFlatNo());
+        vehicle.setType(request.getType());
+        vehicle.setActive(true);
+        vehicleRepository.save(vehicle);
+        indexVehicle(vehicle);
+        return "Vehicle Registered";
+    }
+
+    public String removeVehicle(int id) {
+        Vehicle vehicle = vehicleRepository.findById(id).orElse(null);
+        if (vehicle == null) return "Vehicle Not Found";
+        vehicle.setActive(false);
+        vehicleRepository.save(vehicle);
+        Map<String, Owner> plates = residentPlates.get(societyOf(vehicle.getSocietyId()));
+        if (plates != null) plates.remove(vehicle.getPlate());
+        return "Vehicle Removed";
+    }
+
+    @Transactional(readOnly = true)
+    public List<VehicleDTO> getVehicles(Integer flatId) {
+        List<VehicleDTO> result = new ArrayList<>();
+        if (flatId == null) return result;
+        for (Vehicle vehicle : vehicleRepository.findAllByFlatIdAndActiveTrue(flatId)) {
+            VehicleDTO dto = new VehicleDTO();
+            dto.setId(vehicle.getId());
+            dto.setResidentId(vehicle.getResidentId());
+            dto.setFlatNo(vehicle.getFlatNo());
+            dto.setPlate(vehicle.getPlate());
+            dto.setType(vehicle.getType());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    /**
+     * Makes a visit's vehicle recognisable at the barrier for the day of the visit.
+     */
+    public void visitorVehicleExpected(Visitor visitor) {
+        String plate = normalisePlate(visitor.getVehiclePlate());
+        if (plate == null) return;
+        visitorPlates.computeIfAbsent(societyOf(visitor.getSocietyId()), s -> new ConcurrentHashMap<>())
+                .put(plate, new Owner(VehicleClass.VISITOR, null, visitor.getId(), visitor.getFlatId(),
+                        visitor.getFlatNo(), visitor.getVisitDate() != null ? visitor.getVisitDate() : LocalDate.now()));
+    }
+
+    public void visitorVehicleCleared(Visitor visitor) {
+        String plate = normalisePlate(visitor.getVehiclePlate());
+        if (plate == null) return;
+        Map<String, Owner> plates = visitorPlates.get(societyOf(visitor.getSocietyId()));
+        if (plates != null) plates.computeIfPresent(plate, (p, owner) -> owner.visitorId() == visitor.getId() ? null : owner);
+    }
+
+    public PlateClassificationDTO classify(String rawPlate) {
+        String plate = normalisePlate(rawPlate);
+        if (plate == null) return new PlateClassificationDTO(null, VehicleClass.UNKNOWN, null, null, null);
+        return toDto(plate, lookup(TenantContext.getSociety(), plate));
+    }
+
+    /**
+     * Classifies a batch of camera reads and queues them for the entry log. Repeated reads of a
+     * plate within the dedupe window are classified but logged once.
+     */
+    public List<PlateClassificationDTO> ingest(List<PlateReadDTO> reads) {
+        String societyId = TenantContext.getSociety();
+        List<PlateClassificationDTO> result = new ArrayList<>(reads.size());
+        long now = System.currentTimeMillis();
+        for (PlateReadDTO read : reads) {
+            String plate = normalisePlate(read.getPlate());
+            if (plate == null) {
+                result.add(new PlateClassificationDTO(null, VehicleClass.UNKNOWN, null, null, null));
+                continue;
+            }
+            Owner owner = lookup(societyId, plate);
+            result.add(toDto(plate, owner));
+
+            VehicleDirection direction = read.getDirection() != null ? read.getDirection() : VehicleDirection.IN;
+            String readKey = societyId + ":" + read.getCameraId() + ":" + direction + ":" + plate;
+            Long previous = lastReads.put(readKey, now);
+            if (previous != null && now - previous < dedupeWindow.toMillis()) continue;
+
+            PendingEntry entry = new PendingEntry(societyId, plate, direction, owner, read.getCameraId(),
+                    read.getConfidence(), read.getReadAt() != null ? read.getReadAt() : LocalDateTime.now());
+            if (!pending.offer(entry)) dropped.incrementAndGet();
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${securacore.vehicles.flush-interval:500ms}")
+    public void flush() {
+        long droppedSinceLast = dropped.getAndSet(0);
+        if (droppedSinceLast > 0) log.warn("Vehicle entry queue full; {} reads not logged", droppedSinceLast);
+
+        try {
+            List<PendingEntry> batch = new ArrayList<>(writeBatchSize);
+            while (pending.drainTo(batch, writeBatchSize) > 0) {
+                Map<String, List<PendingEntry>> bySociety = new HashMap<>();
+                for (PendingEntry entry : batch) {
+                    bySociety.computeIfAbsent(entry.societyId(), s -> new ArrayList<>()).add(entry);
+                }
+                bySociety.forEach(this::write);
+                batch.clear();
+            }
+        } finally {
+            purge();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<VehicleEntryDTO> entriesOn(LocalDate day) {
+        List<VehicleEntryDTO> result = new ArrayList<>();
+        for (VehicleEntry entry : vehicleEntryRepository.findAllByReadAtBetweenOrderByReadAt(day.atStartOfDay(), day.plusDays(1).atStartOfDay())) {
+            result.add(new VehicleEntryDTO(entry.getPlate(), entry.getDirection(), entry.getClassification(),
+                    entry.getVehicleId(), entry.getVisitorId(), entry.getCameraId(), entry.getReadAt()));
+        }
+        return result;
+    }
+
+    // Separators are dropped; anything but A-Z and 0-9 left over, or a plate too long to store, is not a plate
+    static String normalisePlate(String raw) {
+        if (raw == null) return null;
+        StringBuilder plate = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = Character.toUpperCase(raw.charAt(i));
+            if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                plate.append(c);
+            } else if (Character.isLetterOrDigit(c)) {
+                return null;
+            }
+        }
+        return plate.isEmpty() || plate.length() > MAX_PLATE_LENGTH ? null : plate.toString();
+    }
+
+    private Owner lookup(String societyId, String plate) {
+        Map<String, Owner> residents = residentPlates.get(societyId);
+        Owner owner = residents != null ? residents.get(plate) : null;
+        if (owner != null) return owner;
+        Map<String, Owner> visitors = visitorPlates.get(societyId);
+        owner = visitors != null ? visitors.get(plate) : null;
+        return owner != null && owner.validOn().equals(LocalDate.now()) ? owner : null;
+    }
+
+    private void indexVehicle(Vehicle vehicle) {
+        residentPlates.computeIfAbsent(societyOf(vehicle.getSocietyId()), s -> new ConcurrentHashMap<>())
+                .put(vehicle.getPlate(), new Owner(VehicleClass.RESIDENT, vehicle.getId(), null,
+                        vehicle.getFlatId(), vehicle.getFlatNo(), null));
+    }
+
+    // The batch is all or nothing; when it fails the entries are written one by one, so a bad
+    // read loses only itself
+    private void write(String societyId, List<PendingEntry> entries) {
+        TenantContext.bind(societyId);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_ENTRY, entries, entries.size(), VehicleService::bind));
+        } catch (DataAccessException e) {
+            log.warn("Vehicle entry batch of {} for society {} failed; writing one by one", entries.size(), societyId, e);
+            int failed = 0;
+            for (PendingEntry entry : entries) {
+                try {
+                    jdbcTemplate.update(INSERT_ENTRY, statement -> bind(statement, entry));
+                } catch (DataAccessException rowFailure) {
+                    failed++;
+                }
+            }
+            if (failed > 0) log.warn("{} vehicle entries for society {} could not be logged", failed, societyId);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private static void bind(PreparedStatement statement, PendingEntry entry) throws SQLException {
+        Owner owner = entry.owner();
+        statement.setString(1, entry.societyId());
+        statement.setString(2, entry.plate());
+        statement.setString(3, entry.direction().name());
+        statement.setString(4, owner != null ? owner.classification().name() : VehicleClass.UNKNOWN.name());
+        statement.setObject(5, owner != null ? owner.vehicleId() : null);
+        statement.setObject(6, owner != null ? owner.visitorId() : null);
+        statement.setObject(7, owner != null ? owner.flatId() : null);
+        statement.setString(8, entry.cameraId());
+        statement.setObject(9, entry.confidence());
+        statement.setTimestamp(10, Timestamp.valueOf(entry.readAt()));
+    }
+
+    private void purge() {
+        LocalDate today = LocalDate.now();
+        long cutoff = System.currentTimeMillis() - dedupeWindow.toMillis();
+        lastReads.values().removeIf(readAt -> readAt < cutoff);
+        if (today.equals(purgedOn)) return;
+        for (Map<String, Owner> plates : visitorPlates.values()) {
+            plates.values().removeIf(owner -> owner.validOn().isBefore(today));
+        }
+        purgedOn = today;
+    }
+
+    private static PlateClassificationDTO toDto(String plate, Owner owner) {
+        if (owner == null) return new PlateClassificationDTO(plate, VehicleClass.UNKNOWN, null, null, null);
+        return new PlateClassificationDTO(plate, owner.classification(), owner.flatNo(), owner.vehicleId(), owner.visitorId());
+    }
+
+    private static String societyOf(String societyId) {
+        return societyId != null ? societyId : TenantContext.getSociety();
+    }
+}
@@ -0,0 +1,373 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Analytics.DwellTimeDTO;
+import com.securacore.app.dto.Analytics.PeriodCountDTO;
+import com.securacore.app.dto.Analytics.RepeatVisitorDTO;
+import com.securacore.app.dto.Analytics.UniqueVisitorsDTO;
+import com.securacore.app.entity.VisitSketch;
+import com.securacore.app.repository.VisitSketchRepository;
+import com.securacore.app.sketch.HeavyHitters;
+import com.securacore.app.sketch.HyperLogLog;
+import com.securacore.app.sketch.QuantileSketch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Unique visitors, repeat visitors and dwell times over any date range without reading the visits
+ * themselves. Each day is summarised once into mergeable sketches: a HyperLogLog of distinct
+ * visitors for the society and for every flat, dwell-time quantiles and a heavy-hitters sketch of
+ * repeat visitors for the society. A range is answered by merging its days, and whole months are
+ * kept merged in memory, so years of history cost a few dozen merges.
+ * <p>
+ * Days are stored once they have settled, when late check-outs can no longer change them; the
+ * last settle days are summarised from the raw rows on every request. A stored day is rebuilt
+ * when {@link ReportChangeTracker} has seen a change to it since it was built. Visitors are
+ * identified by contact number, or by name when no number was taken.
+ */
+@Service
+public class VisitAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitAnalyticsService.class);
+
+    private static final int WHOLE_SOCIETY = 0;
+
+    private static final String VISITS = "SELECT flat_id, contact, name, check_in_time, check_out_time FROM visitor"
+            + " WHERE visit_date = :date AND check_in_time IS NOT NULL AND (:allSocieties = 1 OR society_id = :societyId)"
+            + " UNION ALL SELECT flat_id, contact, name, check_in_time, check_out_time FROM qr_visitors"
+            + " WHERE visit_date = :date AND check_in_time IS NOT NULL AND (:allSocieties = 1 OR society_id = :societyId)";
+
+    private static final String SOCIETIES = "SELECT society_id FROM visitor WHERE visit_date = ?"
+            + " UNION SELECT society_id FROM qr_visitors WHERE visit_date = ?";
+
+    @Autowired
+    ReportQueries reportQueries;
+
+    @Autowired
+    VisitSketchRepository visitSketchRepository;
+
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    @Autowired
+    ReportChangeTracker reportChangeTracker;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Value("${securacore.sketches.settle:2d}")
+    Duration settle;
+
+    @Value("${securacore.sketches.max-candidates:256}")
+    int maxCandidates;
+
+    @Value("${securacore.sketches.cache-months:1024}")
+    int cacheMonths;
+
+    // One day, or several merged; flats only get a visitor count
+    private final class Summary {
+        long visits;
+        final HyperLogLog visitors;
+        final QuantileSketch dwellTimes;
+        final HeavyHitters repeatVisitors;
+
+        Summary(boolean wholeSociety) {
+            visitors = new HyperLogLog();
+            dwellTimes = wholeSociety ? new QuantileSketch() : null;
+            repeatVisitors = wholeSociety ? new HeavyHitters(maxCandidates) : null;
+        }
+
+        Summary(VisitSketch row) {
+            visits = row.getVisits();
+            visitors = HyperLogLog.fromBytes(row.getVisitors());
+            dwellTimes = row.getDwellTimes() != null ? QuantileSketch.fromBytes(row.getDwellTimes()) : null;
+            repeatVisitors = row.getRepeatVisitors() != null ? HeavyHitters.fromBytes(row.getRepeatVisitors(), maxCandidates) : null;
+        }
+
+        void add(String visitor) {
+            visits++;
+            if (visitor == null) return;
+            visitors.add(visitor);
+            if (repeatVisitors != null) repeatVisitors.add(visitor);
+        }
+
+        void merge(Summary other) {
+            visits += other.visits;
+            visitors.merge(other.visitors);
+            if (dwellTimes != null && other.dwellTimes != null) dwellTimes.merge(other.dwellTimes);
+            if (repeatVisitors != null && other.repeatVisitors != null) repeatVisitors.merge(other.repeatVisitors);
+        }
+
+        VisitSketch toEntity(LocalDate date, int flatId, LocalDateTime builtAt) {
+            VisitSketch row = new VisitSketch();
+            row.setSketchDate(date);
+            row.setFlatId(flatId);
+            row.setVisits((int) visits);
+            row.setVisitors(visitors.toBytes());
+            if (dwellTimes != null) row.setDwellTimes(dwellTimes.toBytes());
+            if (repeatVisitors != null) row.setRepeatVisitors(repeatVisitors.toBytes());
+            row.setBuiltAt(builtAt);
+            return row;
+        }
+    }
+
+    private record MonthKey(String societyId, int flatId, YearMonth month) {
+    }
+
+    private record CachedMonth(Summary summary, long cachedAt) {
+    }
+
+    // Merged settled months, least recently used dropped first; cached summaries are only merged from
+    private final Map<MonthKey, CachedMonth> months = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MonthKey, CachedMonth> eldest) {
+            return size() > cacheMonths;
+        }
+    });
+
+    /**
+     * Visits and distinct visitors for the society, or one flat, over the range and per month;
+     * null across societies.
+     */
+    public UniqueVisitorsDTO uniqueVisitors(LocalDate from, LocalDate to, String flatNo) {
+        if (TenantContext.isRoot()) return null;
+        String flat = flatNo != null && !flatNo.isBlank() ? FlatRegistry.canonicalCode(flatNo) : null;
+        Integer flatId = flat != null ? flatRegistry.find(flatNo) : Integer.valueOf(WHOLE_SOCIETY);
+        if (flatId == null) return new UniqueVisitorsDTO(flat, from, to, 0, 0, List.of());
+
+        Summary total = new Summary(false);
+        List<PeriodCountDTO> monthly = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            Summary part = summary(flatId, later(from, month.atDay(1)), earlier(to, month.atEndOfMonth()));
+            monthly.add(new PeriodCountDTO(month.toString(), part.visits, part.visitors.estimate()));
+            total.merge(part);
+        }
+        return new UniqueVisitorsDTO(flat, from, to, total.visits, total.visitors.estimate(), monthly);
+    }
+
+    /**
+     * The most frequent visitors over the range with their estimated visits; null across societies.
+     */
+    public List<RepeatVisitorDTO> repeatVisitors(LocalDate from, LocalDate to, int limit) {
+        if (TenantContext.isRoot()) return null;
+        return summary(WHOLE_SOCIETY, from, to).repeatVisitors.top(limit).stream()
+                .map(entry -> new RepeatVisitorDTO(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Dwell-time percentiles of completed visits over the range; null across societies.
+     */
+    public DwellTimeDTO dwellTimes(LocalDate from, LocalDate to) {
+        if (TenantContext.isRoot()) return null;
+        QuantileSketch dwellTimes = summary(WHOLE_SOCIETY, from, to).dwellTimes;
+        if (dwellTimes.count() == 0) return new DwellTimeDTO(0, null, null, null, null, null);
+        return new DwellTimeDTO(dwellTimes.count(), seconds(dwellTimes, 0.5), seconds(dwellTimes, 0.9),
+                seconds(dwellTimes, 0.95), seconds(dwellTimes, 0.99), seconds(dwellTimes, 1));
+    }
+
+    /**
+     * Rebuilds the stored sketches of the settled days in the range, for backfilling history.
+     */
+    public String rebuild(LocalDate from, LocalDate to) {
+        if (TenantContext.isRoot()) return "Choose a society to rebuild";
+        int days = 0;
+        for (LocalDate date = from; !date.isAfter(earlier(to, settledThrough())); date = date.plusDays(1)) {
+            rebuildDay(date);
+            days++;
+        }
+        return "Rebuilt " + days + " days";
+    }
+
+    /**
+     * Stores the day that has just settled for every society that had visits on it. Days missed
+     * while the application was down are built when they are first asked for.
+     */
+    @Scheduled(cron = "${securacore.sketches.build-cron:0 15 2 * * *}")
+    public void buildSettledDay() {
+        LocalDate date = settledThrough();
+        for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            List<String> societies;
+            TenantContext.bind(TenantContext.ROOT);
+            TenantContext.bindShard(shard);
+            try {
+                societies = jdbcTemplate.queryForList(SOCIETIES, String.class, date, date);
+            } finally {
+                TenantContext.clear();
+            }
+            for (String society : societies) {
+                TenantContext.bind(society);
+                try {
+                    rebuildDay(date);
+                } catch (RuntimeException e) {
+                    log.warn("Could not build visit sketches of {} for {}", society, date, e);
+                } finally {
+                    TenantContext.clear();
+                }
+            }
+        }
+    }
+
+    private Summary summary(int flatId, LocalDate from, LocalDate to) {
+        Summary result = new Summary(flatId == WHOLE_SOCIETY);
+        LocalDate settled = settledThrough();
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            LocalDate start = later(from, month.atDay(1));
+            LocalDate end = earlier(to, month.atEndOfMonth());
+            boolean wholeMonth = start.getDayOfMonth() == 1 && end.equals(month.atEndOfMonth()) && !end.isAfter(settled);
+            result.merge(wholeMonth ? month(flatId, month) : days(flatId, start, end));
+        }
+        return result;
+    }
+
+    private Summary month(int flatId, YearMonth month) {
+        String society = TenantContext.getSociety();
+        MonthKey key = new MonthKey(society, flatId, month);
+        CachedMonth cached = months.get(key);
+        long changed = reportChangeTracker.lastMarked(ReportChangeTracker.Dataset.VISITORS, society,
+                month.atDay(1), month.atEndOfMonth());
+        if (cached != null && changed < cached.cachedAt()) return cached.summary();
+
+        long cachedAt = System.currentTimeMillis();
+        Summary summary = days(flatId, month.atDay(1), month.atEndOfMonth());
+        months.put(key, new CachedMonth(summary, cachedAt));
+        return summary;
+    }
+
+    private Summary days(int flatId, LocalDate from, LocalDate to) {
+        Summary result = new Summary(flatId == WHOLE_SOCIETY);
+        LocalDate storedTo = earlier(to, settledThrough());
+        if (!from.isAfter(storedTo)) {
+            // The whole-society row of a day says whether and when the day was built
+            Map<LocalDate, VisitSketch> built = new HashMap<>();
+            for (VisitSketch row : visitSketchRepository.findAllByFlatIdAndSketchDateBetween(WHOLE_SOCIETY, from, storedTo)) {
+                built.put(row.getSketchDate(), row);
+            }
+            List<LocalDate> stale = new ArrayList<>();
+            for (LocalDate date = from; !date.isAfter(storedTo); date = date.plusDays(1)) {
+                VisitSketch row = built.get(date);
+                if (row == null || isStale(date, row.getBuiltAt())) stale.add(date);
+            }
+
+            List<VisitSketch> rows = flatId == WHOLE_SOCIETY ? new ArrayList<>(built.values())
+                    : visitSketchRepository.findAllByFlatIdAndSketchDateBetween(flatId, from, storedTo);
+            for (VisitSketch row : rows) {
+                if (!stale.contains(row.getSketchDate())) result.merge(new Summary(row));
+            }
+            for (LocalDate date : stale) {
+                Summary day = rebuildDay(date).get(flatId);
+                if (day != null) result.merge(day);
+            }
+        }
+
+        LocalDate liveTo = earlier(to, LocalDate.now());
+        for (LocalDate date = later(from, storedTo.plusDays(1)); !date.isAfter(liveTo); date = date.plusDays(1)) {
+            Summary day = build(date).get(flatId);
+            if (day != null) result.merge(day);
+        }
+        return result;
+    }
+
+    private Map<Integer, Summary> rebuildDay(LocalDate date) {
+        String society = TenantContext.getSociety();
+        // Stamped before reading, so a change committed during the build makes the day stale
+        LocalDateTime builtAt = LocalDateTime.now();
+        Map<Integer, Summary> byFlat = build(date);
+        List<VisitSketch> rows = byFlat.entrySet().stream()
+                .map(entry -> entry.getValue().toEntity(date, entry.getKey(), builtAt))
+                .toList();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                visitSketchRepository.deleteDay(society, date);
+                visitSketchRepository.saveAll(rows);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another request stored the same day at the same time
+        }
+        YearMonth month = YearMonth.from(date);
+        synchronized (months) {
+            months.keySet().removeIf(key -> key.societyId().equals(society) && key.month().equals(month));
+        }
+        return byFlat;
+    }
+
+    private Map<Integer, Summary> build(LocalDate date) {
+        Map<Integer, Summary> byFlat = new HashMap<>();
+        Summary society = new Summary(true);
+        byFlat.put(WHOLE_SOCIETY, society);
+        reportQueries.stream(VISITS, new MapSqlParameterSource("date", date), rs -> {
+            String visitor = visitorKey(rs.getString("contact"), rs.getString("name"));
+            society.add(visitor);
+            Timestamp checkIn = rs.getTimestamp("check_in_time");
+            Timestamp checkOut = rs.getTimestamp("check_out_time");
+            if (checkOut != null && !checkOut.before(checkIn)) {
+                society.dwellTimes.add((checkOut.getTime() - checkIn.getTime()) / 1000.0);
+            }
+            int flatId = rs.getInt("flat_id");
+            if (!rs.wasNull()) byFlat.computeIfAbsent(flatId, id -> new Summary(false)).add(visitor);
+        });
+        return byFlat;
+    }
+
+    private boolean isStale(LocalDate date, LocalDateTime builtAt) {
+        long builtAtMillis = builtAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        String society = TenantContext.getSociety();
+        return reportChangeTracker.lastMarked(ReportChangeTracker.Dataset.VISITORS, society, date, date) >= builtAtMillis;
+    }
+
+    private LocalDate settledThrough() {
+        return LocalDate.now().minusDays(settle.toDays());
+    }
+
+    // The last ten digits, so numbers with and without a country code are one visitor
+    private static String visitorKey(String contact, String name) {
+        if (contact != null) {
+            String digits = contact.replaceAll("[^0-9]", "");
+            if (!digits.isEmpty()) return digits.length() > 10 ? digits.substring(digits.length() - 10) : digits;
+        }
+        if (name != null && !name.isBlank()) return name.trim().toLowerCase(Locale.ROOT);
+        return null;
+    }
+
+    private static Long seconds(QuantileSketch sketch, double quantile) {
+        return Math.round(sketch.quantile(quantile));
+    }
+
+    private static LocalDate earlier(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,192 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.entity.QRVisitor;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.enums.VisitStatus;
+import com.securacore.app.repository.QRVisitorRepository;
+import com.securacore.app.repository.VisitorRepository;
+import com.securacore.app.scheduler.HierarchicalTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registers a deadline whenever a pass is issued or a visitor checks in, and applies the due
+ * transitions once per tick as batched conditional updates: unused passes expire at the end of
+ * their visit date and visitors still inside after the allowed duration are flagged as
+ * overstaying. Unanswered gate requests are handled by {@link ApprovalEscalationService}.
+ */
+@Service
+public class VisitExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitExpiryService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(10);
+
+    @Autowired
+    VisitorRepository visitorRepository;
+
+    @Autowired
+    QRVisitorRepository qrVisitorRepository;
+
+    @Autowired
+    OccupancyService occupancyService;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    ReportChangeTracker reportChangeTracker;
+
+    @Autowired
+    VisitVersions visitVersions;
+
+    @Value("${securacore.expiry.max-visit-duration:8h}")
+    Duration maxVisitDuration;
+
+    @Value("${securacore.occupancy.max-stay:24h}")
+    Duration maxStay;
+
+    public enum Transition {
+        EXPIRE_VISIT,
+        EXPIRE_QR_PASS,
+        OVERSTAY_VISIT,
+        OVERSTAY_QR
+    }
+
+    public record Deadline(Transition transition, String societyId, int id, Integer flatId, LocalDate visitDate) {
+    }
+
+    private final HierarchicalTimingWheel<Deadline> wheel =
+            new HierarchicalTimingWheel<>(1000, 64, System.currentTimeMillis());
+
+    public void passIssued(Visitor visitor) {
+        schedule(Transition.EXPIRE_VISIT, visitor.getSocietyId(), visitor.getId(), visitor.getFlatId(), visitor.getVisitDate(), endOf(visitor.getVisitDate()));
+    }
+
+    public void qrPassIssued(QRVisitor visitor) {
+        schedule(Transition.EXPIRE_QR_PASS, visitor.getSocietyId(), visitor.getId(), visitor.getFlatId(), visitor.getVisitDate(), endOf(visitor.getVisitDate()));
+    }
+
+    public void visitorCheckedIn(Visitor visitor) {
+        schedule(Transition.OVERSTAY_VISIT, visitor.getSocietyId(), visitor.getId(), visitor.getFlatId(), visitor.getVisitDate(), checkInOf(visitor.getCheckInTime()).plus(maxVisitDuration));
+    }
+
+    public void qrVisitorCheckedIn(QRVisitor visitor) {
+        schedule(Transition.OVERSTAY_QR, visitor.getSocietyId(), visitor.getId(), visitor.getFlatId(), visitor.getVisitDate(), checkInOf(visitor.getCheckInTime()).plus(maxVisitDuration));
+    }
+
+    public int pendingDeadlines() {
+        return wheel.size();
+    }
+
+    /**
+     * Re-registers deadlines for everything still open after a restart. Runs after the occupancy
+     * rebuild so overstay flags land on visitors that are already on the board.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2)
+    public void rebuild() {
+        LocalDateTime since = LocalDateTime.now().minus(maxStay);
+        for (int shard = 0; shard < shardRoutingDataSource.getShardCount(); shard++) {
+            TenantContext.bind(TenantContext.ROOT);
+            TenantContext.bindShard(shard);
+            try {
+                visitorRepository.findAllByStatusAndCheckInTimeIsNull(VisitStatus.APPROVED).forEach(this::passIssued);
+                qrVisitorRepository.findByStatusAndCheckInTimeIsNull("APPROVED").forEach(this::qrPassIssued);
+                visitorRepository.findAllByStatusAndCheckOutTimeIsNullAndCheckInTimeAfter(VisitStatus.APPROVED, since)
+                        .forEach(this::visitorCheckedIn);
+                qrVisitorRepository.findByStatusAndCheckOutTimeIsNullAndCheckInTimeAfter("APPROVED", since)
+                        .forEach(this::qrVisitorCheckedIn);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${securacore.expiry.tick:1s}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        List<Deadline> due = wheel.advanceTo(now);
+        if (due.isEmpty()) return;
+
+        Map<Transition, Map<String, List<Deadline>>> grouped = new EnumMap<>(Transition.class);
+        for (Deadline deadline : due) {
+            grouped.computeIfAbsent(deadline.transition(), t -> new HashMap<>())
+                    .computeIfAbsent(deadline.societyId(), s -> new ArrayList<>())
+                    .add(deadline);
+        }
+
+        List<Deadline> applied = new ArrayList<>(due.size());
+        grouped.forEach((transition, bySociety) -> bySociety.forEach((societyId, deadlines) -> {
+            TenantContext.bind(societyId);
+            try {
+                for (int from = 0; from < deadlines.size(); from += BATCH_SIZE) {
+                    List<Deadline> batch = deadlines.subList(from, Math.min(deadlines.size(), from + BATCH_SIZE));
+                    try {
+                        apply(transition, societyId, batch.stream().map(Deadline::id).toList());
+                        applied.addAll(batch);
+                    } catch (RuntimeException e) {
+                        // The wheel has already let go of these, so they are put back rather than lost until a restart
+                        log.warn("{} failed for {} deadlines of society {}; retrying in {}", transition, batch.size(), societyId, RETRY_DELAY, e);
+                        batch.forEach(deadline -> wheel.schedule(deadline, now + RETRY_DELAY.toMillis()));
+                    }
+                }
+            } finally {
+                TenantContext.clear();
+            }
+        }));
+        // Bulk updates bypass Hibernate events, so cached reports and list versions are bumped here
+        for (Deadline deadline : applied) {
+            reportChangeTracker.changed(ReportChangeTracker.Dataset.VISITORS, deadline.societyId(), deadline.visitDate());
+            visitVersions.changed(deadline.societyId(), deadline.flatId(), deadline.visitDate());
+        }
+    }
+
+    private void apply(Transition transition, String societyId, List<Integer> ids) {
+        switch (transition) {
+            case EXPIRE_VISIT -> visitorRepository.expireUnused(ids);
+            case EXPIRE_QR_PASS -> qrVisitorRepository.expireUnused(ids);
+            case OVERSTAY_VISIT -> {
+                visitorRepository.flagOverstay(ids);
+                ids.forEach(id -> occupancyService.markOverstay(societyId, OccupancyService.SOURCE_VISITOR, id));
+            }
+            case OVERSTAY_QR -> {
+                qrVisitorRepository.flagOverstay(ids);
+                ids.forEach(id -> occupancyService.markOverstay(societyId, OccupancyService.SOURCE_QR, id));
+            }
+        }
+    }
+
+    private void schedule(Transition transition, String societyId, int id, Integer flatId, LocalDate visitDate, LocalDateTime deadline) {
+        String society = societyId != null ? societyId : TenantContext.getSociety();
+        wheel.schedule(new Deadline(transition, society, id, flatId, visitDate), deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static LocalDateTime endOf(LocalDate visitDate) {
+        return (visitDate != null ? visitDate : LocalDate.now()).plusDays(1).atStartOfDay();
+    }
+
+    private static LocalDateTime checkInOf(LocalDateTime checkInTime) {
+        return checkInTime != null ? checkInTime : LocalDateTime.now();
+    }
+}
@@ -0,0 +1,158 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ReadWriteRoutingDataSource;
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory versions of the visit lists residents and guards poll, used as ETags so an unchanged
+ * list is answered with 304 before the database is touched. Every visitor or QR pass change bumps
+ * its flat, its flat on its visit date, and the society on that date. Versions come from one
+ * sequence, so a version is never reused for different content; a restart starts a new epoch,
+ * which is part of every tag, so tags handed out before it simply stop matching.
+ * <p>
+ * A list changed within the replica staleness bound gets no tag, as the list itself may still come
+ * from a replica that has not seen the change. Versions only see changes made through this
+ * instance, so tags are only handed out while it is the only one running: instances record a
+ * heartbeat in service_instance, and while another one is live every list is served in full.
+ */
+@Component
+public class VisitVersions {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitVersions.class);
+
+    private record Key(String societyId, Integer flatId, LocalDate date) {
+    }
+
+    private record Version(long version, long changedAt) {
+    }
+
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Value("${securacore.visit-versions.single-instance-check:true}")
+    boolean singleInstanceCheck;
+
+    @Value("${securacore.visit-versions.heartbeat:30s}")
+    Duration heartbeat;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Key, Version> versions = new ConcurrentHashMap<>();
+    // Version of any key not in the map: never bumped since start, or purged as past
+    private volatile long floor;
+    // Off until the first heartbeat has shown no other instance
+    private volatile boolean alone;
+
+    public void changed(String societyId, Integer flatId, LocalDate date) {
+        if (societyId == null) return;
+        Version version = new Version(sequence.incrementAndGet(), System.currentTimeMillis());
+        if (date != null) versions.put(new Key(societyId, null, date), version);
+        if (flatId != null) {
+            versions.put(new Key(societyId, flatId, null), version);
+            if (date != null) versions.put(new Key(societyId, flatId, date), version);
+        }
+    }
+
+    /**
+     * Tag for a flat's visits on one date, or null when the flat is not known yet or the list
+     * cannot be tagged right now.
+     */
+    public String flatDay(String flatNo, LocalDate date) {
+        Integer flatId = flatRegistry.find(flatNo);
+        return flatId == null ? null : tag(new Key(TenantContext.getSociety(), flatId, date));
+    }
+
+    /**
+     * Tag for all of a flat's visits, or null when the flat is not known yet or the list cannot
+     * be tagged right now.
+     */
+    public String flat(String flatNo) {
+        Integer flatId = flatRegistry.find(flatNo);
+        return flatId == null ? null : tag(new Key(TenantContext.getSociety(), flatId, null));
+    }
+
+    /**
+     * Tag for the whole society's visits on one date, or null across societies or when the list
+     * cannot be tagged right now.
+     */
+    public String societyDay(LocalDate date) {
+        return TenantContext.isRoot() ? null : tag(new Key(TenantContext.getSociety(), null, date));
+    }
+
+    // Past dates are no longer polled; dropping them keeps the map to about a day of keys
+    @Scheduled(cron = "0 0 1 * * *")
+    public void purge() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        // A fresh value, so a purged key can never fall back to a version it had before
+        floor = sequence.incrementAndGet();
+        versions.keySet().removeIf(key -> key.date() != null && key.date().isBefore(yesterday));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${securacore.visit-versions.heartbeat:30s}")
+    public void heartbeat() {
+        if (!singleInstanceCheck) {
+            alone = true;
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        TenantContext.bindShard(0);
+        try {
+            jdbcTemplate.update("INSERT INTO service_instance (instance_id, last_seen) VALUES (?, ?) "
+                    + "ON DUPLICATE KEY UPDATE last_seen = ?", instanceId, now, now);
+            jdbcTemplate.update("DELETE FROM service_instance WHERE last_seen < ?", now.minus(heartbeat.multipliedBy(20)));
+            Integer others = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM service_instance WHERE instance_id <> ? AND last_seen >= ?",
+                    Integer.class, instanceId, now.minus(heartbeat.multipliedBy(3)));
+            boolean wasAlone = alone;
+            alone = others != null && others == 0;
+            if (wasAlone && !alone) log.warn("Another instance is running; visit lists are served without ETags");
+        } catch (DataAccessException e) {
+            alone = false;
+            log.warn("Instance heartbeat failed; visit lists are served without ETags", e);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private String tag(Key key) {
+        if (!alone) return null;
+        Version version = versions.get(key);
+        if (version != null && System.currentTimeMillis() - version.changedAt() < staleness(key.societyId())) return null;
+        return epoch + "-" + Long.toString(version != null ? version.version() : floor, 36)
+                + "-" + Integer.toHexString(Objects.hash(key.societyId(), key.flatId()))
+                + (key.date() != null ? "-" + key.date() : "");
+    }
+
+    // How far behind the primary a replica serving the list may be
+    private long staleness(String societyId) {
+        ReadWriteRoutingDataSource shard = shardRoutingDataSource.getShards().get(shardRoutingDataSource.shardFor(societyId));
+        return shard.getReplicas().isEmpty() ? 0 : shard.getMaxStalenessMillis();
+    }
+}
@@ -0,0 +1,130 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Visitor logs for the police and management: gate visits and QR passes over a date range,
+ * optionally for one flat, streamed from a database cursor as CSV, gzipped on request. Rows are
+ * written as they are read, so an export of millions of rows needs no more memory than one of
+ * ten.
+ */
+@Service
+public class VisitorExportService {
+
+    public static final String SOURCE_VISITOR = "visitor";
+    public static final String SOURCE_QR = "qr";
+
+    private static final String HEADER = "source,society,id,name,contact,flat_no,relation,purpose,visit_date,"
+            + "check_in_time,check_out_time,status,overstayed,vehicle_plate,watchlist_match\n";
+
+    private static final String VISITORS = "SELECT 'VISITOR' AS source, society_id, id, name, contact, flat_no, relation,"
+            + " purpose, visit_date, check_in_time, check_out_time, status, overstayed, vehicle_plate, watchlist_match"
+            + " FROM visitor WHERE visit_date BETWEEN :from AND :to AND (:allSocieties = 1 OR society_id = :societyId)";
+
+    private static final String QR_VISITORS = "SELECT 'QR' AS source, society_id, id, name, contact, flat_no, relation,"
+            + " purpose, visit_date, check_in_time, check_out_time, status, overstayed, NULL AS vehicle_plate, watchlist_match"
+            + " FROM qr_visitors WHERE visit_date BETWEEN :from AND :to AND (:allSocieties = 1 OR society_id = :societyId)";
+
+    private static final String ORDER = " ORDER BY visit_date, id";
+
+    // 64 KiB of CSV per deflate call keeps compression from costing a syscall per row
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    @Autowired
+    ReportQueries reportQueries;
+
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    /**
+     * The export as a response body. The society is captured here because the body is written
+     * on another thread after the controller returns.
+     */
+    public StreamingResponseBody export(LocalDate from, LocalDate to, String flatNo, String source, boolean gzip) {
+        String society = TenantContext.isRoot() ? TenantContext.ROOT : TenantContext.getSociety();
+        return out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8));
+            TenantContext.bind(society);
+            try {
+                writeCsv(from, to, flatNo, source, writer);
+            } finally {
+                TenantContext.clear();
+            }
+            writer.flush();
+            if (target instanceof GZIPOutputStream compressed) compressed.finish();
+        };
+    }
+
+    public void writeCsv(LocalDate from, LocalDate to, String flatNo, String source, Writer writer) throws IOException {
+        writer.write(HEADER);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to);
+
+        String flatFilter = "";
+        if (flatNo != null && !flatNo.isBlank()) {
+            // Within a society the flat id hits the (flat, date) index; across societies only the code matches
+            Integer flatId = TenantContext.isRoot() ? null : flatRegistry.find(flatNo);
+            if (!TenantContext.isRoot() && flatId == null) return;
+            if (flatId != null) {
+                flatFilter = " AND flat_id = :flatId";
+                params.addValue("flatId", flatId);
+            } else {
+                flatFilter = " AND flat_no = :flatNo";
+                params.addValue("flatNo", FlatRegistry.canonicalCode(flatNo));
+            }
+        }
+
+        if (source == null || SOURCE_VISITOR.equalsIgnoreCase(source)) {
+            reportQueries.stream(VISITORS + flatFilter + ORDER, params, rs -> writeRow(rs, writer));
+        }
+        if (source == null || SOURCE_QR.equalsIgnoreCase(source)) {
+            reportQueries.stream(QR_VISITORS + flatFilter + ORDER, params, rs -> writeRow(rs, writer));
+        }
+    }
+
+    private static void writeRow(ResultSet rs, Writer writer) throws SQLException {
+        Date visitDate = rs.getDate("visit_date");
+        Timestamp checkIn = rs.getTimestamp("check_in_time");
+        Timestamp checkOut = rs.getTimestamp("check_out_time");
+        boolean overstayed = rs.getBoolean("overstayed");
+        try {
+            writer.append(rs.getString("source")).append(',')
+                    .append(OccupancyService.csvField(rs.getString("society_id"))).append(',')
+                    .append(String.valueOf(rs.getInt("id"))).append(',')
+                    .append(OccupancyService.csvField(rs.getString("name"))).append(',')
+                    .append(OccupancyService.csvField(rs.getString("contact"))).append(',')
+                    .append(OccupancyService.csvField(rs.getString("flat_no"))).append(',')
+                    .append(OccupancyService.csvField(rs.getString("relation"))).append(',')
+                    .append(OccupancyService.csvField(rs.getString("purpose"))).append(',')
+                    .append(visitDate != null ? visitDate.toLocalDate().toString() : "").append(',')
+                    .append(checkIn != null ? checkIn.toLocalDateTime().toString() : "").append(',')
+                    .append(checkOut != null ? checkOut.toLocalDateTime().toString() : "").append(',')
+                    .append(OccupancyService.csvField(rs.getString("status"))).append(',')
+                    .append(overstayed ? "true" : "false").append(',')
+                    .append(OccupancyService.csvField(rs.getString("vehicle_plate"))).append(',')
+                    .append(OccupancyService.csvField(rs.getString("watchlist_match"))).append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.securacore.app.service;
 
+import com.securacore.app.config.TenantContext;
 import com.securacore.app.dto.Visitor.VisitorResponseDTO;
 import com.securacore.app.entity.Visitor;
 import com.securacore.app.enums.VisitStatus;
 import com.securacore.app.repository.VisitorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -17,12 +19,25 @@ import java.util.List;
 public class VisitorService {
     @Autowired
     VisitorRepository visitorRepository;
+
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    @Transactional(readOnly = true)
     public List<Visitor> getVisitors(){
         return visitorRepository.findAll();
     }
+    @Transactional(readOnly = true)
     public List<Visitor> flatVisitors(String flat){
-        return visitorRepository.findAllByFlatNo(flat);
+        if (TenantContext.isRoot()) {
+            // Flat ids are per society; across societies fall back to the canonical code
+            return visitorRepository.findAllByFlatNo(FlatRegistry.canonicalCode(flat));
+        }
+        Integer flatId = flatRegistry.find(flat);
+        if (flatId == null) return new ArrayList<>();
+        return visitorRepository.findAllByFlatId(flatId);
     }
+    @Transactional(readOnly = true)
     public List<VisitorResponseDTO> visitorsOn(LocalDate startDate){
         List<Visitor> visitors = visitorRepository.findAllByVisitDate(startDate);
 
@@ -38,6 +53,7 @@ public class VisitorService {
             dto.setCheckInTime(visitor.getCheckInTime());
             dto.setCheckOutTime(visitor.getCheckOutTime());
             dto.setStatus(visitor.getStatus());
+            dto.setPhotoHash(visitor.getPhotoHash());
         allVisitors.add(dto);
         }
         return allVisitors;
@@ -0,0 +1,134 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Visitor.VisitorSuggestionDTO;
+import com.securacore.app.entity.QRVisitor;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.repository.QRVisitorRepository;
+import com.securacore.app.repository.VisitorRepository;
+import com.securacore.app.search.FrequencyTrie;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Visitor-name autocomplete for the gate. Each flat gets a {@link FrequencyTrie} built from its
+ * recent Visitor and QRVisitor history the first time a guard asks, and kept current as requests
+ * and passes are created. Memory is bounded by a cap on names per flat and on flats held, least
+ * recently used flats being dropped and rebuilt on demand.
+ */
+@Service
+public class VisitorSuggestionService {
+
+    @Autowired
+    VisitorRepository visitorRepository;
+
+    @Autowired
+    QRVisitorRepository qrVisitorRepository;
+
+    @Autowired
+    FlatRegistry flatRegistry;
+
+    @Value("${securacore.suggestions.max-flats:20000}")
+    int maxFlats;
+
+    @Value("${securacore.suggestions.max-names-per-flat:64}")
+    int maxNamesPerFlat;
+
+    @Value("${securacore.suggestions.history:180d}")
+    Duration history;
+
+    @Value("${securacore.suggestions.half-life:14d}")
+    Duration halfLife;
+
+    // Access-ordered, so the eldest entry is the least recently used flat
+    private final Map<String, FrequencyTrie> flats = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FrequencyTrie> eldest) {
+            return size() > maxFlats;
+        }
+    };
+
+    public List<VisitorSuggestionDTO> suggest(String flatNo, String prefix, int limit) {
+        Integer flatId = flatRegistry.find(flatNo);
+        if (flatId == null) return List.of();
+        FrequencyTrie trie = trieFor(flatId);
+        List<FrequencyTrie.Suggestion> suggestions;
+        synchronized (trie) {
+            suggestions = trie.suggest(prefix, Math.max(1, Math.min(limit, 20)), System.currentTimeMillis());
+        }
+        List<VisitorSuggestionDTO> result = new ArrayList<>(suggestions.size());
+        for (FrequencyTrie.Suggestion suggestion : suggestions) {
+            result.add(new VisitorSuggestionDTO(suggestion.name(), suggestion.relation(), suggestion.purpose(),
+                    suggestion.visits(), LocalDateTime.ofInstant(Instant.ofEpochMilli(suggestion.lastSeenMillis()), ZoneId.systemDefault())));
+        }
+        return result;
+    }
+
+    public void visitorRecorded(Visitor visitor) {
+        record(visitor.getFlatId(), visitor.getName(), visitor.getRelation(), visitor.getPurpose(),
+                timeOf(visitor.getCheckInTime(), visitor.getVisitDate()));
+    }
+
+    public void qrVisitorRecorded(QRVisitor visitor) {
+        record(visitor.getFlatId(), visitor.getName(), visitor.getRelation(), visitor.getPurpose(),
+                timeOf(visitor.getCreatedAt(), visitor.getVisitDate()));
+    }
+
+    private void record(Integer flatId, String name, String relation, String purpose, long atMillis) {
+        if (flatId == null) return;
+        FrequencyTrie trie;
+        synchronized (this) {
+            trie = flats.get(key(flatId));
+        }
+        // A flat that is not held yet picks this visit up from the database when it is first asked for
+        if (trie == null) return;
+        synchronized (trie) {
+            trie.record(name, relation, purpose, atMillis);
+        }
+    }
+
+    private FrequencyTrie trieFor(Integer flatId) {
+        String key = key(flatId);
+        synchronized (this) {
+            FrequencyTrie trie = flats.get(key);
+            if (trie != null) return trie;
+        }
+
+        FrequencyTrie trie = new FrequencyTrie(maxNamesPerFlat, halfLife.toMillis());
+        LocalDate since = LocalDate.now().minusDays(history.toDays());
+        for (Visitor visitor : visitorRepository.findAllByFlatIdAndVisitDateGreaterThanEqual(flatId, since)) {
+            trie.record(visitor.getName(), visitor.getRelation(), visitor.getPurpose(),
+                    timeOf(visitor.getCheckInTime(), visitor.getVisitDate()));
+        }
+        for (QRVisitor visitor : qrVisitorRepository.findByFlatIdAndVisitDateGreaterThanEqual(flatId, since)) {
+            trie.record(visitor.getName(), visitor.getRelation(), visitor.getPurpose(),
+                    timeOf(visitor.getCreatedAt(), visitor.getVisitDate()));
+        }
+
+        synchronized (this) {
+            // Another guard may have built it meanwhile; keep the one already receiving updates
+            FrequencyTrie existing = flats.putIfAbsent(key, trie);
+            return existing != null ? existing : trie;
+        }
+    }
+
+    private static long timeOf(LocalDateTime at, LocalDate visitDate) {
+        LocalDateTime time = at != null ? at : (visitDate != null ? visitDate.atStartOfDay() : LocalDateTime.now());
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String key(Integer flatId) {
+        return TenantContext.getSociety() + ":" + flatId;
+    }
+}
@@ -0,0 +1,236 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Watchlist.WatchlistEntryDTO;
+import com.securacore.app.entity.WatchlistEntry;
+import com.securacore.app.repository.WatchlistRepository;
+import com.securacore.app.search.BkTree;
+import com.securacore.app.search.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Screens visitor names and phone numbers against each society's banned-visitor list. The list
+ * is compiled into an immutable index: Bloom filters reject the common case of an unlisted name
+ * or number without touching a map, and a BK-tree catches spellings within a small edit
+ * distance. The tree is only walked when a third filter, over every listed name with up to two
+ * letters deleted, shares a deletion of the visitor's name: two names within k edits always do,
+ * so an unlisted name skips the fuzzy search as well. Edits and the periodic refresh build a new
+ * index and swap it in, so screening never waits on a reload.
+ */
+@Service
+public class WatchlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchlistService.class);
+
+    @Autowired
+    WatchlistRepository watchlistRepository;
+
+    public enum Match {
+        CONTACT,
+        NAME,
+        SIMILAR_NAME
+    }
+
+    public record Screening(Match match, int entryId, String name, String reason) {
+        // Exact name or number matches are refused; similar names are flagged for a person to decide
+        public boolean blocks() {
+            return match != Match.SIMILAR_NAME;
+        }
+
+        public String describe() {
+            return (blocks() ? "Visitor is on the society watchlist" : "Possible watchlist match: " + name)
+                    + (reason != null ? " (" + reason + ")" : "");
+        }
+    }
+
+    private record Listed(int id, String name, String reason) {
+    }
+
+    // Largest edit distance tolerance() allows
+    private static final int MAX_TOLERANCE = 2;
+
+    private static final class Index {
+        final BloomFilter names;
+        final BloomFilter nearNames;
+        final BloomFilter contacts;
+        final Map<String, Listed> byName = new HashMap<>();
+        final Map<String, Listed> byContact = new HashMap<>();
+        final BkTree<Listed> similarNames = new BkTree<>();
+
+        Index(List<WatchlistEntry> entries) {
+            names = new BloomFilter(entries.size(), 0.01);
+            contacts = new BloomFilter(entries.size(), 0.01);
+            for (WatchlistEntry entry : entries) {
+                Listed listed = new Listed(entry.getId(), entry.getName(), entry.getReason());
+                String name = AutoApprovalService.normaliseText(entry.getName());
+                if (name != null && byName.putIfAbsent(name, listed) == null) {
+                    names.add(name);
+                    similarNames.add(name, listed);
+                }
+                String contact = AutoApprovalService.normaliseContact(entry.getContact());
+                if (contact != null && byContact.putIfAbsent(contact, listed) == null) {
+                    contacts.add(contact);
+                }
+            }
+            Set<String> deletions = new HashSet<>();
+            for (String name : byName.keySet()) {
+                // Its own set, as a shorter listed name may itself be a deletion of this one
+                Set<String> own = new HashSet<>();
+                deletions(name, MAX_TOLERANCE, own);
+                deletions.addAll(own);
+            }
+            nearNames = new BloomFilter(deletions.size(), 0.01);
+            deletions.forEach(nearNames::add);
+        }
+    }
+
+    private final Map<String, Index> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the strongest match for the visitor, or null when they are not listed.
+     */
+    public Screening screen(String name, String contact) {
+        Index index = indexes.computeIfAbsent(TenantContext.getSociety(), s -> build());
+
+        String number = AutoApprovalService.normaliseContact(contact);
+        if (number != null && index.contacts.mightContain(number)) {
+            Listed listed = index.byContact.get(number);
+            if (listed != null) return hit(Match.CONTACT, listed);
+        }
+
+        String normalised = AutoApprovalService.normaliseText(name);
+        if (normalised == null) return null;
+        if (index.names.mightContain(normalised)) {
+            Listed listed = index.byName.get(normalised);
+            if (listed != null) return hit(Match.NAME, listed);
+        }
+        int tolerance = tolerance(normalised);
+        if (tolerance == 0 || index.similarNames.size() == 0 || !mightBeNear(index, normalised, tolerance)) return null;
+        BkTree.Match<Listed> closest = null;
+        for (BkTree.Match<Listed> match : index.similarNames.search(normalised, tolerance)) {
+            if (closest == null || match.distance() < closest.distance()) closest = match;
+        }
+        return closest == null ? null : hit(Match.SIMILAR_NAME, closest.value());
+    }
+
+    public String addEntry(WatchlistEntryDTO request) {
+        WatchlistEntry entry = toEntry(request);
+        if (entry == null) return "Name or contact is required";
+        watchlistRepository.save(entry);
+        reload();
+        return "Watchlist Entry Added";
+    }
+
+    /**
+     * Bulk load of a paper list; the index is rebuilt once at the end.
+     */
+    public String importEntries(List<WatchlistEntryDTO> requests) {
+        List<WatchlistEntry> entries = new ArrayList<>();
+        for (WatchlistEntryDTO request : requests) {
+            WatchlistEntry entry = toEntry(request);
+            if (entry != null) entries.add(entry);
+        }
+        watchlistRepository.saveAll(entries);
+        reload();
+        return entries.size() + " Watchlist Entries Imported";
+    }
+
+    public String removeEntry(int id) {
+        WatchlistEntry entry = watchlistRepository.findById(id).orElse(null);
+        if (entry == null) return "Watchlist Entry Not Found";
+        entry.setActive(false);
+        watchlistRepository.save(entry);
+        reload();
+        return "Watchlist Entry Removed";
+    }
+
+    @Transactional(readOnly = true)
+    public List<WatchlistEntryDTO> getEntries() {
+        List<WatchlistEntryDTO> result = new ArrayList<>();
+        for (WatchlistEntry entry : watchlistRepository.findAllByActiveTrue()) {
+            WatchlistEntryDTO dto = new WatchlistEntryDTO();
+            dto.setId(entry.getId());
+            dto.setName(entry.getName());
+            dto.setContact(entry.getContact());
+            dto.setReason(entry.getReason());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    public void reload() {
+        indexes.put(TenantContext.getSociety(), build());
+    }
+
+    // Picks up entries added through another instance
+    @Scheduled(fixedDelayString = "${securacore.watchlist.refresh:5m}")
+    public void refresh() {
+        for (String societyId : indexes.keySet()) {
+            TenantContext.bind(societyId);
+            try {
+                reload();
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private Index build() {
+        return new Index(watchlistRepository.findAllByActiveTrue());
+    }
+
+    private static WatchlistEntry toEntry(WatchlistEntryDTO request) {
+        boolean hasName = request.getName() != null && !request.getName().isBlank();
+        boolean hasContact = request.getContact() != null && !request.getContact().isBlank();
+        if (!hasName && !hasContact) return null;
+        WatchlistEntry entry = new WatchlistEntry();
+        entry.setName(hasName ? request.getName().trim() : null);
+        entry.setContact(hasContact ? request.getContact().trim() : null);
+        entry.setReason(request.getReason());
+        entry.setActive(true);
+        entry.setCreatedAt(LocalDateTime.now());
+        return entry;
+    }
+
+    private static Screening hit(Match match, Listed listed) {
+        log.info("Watchlist {} match on entry {} in society {}", match, listed.id(), TenantContext.getSociety());
+        return new Screening(match, listed.id(), listed.name(), listed.reason());
+    }
+
+    private static boolean mightBeNear(Index index, String name, int tolerance) {
+        Set<String> deletions = new HashSet<>();
+        deletions(name, tolerance, deletions);
+        for (String deletion : deletions) {
+            if (index.nearNames.mightContain(deletion)) return true;
+        }
+        return false;
+    }
+
+    // The word and every string left after deleting up to depth of its letters
+    private static void deletions(String word, int depth, Set<String> out) {
+        if (!out.add(word) || depth == 0) return;
+        for (int i = 0; i < word.length(); i++) {
+            deletions(word.substring(0, i) + word.substring(i + 1), depth - 1, out);
+        }
+    }
+
+    // Short names differ from each other by one letter too often to match loosely
+    private static int tolerance(String name) {
+        if (name.length() <= 4) return 0;
+        return name.length() <= 8 ? 1 : MAX_TOLERANCE;
+    }
+}
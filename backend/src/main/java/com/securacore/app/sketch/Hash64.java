@@ -0,0 +1,29 @@
+package com.securacore.app.sketch;
+
+/**
+ * The 64-bit string hash shared by the sketches and {@link com.securacore.app.search.BloomFilter}.
+ */
+public final class Hash64 {
+
+    private Hash64() {
+    }
+
+    // FNV-1a over the chars, finished with the murmur3 64-bit mixer so every bit is usable
+    public static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    public static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
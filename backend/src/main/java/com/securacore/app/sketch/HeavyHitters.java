@@ -0,0 +1,113 @@
+package com.securacore.app.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Most frequent keys: a Count-Min sketch estimates how often any key was seen, never under and
+ * with high probability over by at most 0.3% of the total, and a bounded set of candidate keys
+ * remembers which keys to ask about. Merging adds the count tables and pools the candidates,
+ * keeping those the merged table rates highest, so the top keys of a range come from its days'
+ * sketches without the raw rows.
+ */
+public class HeavyHitters {
+
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 1024;
+
+    private final int maxCandidates;
+    private final int[] table = new int[DEPTH * WIDTH];
+    private final Set<String> candidates = new HashSet<>();
+    private long total;
+
+    public HeavyHitters(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public void add(String key) {
+        long hash = Hash64.hash(key);
+        for (int row = 0; row < DEPTH; row++) {
+            table[row * WIDTH + column(hash, row)]++;
+        }
+        total++;
+        candidates.add(key);
+        if (candidates.size() > maxCandidates * 2) trim();
+    }
+
+    public void merge(HeavyHitters other) {
+        for (int i = 0; i < table.length; i++) table[i] += other.table[i];
+        total += other.total;
+        candidates.addAll(other.candidates);
+        if (candidates.size() > maxCandidates * 2) trim();
+    }
+
+    public long estimate(String key) {
+        long hash = Hash64.hash(key);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, table[row * WIDTH + column(hash, row)]);
+        }
+        return estimate;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Up to limit candidates with their estimated counts, most frequent first.
+     */
+    public List<Map.Entry<String, Long>> top(int limit) {
+        return candidates.stream()
+                .map(key -> Map.entry(key, estimate(key)))
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .toList();
+    }
+
+    public byte[] toBytes() {
+        trim();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(table.length * 4 + candidates.size() * 16 + 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(total);
+            for (int count : table) out.writeInt(count);
+            out.writeInt(candidates.size());
+            for (String key : candidates) out.writeUTF(key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static HeavyHitters fromBytes(byte[] bytes, int maxCandidates) {
+        HeavyHitters sketch = new HeavyHitters(maxCandidates);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            sketch.total = in.readLong();
+            for (int i = 0; i < sketch.table.length; i++) sketch.table[i] = in.readInt();
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) sketch.candidates.add(in.readUTF());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sketch;
+    }
+
+    private void trim() {
+        if (candidates.size() <= maxCandidates) return;
+        List<String> keep = top(maxCandidates).stream().map(Map.Entry::getKey).toList();
+        candidates.clear();
+        candidates.addAll(keep);
+    }
+
+    private static int column(long hash, int row) {
+        return (int) ((Hash64.mix(hash + row * 0x9e3779b97f4a7c15L) >>> 1) % WIDTH);
+    }
+}
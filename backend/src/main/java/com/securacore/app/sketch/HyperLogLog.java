@@ -0,0 +1,138 @@
+package com.securacore.app.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog distinct counter with 4096 registers, about 1.6% standard error. A flat sees a
+ * handful of visitors a day, so registers are kept as a sorted sparse list until it would be
+ * larger than the dense array; a day's sketch for one flat is then a few bytes. Sketches merge
+ * by taking the larger register, so any range of days can be counted from its daily sketches.
+ */
+public class HyperLogLog {
+
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    // Sparse entries take four bytes against one per dense register
+    private static final int SPARSE_LIMIT = REGISTERS / 4;
+
+    // Sparse entries are register << 8 | rank, sorted by register
+    private int[] sparse = new int[8];
+    private int sparseSize;
+    private byte[] dense;
+
+    public void add(String value) {
+        long hash = Hash64.hash(value);
+        int register = (int) (hash >>> (64 - PRECISION));
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        set(register, rank);
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.dense != null) {
+            toDense();
+            for (int i = 0; i < REGISTERS; i++) {
+                if (other.dense[i] > dense[i]) dense[i] = other.dense[i];
+            }
+            return;
+        }
+        for (int i = 0; i < other.sparseSize; i++) {
+            set(other.sparse[i] >>> 8, other.sparse[i] & 0xff);
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        if (dense != null) {
+            for (byte rank : dense) {
+                sum += Math.scalb(1.0, -rank);
+                if (rank == 0) zeros++;
+            }
+        } else {
+            zeros = REGISTERS - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += Math.scalb(1.0, -(sparse[i] & 0xff));
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / REGISTERS);
+        double estimate = alpha * REGISTERS * REGISTERS / sum;
+        // Small cardinalities are counted far more accurately from the empty registers
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(dense != null ? REGISTERS + 1 : sparseSize * 4 + 5);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (dense != null) {
+                out.writeByte(1);
+                out.write(dense);
+            } else {
+                out.writeByte(0);
+                out.writeInt(sparseSize);
+                for (int i = 0; i < sparseSize; i++) out.writeInt(sparse[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() == 1) {
+                sketch.dense = new byte[REGISTERS];
+                in.readFully(sketch.dense);
+            } else {
+                sketch.sparseSize = in.readInt();
+                sketch.sparse = new int[Math.max(8, sketch.sparseSize)];
+                for (int i = 0; i < sketch.sparseSize; i++) sketch.sparse[i] = in.readInt();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sketch;
+    }
+
+    private void set(int register, int rank) {
+        if (dense != null) {
+            if (rank > dense[register]) dense[register] = (byte) rank;
+            return;
+        }
+        int at = Arrays.binarySearch(sparse, 0, sparseSize, register << 8);
+        if (at < 0) at = -at - 1;
+        if (at < sparseSize && sparse[at] >>> 8 == register) {
+            if (rank > (sparse[at] & 0xff)) sparse[at] = register << 8 | rank;
+            return;
+        }
+        if (sparseSize == SPARSE_LIMIT) {
+            toDense();
+            set(register, rank);
+            return;
+        }
+        if (sparseSize == sparse.length) sparse = Arrays.copyOf(sparse, sparse.length * 2);
+        System.arraycopy(sparse, at, sparse, at + 1, sparseSize - at);
+        sparse[at] = register << 8 | rank;
+        sparseSize++;
+    }
+
+    private void toDense() {
+        if (dense != null) return;
+        dense = new byte[REGISTERS];
+        for (int i = 0; i < sparseSize; i++) {
+            dense[sparse[i] >>> 8] = (byte) (sparse[i] & 0xff);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+}
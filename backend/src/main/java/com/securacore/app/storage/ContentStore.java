@@ -0,0 +1,166 @@
+package com.securacore.app.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed file store. A blob is named by the SHA-256 of its bytes and kept under
+ * {@code ab/cd/abcd...}, so storing the same bytes twice keeps one copy. Uploads are hashed while
+ * they are copied to a temporary file and then moved into place, which means a blob is either
+ * absent or complete and never held in memory. Derived files such as thumbnails sit next to their
+ * blob as {@code <hash>.<variant>}.
+ */
+public class ContentStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final String INCOMING = "incoming";
+
+    private final Path root;
+    private final Path incoming;
+
+    public record Stored(String hash, long size, boolean created) {
+    }
+
+    public static class TooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public TooLargeException(long maxBytes) {
+            super("Blob exceeds " + maxBytes + " bytes");
+        }
+    }
+
+    public ContentStore(Path root) throws IOException {
+        this.root = root;
+        this.incoming = root.resolve(INCOMING);
+        Files.createDirectories(incoming);
+    }
+
+    public Stored put(InputStream in, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(incoming, "upload", ".tmp");
+        try {
+            long size = 0;
+            byte[] buffer = new byte[16 * 1024];
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) throw new TooLargeException(maxBytes);
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (touch(target)) return new Stored(hash, size, false);
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // The same bytes arrived concurrently and won the move
+                touch(target);
+                return new Stored(hash, size, false);
+            }
+            return new Stored(hash, size, true);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public boolean contains(String hash) {
+        return isHash(hash) && Files.isRegularFile(pathOf(hash));
+    }
+
+    public Path pathOf(String hash) {
+        if (!isHash(hash)) throw new IllegalArgumentException("Not a content hash: " + hash);
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    public Path variantOf(String hash, String variant) {
+        Path blob = pathOf(hash);
+        return blob.resolveSibling(hash + "." + variant);
+    }
+
+    /**
+     * Writes a derived file through a temporary file so readers never see a partial variant.
+     */
+    public void putVariant(String hash, String variant, VariantWriter writer) throws IOException {
+        Path temp = Files.createTempFile(incoming, "variant", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            Files.move(temp, variantOf(hash, variant), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public void delete(String hash) throws IOException {
+        Path blob = pathOf(hash);
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(blob.getParent(), hash + "*")) {
+            for (Path sibling : siblings) {
+                Files.deleteIfExists(sibling);
+            }
+        }
+    }
+
+    /**
+     * Hashes of blobs last modified before the given instant, for garbage collection.
+     */
+    public List<String> hashesOlderThan(Instant before) throws IOException {
+        List<String> hashes = new ArrayList<>();
+        try (var paths = Files.walk(root, 3)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                String name = path.getFileName().toString();
+                if (isHash(name) && Files.isRegularFile(path)
+                        && Files.getLastModifiedTime(path).toInstant().isBefore(before)) {
+                    hashes.add(name);
+                }
+            }
+        }
+        return hashes;
+    }
+
+    public interface VariantWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    // A blob stored again counts as new, so the orphan sweep's grace period starts over for it
+    private static boolean touch(Path blob) throws IOException {
+        try {
+            Files.setLastModifiedTime(blob, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static boolean isHash(String hash) {
+        return hash != null && HASH.matcher(hash).matches();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.securacore.app.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTests {
+
+	@Test
+	void rejectsOnceLimitIsReached() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+		assertTrue(limiter.tryAcquire(1.0));
+		assertTrue(limiter.tryAcquire(1.0));
+		assertFalse(limiter.tryAcquire(1.0));
+		limiter.release(1_000_000);
+		assertTrue(limiter.tryAcquire(1.0));
+	}
+
+	@Test
+	void shrinksWhenLatencyRisesAndRespectsMinimum() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 50);
+		saturate(limiter, 200, 1_000_000);
+		int healthyLimit = limiter.getLimit();
+
+		saturate(limiter, 1, 20_000_000);
+		assertTrue(limiter.getLimit() < healthyLimit);
+		assertTrue(limiter.getLimit() >= 2);
+		assertTrue(limiter.health() < 1.0);
+	}
+
+	@Test
+	void scaleSqueezesAdmissionsButNotBelowMinimum() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10);
+		assertTrue(limiter.tryAcquire(0.0));
+		assertFalse(limiter.tryAcquire(0.0));
+		assertEquals(1, limiter.getInFlight());
+	}
+
+	private void saturate(AdaptiveConcurrencyLimiter limiter, int samples, long rttNanos) {
+		for (int i = 0; i < samples; i++) {
+			int limit = limiter.getLimit();
+			for (int j = 0; j < limit; j++) limiter.acquire();
+			for (int j = 0; j < limit; j++) limiter.release(rttNanos);
+		}
+	}
+
+}
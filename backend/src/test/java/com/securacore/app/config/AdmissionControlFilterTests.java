@@ -0,0 +1,78 @@
+package com.securacore.app.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlFilterTests {
+
+	@Test
+	void streamedReportHoldsItsSlotUntilTheBodyIsWritten() throws Exception {
+		AdmissionControlFilter filter = new AdmissionControlFilter(new AdmissionProperties());
+		AdaptiveConcurrencyLimiter reporting = filter.limiterFor(RequestClass.REPORTING);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/reports/attendance.csv");
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+		assertEquals(1, reporting.getInFlight());
+		((MockAsyncContext) request.getAsyncContext()).complete();
+		assertEquals(0, reporting.getInFlight());
+	}
+
+	@Test
+	void failedExportIsReleasedOnceAndCountedAsReporting() throws Exception {
+		AdmissionControlFilter filter = new AdmissionControlFilter(new AdmissionProperties());
+		AdaptiveConcurrencyLimiter reporting = filter.limiterFor(RequestClass.REPORTING);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/exports/visitors");
+		request.setAsyncSupported(true);
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+		assertEquals(1, reporting.getInFlight());
+
+		// A broken download reports the error and then completes
+		MockAsyncContext context = (MockAsyncContext) request.getAsyncContext();
+		for (AsyncListener listener : context.getListeners()) listener.onError(new AsyncEvent(context));
+		context.complete();
+		assertEquals(0, reporting.getInFlight());
+		assertEquals(0, filter.limiterFor(RequestClass.STANDARD).getInFlight());
+	}
+
+	@Test
+	void openEventStreamsDoNotHoldStandardSlots() throws Exception {
+		AdmissionProperties properties = new AdmissionProperties();
+		AdmissionControlFilter filter = new AdmissionControlFilter(properties);
+		AdaptiveConcurrencyLimiter standard = filter.limiterFor(RequestClass.STANDARD);
+
+		// Streams that have not sent an event yet have no content type, like a fresh emitter
+		int streams = properties.getStandard().getInitialLimit() + 5;
+		for (int i = 0; i < streams; i++) {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", i % 2 == 0 ? "/resident/notifications" : "/guard/decisions");
+			request.setAsyncSupported(true);
+			filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+			assertTrue(request.isAsyncStarted());
+		}
+		assertEquals(0, standard.getInFlight());
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		boolean[] admitted = {false};
+		filter.doFilter(new MockHttpServletRequest("GET", "/resident/today-visits"), response, (req, res) -> admitted[0] = true);
+		assertTrue(admitted[0]);
+		assertEquals(200, response.getStatus());
+	}
+
+	@Test
+	void synchronousRequestReleasesOnReturn() throws Exception {
+		AdmissionControlFilter filter = new AdmissionControlFilter(new AdmissionProperties());
+		filter.doFilter(new MockHttpServletRequest("GET", "/admin/reports/attendance.csv"), new MockHttpServletResponse(),
+				(req, res) -> assertEquals(1, filter.limiterFor(RequestClass.REPORTING).getInFlight()));
+		assertEquals(0, filter.limiterFor(RequestClass.REPORTING).getInFlight());
+	}
+}
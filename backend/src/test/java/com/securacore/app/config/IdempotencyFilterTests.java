@@ -0,0 +1,102 @@
+package com.securacore.app.config;
+
+import com.securacore.app.repository.QRVisitorRepository;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyFilterTests {
+
+	private static final String PASS = "{\"name\":\"Courier\",\"flatNo\":\"D-402\",\"purpose\":\"Delivery\"}";
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	QRVisitorRepository qrVisitorRepository;
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void retryWithTheSameKeyReplaysTheFirstResponse() throws Exception {
+		TenantContext.bind("hillcrest");
+		long before = qrVisitorRepository.count();
+
+		MvcResult first = create("terminal-7-0001", PASS).andExpect(status().isOk()).andReturn();
+		MvcResult retry = create("terminal-7-0001", PASS).andExpect(status().isOk()).andReturn();
+
+		assertNull(first.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+		assertEquals("true", retry.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER));
+		assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+		TenantContext.bind("hillcrest");
+		assertEquals(before + 1, qrVisitorRepository.count());
+	}
+
+	@Test
+	void reusingAKeyForADifferentRequestIsRejected() throws Exception {
+		create("terminal-7-0002", PASS).andExpect(status().isOk());
+		create("terminal-7-0002", PASS.replace("D-402", "D-403")).andExpect(status().isUnprocessableEntity());
+	}
+
+	@Test
+	void bufferedBodyCanBeReadWithoutBlocking() throws Exception {
+		IdempotencyFilter.CachedBodyRequest request = new IdempotencyFilter.CachedBodyRequest(new MockHttpServletRequest(),
+				PASS.getBytes(StandardCharsets.UTF_8));
+		ServletInputStream in = request.getInputStream();
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		List<String> events = new ArrayList<>();
+		in.setReadListener(new ReadListener() {
+			@Override
+			public void onDataAvailable() throws IOException {
+				events.add("data");
+				while (in.isReady() && !in.isFinished()) read.write(in.read());
+			}
+
+			@Override
+			public void onAllDataRead() {
+				events.add("done");
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				events.add("error");
+			}
+		});
+		assertEquals(List.of("data", "done"), events);
+		assertEquals(PASS, read.toString(StandardCharsets.UTF_8));
+	}
+
+	private ResultActions create(String key, String body) throws Exception {
+		return mockMvc.perform(post("/qr-visitor/create")
+				.header(TenantFilter.SOCIETY_HEADER, "hillcrest")
+				.header(IdempotencyFilter.KEY_HEADER, key)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body));
+	}
+
+}
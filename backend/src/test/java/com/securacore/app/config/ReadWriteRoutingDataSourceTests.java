@@ -0,0 +1,55 @@
+package com.securacore.app.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ReadWriteRoutingDataSourceTests {
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void clearClient() {
+		ReadWriteRoutingDataSource.clearClient();
+	}
+
+	@Test
+	void readOnlyServiceTransactionsUseReplica() {
+		assertEquals("REPLICA", currentDatabase("com.securacore.app.service.VisitorService.visitorsOn", true));
+		assertEquals("PRIMARY", currentDatabase("com.securacore.app.service.GuardService.visitorRequest", false));
+	}
+
+	@Test
+	void repositoryLevelReadOnlyTransactionsStayOnPrimary() {
+		assertEquals("PRIMARY", currentDatabase("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById", true));
+	}
+
+	@Test
+	void clientReadsItsOwnWritesFromPrimary() {
+		ReadWriteRoutingDataSource.bindClient("terminal-1");
+		currentDatabase("com.securacore.app.service.GuardService.visitorRequest", false);
+		assertEquals("PRIMARY", currentDatabase("com.securacore.app.service.VisitorService.visitorsOn", true));
+
+		ReadWriteRoutingDataSource.bindClient("terminal-2");
+		assertEquals("REPLICA", currentDatabase("com.securacore.app.service.VisitorService.visitorsOn", true));
+	}
+
+	private String currentDatabase(String transactionName, boolean readOnly) {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setName(transactionName);
+		template.setReadOnly(readOnly);
+		return template.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+	}
+
+}
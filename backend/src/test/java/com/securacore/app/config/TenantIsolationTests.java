@@ -0,0 +1,67 @@
+package com.securacore.app.config;
+
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.repository.VisitorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class TenantIsolationTests {
+
+	@Autowired
+	VisitorRepository visitorRepository;
+
+	@Autowired
+	ShardScatterGather shardScatterGather;
+
+	@Autowired
+	ShardRoutingDataSource shardRoutingDataSource;
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void hashedSocietiesStayOnTheirFirstShardWhenShardsAreAdded() {
+		String society = "riverside";
+		for (int i = 0; Math.floorMod(society.hashCode(), 2) != 1; i++) {
+			society = "riverside-" + i;
+		}
+		assertEquals(0, shardRoutingDataSource.shardFor(society));
+
+		ReadWriteRoutingDataSource shard = shardRoutingDataSource.getShards().get(0);
+		ShardRoutingDataSource grown = new ShardRoutingDataSource(List.of(shard, shard), Map.of());
+		assertEquals(0, grown.shardFor(society));
+	}
+
+	@Test
+	void societiesOnlySeeTheirOwnVisitorsAndRootSeesAll() {
+		saveVisitor("greenwood", "A-101");
+		saveVisitor("lakeview", "A-101");
+
+		TenantContext.bind("greenwood");
+		List<Visitor> greenwood = visitorRepository.findAllByFlatNo("A-101");
+		assertEquals(1, greenwood.size());
+		assertEquals("greenwood", greenwood.get(0).getSocietyId());
+
+		TenantContext.bind(TenantContext.ROOT);
+		assertEquals(2, shardScatterGather.collect(() -> visitorRepository.findAllByFlatNo("A-101")).size());
+	}
+
+	private void saveVisitor(String society, String flatNo) {
+		TenantContext.bind(society);
+		Visitor visitor = new Visitor();
+		visitor.setName("Visitor of " + society);
+		visitor.setFlatNo(flatNo);
+		visitorRepository.save(visitor);
+	}
+
+}
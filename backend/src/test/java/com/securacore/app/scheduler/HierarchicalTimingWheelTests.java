@@ -0,0 +1,58 @@
+package com.securacore.app.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTests {
+
+	@Test
+	void firesEveryDeadlineOnTheFirstTickAtOrAfterIt() {
+		long start = 1_000_000;
+		HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1000, 8, start);
+		Random random = new Random(42);
+		Map<Integer, Long> deadlines = new HashMap<>();
+		for (int i = 0; i < 2000; i++) {
+			long deadline = start + random.nextInt(5_000_000);
+			deadlines.put(i, deadline);
+			wheel.schedule(i, deadline);
+		}
+
+		int fired = 0;
+		for (long now = start; now <= start + 5_100_000; now += 700) {
+			for (Integer id : wheel.advanceTo(now)) {
+				long deadline = deadlines.get(id);
+				assertTrue(now >= deadline - 999, "fired early: " + id);
+				assertTrue(now < deadline + 1000 + 700, "fired late: " + id);
+				fired++;
+			}
+		}
+		assertEquals(2000, fired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void cancelledTimeoutsNeverFire() {
+		HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, 0);
+		HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 90_000);
+		wheel.schedule("kept", 90_000);
+		assertTrue(wheel.cancel(cancelled));
+
+		assertEquals(List.of("kept"), wheel.advanceTo(120_000));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void pastDeadlinesFireOnNextAdvance() {
+		HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 60, 10_000);
+		wheel.schedule("late", 5_000);
+		assertEquals(List.of("late"), wheel.advanceTo(10_000));
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.securacore.app.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BkTreeTests {
+
+	@Test
+	void findsExactlyTheTermsABruteForceScanFinds() {
+		Random random = new Random(7);
+		List<String> terms = new ArrayList<>();
+		BkTree<Integer> tree = new BkTree<>();
+		for (int i = 0; i < 3000; i++) {
+			StringBuilder term = new StringBuilder();
+			int length = 4 + random.nextInt(8);
+			for (int c = 0; c < length; c++) term.append((char) ('a' + random.nextInt(6)));
+			terms.add(term.toString());
+			tree.add(term.toString(), i);
+		}
+
+		for (String query : List.of("abcdef", "aaaa", "fedcbaab", terms.get(42))) {
+			for (int distance = 0; distance <= 2; distance++) {
+				final int d = distance;
+				long expected = terms.stream().filter(term -> BkTree.distance(query, term) <= d).count();
+				assertEquals(expected, tree.search(query, distance).size(), query + " within " + distance);
+			}
+		}
+	}
+
+}
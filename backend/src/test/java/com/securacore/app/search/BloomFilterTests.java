@@ -0,0 +1,22 @@
+package com.securacore.app.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+	@Test
+	void neverMissesAnAddedValueAndStaysNearItsFalsePositiveRate() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) filter.add("visitor-" + i);
+
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("visitor-" + i));
+			if (filter.mightContain("stranger-" + i)) falsePositives++;
+		}
+		assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.securacore.app.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FrequencyTrieTests {
+
+	private static final long DAY = 24L * 60 * 60 * 1000;
+
+	@Test
+	void ranksByDecayedFrequencyAndMatchesAnyWord() {
+		FrequencyTrie trie = new FrequencyTrie(16, 7 * DAY);
+		long now = 100 * DAY;
+		for (int day = 0; day < 10; day++) {
+			trie.record("Sunita Devi", "Maid", "Cleaning", now - day * DAY);
+		}
+		// Frequent long ago, so it decays below the regular visitor
+		for (int i = 0; i < 20; i++) {
+			trie.record("Suresh Kumar", "Driver", "Pickup", now - 60 * DAY);
+		}
+		trie.record("Suman", "Friend", "Visit", now);
+
+		List<FrequencyTrie.Suggestion> suggestions = trie.suggest("su", 5, now);
+		assertEquals(List.of("Sunita Devi", "Suman", "Suresh Kumar"), suggestions.stream().map(FrequencyTrie.Suggestion::name).toList());
+		assertEquals("Maid", suggestions.get(0).relation());
+		assertEquals(10, suggestions.get(0).visits());
+
+		assertEquals("Sunita Devi", trie.suggest("dev", 5, now).get(0).name());
+	}
+
+	@Test
+	void dropsTheLowestRankedNameWhenFull() {
+		FrequencyTrie trie = new FrequencyTrie(2, DAY);
+		trie.record("Asha", null, null, 0);
+		trie.record("Amit", null, null, 5 * DAY);
+		trie.record("Amit", null, null, 5 * DAY);
+		trie.record("Anil", null, null, 5 * DAY);
+
+		assertEquals(2, trie.size());
+		assertEquals(List.of("Amit", "Anil"), trie.suggest("a", 5, 5 * DAY).stream().map(FrequencyTrie.Suggestion::name).toList());
+	}
+
+}
@@ -0,0 +1,184 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ReadWriteRoutingDataSource;
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.entity.Resident;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.enums.VisitStatus;
+import com.securacore.app.repository.ResidentRepository;
+import com.securacore.app.repository.VisitorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class ApprovalEscalationServiceTests {
+
+	@Autowired
+	ApprovalEscalationService approvalEscalationService;
+
+	@Autowired
+	VisitExpiryService visitExpiryService;
+
+	@Autowired
+	ResidentService residentService;
+
+	@Autowired
+	VisitorRepository visitorRepository;
+
+	@Autowired
+	ResidentRepository residentRepository;
+
+	@Autowired
+	FlatRegistry flatRegistry;
+
+	@Autowired
+	ShardRoutingDataSource shardRoutingDataSource;
+
+	@MockitoSpyBean
+	GateNotificationService gateNotificationService;
+
+	// The test replica is empty; marking it as lagging sends the status reads to the primary
+	@BeforeEach
+	void routeReadsToPrimary() {
+		setReplicaLag(Long.MAX_VALUE);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		setReplicaLag(0);
+		TenantContext.clear();
+	}
+
+	@Test
+	void unansweredRequestIsEscalatedThroughEveryStageAndDeclined() throws InterruptedException {
+		TenantContext.bind("ashgrove");
+		Resident resident = new Resident();
+		resident.setName("Kavita");
+		resident.setEmail("kavita@ashgrove.test");
+		resident.setPassword("secret");
+		resident.setFlatNo("A-301");
+		resident.setFlatId(flatRegistry.resolve("A-301"));
+		resident.setContact("9000000050");
+		resident.setEmergencyContact("9000000051");
+		residentRepository.save(resident);
+		// Raised well past every timeout, so each stage is due on the next tick
+		Visitor visitor = saveRequest("Courier", "A-301", LocalDateTime.now().minusMinutes(10));
+		approvalEscalationService.requestCreated(visitor);
+
+		awaitStatus(visitor.getId(), VisitStatus.DECLINED, approvalEscalationService::tick);
+		int id = visitor.getId();
+		verify(gateNotificationService).notifyFlat(eq("ashgrove"),
+				argThat(notice -> notice.getVisitorId() == id && notice.getStage().equals("NOTIFY_FLAT")));
+		verify(gateNotificationService).notifyEmergencyContacts(
+				argThat(residents -> residents.size() == 1 && residents.get(0).getEmergencyContact().equals("9000000051")),
+				argThat(notice -> notice.getVisitorId() == id && notice.getStage().equals("EMERGENCY_CONTACT")));
+		verify(gateNotificationService).publishDecision(eq("ashgrove"),
+				argThat(decision -> decision.getVisitorId() == id && decision.isAutomatic()
+						&& decision.getStatus() == VisitStatus.DECLINED));
+	}
+
+	@Test
+	void answeredRequestIsNotEscalated() throws InterruptedException {
+		TenantContext.bind("ashgrove");
+		Visitor answered = saveRequest("Plumber", "A-302", LocalDateTime.now());
+		approvalEscalationService.requestCreated(answered);
+		assertEquals("Visit Approved", residentService.approveVisit(answered.getId()));
+
+		// Answered just as its deadline fell due: the tick finds it no longer pending
+		Visitor racing = saveRequest("Electrician", "A-302", LocalDateTime.now().minusMinutes(10));
+		residentService.approveVisit(racing.getId());
+		approvalEscalationService.requestCreated(racing);
+		for (int i = 0; i < 3; i++) {
+			onSchedulerThread(approvalEscalationService::tick);
+			Thread.sleep(500);
+		}
+
+		for (Visitor visitor : List.of(answered, racing)) {
+			int id = visitor.getId();
+			assertEquals(VisitStatus.APPROVED, visitorRepository.findById(id).orElseThrow().getStatus());
+			verify(gateNotificationService, never()).notifyFlat(any(), argThat(notice -> notice.getVisitorId() == id));
+		}
+		int id = answered.getId();
+		verify(gateNotificationService).publishDecision(eq("ashgrove"),
+				argThat(decision -> decision.getVisitorId() == id && !decision.isAutomatic()
+						&& decision.getStatus() == VisitStatus.APPROVED));
+	}
+
+	@Test
+	void passExpiryLeavesPendingAndDecidedVisitsToTheirOwners() throws InterruptedException {
+		TenantContext.bind("ashgrove");
+		LocalDate yesterday = LocalDate.now().minusDays(1);
+		Visitor unused = saveVisit("Tutor", "A-303", VisitStatus.APPROVED, yesterday, null);
+		Visitor declined = saveVisit("Salesman", "A-303", VisitStatus.DECLINED, yesterday, null);
+		Visitor inside = saveVisit("Nurse", "A-303", VisitStatus.APPROVED, yesterday, LocalDateTime.now().minusHours(1));
+
+		// A new gate request is the escalation's to settle; expiry registers nothing for it
+		int deadlines = visitExpiryService.pendingDeadlines();
+		approvalEscalationService.requestCreated(saveRequest("Painter", "A-303", LocalDateTime.now()));
+		assertEquals(deadlines, visitExpiryService.pendingDeadlines());
+
+		visitExpiryService.passIssued(declined);
+		visitExpiryService.passIssued(inside);
+		visitExpiryService.passIssued(unused);
+		awaitStatus(unused.getId(), VisitStatus.EXPIRED, visitExpiryService::tick);
+		assertEquals(VisitStatus.DECLINED, visitorRepository.findById(declined.getId()).orElseThrow().getStatus());
+		assertEquals(VisitStatus.APPROVED, visitorRepository.findById(inside.getId()).orElseThrow().getStatus());
+	}
+
+	private void awaitStatus(int id, VisitStatus status, Runnable tick) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (visitorRepository.findById(id).orElseThrow().getStatus() != status) {
+			assertTrue(System.currentTimeMillis() < deadline, "visit did not become " + status);
+			onSchedulerThread(tick);
+			Thread.sleep(50);
+		}
+	}
+
+	// A tick binds each society in turn and clears the binding, as on the scheduler's own thread
+	private static void onSchedulerThread(Runnable tick) throws InterruptedException {
+		Thread thread = new Thread(tick);
+		thread.start();
+		thread.join();
+	}
+
+	private Visitor saveRequest(String name, String flatNo, LocalDateTime raisedAt) {
+		return saveVisit(name, flatNo, VisitStatus.PENDING, LocalDate.now(), raisedAt);
+	}
+
+	private Visitor saveVisit(String name, String flatNo, VisitStatus status, LocalDate date, LocalDateTime checkInTime) {
+		Visitor visitor = new Visitor();
+		visitor.setName(name);
+		visitor.setContact("9000000052");
+		visitor.setFlatNo(flatNo);
+		visitor.setFlatId(flatRegistry.resolve(flatNo));
+		visitor.setVisitDate(date);
+		visitor.setStatus(status);
+		visitor.setCheckInTime(checkInTime);
+		return visitorRepository.save(visitor);
+	}
+
+	private void setReplicaLag(long lagMillis) {
+		for (ReadWriteRoutingDataSource shard : shardRoutingDataSource.getShards()) {
+			for (ReadWriteRoutingDataSource.ReplicaTarget replica : shard.getReplicas()) {
+				replica.setLagMillis(lagMillis);
+			}
+		}
+	}
+}
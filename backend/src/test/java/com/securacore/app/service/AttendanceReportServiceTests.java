@@ -0,0 +1,75 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.guard.CreateGuardDTO;
+import com.securacore.app.entity.Guard;
+import com.securacore.app.enums.Shift;
+import com.securacore.app.repository.GuardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AttendanceReportServiceTests {
+
+	@Autowired
+	AttendanceReportService attendanceReportService;
+
+	@Autowired
+	GuardService guardService;
+
+	@Autowired
+	GuardRepository guardRepository;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void reportsOneRowPerGuardAndMonth() {
+		TenantContext.bind("hillcrest");
+		CreateGuardDTO request = new CreateGuardDTO();
+		request.setName("Suresh");
+		request.setEmail("suresh@example.com");
+		request.setPassword("secret");
+		request.setContact("9000000002");
+		request.setShift(Shift.DAY);
+		guardService.addGuard(request);
+		Guard guard = guardRepository.findAll().get(0);
+		guardService.guardCheckIn(guard.getId());
+		guardService.guardCheckOut(guard.getId());
+
+		// The test replica is empty; an outer read-write transaction keeps the report on the primary
+		StringWriter csv = new StringWriter();
+		LocalDate today = LocalDate.now();
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			try {
+				attendanceReportService.writeAttendanceCsv(today.minusDays(1), today, csv);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+
+		String[] lines = csv.toString().split("\n");
+		assertEquals(2, lines.length);
+		assertTrue(lines[0].startsWith("society,guard_id,guard_name"));
+		assertTrue(lines[1].startsWith("hillcrest," + guard.getId() + ",Suresh,DAY,"));
+		assertTrue(lines[1].contains(",1,0.00,"));
+	}
+
+}
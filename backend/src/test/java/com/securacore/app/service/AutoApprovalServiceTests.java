@@ -0,0 +1,59 @@
+package com.securacore.app.service;
+
+import com.securacore.app.entity.ApprovalRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AutoApprovalServiceTests {
+
+	// 2026-10-19 is a Monday
+	private static final LocalDateTime MONDAY_MORNING = LocalDateTime.of(2026, 10, 19, 7, 30);
+
+	private static boolean matches(ApprovalRule rule, String name, String contact, String relation, String purpose, LocalDateTime at) {
+		return AutoApprovalService.compile(rule).matches(AutoApprovalService.normaliseText(name),
+				AutoApprovalService.normaliseContact(contact), AutoApprovalService.normaliseText(relation),
+				AutoApprovalService.normaliseText(purpose), at);
+	}
+
+	@Test
+	void matchesOnNormalisedNameAndContact() {
+		ApprovalRule rule = new ApprovalRule();
+		rule.setVisitorName("Sunita  Devi");
+		rule.setContact("+91 98765-43210");
+
+		assertTrue(matches(rule, " sunita devi", "9876543210", "Maid", "Cleaning", MONDAY_MORNING));
+		assertFalse(matches(rule, "Sunita Devi", "9876500000", "Maid", "Cleaning", MONDAY_MORNING));
+		assertFalse(matches(rule, "Anita Devi", "9876543210", "Maid", "Cleaning", MONDAY_MORNING));
+	}
+
+	@Test
+	void respectsWeekdaysAndWindowsAcrossMidnight() {
+		ApprovalRule rule = new ApprovalRule();
+		rule.setVisitorName("Ravi");
+		rule.setRelation("driver");
+		rule.setWindowStart(LocalTime.of(22, 0));
+		rule.setWindowEnd(LocalTime.of(8, 0));
+		rule.setWeekdays(0b0011111);
+
+		assertTrue(matches(rule, "Ravi", null, "Driver", null, MONDAY_MORNING));
+		assertTrue(matches(rule, "Ravi", null, "Driver", null, MONDAY_MORNING.withHour(23)));
+		assertFalse(matches(rule, "Ravi", null, "Driver", null, MONDAY_MORNING.withHour(12)));
+		assertFalse(matches(rule, "Ravi", null, "Driver", null, MONDAY_MORNING.plusDays(5)));
+		assertFalse(matches(rule, "Ravi", null, "Family", null, MONDAY_MORNING));
+		assertFalse(matches(rule, "Suresh", null, "Driver", null, MONDAY_MORNING));
+	}
+
+	@Test
+	void ruleThatNamesNoVisitorMatchesNobody() {
+		ApprovalRule rule = new ApprovalRule();
+		rule.setRelation("driver");
+
+		assertFalse(matches(rule, "Ravi", "9876543210", "Driver", null, MONDAY_MORNING));
+	}
+
+}
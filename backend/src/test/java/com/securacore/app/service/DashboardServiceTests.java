@@ -0,0 +1,89 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ReadWriteRoutingDataSource;
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Dashboard.DashboardDTO;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.enums.VisitStatus;
+import com.securacore.app.repository.VisitorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class DashboardServiceTests {
+
+	@Autowired
+	DashboardService dashboardService;
+
+	@Autowired
+	VisitorRepository visitorRepository;
+
+	@Autowired
+	FlatRegistry flatRegistry;
+
+	@Autowired
+	ShardRoutingDataSource shardRoutingDataSource;
+
+	// The test replica is empty; marking it as lagging sends the counts to the primary
+	@BeforeEach
+	void routeReadsToPrimary() {
+		setReplicaLag(Long.MAX_VALUE);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		setReplicaLag(0);
+		TenantContext.clear();
+	}
+
+	@Test
+	void countsTodayAndLeavesOutSectionsThatMissTheDeadline() {
+		TenantContext.bind("larkspur");
+		Visitor visitor = new Visitor();
+		visitor.setName("Electrician");
+		visitor.setContact("9000000101");
+		visitor.setFlatNo("L-101");
+		visitor.setFlatId(flatRegistry.resolve("L-101"));
+		visitor.setVisitDate(LocalDate.now());
+		visitor.setStatus(VisitStatus.PENDING);
+		visitorRepository.save(visitor);
+
+		DashboardDTO dashboard = dashboardService.dashboard();
+		assertEquals(List.of(), dashboard.getUnavailable());
+		assertEquals(1L, dashboard.getVisitorsToday().get("PENDING"));
+		assertNotNull(dashboard.getResidents());
+
+		Duration timeout = dashboardService.timeout;
+		dashboardService.timeout = Duration.ZERO;
+		try {
+			dashboard = dashboardService.dashboard();
+		} finally {
+			dashboardService.timeout = timeout;
+		}
+		// Whatever had not answered yet is named instead of counted; the in-memory parts are always there
+		assertEquals(dashboard.getUnavailable().contains("visitorsToday"), dashboard.getVisitorsToday() == null);
+		assertEquals(dashboard.getUnavailable().contains("residents"), dashboard.getResidents() == null);
+		assertTrue(dashboard.getUnavailable().size() <= 5);
+		assertNotNull(dashboard.getGeneratedAt());
+	}
+
+	private void setReplicaLag(long lagMillis) {
+		for (ReadWriteRoutingDataSource shard : shardRoutingDataSource.getShards()) {
+			for (ReadWriteRoutingDataSource.ReplicaTarget replica : shard.getReplicas()) {
+				replica.setLagMillis(lagMillis);
+			}
+		}
+	}
+}
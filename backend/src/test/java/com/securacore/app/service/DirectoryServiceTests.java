@@ -0,0 +1,102 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ReadWriteRoutingDataSource;
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Directory.DirectoryPageDTO;
+import com.securacore.app.entity.Resident;
+import com.securacore.app.repository.ResidentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class DirectoryServiceTests {
+
+	@Autowired
+	DirectoryService directoryService;
+
+	@Autowired
+	ResidentRepository residentRepository;
+
+	@Autowired
+	ShardRoutingDataSource shardRoutingDataSource;
+
+	// The test replica is empty; marking it as lagging sends the listing to the primary
+	@BeforeEach
+	void routeReadsToPrimary() {
+		setReplicaLag(Long.MAX_VALUE);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		setReplicaLag(0);
+		TenantContext.clear();
+	}
+
+	@Test
+	void walksPagesInSortOrderWithOnlyTheRequestedFields() {
+		TenantContext.bind("hawthorn");
+		saveResident("Dev", "H-104", true);
+		saveResident("Asha", "H-101", true);
+		saveResident("Chitra", "H-103", false);
+		saveResident("Bala", "H-102", true);
+		saveResident("Esha", "H-105", true);
+
+		PageRequest pageable = PageRequest.of(0, 2, Sort.by("name"));
+		List<Object> names = new ArrayList<>();
+		String after = null;
+		int pages = 0;
+		do {
+			DirectoryPageDTO page = directoryService.residents(true, "name,flatNo", pageable, after);
+			for (Map<String, Object> item : page.getItems()) {
+				assertEquals(Set.of("id", "name", "flatNo"), item.keySet());
+				names.add(item.get("name"));
+			}
+			assertEquals(4, page.getApproximateTotal());
+			after = page.getNext();
+			pages++;
+		} while (after != null);
+		assertEquals(List.of("Asha", "Bala", "Dev", "Esha"), names);
+		assertEquals(2, pages);
+
+		DirectoryPageDTO descending = directoryService.residents(null, "name", PageRequest.of(0, 2, Sort.by("name").descending()), null);
+		assertEquals("Esha", descending.getItems().get(0).get("name"));
+		assertEquals(5, descending.getApproximateTotal());
+
+		assertNull(directoryService.residents(null, "password", pageable, null));
+		assertNull(directoryService.residents(null, null, PageRequest.of(0, 2, Sort.by("contact")), null));
+		assertNull(directoryService.residents(null, null, pageable, descending.getNext()));
+	}
+
+	private void saveResident(String name, String flatNo, boolean status) {
+		Resident resident = new Resident();
+		resident.setName(name);
+		resident.setEmail(name.toLowerCase() + "@hawthorn.test");
+		resident.setPassword("secret");
+		resident.setFlatNo(flatNo);
+		resident.setContact("9000000" + flatNo.substring(2));
+		resident.setStatus(status);
+		residentRepository.save(resident);
+	}
+
+	private void setReplicaLag(long lagMillis) {
+		for (ReadWriteRoutingDataSource shard : shardRoutingDataSource.getShards()) {
+			for (ReadWriteRoutingDataSource.ReplicaTarget replica : shard.getReplicas()) {
+				replica.setLagMillis(lagMillis);
+			}
+		}
+	}
+}
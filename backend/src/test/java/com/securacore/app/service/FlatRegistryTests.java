@@ -0,0 +1,31 @@
+package com.securacore.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FlatRegistryTests {
+
+	@Test
+	void spellingsOfTheSameFlatShareOneCode() {
+		assertEquals("A-101", FlatRegistry.canonicalCode("A-101"));
+		assertEquals("A-101", FlatRegistry.canonicalCode("a101"));
+		assertEquals("A-101", FlatRegistry.canonicalCode(" Tower A / 101 "));
+		assertEquals("A-101", FlatRegistry.canonicalCode("a 101"));
+		assertEquals("2-1204", FlatRegistry.canonicalCode("2/1204"));
+	}
+
+	@Test
+	void splitsTowerFloorAndUnit() {
+		FlatRegistry.FlatCode flat = FlatRegistry.parse("B-1204");
+		assertEquals("B", flat.tower());
+		assertEquals(12, flat.floor());
+		assertEquals("1204", flat.unit());
+
+		FlatRegistry.FlatCode villa = FlatRegistry.parse("Villa 7");
+		assertEquals("VILLA-7", villa.code());
+		assertNull(villa.tower());
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.guard.CreateGuardDTO;
+import com.securacore.app.entity.Guard;
+import com.securacore.app.entity.GuardAttendance;
+import com.securacore.app.enums.Shift;
+import com.securacore.app.repository.GuardAttendanceRepository;
+import com.securacore.app.repository.GuardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class GuardAttendanceTests {
+
+	@Autowired
+	GuardService guardService;
+
+	@Autowired
+	GuardRepository guardRepository;
+
+	@Autowired
+	GuardAttendanceRepository guardAttendanceRepository;
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void repeatedTapsRecordOneNightShiftSession() {
+		TenantContext.bind("riverside");
+		CreateGuardDTO request = new CreateGuardDTO();
+		request.setName("Ramesh");
+		request.setEmail("ramesh@example.com");
+		request.setPassword("secret");
+		request.setContact("9000000001");
+		request.setShift(Shift.NIGHT);
+		guardService.addGuard(request);
+		Guard guard = guardRepository.findAll().get(0);
+
+		// Taps either side of midnight belong to the session that started in the evening
+		LocalDateTime evening = LocalDateTime.of(2026, 3, 10, 21, 0);
+		assertEquals("Guard Checked In", guardService.guardCheckIn(guard.getId(), evening));
+		assertEquals("Guard Checked In", guardService.guardCheckIn(guard.getId(), evening.plusHours(9)));
+		assertEquals("Guard Checked Out", guardService.guardCheckOut(guard.getId(), evening.plusHours(10)));
+		assertEquals("Guard Not Found", guardService.guardCheckIn(guard.getId() + 1000, evening));
+
+		List<GuardAttendance> sessions = guardAttendanceRepository.findAll();
+		assertEquals(1, sessions.size());
+		GuardAttendance session = sessions.get(0);
+		assertEquals(Shift.NIGHT, session.getShift());
+		assertEquals(LocalDate.of(2026, 3, 10), session.getAttendanceDate());
+		assertEquals(evening, session.getCheckInTime());
+		assertEquals(evening.plusHours(10), session.getCheckOutTime());
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Import.ImportReportDTO;
+import com.securacore.app.entity.Resident;
+import com.securacore.app.repository.ResidentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ImportServiceTests {
+
+	@Autowired
+	ImportService importService;
+
+	@Autowired
+	ResidentRepository residentRepository;
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void importsValidRowsAndReportsTheRest() {
+		TenantContext.bind("greenfield");
+		String csv = "Name,Email,Password,Flat_No,Contact,Emergency_Contact\r\n"
+				+ "\"Rao, Anita\",anita@example.com,secret,a 101,9000000010,\r\n"
+				+ "Anita Again,ANITA@example.com,secret,A-102,9000000011,\r\n"
+				+ "Vikram,not-an-email,secret,A-103,9000000012,\r\n"
+				+ "Meera,meera@example.com,secret,B/204,9000000013,9000000099\r\n";
+
+		ImportReportDTO report = importService.importResidents(
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "text/csv");
+
+		assertEquals(2, report.getImported());
+		assertEquals(1, report.getDuplicates());
+		assertEquals(1, report.getFailed());
+		assertEquals(3, report.getErrors().get(0).getLine());
+		assertEquals(4, report.getErrors().get(1).getLine());
+
+		List<Resident> residents = residentRepository.findAll();
+		assertEquals(2, residents.size());
+		assertTrue(residents.stream().anyMatch(r -> r.getName().equals("Rao, Anita") && r.getFlatNo().equals("A-101")));
+	}
+
+	@Test
+	void importsJsonLines() {
+		TenantContext.bind("greenfield-north");
+		String lines = "{\"name\":\"Kiran\",\"email\":\"kiran@example.com\",\"password\":\"secret\",\"flatNo\":\"C-301\",\"contact\":\"9000000020\"}\n"
+				+ "not json\n";
+
+		ImportReportDTO report = importService.importResidents(
+				new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)), "application/x-ndjson");
+
+		assertEquals(1, report.getImported());
+		assertEquals(1, report.getFailed());
+		assertEquals(2, report.getErrors().get(0).getLine());
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Occupancy.PresentVisitorDTO;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.enums.VisitStatus;
+import com.securacore.app.repository.VisitorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OccupancyServiceTests {
+
+	@Autowired
+	OccupancyService occupancyService;
+
+	@Autowired
+	GuardService guardService;
+
+	@Autowired
+	ResidentService residentService;
+
+	@Autowired
+	VisitorRepository visitorRepository;
+
+	@Autowired
+	FlatRegistry flatRegistry;
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void countsCheckInsUntilCheckoutAndOnlyOnce() {
+		TenantContext.bind("maplewood");
+		Visitor first = saveApprovedVisit("Plumber", "M-101");
+		Visitor second = saveApprovedVisit("Courier", "M-102");
+
+		assertEquals("Visitor checked in successfully", guardService.checkinVisitor(first.getId()));
+		assertEquals("Visitor checked in successfully", guardService.checkinVisitor(second.getId()));
+		// Validating a pass that is already inside does not count it again
+		assertTrue(guardService.validateVisit(first.getId()));
+		assertEquals(2, occupancyService.snapshot().getTotal());
+		assertEquals(2L, occupancyService.snapshot().getByTower().get("M"));
+		assertEquals(1, occupancyService.flatCount("m 101"));
+
+		assertEquals("Visitor checked out successfully", residentService.checkoutVisit(first.getId()));
+		assertEquals("Visitor already checked out", residentService.checkoutVisit(first.getId()));
+		// Nor does scanning the pass again once the visit is closed
+		assertFalse(guardService.validateVisit(first.getId()));
+		// A repeated exit event for the same visit is ignored as well
+		occupancyService.visitorLeft(visitorRepository.findById(first.getId()).orElseThrow());
+		assertEquals(1, occupancyService.snapshot().getTotal());
+		assertEquals(0, occupancyService.flatCount("M-101"));
+
+		residentService.checkoutVisit(second.getId());
+		assertEquals(0, occupancyService.snapshot().getTotal());
+		assertTrue(occupancyService.snapshot().getByTower().isEmpty());
+	}
+
+	@Test
+	void overstayIsListedWhileInsideAndClearedOnCheckout() {
+		TenantContext.bind("birchgrove");
+		Visitor inside = saveApprovedVisit("Electrician", "B-201");
+		Visitor gone = saveApprovedVisit("Carpenter", "B-202");
+		guardService.checkinVisitor(inside.getId());
+
+		occupancyService.markOverstay("birchgrove", OccupancyService.SOURCE_VISITOR, inside.getId());
+		// A visitor who is not inside cannot overstay
+		occupancyService.markOverstay("birchgrove", OccupancyService.SOURCE_VISITOR, gone.getId());
+		List<PresentVisitorDTO> overstays = occupancyService.overstays();
+		assertEquals(1, overstays.size());
+		assertEquals(inside.getId(), overstays.get(0).getId());
+
+		// Other societies do not see it
+		TenantContext.bind("maplewood");
+		assertTrue(occupancyService.overstays().isEmpty());
+
+		TenantContext.bind("birchgrove");
+		residentService.checkoutVisit(inside.getId());
+		assertTrue(occupancyService.overstays().isEmpty());
+	}
+
+	@Test
+	void csvFieldsCannotStartAFormula() {
+		assertEquals("\"'=HYPERLINK(\"\"http://x\"\")\"", OccupancyService.csvField("=HYPERLINK(\"http://x\")"));
+		assertEquals("\"'=SUM(A1,A2)\"", OccupancyService.csvField("=SUM(A1,A2)"));
+		assertEquals("'+91 98450 12345", OccupancyService.csvField("+91 98450 12345"));
+		assertEquals("'-2", OccupancyService.csvField("-2"));
+		assertEquals("'@cmd", OccupancyService.csvField("@cmd"));
+		assertEquals("\"Sharma, Ravi\"", OccupancyService.csvField("Sharma, Ravi"));
+		assertEquals("Ravi-Kumar", OccupancyService.csvField("Ravi-Kumar"));
+	}
+
+	private Visitor saveApprovedVisit(String name, String flatNo) {
+		Visitor visitor = new Visitor();
+		visitor.setName(name);
+		visitor.setContact("9000000040");
+		visitor.setFlatNo(flatNo);
+		visitor.setFlatId(flatRegistry.resolve(flatNo));
+		visitor.setVisitDate(LocalDate.now());
+		visitor.setStatus(VisitStatus.APPROVED);
+		return visitorRepository.save(visitor);
+	}
+}
@@ -0,0 +1,70 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Parcel.ParcelDTO;
+import com.securacore.app.dto.Parcel.ParcelDropDTO;
+import com.securacore.app.dto.Parcel.ParcelPickupDTO;
+import com.securacore.app.entity.Parcel;
+import com.securacore.app.enums.ParcelStatus;
+import com.securacore.app.repository.ParcelRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ParcelServiceTests {
+
+	@Autowired
+	ParcelService parcelService;
+
+	@Autowired
+	ParcelRepository parcelRepository;
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void logsADropAndReleasesAFlatsParcelsOnlyForItsCode() {
+		TenantContext.bind("lakeview");
+		ParcelDropDTO drop = new ParcelDropDTO();
+		drop.setCourier("BlueDart");
+		drop.setParcels(List.of(parcel("C-301", "BD1"), parcel("c 301", "BD2"), parcel("C-302", "BD3")));
+		assertEquals("3 Parcels Logged for 2 Flats", parcelService.logDrop(drop));
+		assertEquals(2, parcelService.pendingCount("C-301"));
+		assertEquals(1, parcelService.pendingCount("C-302"));
+
+		String otp = parcelRepository.findAll().stream()
+				.filter(parcel -> "C-301".equals(parcel.getFlatNo()))
+				.map(Parcel::getOtp)
+				.findFirst().orElseThrow();
+		String wrong = otp.equals("000000") ? "111111" : "000000";
+		assertEquals("Invalid Code", parcelService.pickup(pickup("C-301", wrong)));
+		assertEquals("2 Parcels Collected", parcelService.pickup(pickup("C-301", otp)));
+		assertEquals(0, parcelService.pendingCount("C-301"));
+		assertEquals(1, parcelService.pendingCount("C-302"));
+		assertEquals(2, parcelRepository.findAll().stream().filter(parcel -> parcel.getStatus() == ParcelStatus.COLLECTED).count());
+	}
+
+	private static ParcelDTO parcel(String flatNo, String trackingNo) {
+		ParcelDTO parcel = new ParcelDTO();
+		parcel.setFlatNo(flatNo);
+		parcel.setTrackingNo(trackingNo);
+		return parcel;
+	}
+
+	private static ParcelPickupDTO pickup(String flatNo, String otp) {
+		ParcelPickupDTO pickup = new ParcelPickupDTO();
+		pickup.setFlatNo(flatNo);
+		pickup.setOtp(otp);
+		pickup.setCollectedBy("Resident");
+		return pickup;
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.entity.RecurringVisit;
+import com.securacore.app.enums.Recurrence;
+import com.securacore.app.repository.RecurringVisitRepository;
+import com.securacore.app.repository.VisitorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RecurringVisitServiceTests {
+
+	@Autowired
+	RecurringVisitService recurringVisitService;
+
+	@Autowired
+	RecurringVisitRepository recurringVisitRepository;
+
+	@Autowired
+	VisitorRepository visitorRepository;
+
+	@Autowired
+	FlatRegistry flatRegistry;
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	// 2026-10-20 is a Tuesday
+	private static final LocalDate TUESDAY = LocalDate.of(2026, 10, 20);
+
+	@Test
+	void everyOtherTuesdayFromTheStartWeek() {
+		RecurringVisit schedule = new RecurringVisit();
+		schedule.setFrequency(Recurrence.WEEKLY);
+		schedule.setInterval(2);
+		schedule.setStartDate(TUESDAY.minusDays(1));
+		schedule.setWeekdays(0b0000010);
+
+		assertTrue(RecurringVisitService.occursOn(schedule, TUESDAY));
+		assertFalse(RecurringVisitService.occursOn(schedule, TUESDAY.plusDays(1)));
+		assertFalse(RecurringVisitService.occursOn(schedule, TUESDAY.plusWeeks(1)));
+		assertTrue(RecurringVisitService.occursOn(schedule, TUESDAY.plusWeeks(2)));
+		assertFalse(RecurringVisitService.occursOn(schedule, TUESDAY.minusWeeks(2)));
+	}
+
+	@Test
+	void dailyStopsAfterTheEndDate() {
+		RecurringVisit schedule = new RecurringVisit();
+		schedule.setFrequency(Recurrence.DAILY);
+		schedule.setStartDate(TUESDAY);
+		schedule.setEndDate(TUESDAY.plusDays(3));
+
+		assertTrue(RecurringVisitService.occursOn(schedule, TUESDAY.plusDays(3)));
+		assertFalse(RecurringVisitService.occursOn(schedule, TUESDAY.plusDays(4)));
+	}
+
+	@Test
+	void concurrentCheckInsMaterialiseOneVisit() throws Exception {
+		TenantContext.bind("maplewood");
+		RecurringVisit schedule = new RecurringVisit();
+		schedule.setFlatId(flatRegistry.resolve("C-204"));
+		schedule.setFlatNo("C-204");
+		schedule.setName("Sunita");
+		schedule.setFrequency(Recurrence.DAILY);
+		schedule.setStartDate(LocalDate.now());
+		schedule.setActive(true);
+		schedule.setCreatedAt(LocalDateTime.now());
+		int id = recurringVisitRepository.save(schedule).getId();
+
+		int guards = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(guards);
+		List<Future<String>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < guards; i++) {
+				results.add(executor.submit(() -> {
+					TenantContext.bind("maplewood");
+					try {
+						start.await();
+						return recurringVisitService.checkinRecurringVisit(id);
+					} finally {
+						TenantContext.clear();
+					}
+				}));
+			}
+			start.countDown();
+			int checkedIn = 0;
+			for (Future<String> result : results) {
+				if (result.get().equals("Visitor checked in successfully")) checkedIn++;
+			}
+			assertEquals(1, checkedIn);
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(1, visitorRepository.findAllByRecurringVisitIdAndVisitDate(id, LocalDate.now()).size());
+	}
+}
@@ -0,0 +1,145 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ReadWriteRoutingDataSource;
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Report.ReportJobDTO;
+import com.securacore.app.dto.Report.ReportJobRequestDTO;
+import com.securacore.app.enums.ReportJobStatus;
+import com.securacore.app.enums.ReportType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "securacore.jobs.dir=target/test-reports")
+class ReportJobServiceTests {
+
+	@Autowired
+	ReportJobService reportJobService;
+
+	@Autowired
+	ReportChangeTracker reportChangeTracker;
+
+	@Autowired
+	ShardRoutingDataSource shardRoutingDataSource;
+
+	// The test replica is empty; marking it as lagging sends the jobs' read-only queries to the primary
+	@BeforeEach
+	void routeReadsToPrimary() {
+		setReplicaLag(Long.MAX_VALUE);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		setReplicaLag(0);
+		TenantContext.clear();
+	}
+
+	@Test
+	void reusesTheResultUntilADateInItsRangeChanges() throws Exception {
+		TenantContext.bind("larchwood");
+		LocalDate today = LocalDate.now();
+		ReportJobRequestDTO request = request(today);
+
+		ReportJobDTO first = awaitFinished(reportJobService.submit(request));
+		assertEquals(ReportJobStatus.DONE, first.getStatus(), first.getError());
+		assertFalse(first.isCached());
+		assertEquals(1L, first.getRows());
+		Path result = reportJobService.result(first.getId());
+		assertNotNull(result);
+		assertTrue(Files.readString(result).startsWith("society,guard_id,"));
+
+		ReportJobDTO repeat = reportJobService.submit(request);
+		assertEquals(ReportJobStatus.DONE, repeat.getStatus());
+		assertTrue(repeat.isCached());
+
+		// A change outside the range leaves the result current, one inside it does not
+		reportChangeTracker.changed(ReportChangeTracker.Dataset.ATTENDANCE, "larchwood", today.plusDays(3));
+		assertTrue(reportJobService.submit(request).isCached());
+		Thread.sleep(5);
+		reportChangeTracker.changed(ReportChangeTracker.Dataset.ATTENDANCE, "larchwood", today);
+		ReportJobDTO rerun = awaitFinished(reportJobService.submit(request));
+		assertEquals(ReportJobStatus.DONE, rerun.getStatus());
+		assertFalse(rerun.isCached());
+
+		// Jobs are only visible within their own society
+		TenantContext.bind("elmwood");
+		assertNull(reportJobService.status(first.getId()));
+		assertNull(reportJobService.result(first.getId()));
+	}
+
+	@Test
+	void resultAcrossAllSocietiesGoesStaleWhenAnySocietyChanges() throws Exception {
+		TenantContext.bind(TenantContext.ROOT);
+		LocalDate day = LocalDate.now().minusDays(40);
+		ReportJobRequestDTO request = request(day);
+
+		ReportJobDTO first = awaitFinished(reportJobService.submit(request));
+		assertEquals(ReportJobStatus.DONE, first.getStatus(), first.getError());
+		assertTrue(reportJobService.submit(request).isCached());
+
+		Thread.sleep(5);
+		reportChangeTracker.changed(ReportChangeTracker.Dataset.ATTENDANCE, "rowanwood", day);
+		assertFalse(awaitFinished(reportJobService.submit(request)).isCached());
+	}
+
+	@Test
+	void cancelledJobStaysCancelledWhenItsWorkerReturns() throws Exception {
+		TenantContext.bind("sprucewood");
+		ReportJobRequestDTO request = request(LocalDate.now());
+		request.setFrom(LocalDate.now().minusYears(1));
+		for (int attempt = 0; attempt < 5; attempt++) {
+			ReportJobDTO job = reportJobService.submit(request);
+			// Whether it was queued or already running, an accepted cancel is final
+			if (reportJobService.cancel(job.getId()).equals("Job Cancelled")) {
+				assertEquals(ReportJobStatus.CANCELLED, awaitFinished(job).getStatus());
+				assertNull(reportJobService.result(job.getId()));
+			}
+		}
+	}
+
+	@Test
+	void rejectsAnInvertedRange() {
+		ReportJobRequestDTO request = request(LocalDate.now());
+		request.setFrom(LocalDate.now().plusDays(1));
+		assertEquals("To date is before from date", reportJobService.validate(request));
+	}
+
+	private ReportJobDTO awaitFinished(ReportJobDTO job) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (job.getStatus() == ReportJobStatus.QUEUED || job.getStatus() == ReportJobStatus.RUNNING) {
+			assertTrue(System.currentTimeMillis() < deadline, "job did not finish");
+			Thread.sleep(20);
+			job = reportJobService.status(job.getId());
+		}
+		return job;
+	}
+
+	private static ReportJobRequestDTO request(LocalDate date) {
+		ReportJobRequestDTO request = new ReportJobRequestDTO();
+		request.setType(ReportType.ATTENDANCE);
+		request.setFrom(date);
+		request.setTo(date);
+		return request;
+	}
+
+	private void setReplicaLag(long lagMillis) {
+		for (ReadWriteRoutingDataSource shard : shardRoutingDataSource.getShards()) {
+			for (ReadWriteRoutingDataSource.ReplicaTarget replica : shard.getReplicas()) {
+				replica.setLagMillis(lagMillis);
+			}
+		}
+	}
+}
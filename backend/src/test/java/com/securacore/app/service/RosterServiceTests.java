@@ -0,0 +1,99 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Roster.DutyPostDTO;
+import com.securacore.app.dto.Roster.GuardPostDTO;
+import com.securacore.app.dto.Roster.RosterAssignmentDTO;
+import com.securacore.app.dto.guard.CreateGuardDTO;
+import com.securacore.app.entity.Guard;
+import com.securacore.app.enums.Shift;
+import com.securacore.app.repository.GuardPostRepository;
+import com.securacore.app.repository.GuardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RosterServiceTests {
+
+	@Autowired
+	RosterService rosterService;
+
+	@Autowired
+	GuardService guardService;
+
+	@Autowired
+	GuardRepository guardRepository;
+
+	@Autowired
+	GuardPostRepository guardPostRepository;
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void postIsUncoveredUntilTheRosteredGuardChecksIn() {
+		TenantContext.bind("lakeview");
+		CreateGuardDTO request = new CreateGuardDTO();
+		request.setName("Mahesh");
+		request.setEmail("mahesh@example.com");
+		request.setPassword("secret");
+		request.setContact("9000000003");
+		request.setShift(Shift.DAY);
+		guardService.addGuard(request);
+		Guard guard = guardRepository.findAll().get(0);
+
+		GuardPostDTO post = new GuardPostDTO();
+		post.setName("Main Gate Booth");
+		post.setGate("MAIN");
+		assertEquals("Post Added", rosterService.addPost(post));
+		int postId = guardPostRepository.findAll().get(0).getId();
+
+		// A shift that started well past the grace period is judged as soon as it is rostered
+		LocalTime now = LocalTime.now();
+		RosterAssignmentDTO assignment = new RosterAssignmentDTO();
+		assignment.setPostId(postId);
+		assignment.setGuardId(guard.getId());
+		assignment.setStartTime(now.minusHours(1));
+		assignment.setEndTime(now.plusHours(1));
+		assignment.setRotationStart(LocalDate.now().minusDays(1));
+		assertEquals("Roster Assignment Added", rosterService.addAssignment(assignment));
+
+		List<DutyPostDTO> board = rosterService.dutyBoard();
+		assertEquals(1, board.size());
+		assertTrue(board.get(0).isUncovered());
+		assertEquals(1, rosterService.missingGuards().size());
+
+		guardService.guardCheckIn(guard.getId());
+		assertFalse(rosterService.dutyBoard().get(0).isUncovered());
+		assertTrue(rosterService.missingGuards().isEmpty());
+
+		guardService.guardCheckOut(guard.getId());
+		assertTrue(rosterService.dutyBoard().get(0).isUncovered());
+	}
+
+	@Test
+	void rosterEnteredInAdvanceStartsOnItsRotationStart() {
+		LocalDateTime now = LocalDateTime.of(2026, 3, 2, 12, 0);
+		LocalDate rotationStart = LocalDate.of(2026, 3, 20);
+		RosterService.Assignment rotating = new RosterService.Assignment(1, 1, 1, "Mahesh",
+				LocalTime.of(22, 0), LocalTime.of(6, 0), rotationStart, 4, 2);
+		assertEquals(rotationStart.atTime(22, 0), RosterService.nextShiftStart(rotating, now));
+
+		RosterService.Assignment daily = new RosterService.Assignment(2, 1, 1, "Mahesh",
+				LocalTime.of(9, 0), LocalTime.of(17, 0), rotationStart, 1, 0);
+		assertEquals(rotationStart.atTime(9, 0), RosterService.nextShiftStart(daily, now));
+	}
+}
@@ -0,0 +1,100 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Resident.CreateResidentDTO;
+import com.securacore.app.dto.Vehicle.PlateClassificationDTO;
+import com.securacore.app.dto.Vehicle.PlateReadDTO;
+import com.securacore.app.dto.Vehicle.VehicleDTO;
+import com.securacore.app.entity.Resident;
+import com.securacore.app.enums.VehicleClass;
+import com.securacore.app.repository.ResidentRepository;
+import com.securacore.app.repository.VehicleEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class VehicleServiceTests {
+
+	@Autowired
+	VehicleService vehicleService;
+
+	@Autowired
+	ResidentService residentService;
+
+	@Autowired
+	ResidentRepository residentRepository;
+
+	@Autowired
+	VehicleEntryRepository vehicleEntryRepository;
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void classifiesReadsAndLogsRepeatedReadsOnce() {
+		TenantContext.bind("parkside");
+		CreateResidentDTO resident = new CreateResidentDTO();
+		resident.setName("Meera");
+		resident.setEmail("meera@example.com");
+		resident.setPassword("secret");
+		resident.setContact("9876543210");
+		resident.setFlatNo("B-204");
+		residentService.addResident(resident);
+		Resident saved = residentRepository.findAll().get(0);
+
+		VehicleDTO vehicle = new VehicleDTO();
+		vehicle.setResidentId(saved.getId());
+		vehicle.setPlate("mh 12 ab 1234");
+		assertEquals("Vehicle Registered", vehicleService.registerVehicle(vehicle));
+
+		List<PlateClassificationDTO> classified = vehicleService.ingest(List.of(
+				read("MH12AB1234"), read("MH-12-AB-1234"), read("KA01ZZ9999")));
+		assertEquals(VehicleClass.RESIDENT, classified.get(0).getClassification());
+		assertEquals("B-204", classified.get(0).getFlatNo());
+		assertEquals(VehicleClass.UNKNOWN, classified.get(2).getClassification());
+
+		vehicleService.flush();
+		TenantContext.bind("parkside");
+		assertEquals(1, vehicleEntryRepository.findAllByPlateOrderByReadAtDesc("MH12AB1234").size());
+		assertEquals(VehicleClass.UNKNOWN, vehicleEntryRepository.findAllByPlateOrderByReadAtDesc("KA01ZZ9999").get(0).getClassification());
+	}
+
+	@Test
+	void badReadsAreRefusedOrLoggedWithoutLosingTheRestOfTheBatch() {
+		TenantContext.bind("lakeside");
+		assertNull(VehicleService.normalisePlate("MH12AB1234KA01ZZ9999"));
+		assertNull(VehicleService.normalisePlate("MH12\u0905B1234"));
+		assertEquals("DL3CAF0001", VehicleService.normalisePlate(" dl-3c af 0001 "));
+
+		PlateReadDTO badCamera = read("GJ05XY4321");
+		badCamera.setCameraId("x".repeat(100));
+		List<PlateClassificationDTO> classified = vehicleService.ingest(List.of(
+				read("MH12AB1234KA01ZZ9999"), badCamera, read("TN09CD5678")));
+		assertNull(classified.get(0).getPlate());
+		assertEquals(VehicleClass.UNKNOWN, classified.get(0).getClassification());
+
+		// The entry that cannot be stored fails alone; the others in its batch are still logged
+		vehicleService.flush();
+		TenantContext.bind("lakeside");
+		assertEquals(1, vehicleEntryRepository.findAllByPlateOrderByReadAtDesc("TN09CD5678").size());
+		assertTrue(vehicleEntryRepository.findAllByPlateOrderByReadAtDesc("GJ05XY4321").isEmpty());
+	}
+
+	private static PlateReadDTO read(String plate) {
+		PlateReadDTO read = new PlateReadDTO();
+		read.setPlate(plate);
+		read.setCameraId("main-gate-in");
+		return read;
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.ReadWriteRoutingDataSource;
+import com.securacore.app.config.ShardRoutingDataSource;
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Analytics.DwellTimeDTO;
+import com.securacore.app.dto.Analytics.RepeatVisitorDTO;
+import com.securacore.app.dto.Analytics.UniqueVisitorsDTO;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.enums.VisitStatus;
+import com.securacore.app.repository.VisitSketchRepository;
+import com.securacore.app.repository.VisitorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class VisitAnalyticsServiceTests {
+
+	@Autowired
+	VisitAnalyticsService visitAnalyticsService;
+
+	@Autowired
+	VisitorRepository visitorRepository;
+
+	@Autowired
+	VisitSketchRepository visitSketchRepository;
+
+	@Autowired
+	FlatRegistry flatRegistry;
+
+	@Autowired
+	ShardRoutingDataSource shardRoutingDataSource;
+
+	// The test replica is empty; marking it as lagging sends the sketch builds to the primary
+	@BeforeEach
+	void routeReadsToPrimary() {
+		setReplicaLag(Long.MAX_VALUE);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		setReplicaLag(0);
+		TenantContext.clear();
+	}
+
+	@Test
+	void answersFromStoredDaySketchesAndRebuildsADayThatChanged() {
+		TenantContext.bind("cedarwood");
+		LocalDate day = LocalDate.now().minusDays(10);
+		saveVisit("Maid", "98450 12345", "E-501", day, 60);
+		saveVisit("Maid", "+91 9845012345", "E-501", day.plusDays(1), 90);
+		saveVisit("Courier", "9000000001", "E-502", day, 10);
+
+		UniqueVisitorsDTO flat = visitAnalyticsService.uniqueVisitors(day, day.plusDays(1), "e-501");
+		assertEquals(2, flat.getVisits());
+		assertEquals(1, flat.getUniqueVisitors());
+		assertEquals(2, visitAnalyticsService.uniqueVisitors(day, day.plusDays(1), null).getUniqueVisitors());
+		assertEquals(2, visitSketchRepository.findAllByFlatIdAndSketchDateBetween(0, day, day.plusDays(1)).size());
+
+		List<RepeatVisitorDTO> repeat = visitAnalyticsService.repeatVisitors(day, day.plusDays(1), 1);
+		assertEquals("9845012345", repeat.get(0).getVisitor());
+		assertEquals(2, repeat.get(0).getVisits());
+
+		DwellTimeDTO dwellTimes = visitAnalyticsService.dwellTimes(day, day.plusDays(1));
+		assertEquals(3, dwellTimes.getVisits());
+		assertEquals(5400, dwellTimes.getMaxSeconds());
+
+		// A late visit saved for a stored day is picked up on the next question
+		saveVisit("Plumber", "9000000002", "E-501", day, 30);
+		assertEquals(2, visitAnalyticsService.uniqueVisitors(day, day.plusDays(1), "E-501").getUniqueVisitors());
+	}
+
+	private void saveVisit(String name, String contact, String flatNo, LocalDate date, int minutes) {
+		Visitor visitor = new Visitor();
+		visitor.setName(name);
+		visitor.setContact(contact);
+		visitor.setFlatNo(flatNo);
+		visitor.setFlatId(flatRegistry.resolve(flatNo));
+		visitor.setVisitDate(date);
+		visitor.setStatus(VisitStatus.APPROVED);
+		visitor.setCheckInTime(date.atTime(10, 0));
+		visitor.setCheckOutTime(date.atTime(10, 0).plusMinutes(minutes));
+		visitorRepository.save(visitor);
+	}
+
+	private void setReplicaLag(long lagMillis) {
+		for (ReadWriteRoutingDataSource shard : shardRoutingDataSource.getShards()) {
+			for (ReadWriteRoutingDataSource.ReplicaTarget replica : shard.getReplicas()) {
+				replica.setLagMillis(lagMillis);
+			}
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.config.TenantFilter;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.enums.VisitStatus;
+import com.securacore.app.repository.VisitorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class VisitVersionsTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	VisitorRepository visitorRepository;
+
+	@Autowired
+	FlatRegistry flatRegistry;
+
+	@Autowired
+	VisitVersions visitVersions;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void unchangedListIsNotModifiedUntilAVisitOfTheFlatChanges() throws Exception {
+		saveVisit("Plumber", "C-303");
+		// Not tagged while a replica may still be missing the change
+		todayVisits(null).andExpect(status().isOk()).andExpect(header().doesNotExist(HttpHeaders.ETAG));
+		String etag = awaitTag();
+
+		todayVisits(etag).andExpect(status().isNotModified()).andExpect(content().string(""));
+
+		// Another flat's visit leaves this flat's list current
+		saveVisit("Courier", "C-304");
+		todayVisits(etag).andExpect(status().isNotModified());
+
+		saveVisit("Electrician", "C-303");
+		todayVisits(etag).andExpect(status().isOk());
+		String changed = awaitTag();
+		assertNotEquals(etag, changed);
+
+		// The nightly purge only drops past dates
+		visitVersions.purge();
+		todayVisits(changed).andExpect(status().isNotModified());
+	}
+
+	@Test
+	void anotherLiveInstanceTurnsTagsOff() throws Exception {
+		saveVisit("Tutor", "C-303");
+		String etag = awaitTag();
+		visitVersions.singleInstanceCheck = true;
+		try {
+			visitVersions.heartbeat();
+			todayVisits(etag).andExpect(status().isNotModified());
+
+			// Changes made through the other instance would never reach this one's versions
+			jdbcTemplate.update("INSERT INTO service_instance (instance_id, last_seen) VALUES (?, ?)", "other", LocalDateTime.now());
+			visitVersions.heartbeat();
+			todayVisits(etag).andExpect(status().isOk()).andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+			jdbcTemplate.update("DELETE FROM service_instance WHERE instance_id = ?", "other");
+			visitVersions.heartbeat();
+			todayVisits(etag).andExpect(status().isNotModified());
+		} finally {
+			visitVersions.singleInstanceCheck = false;
+			visitVersions.heartbeat();
+			jdbcTemplate.update("DELETE FROM service_instance");
+		}
+	}
+
+	private String awaitTag() throws Exception {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (true) {
+			String etag = todayVisits(null).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+			if (etag != null) return etag;
+			assertTrue(System.currentTimeMillis() < deadline, "list was never tagged");
+			Thread.sleep(200);
+		}
+	}
+
+	private ResultActions todayVisits(String ifNoneMatch) throws Exception {
+		MockHttpServletRequestBuilder request = get("/resident/today-visits").param("flatNo", "C-303").header(TenantFilter.SOCIETY_HEADER, "birchwood");
+		if (ifNoneMatch != null) request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		return mockMvc.perform(request);
+	}
+
+	private void saveVisit(String name, String flatNo) {
+		TenantContext.bind("birchwood");
+		try {
+			Visitor visitor = new Visitor();
+			visitor.setName(name);
+			visitor.setFlatNo(flatNo);
+			visitor.setFlatId(flatRegistry.resolve(flatNo));
+			visitor.setVisitDate(LocalDate.now());
+			visitor.setStatus(VisitStatus.PENDING);
+			visitorRepository.save(visitor);
+		} finally {
+			TenantContext.clear();
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.entity.Visitor;
+import com.securacore.app.enums.VisitStatus;
+import com.securacore.app.repository.VisitorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class VisitorExportServiceTests {
+
+	@Autowired
+	VisitorExportService visitorExportService;
+
+	@Autowired
+	VisitorRepository visitorRepository;
+
+	@Autowired
+	FlatRegistry flatRegistry;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void exportsTheFlatsVisitsAsGzippedCsv() throws IOException {
+		TenantContext.bind("oakwood");
+		saveVisit("Sharma, Ravi", "A-101");
+		saveVisit("Courier", "B-202");
+
+		LocalDate today = LocalDate.now();
+		StreamingResponseBody body = visitorExportService.export(today, today, "a 101", null, true);
+		TenantContext.clear();
+
+		// The test replica is empty; an outer read-write transaction keeps the export on the primary
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			try {
+				body.writeTo(out);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+
+		String csv = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(), StandardCharsets.UTF_8);
+		String[] lines = csv.split("\n");
+		assertEquals(2, lines.length);
+		assertTrue(lines[0].startsWith("source,society,id,name"));
+		assertTrue(lines[1].startsWith("VISITOR,oakwood,"));
+		assertTrue(lines[1].contains(",\"Sharma, Ravi\",9000000030,A-101,"));
+	}
+
+	private void saveVisit(String name, String flatNo) {
+		Visitor visitor = new Visitor();
+		visitor.setName(name);
+		visitor.setContact("9000000030");
+		visitor.setFlatNo(FlatRegistry.canonicalCode(flatNo));
+		visitor.setFlatId(flatRegistry.resolve(flatNo));
+		visitor.setVisitDate(LocalDate.now());
+		visitor.setCheckInTime(LocalDateTime.now());
+		visitor.setStatus(VisitStatus.APPROVED);
+		visitorRepository.save(visitor);
+	}
+
+}
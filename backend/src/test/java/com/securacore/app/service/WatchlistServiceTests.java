@@ -0,0 +1,60 @@
+package com.securacore.app.service;
+
+import com.securacore.app.config.TenantContext;
+import com.securacore.app.dto.Watchlist.WatchlistEntryDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class WatchlistServiceTests {
+
+	@Autowired
+	WatchlistService watchlistService;
+
+	@AfterEach
+	void cleanUp() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void screensExactAndNearNamesButPassesUnlistedOnes() {
+		TenantContext.bind("elmwood");
+		assertEquals("3 Watchlist Entries Imported", watchlistService.importEntries(List.of(
+				entry("Rajesh Malhotra", null), entry("Vikram", null), entry("Imran Qureshi", "+91 98765-43210"))));
+		// Also a deletion of "Vikram"; its own near names must still be found
+		watchlistService.addEntry(entry("Vikam", null));
+
+		assertTrue(watchlistService.screen("rajesh  MALHOTRA", null).blocks());
+		assertEquals(WatchlistService.Match.CONTACT, watchlistService.screen("Someone", "9876543210").match());
+
+		WatchlistService.Screening transposed = watchlistService.screen("Rajesh Malhtora", null);
+		assertEquals(WatchlistService.Match.SIMILAR_NAME, transposed.match());
+		assertFalse(transposed.blocks());
+		assertEquals(WatchlistService.Match.SIMILAR_NAME, watchlistService.screen("Vikrum", null).match());
+		assertEquals(WatchlistService.Match.SIMILAR_NAME, watchlistService.screen("Imran Qureshy", null).match());
+		assertEquals("Vikam", watchlistService.screen("Vikamm", null).name());
+
+		assertNull(watchlistService.screen("Suresh Kumar", "9000000070"));
+		assertNull(watchlistService.screen("Rajesh Mehrotra", null));
+		// Other societies have their own lists
+		TenantContext.bind("oakwood");
+		assertNull(watchlistService.screen("Rajesh Malhotra", null));
+	}
+
+	private static WatchlistEntryDTO entry(String name, String contact) {
+		WatchlistEntryDTO entry = new WatchlistEntryDTO();
+		entry.setName(name);
+		entry.setContact(contact);
+		entry.setReason("Test");
+		return entry;
+	}
+}
@@ -0,0 +1,30 @@
+package com.securacore.app.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HeavyHittersTests {
+
+	@Test
+	void dailyRegularsRiseToTheTopOfAMergedRange() {
+		HeavyHitters month = new HeavyHitters(16);
+		for (int day = 0; day < 30; day++) {
+			HeavyHitters today = new HeavyHitters(16);
+			today.add("maid");
+			if (day % 2 == 0) today.add("milkman");
+			for (int i = 0; i < 10; i++) today.add("courier-" + day + "-" + i);
+			month.merge(HeavyHitters.fromBytes(today.toBytes(), 16));
+		}
+
+		List<Map.Entry<String, Long>> top = month.top(2);
+		assertEquals("maid", top.get(0).getKey());
+		assertEquals(30, top.get(0).getValue());
+		assertEquals("milkman", top.get(1).getKey());
+		assertEquals(15, top.get(1).getValue());
+	}
+
+}
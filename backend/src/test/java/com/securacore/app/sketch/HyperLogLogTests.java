@@ -0,0 +1,34 @@
+package com.securacore.app.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTests {
+
+	@Test
+	void countsSmallSetsExactlyAndLargeOnesWithinAFewPercent() {
+		HyperLogLog flat = new HyperLogLog();
+		for (int i = 0; i < 20; i++) flat.add("visitor-" + (i % 7));
+		assertEquals(7, flat.estimate());
+		assertTrue(flat.toBytes().length < 64);
+
+		HyperLogLog society = new HyperLogLog();
+		for (int i = 0; i < 100_000; i++) society.add("visitor-" + i);
+		assertTrue(Math.abs(society.estimate() - 100_000) < 5_000, "estimate: " + society.estimate());
+	}
+
+	@Test
+	void mergedDaysCountVisitorsSeenOnSeveralDaysOnce() {
+		HyperLogLog monday = new HyperLogLog();
+		HyperLogLog tuesday = new HyperLogLog();
+		for (int i = 0; i < 3000; i++) monday.add("visitor-" + i);
+		for (int i = 2000; i < 5000; i++) tuesday.add("visitor-" + i);
+
+		HyperLogLog week = HyperLogLog.fromBytes(monday.toBytes());
+		week.merge(HyperLogLog.fromBytes(tuesday.toBytes()));
+		assertTrue(Math.abs(week.estimate() - 5000) < 250, "estimate: " + week.estimate());
+	}
+
+}
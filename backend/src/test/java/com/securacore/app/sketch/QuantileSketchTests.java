@@ -0,0 +1,30 @@
+package com.securacore.app.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTests {
+
+	@Test
+	void quantilesOfMergedDaysStayWithinOnePercent() {
+		QuantileSketch first = new QuantileSketch();
+		QuantileSketch second = new QuantileSketch();
+		for (int seconds = 1; seconds <= 10_000; seconds++) {
+			(seconds % 2 == 0 ? first : second).add(seconds);
+		}
+
+		QuantileSketch merged = QuantileSketch.fromBytes(first.toBytes());
+		merged.merge(QuantileSketch.fromBytes(second.toBytes()));
+		assertEquals(10_000, merged.count());
+		assertWithinOnePercent(5_000, merged.quantile(0.5));
+		assertWithinOnePercent(9_900, merged.quantile(0.99));
+		assertEquals(10_000, merged.quantile(1));
+	}
+
+	private static void assertWithinOnePercent(double expected, double actual) {
+		assertTrue(Math.abs(actual - expected) <= expected * 0.01, "expected about " + expected + " but was " + actual);
+	}
+
+}
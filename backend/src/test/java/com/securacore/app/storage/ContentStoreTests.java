@@ -0,0 +1,68 @@
+package com.securacore.app.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentStoreTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void storesIdenticalBytesOnceAndDeletesVariantsWithTheBlob() throws IOException {
+		ContentStore store = new ContentStore(dir);
+		byte[] photo = "same photo bytes".getBytes(StandardCharsets.UTF_8);
+
+		ContentStore.Stored first = store.put(new ByteArrayInputStream(photo), 1024);
+		ContentStore.Stored second = store.put(new ByteArrayInputStream(photo), 1024);
+		assertTrue(first.created());
+		assertFalse(second.created());
+		assertEquals(first.hash(), second.hash());
+		assertArrayEquals(photo, Files.readAllBytes(store.pathOf(first.hash())));
+		assertEquals(1, store.hashesOlderThan(Instant.now().plusSeconds(60)).size());
+
+		store.putVariant(first.hash(), "thumb.jpg", out -> out.write(1));
+		store.delete(first.hash());
+		assertFalse(store.contains(first.hash()));
+		assertFalse(Files.exists(store.variantOf(first.hash(), "thumb.jpg")));
+	}
+
+	@Test
+	void storingExistingBytesAgainRestartsTheOrphanGracePeriod() throws IOException {
+		ContentStore store = new ContentStore(dir);
+		byte[] photo = "re-referenced photo".getBytes(StandardCharsets.UTF_8);
+		String hash = store.put(new ByteArrayInputStream(photo), 1024).hash();
+		Files.setLastModifiedTime(store.pathOf(hash), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+		assertEquals(List.of(hash), store.hashesOlderThan(Instant.now().minus(Duration.ofDays(1))));
+
+		assertFalse(store.put(new ByteArrayInputStream(photo), 1024).created());
+		assertTrue(store.hashesOlderThan(Instant.now().minus(Duration.ofDays(1))).isEmpty());
+	}
+
+	@Test
+	void rejectsOversizedUploadsWithoutLeavingPartialFiles() throws IOException {
+		ContentStore store = new ContentStore(dir);
+		assertThrows(ContentStore.TooLargeException.class, () -> store.put(new ByteArrayInputStream(new byte[2048]), 1024));
+		assertTrue(store.hashesOlderThan(Instant.now().plusSeconds(60)).isEmpty());
+		try (var incoming = Files.list(dir.resolve("incoming"))) {
+			assertEquals(0, incoming.count());
+		}
+	}
+
+}